@@ -0,0 +1,232 @@
+package datawave.data.hash;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Builds SnowflakeUIDs for a machine ID from any number of threads without locking. The timestamp and sequence ID of a Snowflake are treated as a single
+ * position, which advances exactly as the {@link SnowflakeUIDBuilder} advances them: the sequence ID counts up and rolls over into the next timestamp. Each
+ * thread reserves a block of positions with a single atomic increment and then hands them out from a thread local range, so threads only touch shared state
+ * once per block.
+ * <p>
+ * The last timestamp reserved is recorded in the {@link FileSnowflakeLease} when one is given, or in the {@link ZkSnowflakeCache} when it is initialized,
+ * before any UID using it is returned. That is the only time a lock is taken. Since threads hold their own blocks, UIDs are unique but only ordered within
+ * each thread.
+ */
+public class ConcurrentSnowflakeUIDBuilder extends AbstractUIDBuilder<SnowflakeUID> {
+
+    private static final Logger LOGGER = Logger.getLogger(ConcurrentSnowflakeUIDBuilder.class);
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private static final int SEQUENCE_BITS = 24;
+    private static final ConcurrentMap<Integer,ConcurrentSnowflakeUIDBuilder> SHARED_BUILDERS = new ConcurrentHashMap<>();
+
+    private final int machineId;
+    private final BigInteger mid;
+    private final FileSnowflakeLease lease;
+    private final int blockSize;
+    private final long initialTid;
+
+    // positions are ((tid - initialTid) << 24) + sid
+    private final AtomicLong nextPosition;
+    private final AtomicLong storedTid = new AtomicLong(-1);
+    private final ThreadLocal<long[]> blocks = ThreadLocal.withInitial(() -> new long[2]);
+
+    private volatile int radix = SnowflakeUID.DEFAULT_RADIX;
+
+    /**
+     * Constructor
+     *
+     * @param machineId
+     *            unique 20-bit machine ID between 0 and 1048575, inclusively
+     */
+    protected ConcurrentSnowflakeUIDBuilder(int machineId) {
+        this(machineId, null, 0, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param lease
+     *            the lease on the machine ID, used to record the timestamps
+     */
+    protected ConcurrentSnowflakeUIDBuilder(FileSnowflakeLease lease) {
+        this(lease.getMachineId(), lease, 0, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param machineId
+     *            unique 20-bit machine ID between 0 and 1048575, inclusively
+     * @param lease
+     *            the lease on the machine ID, or null to record the timestamps in the {@link ZkSnowflakeCache}, if initialized
+     * @param sequenceId
+     *            the initial 24-bit sequence value
+     * @param blockSize
+     *            the number of positions each thread reserves at a time
+     */
+    protected ConcurrentSnowflakeUIDBuilder(int machineId, FileSnowflakeLease lease, int sequenceId, int blockSize) {
+        if ((machineId < 0) || (machineId > SnowflakeUID.MAX_MACHINE_ID)) {
+            throw new IllegalArgumentException("Machine ID must be a value between 0 and " + SnowflakeUID.MAX_MACHINE_ID + ", inclusively");
+        }
+        if ((sequenceId < 0) || (sequenceId > SnowflakeUID.MAX_SEQUENCE_ID)) {
+            throw new IllegalArgumentException("Sequence ID must be a value between 0 and " + SnowflakeUID.MAX_SEQUENCE_ID + ", inclusively");
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive, but was " + blockSize);
+        }
+        if ((lease != null) && (lease.getMachineId() != machineId)) {
+            throw new IllegalArgumentException("Lease " + lease + " is not for machine ID " + machineId);
+        }
+
+        this.machineId = machineId;
+        this.mid = BigInteger.valueOf(machineId);
+        this.lease = lease;
+        this.blockSize = blockSize;
+        this.initialTid = initializeTimestamp();
+        this.nextPosition = new AtomicLong(sequenceId);
+        storeTimestamp(initialTid);
+    }
+
+    /**
+     * Get the builder shared by everything in this JVM generating UIDs for a machine ID, creating it if needed
+     *
+     * @param machineId
+     *            unique 20-bit machine ID between 0 and 1048575, inclusively
+     * @param leaseDirectory
+     *            the directory in which to lease the machine ID, or null to record the timestamps in the {@link ZkSnowflakeCache}, if initialized
+     * @return the shared builder
+     */
+    public static ConcurrentSnowflakeUIDBuilder getSharedInstance(int machineId, String leaseDirectory) {
+        return SHARED_BUILDERS.computeIfAbsent(machineId, id -> {
+            if (null == leaseDirectory) {
+                return new ConcurrentSnowflakeUIDBuilder(id);
+            }
+            try {
+                return new ConcurrentSnowflakeUIDBuilder(FileSnowflakeLease.acquire(new File(leaseDirectory), id));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Unable to lease Snowflake machine ID " + id + " in " + leaseDirectory, e);
+            }
+        });
+    }
+
+    @Override
+    public SnowflakeUID newId(final String... extras) {
+        final long position = nextPosition();
+        final long tid = initialTid + (position >>> SEQUENCE_BITS);
+        final int sid = (int) (position & SnowflakeUID.MAX_SEQUENCE_ID);
+        return new SnowflakeUID(toSnowflake(tid, sid), radix, extras);
+    }
+
+    @Override
+    public SnowflakeUID newId(final byte[] data, final String... extras) {
+        return newId(extras);
+    }
+
+    @Override
+    public SnowflakeUID newId(final Date time, final String... extras) {
+        // Ignoring time to prevent uuid collisions
+        return newId(extras);
+    }
+
+    @Override
+    public SnowflakeUID newId(final byte[] data, final Date time, final String... extras) {
+        return newId(extras);
+    }
+
+    public ConcurrentSnowflakeUIDBuilder setRadix(int radix) {
+        this.radix = radix;
+        return this;
+    }
+
+    public int getMachineId() {
+        return machineId;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentSnowflakeUIDBuilder [initialTimestamp=" + initialTid + ", machineId=" + mid + ", position=" + nextPosition.get() + ", blockSize="
+                        + blockSize + ", radix=" + radix + "]";
+    }
+
+    private long nextPosition() {
+        final long[] block = blocks.get();
+        if (block[0] == block[1]) {
+            final long start = nextPosition.getAndAdd(blockSize);
+            final long end = start + blockSize;
+            // record the last timestamp of the block before handing any of it out
+            final long lastTid = initialTid + ((end - 1) >>> SEQUENCE_BITS);
+            if (lastTid > storedTid.get()) {
+                storeTimestamp(lastTid);
+            }
+            block[0] = start;
+            block[1] = end;
+        }
+        return block[0]++;
+    }
+
+    private BigInteger toSnowflake(long tid, int sid) {
+        // 52-bit timestamp, 20-bit machine ID and 24-bit sequence ID
+        final int high = (int) (tid >>> 20);
+        final long low = (tid << 44) | ((long) machineId << SEQUENCE_BITS) | sid;
+        final byte[] bytes = new byte[12];
+        for (int i = 0; i < 4; i++) {
+            bytes[i] = (byte) (high >>> (24 - (8 * i)));
+        }
+        for (int i = 0; i < 8; i++) {
+            bytes[4 + i] = (byte) (low >>> (56 - (8 * i)));
+        }
+        return new BigInteger(1, bytes);
+    }
+
+    private void storeTimestamp(long tid) {
+        synchronized (storedTid) {
+            if (tid <= storedTid.get()) {
+                return;
+            }
+            if (tid > SnowflakeUID.MAX_TIMESTAMP) {
+                throw new IllegalArgumentException("Max timestamp is " + SnowflakeUID.MAX_TIMESTAMP);
+            }
+            try {
+                if (null != lease) {
+                    lease.store(tid);
+                } else if (ZkSnowflakeCache.isInitialized()) {
+                    ZkSnowflakeCache.store(mid, tid);
+                }
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Caching ts: " + tid + ", mid: " + mid);
+                }
+            } catch (Exception e) {
+                LOGGER.error("Unable to store snowflake timestamp for " + mid, e);
+                throw new RuntimeException(e);
+            }
+            storedTid.set(tid);
+        }
+    }
+
+    private long initializeTimestamp() {
+        long lastCachedTid = 0;
+        try {
+            if (null != lease) {
+                lastCachedTid = lease.getLastCachedTid();
+            } else if (ZkSnowflakeCache.isInitialized()) {
+                lastCachedTid = ZkSnowflakeCache.getLastCachedTid(mid);
+            } else {
+                LOGGER.warn("Attempting to generate snowflake ids without caching could cause uid collisions in the event of clock roll-back");
+            }
+        } catch (Exception e) {
+            LOGGER.error("Unable to retrieve snowflake timestamp for " + mid, e);
+            throw new RuntimeException(e);
+        }
+        return (lastCachedTid > 0) ? lastCachedTid + 1 : System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,172 @@
+package datawave.data.hash;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.log4j.Logger;
+
+/**
+ * A lease on a Snowflake machine ID, held as a lock on a file in a local directory, which also records the last timestamp used with the machine ID. This
+ * takes the place of the {@link ZkSnowflakeCache} on a single node or in tests: two processes sharing the directory can't lease the same machine ID, and a
+ * restarted process continues from the recorded timestamp rather than trusting the clock.
+ * <p>
+ * The lock is released when the lease is closed or the process exits.
+ */
+public class FileSnowflakeLease implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(FileSnowflakeLease.class);
+
+    private final int machineId;
+    private final File file;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+
+    private FileSnowflakeLease(int machineId, File file, FileChannel channel, FileLock lock) {
+        this.machineId = machineId;
+        this.file = file;
+        this.channel = channel;
+        this.lock = lock;
+    }
+
+    /**
+     * Lease a specific machine ID
+     *
+     * @param directory
+     *            the directory holding the lease files
+     * @param machineId
+     *            the machine ID
+     * @return the lease
+     * @throws IOException
+     *             if the lease file can't be opened
+     * @throws IllegalStateException
+     *             if the machine ID is already leased
+     */
+    public static FileSnowflakeLease acquire(File directory, int machineId) throws IOException {
+        FileSnowflakeLease lease = tryAcquire(directory, machineId);
+        if (lease == null) {
+            throw new IllegalStateException("Snowflake machine ID " + machineId + " is already leased in " + directory);
+        }
+        return lease;
+    }
+
+    /**
+     * Lease the first available machine ID in a range
+     *
+     * @param directory
+     *            the directory holding the lease files
+     * @param firstMachineId
+     *            the first machine ID to try
+     * @param lastMachineId
+     *            the last machine ID to try, inclusively
+     * @return the lease
+     * @throws IOException
+     *             if a lease file can't be opened
+     * @throws IllegalStateException
+     *             if every machine ID in the range is already leased
+     */
+    public static FileSnowflakeLease acquire(File directory, int firstMachineId, int lastMachineId) throws IOException {
+        for (int machineId = firstMachineId; machineId <= lastMachineId; machineId++) {
+            FileSnowflakeLease lease = tryAcquire(directory, machineId);
+            if (lease != null) {
+                return lease;
+            }
+        }
+        throw new IllegalStateException("No Snowflake machine ID between " + firstMachineId + " and " + lastMachineId + " is available in " + directory);
+    }
+
+    private static FileSnowflakeLease tryAcquire(File directory, int machineId) throws IOException {
+        if ((machineId < 0) || (machineId > SnowflakeUID.MAX_MACHINE_ID)) {
+            throw new IllegalArgumentException("Machine ID must be a value between 0 and " + SnowflakeUID.MAX_MACHINE_ID + ", inclusively");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Unable to create Snowflake lease directory " + directory);
+        }
+
+        File file = new File(directory, "snowflake-" + machineId + ".lease");
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock lock = null;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // already leased within this JVM
+        } finally {
+            if (lock == null) {
+                channel.close();
+            }
+        }
+
+        if (lock == null) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Snowflake machine ID " + machineId + " is leased by another process");
+            }
+            return null;
+        }
+        return new FileSnowflakeLease(machineId, file, channel, lock);
+    }
+
+    public int getMachineId() {
+        return machineId;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the last timestamp stored with this machine ID, or 0 if none has been
+     * @throws IOException
+     *             if the lease file can't be read
+     */
+    public synchronized long getLastCachedTid() throws IOException {
+        if (channel.size() < Long.BYTES) {
+            return 0;
+        }
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                return 0;
+            }
+        }
+        return buffer.getLong(0);
+    }
+
+    /**
+     * Record the last timestamp used with this machine ID
+     *
+     * @param lastUsedTid
+     *            the timestamp
+     * @throws IOException
+     *             if the lease file can't be written
+     */
+    public synchronized void store(long lastUsedTid) throws IOException {
+        buffer.clear();
+        buffer.putLong(0, lastUsedTid);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, buffer.position());
+        }
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (lock.isValid()) {
+                lock.release();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FileSnowflakeLease [machineId=" + machineId + ", file=" + file + "]";
+    }
+}
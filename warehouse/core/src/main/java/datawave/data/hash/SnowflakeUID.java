@@ -221,6 +221,30 @@ public class SnowflakeUID extends UID {
         return new SnowflakeUIDBuilder(timestamp, machineId, sequenceId);
     }
 
+    /**
+     * Creates a Snowflake-based UID builder which may be shared by any number of threads generating UIDs for the specified machine ID
+     *
+     * @param machineId
+     *            unique ID of the machine responsible for queuing the generation of such UIDs
+     * @return a lock-free builder used for creating Snowflake-based UIDs
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static UIDBuilder<UID> concurrentBuilder(int machineId) {
+        return (UIDBuilder) new ConcurrentSnowflakeUIDBuilder(machineId);
+    }
+
+    /**
+     * Creates a Snowflake-based UID builder which may be shared by any number of threads generating UIDs for a leased machine ID
+     *
+     * @param lease
+     *            the lease on the machine ID, which records the timestamps used
+     * @return a lock-free builder used for creating Snowflake-based UIDs
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static UIDBuilder<UID> concurrentBuilder(FileSnowflakeLease lease) {
+        return (UIDBuilder) new ConcurrentSnowflakeUIDBuilder(lease);
+    }
+
     @Override
     public int compareTo(final UID uid) {
         int result;
@@ -210,13 +210,19 @@ public abstract class UID implements Comparable<UID>, Comparator<UID>, Writable,
         } else if (SnowflakeUID.class.getSimpleName().equals(type)) {
             int machineId = config.getInt(CONFIG_MACHINE_ID_KEY, -1);
             if (machineId >= 0) {
+                boolean concurrent = config.getBoolean("snowflake.concurrent.enabled", false);
                 if (config.getBoolean("snowflake.zookeeper.enabled", false)) {
                     ZkSnowflakeCache.init(config.get("snowflake.zookeepers"), config.getInt("snowflake.zk.init.retries", 5),
                                     config.getInt("snowflake.zk.init.sleep", 1000));
-                } else {
+                } else if (!concurrent) {
                     LOGGER.warn("Attempting to generate snowflake ids without caching could cause uid collisions in the event of clock roll-back");
                 }
-                builder = (UIDBuilder) SnowflakeUID.builder(machineId);
+                if (concurrent) {
+                    // one lock-free builder is shared by every thread using the machine ID
+                    builder = (UIDBuilder) ConcurrentSnowflakeUIDBuilder.getSharedInstance(machineId, config.get("snowflake.lease.dir"));
+                } else {
+                    builder = (UIDBuilder) SnowflakeUID.builder(machineId);
+                }
             } else {
                 final String message = "A 20-bit, non-negative, integer Machine ID must be configured with the " + CONFIG_MACHINE_ID_KEY
                                 + " property key in order to build " + SnowflakeUID.class.getSimpleName() + "s";
@@ -2,7 +2,6 @@ package datawave.edge.util;
 
 import java.nio.charset.CharacterCodingException;
 import java.util.AbstractList;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -485,6 +484,9 @@ public class EdgeKey {
 
     static final byte[] STATS_BYTES = STATS_COLF.getBytes();
 
+    // the encoder reuses its buffers, so keep one per thread
+    private static final ThreadLocal<EdgeKeyEncoder> ENCODER = ThreadLocal.withInitial(EdgeKeyEncoder::new);
+
     private static final int SOURCE_INDEX = 0;
     private static final int SINK_INDEX = 1;
 
@@ -839,75 +841,7 @@ public class EdgeKey {
     }
 
     private Key encode(EDGE_VERSION version) {
-        Text rowid = null;
-        Text colf = null;
-        Text colq = null;
-        Text colvis = null;
-        boolean deleted = false;
-        long timestamp = Long.MAX_VALUE;
-
-        List<String> parts = new ArrayList<>(version.getTotalColPieces());
-        for (int ii = 0; ii < version.getTotalColPieces(); ii++) {
-            parts.add("null");
-        }
-
-        // row id
-        StringBuilder rowsb = new StringBuilder();
-        if (this.format == EDGE_FORMAT.STATS) {
-            rowsb.append(this.getSourceData());
-            parts.set(0, STATS_COLF);
-            parts.set(version.getStatsTypeIndex(), this.getStatsType().name());
-        } else if (this.format == EDGE_FORMAT.STANDARD) {
-            rowsb.append(this.getSourceData()).append("\0").append(this.getSinkData());
-        } else {
-            throw new IllegalStateException("Invalid Edge Type encountered: " + this.format);
-        }
-        rowid = new Text(rowsb.toString());
-
-        // populate the parts array according to the version
-        parts.set(version.getTypeIndex(), this.getType());
-        parts.set(version.getRelationshipIndex(), this.getRelationship());
-        parts.set(version.getCategoryIndex(), this.getAttribute1());
-        parts.set(version.getYMDIndex(), this.getYyyymmdd());
-        if (version.hasAttribute2()) {
-            parts.set(version.getAttribute2Index(), this.getAttribute2());
-        }
-        ;
-        if (version.hasAttribute3()) {
-            parts.set(version.getAttribute3Index(), this.getAttribute3());
-        }
-        ;
-        if (version.getDateTypeIndex() >= 0) {
-            parts.set(version.getDateTypeIndex(), this.getDateType().toString());
-        }
-
-        // serialize the colf
-        StringBuilder colsb = new StringBuilder(parts.get(0));
-        for (int ii = 1; ii < version.getNumColfPieces(); ii++) {
-            colsb.append(COL_SEPARATOR).append(parts.get(ii));
-        }
-        colf = new Text(colsb.toString());
-
-        // serialize the colq
-        colsb = new StringBuilder(parts.get(version.getNumColfPieces()));
-        for (int ii = version.getNumColfPieces() + 1; ii < version.getTotalColPieces(); ii++) {
-            colsb.append(COL_SEPARATOR).append(parts.get(ii));
-        }
-        colq = new Text(colsb.toString());
-
-        // colvis
-        colvis = new Text(this.getColvis());
-
-        // timestamp
-        timestamp = this.getTimestamp();
-
-        // deleted
-        deleted = this.isDeleted();
-
-        Key key = new Key(rowid, colf, colq, colvis, timestamp);
-        key.setDeleted(deleted);
-
-        return key;
+        return ENCODER.get().encode(this, version);
     }
 
     /**
@@ -1204,17 +1138,6 @@ public class EdgeKey {
      * @return the date type of this accumulo edge key
      */
     public static DATE_TYPE getDateType(Key key) {
-
-        EdgeColumnParts parts = new EdgeColumnParts(key);
-
-        EDGE_VERSION version = EDGE_VERSION.getEdgeVersion(parts);
-
-        if (version == EDGE_VERSION.DATE_STATS_PROTOBUF) {
-            return DATE_TYPE.parse(parts.get(8));
-        } else if (version == EDGE_VERSION.DATE_PROTOBUF) {
-            return DATE_TYPE.parse(parts.get(6));
-        } else {
-            return DATE_TYPE.OLD_EVENT;
-        }
+        return new EdgeKeyView().set(key).getDateType();
     }
 }
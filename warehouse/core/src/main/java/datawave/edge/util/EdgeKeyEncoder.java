@@ -0,0 +1,181 @@
+package datawave.edge.util;
+
+import static datawave.edge.util.EdgeKey.COL_SEPARATOR_BYTE;
+import static datawave.edge.util.EdgeKey.COL_SUB_SEPARATOR;
+import static datawave.edge.util.EdgeKey.DATE_TYPE;
+import static datawave.edge.util.EdgeKey.EDGE_FORMAT;
+import static datawave.edge.util.EdgeKey.EDGE_VERSION;
+import static datawave.edge.util.EdgeKey.STATS_BYTES;
+import static datawave.edge.util.EdgeKey.STATS_TYPE;
+
+import java.util.Arrays;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.hadoop.io.Text;
+
+/**
+ * Encodes an {@link EdgeKey} into an edge table {@link Key}, writing the UTF-8 bytes of each part straight into reusable buffers rather than concatenating
+ * Strings and encoding them again for every column. The bytes are the same as those written by {@link EdgeKey#encode()}, including the replacement of
+ * malformed characters done by {@link Text}.
+ * <p>
+ * An encoder may be reused for any number of keys, but is not thread safe.
+ */
+public class EdgeKeyEncoder {
+
+    private static final byte NULL_BYTE = 0;
+
+    private final Buffer row = new Buffer();
+    private final Buffer colf = new Buffer();
+    private final Buffer colq = new Buffer();
+    private final Buffer colvis = new Buffer();
+
+    /**
+     * Encode the key in the format used by {@link EdgeKey#encode()}
+     *
+     * @param edgeKey
+     *            the edge key
+     * @return a key for the Datawave edge table
+     */
+    public Key encode(EdgeKey edgeKey) {
+        if (edgeKey.getDateType() == DATE_TYPE.OLD_EVENT) {
+            return encode(edgeKey, edgeKey.getFormat() == EDGE_FORMAT.STATS ? EDGE_VERSION.STATS_PROTOBUF : EDGE_VERSION.PROTOBUF);
+        }
+        return encode(edgeKey, edgeKey.getFormat() == EDGE_FORMAT.STATS ? EDGE_VERSION.DATE_STATS_PROTOBUF : EDGE_VERSION.DATE_PROTOBUF);
+    }
+
+    /**
+     * Encode the key in the layout of the given version
+     *
+     * @param edgeKey
+     *            the edge key
+     * @param version
+     *            the version of the edge key layout
+     * @return a key for the Datawave edge table
+     */
+    public Key encode(EdgeKey edgeKey, EDGE_VERSION version) {
+        EDGE_FORMAT format = edgeKey.getFormat();
+        if (format != EDGE_FORMAT.STATS && format != EDGE_FORMAT.STANDARD) {
+            throw new IllegalStateException("Can't encode unknown edge key format." + edgeKey);
+        }
+
+        row.clear();
+        row.write(edgeKey.getSourceData());
+        if (format == EDGE_FORMAT.STANDARD) {
+            row.write(NULL_BYTE);
+            row.write(edgeKey.getSinkData());
+        }
+
+        colf.clear();
+        colq.clear();
+        for (int i = 0; i < version.getTotalColPieces(); i++) {
+            Buffer column = i < version.getNumColfPieces() ? colf : colq;
+            if (i != 0 && i != version.getNumColfPieces()) {
+                column.write(COL_SEPARATOR_BYTE);
+            }
+            writePart(column, edgeKey, version, i);
+        }
+
+        Text visibility = edgeKey.getColvis();
+        colvis.clear();
+        colvis.write(visibility.getBytes(), visibility.getLength());
+
+        Key key = new Key(row.bytes, 0, row.length, colf.bytes, 0, colf.length, colq.bytes, 0, colq.length, colvis.bytes, 0, colvis.length,
+                        edgeKey.getTimestamp());
+        key.setDeleted(edgeKey.isDeleted());
+        return key;
+    }
+
+    private void writePart(Buffer column, EdgeKey edgeKey, EDGE_VERSION version, int index) {
+        boolean stats = edgeKey.getFormat() == EDGE_FORMAT.STATS;
+        // the later assignments win, as they do in EdgeKey
+        if (index == version.getDateTypeIndex()) {
+            column.write(edgeKey.getDateType().toString());
+        } else if (version.hasAttribute3() && index == version.getAttribute3Index()) {
+            column.write(edgeKey.getAttribute3());
+        } else if (version.hasAttribute2() && index == version.getAttribute2Index()) {
+            column.write(edgeKey.getAttribute2());
+        } else if (index == version.getYMDIndex()) {
+            column.write(edgeKey.getYyyymmdd());
+        } else if (index == version.getCategoryIndex()) {
+            column.write(edgeKey.getSourceAttribute1());
+            if (!stats || edgeKey.getStatsType() == STATS_TYPE.LINKS) {
+                column.write((byte) COL_SUB_SEPARATOR);
+                column.write(edgeKey.getSinkAttribute1());
+            }
+        } else if (index == version.getRelationshipIndex()) {
+            column.write(edgeKey.getSourceRelationship());
+            if (!stats) {
+                column.write((byte) COL_SUB_SEPARATOR);
+                column.write(edgeKey.getSinkRelationship());
+            }
+        } else if (index == version.getTypeIndex()) {
+            column.write(edgeKey.getType());
+        } else if (stats && index == version.getStatsTypeIndex()) {
+            column.write(edgeKey.getStatsType().name());
+        } else if (stats && index == 0) {
+            column.write(STATS_BYTES, STATS_BYTES.length);
+        } else {
+            column.write("null");
+        }
+    }
+
+    /**
+     * A growable byte buffer which writes Strings as UTF-8 without creating intermediate arrays
+     */
+    private static class Buffer {
+        private byte[] bytes = new byte[64];
+        private int length = 0;
+
+        void clear() {
+            length = 0;
+        }
+
+        void write(byte b) {
+            ensureCapacity(1);
+            bytes[length++] = b;
+        }
+
+        void write(byte[] b, int len) {
+            ensureCapacity(len);
+            System.arraycopy(b, 0, bytes, length, len);
+            length += len;
+        }
+
+        void write(String s) {
+            if (s == null) {
+                // as appended by a StringBuilder
+                s = "null";
+            }
+            int size = s.length();
+            ensureCapacity(size * 3);
+            for (int i = 0; i < size; i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    bytes[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[length++] = (byte) (0xc0 | (c >> 6));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                    bytes[length++] = (byte) (0xf0 | (codePoint >> 18));
+                    bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                    bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                    bytes[length++] = (byte) (0x80 | (codePoint & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    // an unpaired surrogate is replaced, as Text does
+                    bytes[length++] = '?';
+                } else {
+                    bytes[length++] = (byte) (0xe0 | (c >> 12));
+                    bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(length + extra, bytes.length * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package datawave.edge.util;
+
+import static datawave.edge.util.EdgeKey.COL_SEPARATOR_BYTE;
+import static datawave.edge.util.EdgeKey.COL_SUB_SEPARATOR;
+import static datawave.edge.util.EdgeKey.DATE_TYPE;
+import static datawave.edge.util.EdgeKey.EDGE_FORMAT;
+import static datawave.edge.util.EdgeKey.EDGE_VERSION;
+import static datawave.edge.util.EdgeKey.STATS_BYTES;
+import static datawave.edge.util.EdgeKey.STATS_TYPE;
+
+import java.nio.charset.CharacterCodingException;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.hadoop.io.Text;
+
+/**
+ * A reusable view over the parts of an edge table {@link Key}. Unlike the {@link EdgeKeyDecoder}, nothing is decoded when the view is {@link #set(Key)}: the
+ * separators are located the first time a part is needed, the format, version, stats type and date type are determined by comparing bytes, and the other parts
+ * are only decoded into Strings when asked for. Iterators which look at a few parts of every key should use this rather than decoding each key into an
+ * {@link EdgeKey}.
+ * <p>
+ * The source and sink are left as they are in the row, as with {@link EdgeKey#decodeForInternal(Key)}. A view is not thread safe.
+ */
+public class EdgeKeyView {
+
+    private static final int MAX_PARTS = 9;
+    private static final byte[][] STATS_TYPE_BYTES = new byte[STATS_TYPE.values().length][];
+
+    static {
+        for (STATS_TYPE statsType : STATS_TYPE.values()) {
+            STATS_TYPE_BYTES[statsType.ordinal()] = statsType.name().getBytes();
+        }
+    }
+
+    private Key key;
+    private ByteSequence row;
+    private ByteSequence colf;
+    private ByteSequence colq;
+
+    // the part boundaries across the colf and colq, as offsets into their backing arrays
+    private final byte[][] partBytes = new byte[MAX_PARTS][];
+    private final int[] partStarts = new int[MAX_PARTS];
+    private final int[] partEnds = new int[MAX_PARTS];
+    private final String[] partStrings = new String[MAX_PARTS];
+    private int numParts = -1;
+
+    private EDGE_VERSION version;
+    private int nullPos = -2;
+    private String sourceData;
+    private String sinkData;
+
+    /**
+     * Point the view at a key, discarding everything found from the previous one
+     *
+     * @param key
+     *            a key from the Datawave edge table
+     * @return this view
+     */
+    public EdgeKeyView set(Key key) {
+        this.key = key;
+        this.row = key.getRowData();
+        this.colf = key.getColumnFamilyData();
+        this.colq = key.getColumnQualifierData();
+        this.numParts = -1;
+        this.version = null;
+        this.nullPos = -2;
+        this.sourceData = null;
+        this.sinkData = null;
+        for (int i = 0; i < MAX_PARTS; i++) {
+            partStrings[i] = null;
+        }
+        return this;
+    }
+
+    public Key getKey() {
+        return key;
+    }
+
+    /**
+     * @return STATS if the column family starts with the stats prefix, STANDARD otherwise, as determined by {@link EdgeKeyDecoder#determineEdgeFormat(Text)}
+     */
+    public EDGE_FORMAT getFormat() {
+        if (colf.length() < STATS_BYTES.length) {
+            return EDGE_FORMAT.STANDARD;
+        }
+        byte[] bytes = colf.getBackingArray();
+        int offset = colf.offset();
+        for (int i = 0; i < STATS_BYTES.length; i++) {
+            if (bytes[offset + i] != STATS_BYTES[i]) {
+                return EDGE_FORMAT.STANDARD;
+            }
+        }
+        return EDGE_FORMAT.STATS;
+    }
+
+    /**
+     * @return the version of the key layout, or UNKNOWN if the columns do not hold a known number of parts
+     */
+    public EDGE_VERSION getVersion() {
+        if (version == null) {
+            version = findVersion();
+        }
+        return version;
+    }
+
+    private EDGE_VERSION findVersion() {
+        int n = getNumParts();
+        if (n < 4 || n > MAX_PARTS) {
+            return EDGE_VERSION.UNKNOWN;
+        }
+        if (partEquals(0, STATS_BYTES)) {
+            switch (n) {
+                case 6:
+                    return EDGE_VERSION.STATS_BASE;
+                case 7:
+                    return EDGE_VERSION.STATS_ATTRIBUTE2;
+                case 8:
+                    return EDGE_VERSION.STATS_PROTOBUF;
+                case 9:
+                    return EDGE_VERSION.DATE_STATS_PROTOBUF;
+                default:
+                    return EDGE_VERSION.UNKNOWN;
+            }
+        }
+        switch (n) {
+            case 4:
+                return EDGE_VERSION.BASE;
+            case 5:
+                return EDGE_VERSION.BASE_ATTRIBUTE2;
+            case 6:
+                return EDGE_VERSION.PROTOBUF;
+            case 7:
+                return EDGE_VERSION.DATE_PROTOBUF;
+            default:
+                return EDGE_VERSION.UNKNOWN;
+        }
+    }
+
+    /**
+     * @param statsType
+     *            a stats type
+     * @return true if this is a stats key of the given type
+     */
+    public boolean isStatsType(STATS_TYPE statsType) {
+        return getNumParts() > 1 && partEquals(0, STATS_BYTES) && partEquals(1, STATS_TYPE_BYTES[statsType.ordinal()]);
+    }
+
+    /**
+     * @return the stats type of a stats key
+     * @throws EnumConstantNotPresentException
+     *             if the key does not hold a known stats type, as {@link STATS_TYPE#getStatsType(String)} does
+     */
+    public STATS_TYPE getStatsType() {
+        if (getNumParts() > 1) {
+            for (STATS_TYPE statsType : STATS_TYPE.values()) {
+                if (partEquals(1, STATS_TYPE_BYTES[statsType.ordinal()])) {
+                    return statsType;
+                }
+            }
+        }
+        throw new EnumConstantNotPresentException(STATS_TYPE.class, getNumParts() > 1 ? getPart(1) : null);
+    }
+
+    /**
+     * @return the date type of the key, OLD_EVENT if the version does not hold one, or null if it holds an unknown one
+     */
+    public DATE_TYPE getDateType() {
+        int index = getVersion().getDateTypeIndex();
+        if (index < 0) {
+            return DATE_TYPE.OLD_EVENT;
+        }
+        for (DATE_TYPE dateType : DATE_TYPE.values()) {
+            if (partEquals(index, dateType.abbreviation)) {
+                return dateType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the source as it is in the row
+     */
+    public String getSourceData() {
+        if (sourceData == null) {
+            int pos = getNullPos();
+            sourceData = (getFormat() == EDGE_FORMAT.STATS || pos <= 0) ? decode(row, 0, row.length()) : decode(row, 0, pos);
+        }
+        return sourceData;
+    }
+
+    /**
+     * @return the sink as it is in the row, an empty String for a stats key, or null if the row holds no sink
+     */
+    public String getSinkData() {
+        if (sinkData == null) {
+            if (getFormat() == EDGE_FORMAT.STATS) {
+                return "";
+            }
+            int pos = getNullPos();
+            if (pos <= 0) {
+                return null;
+            }
+            sinkData = decode(row, pos + 1, row.length());
+        }
+        return sinkData;
+    }
+
+    public String getType() {
+        return getPart(getVersion().getTypeIndex());
+    }
+
+    /**
+     * @return the relationship as written, with the source and sink relationships joined for a standard key
+     */
+    public String getRelationship() {
+        return getPart(getVersion().getRelationshipIndex());
+    }
+
+    public String getSourceRelationship() {
+        return getSourcePiece(getRelationship());
+    }
+
+    public String getSinkRelationship() {
+        return getSinkPiece(getRelationship());
+    }
+
+    /**
+     * @return the attribute1 as written, with the source and sink attributes joined for a standard key
+     */
+    public String getAttribute1() {
+        return getPart(getVersion().getCategoryIndex());
+    }
+
+    public String getSourceAttribute1() {
+        return getSourcePiece(getAttribute1());
+    }
+
+    public String getSinkAttribute1() {
+        return getSinkPiece(getAttribute1());
+    }
+
+    public String getAttribute2() {
+        return getVersion().hasAttribute2() ? getPart(getVersion().getAttribute2Index()) : "";
+    }
+
+    public String getAttribute3() {
+        return getVersion().hasAttribute3() ? getPart(getVersion().getAttribute3Index()) : "";
+    }
+
+    public String getYyyymmdd() {
+        return getPart(getVersion().getYMDIndex());
+    }
+
+    public long getTimestamp() {
+        return key.getTimestamp();
+    }
+
+    public boolean isDeleted() {
+        return key.isDeleted();
+    }
+
+    private String getSourcePiece(String joined) {
+        if (joined == null || getVersion().getFormat() == EDGE_FORMAT.STATS) {
+            return joined;
+        }
+        int sep = joined.indexOf(COL_SUB_SEPARATOR);
+        return sep < 0 ? joined : joined.substring(0, sep);
+    }
+
+    private String getSinkPiece(String joined) {
+        if (joined == null || getVersion().getFormat() == EDGE_FORMAT.STATS) {
+            return null;
+        }
+        int sep = joined.indexOf(COL_SUB_SEPARATOR);
+        if (sep < 0) {
+            return null;
+        }
+        int end = joined.indexOf(COL_SUB_SEPARATOR, sep + 1);
+        return end < 0 ? joined.substring(sep + 1) : joined.substring(sep + 1, end);
+    }
+
+    private int getNullPos() {
+        if (nullPos == -2) {
+            if (row.length() == 0) {
+                throw new IllegalStateException("Invalid row identifier");
+            }
+            nullPos = -1;
+            byte[] bytes = row.getBackingArray();
+            int offset = row.offset();
+            for (int i = 0; i < row.length(); i++) {
+                if (bytes[offset + i] == 0) {
+                    nullPos = i;
+                    break;
+                }
+            }
+        }
+        return nullPos;
+    }
+
+    private int getNumParts() {
+        if (numParts < 0) {
+            numParts = 0;
+            findParts(colf);
+            findParts(colq);
+        }
+        return numParts;
+    }
+
+    private void findParts(ByteSequence column) {
+        byte[] bytes = column.getBackingArray();
+        int start = column.offset();
+        int end = start + column.length();
+        for (int i = start; i <= end; i++) {
+            if (i == end || bytes[i] == COL_SEPARATOR_BYTE) {
+                // count any parts beyond the maximum so the version is unknown
+                if (numParts < MAX_PARTS) {
+                    partBytes[numParts] = bytes;
+                    partStarts[numParts] = start;
+                    partEnds[numParts] = i;
+                }
+                numParts++;
+                start = i + 1;
+            }
+        }
+    }
+
+    private String getPart(int index) {
+        if (index < 0 || index >= Math.min(getNumParts(), MAX_PARTS)) {
+            return null;
+        }
+        if (partStrings[index] == null) {
+            partStrings[index] = decode(partBytes[index], partStarts[index], partEnds[index]);
+        }
+        return partStrings[index];
+    }
+
+    private boolean partEquals(int index, byte[] value) {
+        int start = partStarts[index];
+        if (partEnds[index] - start != value.length) {
+            return false;
+        }
+        byte[] bytes = partBytes[index];
+        for (int i = 0; i < value.length; i++) {
+            if (bytes[start + i] != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean partEquals(int index, String asciiValue) {
+        int start = partStarts[index];
+        if (partEnds[index] - start != asciiValue.length()) {
+            return false;
+        }
+        byte[] bytes = partBytes[index];
+        for (int i = 0; i < asciiValue.length(); i++) {
+            if (bytes[start + i] != asciiValue.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String decode(ByteSequence sequence, int start, int end) {
+        return decode(sequence.getBackingArray(), sequence.offset() + start, sequence.offset() + end);
+    }
+
+    private static String decode(byte[] bytes, int start, int end) {
+        try {
+            return Text.decode(bytes, start, end - start);
+        } catch (CharacterCodingException e) {
+            // same behavior as EdgeKey.getParts
+            throw new RuntimeException("Edge key column encoding exception", e);
+        }
+    }
+}
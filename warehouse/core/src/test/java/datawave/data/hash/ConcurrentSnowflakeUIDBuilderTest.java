@@ -0,0 +1,137 @@
+package datawave.data.hash;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ConcurrentSnowflakeUIDBuilderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testUniqueAcrossThreads() throws Exception {
+        final ConcurrentSnowflakeUIDBuilder builder = new ConcurrentSnowflakeUIDBuilder(1234, null, 0, 16);
+        final Set<String> uids = ConcurrentHashMap.newKeySet();
+        final int threads = 8;
+        final int perThread = 20000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    SnowflakeUID previous = null;
+                    for (int j = 0; j < perThread; j++) {
+                        SnowflakeUID uid = builder.newId();
+                        assertEquals(1234, uid.getMachineId());
+                        if (previous != null) {
+                            // ordered within a thread
+                            assertTrue(previous.compareTo(uid) < 0);
+                        }
+                        uids.add(uid.toString());
+                        previous = uid;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        assertEquals(threads * perThread, uids.size());
+    }
+
+    @Test
+    public void testSequenceRollsIntoTimestamp() {
+        ConcurrentSnowflakeUIDBuilder builder = new ConcurrentSnowflakeUIDBuilder(10, null, SnowflakeUID.MAX_SEQUENCE_ID - 1, 4);
+        SnowflakeUID first = builder.newId();
+        SnowflakeUID second = builder.newId();
+        SnowflakeUID third = builder.newId();
+
+        assertEquals(SnowflakeUID.MAX_SEQUENCE_ID - 1, first.getSequenceId());
+        assertEquals(SnowflakeUID.MAX_SEQUENCE_ID, second.getSequenceId());
+        assertEquals(first.getTimestamp(), second.getTimestamp());
+        assertEquals(0, third.getSequenceId());
+        assertEquals(first.getTimestamp() + 1, third.getTimestamp());
+        assertEquals(10, third.getMachineId());
+    }
+
+    @Test
+    public void testMatchesSnowflakeUIDBuilder() {
+        ConcurrentSnowflakeUIDBuilder builder = new ConcurrentSnowflakeUIDBuilder(SnowflakeUID.MAX_MACHINE_ID, null, 5, 4);
+        SnowflakeUID uid = builder.newId("extra");
+        SnowflakeUID expected = SnowflakeUID.builder(uid.getTimestamp(), SnowflakeUID.MAX_MACHINE_ID, 5).newId("extra");
+        // the timestamp is always reinitialized by the old builder, so only compare the parts
+        assertEquals(SnowflakeUID.MAX_MACHINE_ID, uid.getMachineId());
+        assertEquals(expected.getMachineId(), uid.getMachineId());
+        assertEquals(expected.getSequenceId(), uid.getSequenceId());
+        assertEquals(expected.getExtra(), uid.getExtra());
+        assertEquals(uid, SnowflakeUID.parse(uid.toString()));
+    }
+
+    @Test
+    public void testLease() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        long lastTimestamp;
+        try (FileSnowflakeLease lease = FileSnowflakeLease.acquire(directory, 7)) {
+            assertEquals(0, lease.getLastCachedTid());
+            try {
+                FileSnowflakeLease.acquire(directory, 7);
+                fail("Machine ID should already be leased");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            try (FileSnowflakeLease other = FileSnowflakeLease.acquire(directory, 7, 9)) {
+                assertEquals(8, other.getMachineId());
+            }
+
+            ConcurrentSnowflakeUIDBuilder builder = new ConcurrentSnowflakeUIDBuilder(lease);
+            SnowflakeUID uid = builder.newId();
+            lastTimestamp = uid.getTimestamp();
+            assertEquals(lastTimestamp, lease.getLastCachedTid());
+        }
+
+        // a restarted process continues after the recorded timestamp
+        try (FileSnowflakeLease lease = FileSnowflakeLease.acquire(directory, 7)) {
+            lease.store(lastTimestamp + 1000);
+            SnowflakeUID uid = new ConcurrentSnowflakeUIDBuilder(lease).newId();
+            assertEquals(lastTimestamp + 1001, uid.getTimestamp());
+        }
+    }
+
+    @Test
+    public void testConfiguredBuilder() throws Exception {
+        Configuration conf = new Configuration();
+        conf.set(UIDConstants.CONFIG_UID_TYPE_KEY, SnowflakeUID.class.getSimpleName());
+        conf.set(UIDConstants.CONFIG_MACHINE_ID_KEY, "4321");
+        conf.setBoolean("snowflake.concurrent.enabled", true);
+        conf.set("snowflake.lease.dir", temporaryFolder.newFolder().getPath());
+
+        UIDBuilder<UID> builder = UID.builder(conf);
+        assertEquals(ConcurrentSnowflakeUIDBuilder.class, builder.getClass());
+        assertEquals(builder, UID.builder(conf));
+        SnowflakeUID uid = (SnowflakeUID) builder.newId();
+        assertEquals(4321, uid.getMachineId());
+        assertNotEquals(uid, builder.newId());
+    }
+}
@@ -0,0 +1,55 @@
+package datawave.data.hash;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the {@link SnowflakeUIDBuilder}, which locks for every UID, with the {@link ConcurrentSnowflakeUIDBuilder} when many threads share one builder.
+ * This is not run with the unit tests; run the main method to benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class SnowflakeUIDBuilderBenchmark {
+
+    private SnowflakeUIDBuilder synchronizedBuilder;
+    private ConcurrentSnowflakeUIDBuilder concurrentBuilder;
+
+    @Setup
+    public void setup() {
+        synchronizedBuilder = SnowflakeUID.builder(1);
+        concurrentBuilder = new ConcurrentSnowflakeUIDBuilder(2);
+    }
+
+    @Benchmark
+    public SnowflakeUID synchronizedBuilder() {
+        return synchronizedBuilder.newId();
+    }
+
+    @Benchmark
+    public SnowflakeUID concurrentBuilder() {
+        return concurrentBuilder.newId();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SnowflakeUIDBuilderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,166 @@
+package datawave.edge.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+
+public class EdgeKeyViewTest {
+
+    private static final String CHARS = "abcXYZ019_.:éß中";
+    private static final String ODD_CHARS = "/-\0😀𐀀";
+
+    private final Random random = new Random(814);
+    private final EdgeTableTestKeyHelper testKeyHelper = new EdgeTableTestKeyHelper();
+
+    @Test
+    public void testReferenceKeys() {
+        EdgeKeyView view = new EdgeKeyView();
+        for (Key key : new Key[] {testKeyHelper.refBase, testKeyHelper.refBaseAttribute2, testKeyHelper.refProtobuf, testKeyHelper.refDateProtobuf,
+                testKeyHelper.refStatsBase, testKeyHelper.refStatsAttribute2, testKeyHelper.refStatsProtobuf, testKeyHelper.refStatsDateProtobuf}) {
+            assertMatchesDecoder(view.set(key), key);
+        }
+    }
+
+    @Test
+    public void testMatchesDecoder() {
+        EdgeKeyView view = new EdgeKeyView();
+        for (int i = 0; i < 2000; i++) {
+            EdgeKey edgeKey = randomEdgeKey(CHARS);
+            for (Key key : encodeAll(edgeKey)) {
+                assertMatchesDecoder(view.set(key), key);
+            }
+        }
+    }
+
+    @Test
+    public void testEncoderMatchesText() {
+        EdgeKeyEncoder encoder = new EdgeKeyEncoder();
+        for (int i = 0; i < 2000; i++) {
+            EdgeKey edgeKey = randomEdgeKey(CHARS + ODD_CHARS);
+            for (EdgeKey.EDGE_VERSION version : EdgeKey.EDGE_VERSION.values()) {
+                if (version == EdgeKey.EDGE_VERSION.UNKNOWN) {
+                    continue;
+                }
+                Key expected = referenceEncode(edgeKey, version);
+                Key actual = encoder.encode(edgeKey, version);
+                assertEquals(expected, actual);
+                assertEquals(expected.isDeleted(), actual.isDeleted());
+            }
+        }
+    }
+
+    @Test
+    public void testStatsType() {
+        EdgeKeyView view = new EdgeKeyView();
+        view.set(testKeyHelper.refStatsProtobuf);
+        assertTrue(view.isStatsType(view.getStatsType()));
+        assertFalse(view.set(testKeyHelper.refProtobuf).isStatsType(EdgeKey.STATS_TYPE.LINKS));
+        assertFalse(view.set(new Key("row", "STATS")).isStatsType(EdgeKey.STATS_TYPE.LINKS));
+        assertEquals(EdgeKey.EDGE_VERSION.UNKNOWN, view.set(new Key("row", "a/b/c/d/e/f", "g/h/i/j")).getVersion());
+        assertEquals(EdgeKey.DATE_TYPE.OLD_EVENT, view.getDateType());
+    }
+
+    private void assertMatchesDecoder(EdgeKeyView view, Key key) {
+        EdgeKey expected = EdgeKey.decodeForInternal(key);
+        String message = key.toString();
+        assertEquals(message, expected.getFormat(), view.getFormat());
+        assertEquals(message, expected.getSourceData(), view.getSourceData());
+        assertEquals(message, expected.getSinkData(), view.getSinkData());
+        assertEquals(message, expected.getType(), view.getType());
+        assertEquals(message, expected.getSourceRelationship(), view.getSourceRelationship());
+        assertEquals(message, expected.getSourceAttribute1(), view.getSourceAttribute1());
+        if (expected.getFormat() == EdgeKey.EDGE_FORMAT.STANDARD) {
+            assertEquals(message, expected.getRelationship(), view.getRelationship());
+            assertEquals(message, expected.getAttribute1(), view.getAttribute1());
+            assertEquals(message, expected.getSinkRelationship(), view.getSinkRelationship());
+            assertEquals(message, expected.getSinkAttribute1(), view.getSinkAttribute1());
+        } else {
+            assertEquals(message, expected.getStatsType(), view.getStatsType());
+            assertTrue(message, view.isStatsType(expected.getStatsType()));
+        }
+        assertEquals(message, expected.getAttribute2(), view.getAttribute2());
+        assertEquals(message, expected.getAttribute3(), view.getAttribute3());
+        assertEquals(message, expected.getYyyymmdd(), view.getYyyymmdd());
+        assertEquals(message, expected.getDateType(), view.getDateType());
+        assertEquals(message, EdgeKey.getDateType(key), view.getDateType());
+        assertEquals(message, expected.getTimestamp(), view.getTimestamp());
+        assertEquals(message, expected.isDeleted(), view.isDeleted());
+    }
+
+    private List<Key> encodeAll(EdgeKey edgeKey) {
+        List<Key> keys = new ArrayList<>();
+        keys.add(edgeKey.encode());
+        keys.add(edgeKey.encodeLegacyProtobufKey());
+        keys.add(edgeKey.encodeLegacyAttribute2Key());
+        keys.add(edgeKey.encodeLegacyKey());
+        return keys;
+    }
+
+    private EdgeKey randomEdgeKey(String chars) {
+        boolean stats = random.nextBoolean();
+        EdgeKey.EdgeKeyBuilder builder = EdgeKey.newBuilder(stats ? EdgeKey.EDGE_FORMAT.STATS : EdgeKey.EDGE_FORMAT.STANDARD);
+        builder.setSourceData(randomString(chars, 1)).setSinkData(randomString(chars, 1)).setType(randomString(chars, 0))
+                        .setSourceRelationship(randomString(chars, 0)).setSinkRelationship(randomString(chars, 0))
+                        .setSourceAttribute1(randomString(chars, 0)).setSinkAttribute1(randomString(chars, 0)).setAttribute2(randomString(chars, 0))
+                        .setAttribute3(randomString(chars, 0)).setYyyymmdd("2024010" + random.nextInt(10)).setColvis(new Text(randomString(CHARS, 0)))
+                        .setTimestamp(random.nextLong()).setDeleted(random.nextBoolean());
+        builder.setDateType(EdgeKey.DATE_TYPE.values()[random.nextInt(EdgeKey.DATE_TYPE.values().length)]);
+        if (stats) {
+            builder.setStatsType(EdgeKey.STATS_TYPE.values()[random.nextInt(EdgeKey.STATS_TYPE.values().length)]);
+        }
+        return builder.build();
+    }
+
+    private String randomString(String chars, int minLength) {
+        int length = minLength + random.nextInt(6);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(chars.charAt(random.nextInt(chars.length())));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The String based encoding which the {@link EdgeKeyEncoder} replaced
+     */
+    private static Key referenceEncode(EdgeKey edgeKey, EdgeKey.EDGE_VERSION version) {
+        List<String> parts = new ArrayList<>();
+        for (int i = 0; i < version.getTotalColPieces(); i++) {
+            parts.add("null");
+        }
+        StringBuilder row = new StringBuilder();
+        if (edgeKey.getFormat() == EdgeKey.EDGE_FORMAT.STATS) {
+            row.append(edgeKey.getSourceData());
+            parts.set(0, "STATS");
+            parts.set(version.getStatsTypeIndex(), edgeKey.getStatsType().name());
+        } else {
+            row.append(edgeKey.getSourceData()).append("\0").append(edgeKey.getSinkData());
+        }
+        parts.set(version.getTypeIndex(), edgeKey.getType());
+        parts.set(version.getRelationshipIndex(), edgeKey.getRelationship());
+        parts.set(version.getCategoryIndex(), edgeKey.getAttribute1());
+        parts.set(version.getYMDIndex(), edgeKey.getYyyymmdd());
+        if (version.hasAttribute2()) {
+            parts.set(version.getAttribute2Index(), edgeKey.getAttribute2());
+        }
+        if (version.hasAttribute3()) {
+            parts.set(version.getAttribute3Index(), edgeKey.getAttribute3());
+        }
+        if (version.getDateTypeIndex() >= 0) {
+            parts.set(version.getDateTypeIndex(), edgeKey.getDateType().toString());
+        }
+        String colf = String.join("/", parts.subList(0, version.getNumColfPieces()));
+        String colq = String.join("/", parts.subList(version.getNumColfPieces(), version.getTotalColPieces()));
+        Key key = new Key(new Text(row.toString()), new Text(colf), new Text(colq), new Text(edgeKey.getColvis()), edgeKey.getTimestamp());
+        key.setDeleted(edgeKey.isDeleted());
+        return key;
+    }
+}
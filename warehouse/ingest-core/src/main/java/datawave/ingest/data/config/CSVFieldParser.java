@@ -0,0 +1,281 @@
+package datawave.ingest.data.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits a record into its fields in a single pass over the raw bytes. The fields are the same as those of the
+ * {@link org.apache.commons.lang.text.StrTokenizer} CSV, TSV or plain delimiter instances used for the configured {@link CSVHelper#DATA_SEP separator}, with
+ * empty fields returned as null.
+ * <p>
+ * Only the offsets of each field are recorded while parsing. The String of a field is created when it is requested, so fields which are never used cost no
+ * allocation. The separators and quotes are ASCII, which never occur within a multibyte UTF-8 sequence, so the bytes may be scanned without decoding them.
+ * <p>
+ * A parser holds the state of the last record parsed, and is not thread safe.
+ */
+public class CSVFieldParser {
+
+    private static final byte QUOTE = '"';
+
+    private final byte[] delimiter;
+    private final boolean quoting;
+    private boolean trimWhitespace;
+
+    private byte[] data;
+    private int fieldCount = 0;
+    private int[] starts = new int[32];
+    private int[] ends = new int[32];
+    private boolean[] quoted = new boolean[32];
+    private byte[] unquoted = new byte[256];
+
+    /**
+     * @param separator
+     *            the configured separator. A comma is parsed as CSV and the two characters "\t" as TSV, both of which honour quotes and trim whitespace around
+     *            fields. Any other separator is treated literally.
+     */
+    public CSVFieldParser(String separator) {
+        if (separator.equals(",")) {
+            this.delimiter = new byte[] {','};
+            this.quoting = true;
+            this.trimWhitespace = true;
+        } else if (separator.equals("\\t")) {
+            this.delimiter = new byte[] {'\t'};
+            this.quoting = true;
+            this.trimWhitespace = true;
+        } else {
+            this.delimiter = separator.getBytes(StandardCharsets.UTF_8);
+            this.quoting = false;
+            this.trimWhitespace = false;
+        }
+    }
+
+    /**
+     * @param trimWhitespace
+     *            whether whitespace, i.e. any character up to and including a space, is removed from the ends of the fields outside of quotes
+     * @return this parser
+     */
+    public CSVFieldParser setTrimWhitespace(boolean trimWhitespace) {
+        this.trimWhitespace = trimWhitespace;
+        return this;
+    }
+
+    public boolean isTrimWhitespace() {
+        return trimWhitespace;
+    }
+
+    /**
+     * Find the fields of a record. The bytes are referenced, not copied, and must not be changed while the fields are in use.
+     *
+     * @param bytes
+     *            the buffer holding the record
+     * @param offset
+     *            the start of the record within the buffer
+     * @param length
+     *            the length of the record
+     * @return the number of fields
+     */
+    public int parse(byte[] bytes, int offset, int length) {
+        this.data = bytes;
+        this.fieldCount = 0;
+        int end = offset + length;
+        int pos = offset;
+        while (pos >= 0 && pos < end) {
+            pos = readNextField(pos, end);
+            // a record which ends with a delimiter has an empty last field
+            if (pos >= end) {
+                addField(pos, pos, false);
+            }
+        }
+        return fieldCount;
+    }
+
+    /**
+     * @return the number of fields of the last record parsed
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @param index
+     *            the field index
+     * @return true if the field is empty, without creating its String
+     */
+    public boolean isNull(int index) {
+        checkIndex(index);
+        return quoted[index] ? unquote(index) == 0 : starts[index] == ends[index];
+    }
+
+    /**
+     * @param index
+     *            the field index
+     * @return the field with the enclosing quotes removed, or null if the field is empty
+     */
+    public String getField(int index) {
+        checkIndex(index);
+        if (quoted[index]) {
+            int length = unquote(index);
+            return length == 0 ? null : new String(unquoted, 0, length, StandardCharsets.UTF_8);
+        }
+        int start = starts[index];
+        return start == ends[index] ? null : new String(data, start, ends[index] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the fields of the last record parsed
+     */
+    public String[] getFields() {
+        String[] fields = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            fields[i] = getField(i);
+        }
+        return fields;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " of " + fieldCount);
+        }
+    }
+
+    private int readNextField(int start, int end) {
+        // skip the leading whitespace, unless it is the delimiter or a quote
+        while (start < end && trimWhitespace && isWhitespace(data[start]) && matchDelimiter(start, end) == 0 && !isQuote(start)) {
+            start++;
+        }
+
+        if (start >= end) {
+            addField(start, start, false);
+            return -1;
+        }
+
+        int delimiterLength = matchDelimiter(start, end);
+        if (delimiterLength > 0) {
+            addField(start, start, false);
+            return start + delimiterLength;
+        }
+
+        // quotes are only honoured when they open the field
+        if (isQuote(start)) {
+            return readQuotedField(start, end);
+        }
+
+        int last = start;
+        for (int pos = start; pos < end; pos++) {
+            delimiterLength = matchDelimiter(pos, end);
+            if (delimiterLength > 0) {
+                addField(start, last, false);
+                return pos + delimiterLength;
+            }
+            if (!trimWhitespace || !isWhitespace(data[pos])) {
+                last = pos + 1;
+            }
+        }
+        addField(start, last, false);
+        return -1;
+    }
+
+    private int readQuotedField(int start, int end) {
+        boolean inQuotes = true;
+        int pos = start + 1;
+        while (pos < end) {
+            if (inQuotes) {
+                if (data[pos] == QUOTE) {
+                    if (pos + 1 < end && data[pos + 1] == QUOTE) {
+                        // an escaped quote
+                        pos += 2;
+                        continue;
+                    }
+                    inQuotes = false;
+                }
+            } else {
+                int delimiterLength = matchDelimiter(pos, end);
+                if (delimiterLength > 0) {
+                    addField(start, pos, true);
+                    return pos + delimiterLength;
+                }
+                if (data[pos] == QUOTE) {
+                    inQuotes = true;
+                }
+            }
+            pos++;
+        }
+        addField(start, end, true);
+        return -1;
+    }
+
+    /**
+     * Copy a quoted field into the unquoted buffer, removing its quotes and any whitespace after the last quoted section
+     *
+     * @return the length of the field
+     */
+    private int unquote(int index) {
+        int end = ends[index];
+        if (unquoted.length < end - starts[index]) {
+            unquoted = new byte[Math.max(end - starts[index], unquoted.length * 2)];
+        }
+        int length = 0;
+        int kept = 0;
+        boolean inQuotes = true;
+        int pos = starts[index] + 1;
+        while (pos < end) {
+            byte b = data[pos];
+            if (inQuotes) {
+                if (b == QUOTE) {
+                    if (pos + 1 < end && data[pos + 1] == QUOTE) {
+                        unquoted[length++] = QUOTE;
+                        kept = length;
+                        pos += 2;
+                        continue;
+                    }
+                    inQuotes = false;
+                } else {
+                    unquoted[length++] = b;
+                    kept = length;
+                }
+            } else if (b == QUOTE) {
+                inQuotes = true;
+            } else {
+                unquoted[length++] = b;
+                if (!trimWhitespace || !isWhitespace(b)) {
+                    kept = length;
+                }
+            }
+            pos++;
+        }
+        return kept;
+    }
+
+    private void addField(int start, int end, boolean isQuoted) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+            quoted = Arrays.copyOf(quoted, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        quoted[fieldCount] = isQuoted;
+        fieldCount++;
+    }
+
+    private int matchDelimiter(int pos, int end) {
+        int length = delimiter.length;
+        if (length == 0 || pos + length > end) {
+            return 0;
+        }
+        for (int i = 0; i < length; i++) {
+            if (data[pos + i] != delimiter[i]) {
+                return 0;
+            }
+        }
+        return length;
+    }
+
+    private boolean isQuote(int pos) {
+        return quoting && data[pos] == QUOTE;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return (b & 0xff) <= ' ';
+    }
+}
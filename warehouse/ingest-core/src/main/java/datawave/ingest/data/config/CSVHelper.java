@@ -1,10 +1,15 @@
 package datawave.ingest.data.config;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import org.apache.hadoop.conf.Configuration;
 
@@ -125,6 +130,11 @@ public class CSVHelper extends DataTypeHelperImpl {
      */
     public static final String BACKSLASH_ESCAPE_LOOKBEHIND_PATTERN = "(?<!\\\\)";
 
+    /**
+     * Characters which give a multivalue separator a meaning other than the literal text when used in a pattern
+     */
+    private static final String REGEX_METACHARACTERS = "\\[](){}.*+?^$|";
+
     public enum ThresholdAction {
         FAIL, DROP, REPLACE, TRUNCATE
     }
@@ -137,6 +147,8 @@ public class CSVHelper extends DataTypeHelperImpl {
     private Map<String,String> multiValuedFieldsDisallowlist = new HashMap<>();
     private boolean hasMultiValuedFieldsDisallowlist = false;
     private String multiValueSeparator = null;
+    private boolean literalMultiValueSeparator = false;
+    private Pattern multiValueSeparatorPattern = null;
     private int fieldSizeThreshold = Integer.MAX_VALUE;
     private int multiFieldSizeThreshold = Integer.MAX_VALUE;
     private ThresholdAction thresholdAction = ThresholdAction.FAIL;
@@ -230,6 +242,9 @@ public class CSVHelper extends DataTypeHelperImpl {
         }
 
         this.multiValueSeparator = config.get(this.getType().typeName() + MULTI_VALUED_SEPARATOR, ";");
+        this.literalMultiValueSeparator = !multiValueSeparator.isEmpty()
+                        && multiValueSeparator.chars().noneMatch(c -> REGEX_METACHARACTERS.indexOf(c) >= 0);
+        this.multiValueSeparatorPattern = Pattern.compile(getEscapeSafeMultiValueSeparatorPattern());
 
         this.fieldSizeThreshold = config.getInt(this.getType().typeName() + FIELD_SIZE_THRESHOLD, this.fieldSizeThreshold);
         this.thresholdAction = ThresholdAction.valueOf(config.get(this.getType().typeName() + THRESHOLD_ACTION, this.thresholdAction.name()).toUpperCase());
@@ -316,6 +331,47 @@ public class CSVHelper extends DataTypeHelperImpl {
         return BACKSLASH_ESCAPE_LOOKBEHIND_PATTERN + getMultiValueSeparator();
     }
 
+    /**
+     * Split a multivalued field on the multivalue separators which are not preceded by a '\\' (backslash) character. The result is the same as splitting on
+     * {@link #getEscapeSafeMultiValueSeparatorPattern()}, however a literal separator is found without a regex and the pattern of any other separator is
+     * compiled once rather than per value.
+     *
+     * @param fieldValue
+     *            the field value
+     * @return the values, without any trailing empty values
+     */
+    public List<String> splitMultiValuedField(String fieldValue) {
+        if (!literalMultiValueSeparator) {
+            return Arrays.asList(multiValueSeparatorPattern.split(fieldValue));
+        }
+
+        String separator = getMultiValueSeparator();
+        int index = fieldValue.indexOf(separator);
+        if (index < 0) {
+            return Collections.singletonList(fieldValue);
+        }
+
+        List<String> values = new ArrayList<>();
+        int start = 0;
+        while (index >= 0) {
+            if (index == 0 || fieldValue.charAt(index - 1) != '\\') {
+                values.add(fieldValue.substring(start, index));
+                start = index + separator.length();
+                index = fieldValue.indexOf(separator, start);
+            } else {
+                index = fieldValue.indexOf(separator, index + 1);
+            }
+        }
+        values.add(fieldValue.substring(start));
+
+        // as with String.split, trailing empty values are dropped
+        int size = values.size();
+        while (size > 0 && values.get(size - 1).isEmpty()) {
+            values.remove(--size);
+        }
+        return values;
+    }
+
     public int getMultiFieldSizeThreshold() {
         return multiFieldSizeThreshold;
     }
@@ -167,7 +167,7 @@ public abstract class AbstractIngestHelper extends DataTypeHelperImpl implements
         final Collection<Type<?>> dataTypes = getDataTypes(fieldName);
         final HashSet<String> values = new HashSet<>(dataTypes.size());
         for (final datawave.data.type.Type<?> dataType : dataTypes) {
-            final String normalized = dataType.normalize(fieldValue);
+            final String normalized = NormalizedValueCache.getInstance().normalize(dataType, fieldValue);
             values.add(normalized);
         }
         return values;
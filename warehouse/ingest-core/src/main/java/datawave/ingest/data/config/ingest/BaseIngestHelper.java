@@ -18,6 +18,8 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.log4j.Logger;
 
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -138,6 +140,14 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
 
     public static final String FIELD_CONFIG_FILE = ".data.category.field.config.file";
 
+    /**
+     * Configuration parameter to specify the maximum number of field names for which the resolved types, index flags and failure policy are cached. This
+     * parameter supports multiple datatypes, so a valid value would be something like {@code mydatatype.data.field.profile.cache.size}.
+     */
+    public static final String FIELD_PROFILE_CACHE_SIZE = ".data.field.profile.cache.size";
+
+    public static final int DEFAULT_FIELD_PROFILE_CACHE_SIZE = 10000;
+
     private static final Logger log = ThreadConfigurableLogger.getLogger(BaseIngestHelper.class);
 
     private Multimap<String,datawave.data.type.Type<?>> typeFieldMap = null;
@@ -187,6 +197,49 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
 
     protected FieldConfigHelper fieldConfigHelper = null;
 
+    private Cache<String,FieldProfile> fieldProfileCache = createFieldProfileCache(DEFAULT_FIELD_PROFILE_CACHE_SIZE);
+
+    /**
+     * The resolved configuration of a field name. Resolving a field name may require matching it against every configured pattern, so the profile of each
+     * field name is cached rather than resolved for every value of every event.
+     */
+    protected static class FieldProfile {
+        private final List<datawave.data.type.Type<?>> dataTypes;
+        private final boolean indexed;
+        private final boolean reverseIndexed;
+        private final boolean normalized;
+        private final FailurePolicy failurePolicy;
+
+        public FieldProfile(List<datawave.data.type.Type<?>> dataTypes, boolean indexed, boolean reverseIndexed, boolean normalized,
+                        FailurePolicy failurePolicy) {
+            this.dataTypes = Collections.unmodifiableList(dataTypes);
+            this.indexed = indexed;
+            this.reverseIndexed = reverseIndexed;
+            this.normalized = normalized;
+            this.failurePolicy = failurePolicy;
+        }
+
+        public List<datawave.data.type.Type<?>> getDataTypes() {
+            return dataTypes;
+        }
+
+        public boolean isIndexed() {
+            return indexed;
+        }
+
+        public boolean isReverseIndexed() {
+            return reverseIndexed;
+        }
+
+        public boolean isNormalized() {
+            return normalized;
+        }
+
+        public FailurePolicy getFailurePolicy() {
+            return failurePolicy;
+        }
+    }
+
     /**
      * This matcher is used to create a deterministic ordering of regular expressions
      */
@@ -445,6 +498,37 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
                 }
             }
         }
+
+        // drop any profiles resolved against the previous configuration
+        this.fieldProfileCache = createFieldProfileCache(config.getInt(this.getType().typeName() + FIELD_PROFILE_CACHE_SIZE, DEFAULT_FIELD_PROFILE_CACHE_SIZE));
+    }
+
+    private static Cache<String,FieldProfile> createFieldProfileCache(int size) {
+        return CacheBuilder.newBuilder().maximumSize(size).build();
+    }
+
+    /**
+     * Get the resolved configuration of a field name, resolving it if it is not already cached
+     *
+     * @param fieldName
+     *            the field name
+     * @return the field profile
+     */
+    protected FieldProfile getFieldProfile(String fieldName) {
+        FieldProfile profile = fieldProfileCache.getIfPresent(fieldName);
+        if (profile == null) {
+            profile = new FieldProfile(resolveDataTypes(fieldName), resolveIndexedField(fieldName), resolveReverseIndexedField(fieldName),
+                            resolveNormalizedField(fieldName), resolveFailurePolicy(fieldName));
+            fieldProfileCache.put(fieldName, profile);
+        }
+        return profile;
+    }
+
+    /**
+     * Drop all cached field profiles, which must be done whenever the field configuration changes
+     */
+    protected void invalidateFieldProfiles() {
+        fieldProfileCache.invalidateAll();
     }
 
     private void moveToPatternMap(Set<String> in, Map<String,Pattern> out) {
@@ -623,6 +707,14 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
 
     @Override
     public List<datawave.data.type.Type<?>> getDataTypes(String fieldName) {
+        return getFieldProfile(fieldName).getDataTypes();
+    }
+
+    private List<datawave.data.type.Type<?>> resolveDataTypes(String fieldName) {
+        // the types are not configured until setup
+        if (typeFieldMap == null) {
+            return Collections.emptyList();
+        }
 
         final String typeFieldName = fieldName.toUpperCase();
 
@@ -690,7 +782,7 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
         Collection<datawave.data.type.Type<?>> dataTypes = getDataTypes(fieldName);
         HashSet<String> values = new HashSet<>(dataTypes.size());
         for (datawave.data.type.Type<?> dataType : dataTypes) {
-            values.add(dataType.normalize(fieldValue));
+            values.add(NormalizedValueCache.getInstance().normalize(dataType, fieldValue));
         }
         return values;
     }
@@ -712,7 +804,7 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
         // copy it
         NormalizedContentInterface copy = new NormalizedFieldAndValue(normalizedContent);
         try {
-            copy.setIndexedFieldValue(datawaveType.normalize(copy.getIndexedFieldValue()));
+            copy.setIndexedFieldValue(NormalizedValueCache.getInstance().normalize(datawaveType, copy.getIndexedFieldValue()));
         } catch (Exception ex) {
             copy.setError(ex);
         }
@@ -756,8 +848,9 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
         // copy it
         NormalizedContentInterface copy = new NormalizedFieldAndValue(normalizedContent);
         try {
-            copy.setEventFieldValue(datawaveType.normalize(copy.getIndexedFieldValue()));
-            copy.setIndexedFieldValue(datawaveType.normalize(copy.getIndexedFieldValue()));
+            String normalized = NormalizedValueCache.getInstance().normalize(datawaveType, copy.getIndexedFieldValue());
+            copy.setEventFieldValue(normalized);
+            copy.setIndexedFieldValue(normalized);
         } catch (Exception ex) {
             copy.setError(ex);
         }
@@ -836,6 +929,10 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
 
     @Override
     public boolean isNormalizedField(String fieldName) {
+        return getFieldProfile(fieldName).isNormalized();
+    }
+
+    private boolean resolveNormalizedField(String fieldName) {
         if (this.normalizedFields.contains(fieldName)) {
             return true;
         } else if (this.unNormalizedFields.contains(fieldName)) {
@@ -864,6 +961,10 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
 
     @Override
     public boolean isIndexedField(String fieldName) {
+        return getFieldProfile(fieldName).isIndexed();
+    }
+
+    private boolean resolveIndexedField(String fieldName) {
         if (fieldConfigHelper != null) {
             return fieldConfigHelper.isIndexedField(fieldName);
         }
@@ -893,6 +994,10 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
 
     @Override
     public boolean isReverseIndexedField(String fieldName) {
+        return getFieldProfile(fieldName).isReverseIndexed();
+    }
+
+    private boolean resolveReverseIndexedField(String fieldName) {
         if (fieldConfigHelper != null) {
             return fieldConfigHelper.isReverseIndexedField(fieldName);
         }
@@ -1044,6 +1149,14 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
     }
 
     protected FailurePolicy getFailurePolicy(String fieldName) {
+        return getFieldProfile(fieldName).getFailurePolicy();
+    }
+
+    private FailurePolicy resolveFailurePolicy(String fieldName) {
+        // the policies are not configured until setup
+        if (failedFieldPolicy == null) {
+            return defaultFailedFieldPolicy;
+        }
         FailurePolicy policy = failedFieldPolicy.get(fieldName);
         if (policy == null) {
             if (failedFieldCompiledPatternPolicy == null)
@@ -1072,6 +1185,7 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
     @Override
     public void addIndexedField(String fieldName) {
         this.indexedFields.add(fieldName);
+        invalidateFieldProfiles();
     }
 
     /*
@@ -1082,6 +1196,7 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
     @Override
     public void addReverseIndexedField(String fieldName) {
         this.reverseIndexedFields.add(fieldName);
+        invalidateFieldProfiles();
     }
 
     /*
@@ -1092,6 +1207,7 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
     @Override
     public void addNormalizedField(String fieldName) {
         this.normalizedFields.add(fieldName);
+        invalidateFieldProfiles();
     }
 
     /*
@@ -1223,6 +1339,7 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
                 typeFieldMap.put(null, datawaveType);
             } else if (fieldName.indexOf('*') >= 0 || fieldName.indexOf('+') >= 0) { // We need a more conclusive test for regex
                 typePatternMap.put(fieldName, datawaveType);
+                typeCompiledPatternMap = null;
             } else {
                 typeFieldMap.put(fieldName, datawaveType);
             }
@@ -1230,5 +1347,6 @@ public abstract class BaseIngestHelper extends AbstractIngestHelper implements C
                 log.debug("Registered a " + typeClass + " for type[" + this.getType().typeName() + "], field[" + fieldName + "]");
             }
         }
+        invalidateFieldProfiles();
     }
 }
@@ -1,9 +1,9 @@
 package datawave.ingest.data.config.ingest;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Set;
 
 import org.apache.commons.lang.StringEscapeUtils;
-import org.apache.commons.lang.text.StrTokenizer;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.log4j.Logger;
 
@@ -11,14 +11,15 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 
 import datawave.ingest.data.RawRecordContainer;
+import datawave.ingest.data.config.CSVFieldParser;
 import datawave.ingest.data.config.CSVHelper;
 import datawave.ingest.data.config.NormalizedContentInterface;
-import datawave.util.StringUtils;
 
 public class CSVIngestHelper extends ContentBaseIngestHelper {
 
     private static final Logger log = Logger.getLogger(CSVIngestHelper.class);
     protected CSVHelper helper = null;
+    protected CSVFieldParser parser = null;
 
     @Override
     public void setup(Configuration config) {
@@ -26,6 +27,8 @@ public class CSVIngestHelper extends ContentBaseIngestHelper {
         helper = createHelper();
         helper.setup(config);
         this.setEmbeddedHelper(helper);
+        // Allow subclasses to override the parser
+        parser = configureParser(new CSVFieldParser(helper.getSeparator()));
     }
 
     /**
@@ -38,29 +41,30 @@ public class CSVIngestHelper extends ContentBaseIngestHelper {
     }
 
     /**
-     * Allow classes extending this class to modify the StrTokenizer being used.
+     * Allow classes extending this class to modify the CSVFieldParser being used.
      *
-     * @param tokenizer
-     *            The StrTokenizer that will be used on each Event
-     * @return the tokenizer to be used
+     * @param parser
+     *            The CSVFieldParser that will be used on each Event
+     * @return the parser to be used
      */
-    protected StrTokenizer configureTokenizer(StrTokenizer tokenizer) {
-        return tokenizer;
+    protected CSVFieldParser configureParser(CSVFieldParser parser) {
+        return parser;
     }
 
     /**
-     * Allow classes extending this class to modify the raw data before setting it on the StrTokenizer
+     * Allow classes extending this class to skip a prefix of the raw data before it is parsed
      *
      * @param data
      *            The raw data from the Event
-     * @return the raw data in String form
+     * @return the offset at which to start parsing
      */
-    protected String preProcessRawData(byte[] data) {
-        return new String(data);
+    protected int getRawDataOffset(byte[] data) {
+        return 0;
     }
 
     /**
-     * This method uses the header and the csv string in raw bytes of the Event to create key value pairs.
+     * This method uses the header and the csv string in raw bytes of the Event to create key value pairs. Only the fields which are kept are converted to
+     * Strings.
      *
      * @param event
      *            the event
@@ -70,33 +74,17 @@ public class CSVIngestHelper extends ContentBaseIngestHelper {
     public Multimap<String,NormalizedContentInterface> getEventFields(RawRecordContainer event) {
         HashMultimap<String,String> fields = HashMultimap.create();
 
-        String data = preProcessRawData(event.getRawData());
-
-        StrTokenizer tokenizer;
-        if (helper.getSeparator().equals(","))
-            tokenizer = StrTokenizer.getCSVInstance();
-        else if (helper.getSeparator().equals("\\t"))
-            tokenizer = StrTokenizer.getTSVInstance();
-        else
-            tokenizer = new StrTokenizer(data, helper.getSeparator());
-
-        tokenizer.setIgnoreEmptyTokens(false);
-        tokenizer.setEmptyTokenAsNull(true);
-
-        // Allow subclasses to override the tokenizer
-        tokenizer = configureTokenizer(tokenizer);
-
-        tokenizer.reset(data);
-
-        String[] dataFields = tokenizer.getTokenArray();
-        processFields(fields, dataFields);
+        byte[] data = event.getRawData();
+        int offset = getRawDataOffset(data);
+        parser.parse(data, offset, data.length - offset);
+        processFields(fields, parser);
 
         // do the same for the aux data if it exists
         if (event.getAuxData() instanceof String) {
-            String auxData = (String) event.getAuxData();
-            tokenizer.reset(auxData);
-            for (String dataField : tokenizer.getTokenArray()) {
-                processExtraField(fields, dataField);
+            byte[] auxData = ((String) event.getAuxData()).getBytes(StandardCharsets.UTF_8);
+            int auxFields = parser.parse(auxData, 0, auxData.length);
+            for (int i = 0; i < auxFields; i++) {
+                processExtraField(fields, parser.getField(i));
             }
         }
 
@@ -104,15 +92,16 @@ public class CSVIngestHelper extends ContentBaseIngestHelper {
         return normalize(fields);
     }
 
-    protected void processFields(HashMultimap<String,String> fields, String[] dataFields) {
-        for (int i = 0; i < Math.max(dataFields.length, helper.getHeader().length); i++) {
+    protected void processFields(HashMultimap<String,String> fields, CSVFieldParser dataFields) {
+        for (int i = 0; i < dataFields.getFieldCount(); i++) {
 
             if (i < helper.getHeader().length) {
                 String fieldName = helper.getHeader()[i];
 
-                if (keepField(fieldName) && dataFields[i] != null) {
-                    String fieldValue = StringEscapeUtils.unescapeCsv(dataFields[i]);
-                    fieldValue = helper.clean(fieldName, fieldValue);
+                // the field is only converted to a String once it is known to be kept
+                String fieldValue = keepField(fieldName) ? dataFields.getField(i) : null;
+                if (fieldValue != null) {
+                    fieldValue = helper.clean(fieldName, StringEscapeUtils.unescapeCsv(fieldValue));
                     if (fieldValue != null) {
                         processPreSplitField(fields, fieldName, fieldValue);
                     }
@@ -121,7 +110,7 @@ public class CSVIngestHelper extends ContentBaseIngestHelper {
                 // We have gone beyond the length of the header. In some cases,
                 // this will contain optional fields in the form of a map.
                 // Split on equals, to break the key and value
-                String fieldValue = StringEscapeUtils.unescapeCsv(dataFields[i]);
+                String fieldValue = StringEscapeUtils.unescapeCsv(dataFields.getField(i));
                 if (fieldValue != null) {
                     processExtraField(fields, fieldValue);
                 }
@@ -177,7 +166,7 @@ public class CSVIngestHelper extends ContentBaseIngestHelper {
                 String singleFieldName = helper.usingMultiValuedFieldsDisallowlist() ? fieldName : helper.getMultiValuedFields().get(fieldName);
                 int limit = helper.getMultiFieldSizeThreshold();
                 int count = 0;
-                for (String value : StringUtils.splitIterable(fieldValue, helper.getEscapeSafeMultiValueSeparatorPattern())) {
+                for (String value : helper.splitMultiValuedField(fieldValue)) {
                     value = helper.clean(singleFieldName, value);
                     if (value != null) {
                         if (count == limit) {
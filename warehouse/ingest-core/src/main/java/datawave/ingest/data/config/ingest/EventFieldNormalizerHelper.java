@@ -29,8 +29,8 @@ import datawave.ingest.data.config.DataTypeHelper;
  *
  * public NormalizedContentInterface normalize(NormalizedContentInterface nci) {
  *
- * // normalize the event field value as required TextNormalizer n = eventFieldNormalizerHelper.getNormalizer(nci.getEventFieldName());
- * nci.setEventFieldValue(n.normalizeFieldValue(nci.getEventFieldName(), nci.getEventFieldValue()));
+ * // normalize the event field value as required
+ * nci.setEventFieldValue(eventFieldNormalizerHelper.normalize(nci.getEventFieldName(), nci.getEventFieldValue()));
  *
  * // now normalize the index field value as required return super.normalize(nci); }
  *
@@ -124,6 +124,19 @@ public class EventFieldNormalizerHelper {
         return normer;
     }
 
+    /**
+     * Normalize an event field value with the normalizer for the field, through the {@link NormalizedValueCache}
+     *
+     * @param fieldName
+     *            the name of the field
+     * @param value
+     *            the event field value
+     * @return the normalized value
+     */
+    public String normalize(String fieldName, String value) {
+        return NormalizedValueCache.getInstance().normalize(getType(fieldName), value);
+    }
+
     private void compilePatterns() {
         Map<Pattern,Type<?>> patterns = Maps.newHashMap();
         if (typePatternMap != null) {
@@ -0,0 +1,139 @@
+package datawave.ingest.data.config.ingest;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.log4j.Logger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import datawave.data.type.Type;
+
+/**
+ * Remembers the values normalized by each {@link Type} class, so that the repeated values of enumerated fields, codes, addresses and dates are only normalized
+ * once per mapper. Each type class gets its own bounded cache of raw to normalized values. Values that fail to normalize are not cached, so the failure is
+ * raised for every occurrence as before.
+ * <p>
+ * The cache is shared by all of the ingest helpers in the task and is configured by the {@link datawave.ingest.mapreduce.EventMapper} when it is set up, or
+ * once by the {@link datawave.ingest.mapreduce.job.StreamingIngestService} for all of its files. Until then, or when disabled, values are normalized
+ * directly.
+ */
+public class NormalizedValueCache {
+
+    private static final Logger log = Logger.getLogger(NormalizedValueCache.class);
+
+    /**
+     * Configuration parameter to enable the cache of normalized values. Default is false.
+     */
+    public static final String ENABLED = "ingest.normalization.cache.enabled";
+
+    /**
+     * Configuration parameter to specify the maximum number of values cached for each type class. Default is 10000.
+     */
+    public static final String SIZE = "ingest.normalization.cache.size";
+
+    /**
+     * Configuration parameter to specify the type classes whose values are never cached, such as types whose values rarely repeat.
+     */
+    public static final String DISABLED_TYPES = "ingest.normalization.cache.disabled.types";
+
+    public static final int DEFAULT_SIZE = 10000;
+
+    /**
+     * The counter group in which the hits and misses of each type class are reported
+     */
+    public static final String COUNTER_GROUP = "NORMALIZATION_CACHE";
+
+    private static volatile NormalizedValueCache instance = new NormalizedValueCache(false, DEFAULT_SIZE, Collections.emptySet());
+
+    private final boolean enabled;
+    private final int size;
+    private final Set<String> disabledTypes;
+    private final Map<Class<?>,Cache<String,String>> caches = new ConcurrentHashMap<>();
+
+    NormalizedValueCache(boolean enabled, int size, Set<String> disabledTypes) {
+        this.enabled = enabled && size > 0;
+        this.size = size;
+        this.disabledTypes = disabledTypes;
+    }
+
+    /**
+     * Replace the cache with an empty one configured from the job configuration
+     *
+     * @param config
+     *            the job configuration
+     * @return the new cache
+     */
+    public static NormalizedValueCache configure(Configuration config) {
+        NormalizedValueCache cache = new NormalizedValueCache(config.getBoolean(ENABLED, false), config.getInt(SIZE, DEFAULT_SIZE),
+                        new HashSet<>(config.getTrimmedStringCollection(DISABLED_TYPES)));
+        if (cache.isEnabled()) {
+            log.info("Caching up to " + cache.size + " normalized values per type, except for " + cache.disabledTypes);
+        }
+        instance = cache;
+        return cache;
+    }
+
+    public static NormalizedValueCache getInstance() {
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Normalize a value, using the value previously normalized by the same type class if there is one
+     *
+     * @param type
+     *            the type
+     * @param value
+     *            the raw value
+     * @return the normalized value
+     */
+    public String normalize(Type<?> type, String value) {
+        Cache<String,String> cache = getCache(type);
+        if (cache == null || value == null) {
+            return type.normalize(value);
+        }
+        String normalized = cache.getIfPresent(value);
+        if (normalized == null) {
+            normalized = type.normalize(value);
+            if (normalized != null) {
+                cache.put(value, normalized);
+            }
+        }
+        return normalized;
+    }
+
+    private Cache<String,String> getCache(Type<?> type) {
+        if (!enabled) {
+            return null;
+        }
+        Cache<String,String> cache = caches.get(type.getClass());
+        if (cache == null && !disabledTypes.contains(type.getClass().getName())) {
+            cache = caches.computeIfAbsent(type.getClass(), c -> CacheBuilder.newBuilder().maximumSize(size).recordStats().build());
+        }
+        return cache;
+    }
+
+    /**
+     * Get the hit and miss counts of each cached type class
+     *
+     * @return the statistics by the simple name of the type class
+     */
+    public Map<String,CacheStats> getStats() {
+        Map<String,CacheStats> stats = new TreeMap<>();
+        for (Map.Entry<Class<?>,Cache<String,String>> entry : caches.entrySet()) {
+            stats.merge(entry.getKey().getSimpleName(), entry.getValue().stats(), CacheStats::plus);
+        }
+        return stats;
+    }
+}
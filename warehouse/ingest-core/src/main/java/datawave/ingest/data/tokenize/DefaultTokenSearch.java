@@ -34,7 +34,18 @@ public class DefaultTokenSearch implements TokenSearch {
 
     protected int maxUrlDecodes = 1;
 
-    private Pattern tokenWordPtrn = Pattern.compile("[\\p{Punct}\\p{Space}\\p{Cntrl}]+");
+    /**
+     * The characters which separate token words, equivalent to the character class {@code [\p{Punct}\p{Space}\p{Cntrl}]}. All of them are ASCII, so token
+     * words are split with a lookup table rather than a regular expression.
+     */
+    private static final boolean[] TOKEN_WORD_DELIMITERS = new boolean[128];
+
+    static {
+        for (char c = 0; c < TOKEN_WORD_DELIMITERS.length; c++) {
+            TOKEN_WORD_DELIMITERS[c] = (c <= ' ') || (c > ' ' && c < '0') || (c > '9' && c < 'A') || (c > 'Z' && c < 'a') || (c > 'z');
+        }
+    }
+
     private Pattern dirtyTokensPtrn = Pattern.compile("[ &'\"@\\.]");
 
     public DefaultTokenSearch() throws IOException {
@@ -231,23 +242,27 @@ public class DefaultTokenSearch implements TokenSearch {
      */
     @Override
     public Collection<String> getSynonyms(String[] zw, String termType, boolean includeTerm) {
-        if (termType.equals("<EMAIL>") || termType.equals("<HOST>")) {
-            return emailAddressTokens(zw, reverse, includeTerm);
-        } else if (termType.equals("<IP_ADDR>")) {
-            return ipAddressTokens(zw, reverse, includeTerm);
-        } else if (termType.equals("<URL>")) {
-            return urlTokens(zw, reverse, includeTerm);
-        } else if (termType.equals("<FILE>")) {
-            return filePathTokens(zw, reverse, includeTerm);
-        } else if (termType.equals("<HTTP_REQUEST>")) {
-            return httpRequestTokens(zw, reverse, includeTerm);
-        } else if (termType.equals("<APOSTROPHE>") || termType.equals("<ACRONYM>") || termType.equals("<COMPANY>")) {
-            return dirtyTokens(zw, includeTerm);
-        } else if (termType.equals("<TIMESTAMP>")) {
-            return timestampTokens(zw, reverse, includeTerm);
-        } else // ALPHANUM, NUM, TIMESTAMP, UNDERSCORE handled here.
-        {
-            return getTermSynonyms(zw, includeTerm);
+        switch (termType) {
+            case "<EMAIL>":
+            case "<HOST>":
+                return emailAddressTokens(zw, reverse, includeTerm);
+            case "<IP_ADDR>":
+                return ipAddressTokens(zw, reverse, includeTerm);
+            case "<URL>":
+                return urlTokens(zw, reverse, includeTerm);
+            case "<FILE>":
+                return filePathTokens(zw, reverse, includeTerm);
+            case "<HTTP_REQUEST>":
+                return httpRequestTokens(zw, reverse, includeTerm);
+            case "<APOSTROPHE>":
+            case "<ACRONYM>":
+            case "<COMPANY>":
+                return dirtyTokens(zw, includeTerm);
+            case "<TIMESTAMP>":
+                return timestampTokens(zw, reverse, includeTerm);
+            default:
+                // ALPHANUM, NUM, UNDERSCORE handled here.
+                return getTermSynonyms(zw, includeTerm);
         }
     }
 
@@ -282,10 +297,26 @@ public class DefaultTokenSearch implements TokenSearch {
      */
     @Override
     public void getTokenWords(String input, String zone, Collection<String> synonyms) {
-        // Now treat it as a bucket of words so that double quotes phrases can work too
-        for (String word : getTokenWords(input)) {
-            if (!word.isEmpty() && !isStop(word) && !word.equals(input)) {
-                synonyms.add(word.toLowerCase() + zone);
+        // a single word is the input itself, which is never added
+        final int length = input.length();
+        int start = nextTokenWordDelimiter(input, 0);
+        if (start == length) {
+            return;
+        }
+
+        // Now treat it as a bucket of words so that double quotes phrases can work too. Words are matched against the stop words in place, so only the
+        // words which are kept are copied out of the input.
+        final char[] chars = input.toCharArray();
+        start = 0;
+        while (start < length) {
+            int end = nextTokenWordDelimiter(input, start);
+            if (end > start && !stopwords.contains(chars, start, end - start)) {
+                synonyms.add(input.substring(start, end).toLowerCase() + zone);
+            }
+
+            start = end;
+            while (start < length && isTokenWordDelimiter(chars[start])) {
+                start++;
             }
         }
     }
@@ -297,7 +328,45 @@ public class DefaultTokenSearch implements TokenSearch {
      */
     @Override
     public String[] getTokenWords(String input) {
-        return tokenWordPtrn.split(input, 0);
+        final int length = input.length();
+        int end = nextTokenWordDelimiter(input, 0);
+        if (end == length) {
+            return new String[] {input};
+        }
+
+        // split on runs of delimiters, with the same results as Pattern.split(input, 0)
+        List<String> words = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            words.add(input.substring(start, end));
+            if (end == length) {
+                break;
+            }
+            start = end;
+            while (start < length && isTokenWordDelimiter(input.charAt(start))) {
+                start++;
+            }
+            end = nextTokenWordDelimiter(input, start);
+        }
+
+        // trailing empty words are dropped
+        int size = words.size();
+        while (size > 0 && words.get(size - 1).isEmpty()) {
+            size--;
+        }
+        return words.subList(0, size).toArray(new String[size]);
+    }
+
+    private static boolean isTokenWordDelimiter(char c) {
+        return c < TOKEN_WORD_DELIMITERS.length && TOKEN_WORD_DELIMITERS[c];
+    }
+
+    private static int nextTokenWordDelimiter(String input, int from) {
+        final int length = input.length();
+        while (from < length && !isTokenWordDelimiter(input.charAt(from))) {
+            from++;
+        }
+        return from;
     }
 
     /*
@@ -113,8 +113,8 @@ public class TokenSearchSynonymFilter extends TokenFilter {
         // is that of the term from which it is derived.
 
         for (String synonym : synonyms) {
-            char[] cc = synonym.toCharArray();
-            termAtt.copyBuffer(cc, 0, cc.length);
+            // copy the synonym straight into the term buffer
+            termAtt.setEmpty().append(synonym);
             typeAtt.setType(type);
 
             posLenAtt.setPositionLength(1);
@@ -127,7 +127,7 @@ public class TokenSearchSynonymFilter extends TokenFilter {
                 posLenAtt.setPositionLength(1);
             }
 
-            captureTuple(position++);
+            captureTuple(synonym, position++);
         }
         return position;
     }
@@ -139,7 +139,19 @@ public class TokenSearchSynonymFilter extends TokenFilter {
      *            position in the buffer
      */
     protected void captureTuple(int position) {
-        output.add(new OutputTuple(termAtt.toString(), position, offsetAtt.startOffset(), offsetAtt.endOffset() - offsetAtt.startOffset(), captureState()));
+        captureTuple(termAtt.toString(), position);
+    }
+
+    /**
+     * Capture information about the tuple to the output buffer
+     *
+     * @param term
+     *            the current term, which must match the contents of the term attribute
+     * @param position
+     *            position in the buffer
+     */
+    protected void captureTuple(String term, int position) {
+        output.add(new OutputTuple(term, position, offsetAtt.startOffset(), offsetAtt.endOffset() - offsetAtt.startOffset(), captureState()));
     }
 
     /**
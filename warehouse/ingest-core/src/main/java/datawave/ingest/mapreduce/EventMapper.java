@@ -2,11 +2,13 @@ package datawave.ingest.mapreduce;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -16,12 +18,18 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.Stack;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.accumulo.core.data.Mutation;
 import org.apache.accumulo.core.data.Value;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
 import org.apache.hadoop.mapreduce.Counter;
 import org.apache.hadoop.mapreduce.CounterGroup;
 import org.apache.hadoop.mapreduce.Counters;
@@ -30,9 +38,11 @@ import org.apache.hadoop.mapreduce.lib.input.FileSplit;
 import org.apache.log4j.Logger;
 import org.apache.log4j.NDC;
 
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import datawave.data.normalizer.DateNormalizer;
 import datawave.ingest.data.RawRecordContainer;
@@ -45,6 +55,7 @@ import datawave.ingest.data.config.filter.KeyValueFilter;
 import datawave.ingest.data.config.ingest.CompositeIngest;
 import datawave.ingest.data.config.ingest.FilterIngest;
 import datawave.ingest.data.config.ingest.IngestHelperInterface;
+import datawave.ingest.data.config.ingest.NormalizedValueCache;
 import datawave.ingest.data.config.ingest.VirtualIngest;
 import datawave.ingest.input.reader.event.EventErrorSummary;
 import datawave.ingest.mapreduce.handler.DataTypeHandler;
@@ -83,9 +94,15 @@ import datawave.util.time.TraceStopwatch;
  * is within the window, then the map will parse the Event into a map of field names and field values, the map method will call the process() method on each
  * DataTypeHandler implementation that has been configured for the Type of Event.
  *
- * This class no longer supports processing events in a multi-threaded fashion as that was proven to NOT be beneficial in the long run (i.e. The bulk of the
- * time is spent in the ContextWriter which is synchronized. Also multithreading mean potentially more memory use which we should already be maximizing per
- * machine in the hadoop map-reduce cluster.)
+ * By default events are processed one at a time on the map thread. If PROCESSING_THREADS is set above one, then events whose handlers all implement
+ * processBulk are instead processed concurrently, up to PROCESSING_WINDOW events at a time. Each processing thread has its own instances of the handlers, and
+ * buffers the keys and counters of an event rather than writing them. The map thread then writes the buffer of each event to the ContextWriter, and commits
+ * it, in the order in which the events were read. The ContextWriter is therefore only ever used by the map thread, and sees exactly the same sequence of
+ * writes and commits as it would if the events were processed serially. Events with an ExtendedDataTypeHandler, which writes to the ContextWriter directly,
+ * are always processed on the map thread once all of the preceding events have been written. Concurrent processing is not used when metrics are enabled.
+ *
+ * The processing threads also have their own instances of the field validators, and apply the same logic as processEvent, getFields and executeHandler
+ * without calling them. Those methods are therefore final, so that a subclass cannot change how events are processed on the map thread alone.
  *
  *
  *
@@ -132,6 +149,10 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
 
     public static final String ID_FILTER_FSTS = "ingest.event.mapper.id.filter.fsts";
 
+    public static final String PROCESSING_THREADS = "ingest.event.mapper.processing.threads";
+
+    public static final String PROCESSING_WINDOW = "ingest.event.mapper.processing.window";
+
     protected Map<String,List<DataTypeHandler<K1>>> typeMap = new HashMap<>();
 
     // Predicates are used to filter out events if needed. If predicates exist
@@ -167,6 +188,16 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
     private MetricsService<K2,V2> metricsService;
     private ReusableMetricsLabels metricsLabels;
 
+    // the service processing events concurrently, or null if events are processed on the map thread
+    private ExecutorService processingService = null;
+    private int processingWindow = 1;
+    private final Deque<PendingEvent> pendingEvents = new ArrayDeque<>();
+    private final List<EventWorker> workers = Collections.synchronizedList(new ArrayList<>());
+    private ThreadLocal<EventWorker> worker = null;
+
+    // the normalized values shared by the ingest helpers, whose hit rates are reported on cleanup
+    private NormalizedValueCache normalizedValueCache = null;
+
     /**
      * Set up the datatype handlers
      */
@@ -191,6 +222,8 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
         // Initialize the Type Registry
         TypeRegistry.getInstance(context.getConfiguration());
 
+        normalizedValueCache = configureNormalizedValueCache(context.getConfiguration());
+
         // load the predicates applied to all types
         predicates = new HashSet<>(context.getConfiguration().getTrimmedStringCollection(RECORD_PREDICATES));
         // always add the discard interval predicates
@@ -286,6 +319,21 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
 
         offset = 0;
 
+        int processingThreads = filterConf.getInt(PROCESSING_THREADS, 1);
+        if (processingThreads > 1 && metricsEnabled) {
+            log.warn("Events will be processed on the map thread as metrics are enabled");
+        } else if (processingThreads > 1) {
+            processingWindow = Math.max(filterConf.getInt(PROCESSING_WINDOW, processingThreads * 4), processingThreads);
+            processingService = Executors.newFixedThreadPool(processingThreads,
+                            new ThreadFactoryBuilder().setNameFormat("EventMapper-%d").setDaemon(true).build());
+            worker = ThreadLocal.withInitial(() -> {
+                EventWorker eventWorker = new EventWorker(context);
+                workers.add(eventWorker);
+                return eventWorker;
+            });
+            log.info("EventMapper configured to process up to " + processingWindow + " events with " + processingThreads + " threads");
+        }
+
         if (log.isInfoEnabled()) {
             log.info("EventMapper configured. Bulk Ingest = true");
             log.info("EventMapper configured with the following filters: " + getDataTypeFilterClassNames());
@@ -293,6 +341,17 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
 
     }
 
+    /**
+     * Configure the cache of normalized values shared by the ingest helpers. By default each task starts with an empty cache.
+     *
+     * @param conf
+     *            the configuration
+     * @return the cache used by the ingest helpers
+     */
+    protected NormalizedValueCache configureNormalizedValueCache(Configuration conf) {
+        return NormalizedValueCache.configure(conf);
+    }
+
     /**
      * Get the data type handlers for a given type name. This will also fill the predicate map and the validators as a side effect.
      *
@@ -314,52 +373,12 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
                 log.warn("Attempted to load configuration for a type that does not exist in the registry: " + typeStr);
             } else {
                 Type t = TypeRegistry.getType(typeStr);
-                String fieldValidators = context.getConfiguration().get(typeStr + FieldValidator.FIELD_VALIDATOR_NAMES);
-
-                if (fieldValidators != null) {
-                    String[] validatorClasses = StringUtils.split(fieldValidators, ",");
-                    for (String validatorClass : validatorClasses) {
-                        try {
-                            Class<? extends FieldValidator> clazz = Class.forName(validatorClass).asSubclass(FieldValidator.class);
-                            FieldValidator validator = clazz.newInstance();
-                            validator.init(t, context.getConfiguration());
-                            validators.put(typeStr, validator);
-                        } catch (ClassNotFoundException e) {
-                            log.error("Error finding validator " + validatorClass, e);
-                        } catch (InstantiationException | IllegalAccessException e) {
-                            log.error("Error creating validator " + validatorClass, e);
-                        }
-                    }
-                }
+                validators.putAll(typeStr, createValidators(typeStr, t, context));
 
-                String[] handlerClassNames = t.getDefaultDataTypeHandlers();
-
-                if (handlerClassNames != null) {
-                    for (String handlerClassName : handlerClassNames) {
-                        log.info("Configuring handler: " + handlerClassName);
-                        try {
-                            @SuppressWarnings("unchecked")
-                            Class<? extends DataTypeHandler<K1>> clazz = (Class<? extends DataTypeHandler<K1>>) Class.forName(handlerClassName);
-                            DataTypeHandler<K1> h = clazz.getDeclaredConstructor().newInstance();
-                            // Create a counter initialized to zero for all handler types.
-                            getCounter(context, IngestOutput.ROWS_CREATED.name(), h.getClass().getSimpleName()).increment(0);
-                            // Trick here. Set the data.name parameter to type T, then call setup on the DataTypeHandler
-                            Configuration clone = new Configuration(context.getConfiguration());
-                            clone.set(DataTypeHelper.Properties.DATA_NAME, t.typeName());
-                            // Use the StandaloneReporter and StandaloneTaskAttemptContext for the Handlers. Because the StandaloneTaskAttemptContext
-                            // is a subclass of TaskInputOutputContext and TaskAttemptContext is not. We are using this to record the counters during
-                            // processing. We will need to add the counters in the StandaloneReporter to the Map.Context in the close call.
-                            // TaskAttemptContext newContext = new TaskAttemptContext(clone, context.getTaskAttemptID());
-                            StandaloneTaskAttemptContext<K1,V1,K2,V2> newContext = new StandaloneTaskAttemptContext<>(clone, context.getTaskAttemptID(),
-                                            reporter);
-                            h.setup(newContext);
-                            typeMap.get(typeStr).add(h);
-                        } catch (ClassNotFoundException e) {
-                            log.error("Error finding DataTypeHandler " + handlerClassName, e);
-                        } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
-                            log.error("Error creating DataTypeHandler " + handlerClassName, e);
-                        }
-                    }
+                for (DataTypeHandler<K1> h : createHandlers(t, context, reporter)) {
+                    // Create a counter initialized to zero for all handler types.
+                    getCounter(context, IngestOutput.ROWS_CREATED.name(), h.getClass().getSimpleName()).increment(0);
+                    typeMap.get(typeStr).add(h);
                 }
             }
             log.info("EventMapper configured with the following handlers for " + typeStr + ": " + typeMap.get(typeStr));
@@ -368,6 +387,81 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
         return typeMap.get(typeStr);
     }
 
+    /**
+     * Create and initialize the field validators configured for a given type
+     *
+     * @param typeStr
+     *            name of the type
+     * @param t
+     *            the type
+     * @param context
+     *            the context
+     * @return the field validators
+     */
+    private List<FieldValidator> createValidators(String typeStr, Type t, Context context) {
+        List<FieldValidator> typeValidators = new ArrayList<>();
+        String fieldValidators = context.getConfiguration().get(typeStr + FieldValidator.FIELD_VALIDATOR_NAMES);
+
+        if (fieldValidators != null) {
+            String[] validatorClasses = StringUtils.split(fieldValidators, ",");
+            for (String validatorClass : validatorClasses) {
+                try {
+                    Class<? extends FieldValidator> clazz = Class.forName(validatorClass).asSubclass(FieldValidator.class);
+                    FieldValidator validator = clazz.newInstance();
+                    validator.init(t, context.getConfiguration());
+                    typeValidators.add(validator);
+                } catch (ClassNotFoundException e) {
+                    log.error("Error finding validator " + validatorClass, e);
+                } catch (InstantiationException | IllegalAccessException e) {
+                    log.error("Error creating validator " + validatorClass, e);
+                }
+            }
+        }
+        return typeValidators;
+    }
+
+    /**
+     * Create and set up the data type handlers for a given type
+     *
+     * @param t
+     *            the type
+     * @param context
+     *            the context
+     * @param typeReporter
+     *            the reporter which will record the counters of the handlers
+     * @return the data type handlers
+     */
+    private List<DataTypeHandler<K1>> createHandlers(Type t, Context context, StandaloneStatusReporter typeReporter) {
+        List<DataTypeHandler<K1>> handlers = new ArrayList<>();
+        String[] handlerClassNames = t.getDefaultDataTypeHandlers();
+
+        if (handlerClassNames != null) {
+            for (String handlerClassName : handlerClassNames) {
+                log.info("Configuring handler: " + handlerClassName);
+                try {
+                    @SuppressWarnings("unchecked")
+                    Class<? extends DataTypeHandler<K1>> clazz = (Class<? extends DataTypeHandler<K1>>) Class.forName(handlerClassName);
+                    DataTypeHandler<K1> h = clazz.getDeclaredConstructor().newInstance();
+                    // Trick here. Set the data.name parameter to type T, then call setup on the DataTypeHandler
+                    Configuration clone = new Configuration(context.getConfiguration());
+                    clone.set(DataTypeHelper.Properties.DATA_NAME, t.typeName());
+                    // Use the StandaloneReporter and StandaloneTaskAttemptContext for the Handlers. Because the StandaloneTaskAttemptContext
+                    // is a subclass of TaskInputOutputContext and TaskAttemptContext is not. We are using this to record the counters during
+                    // processing. We will need to add the counters in the StandaloneReporter to the Map.Context in the close call.
+                    // TaskAttemptContext newContext = new TaskAttemptContext(clone, context.getTaskAttemptID());
+                    StandaloneTaskAttemptContext<K1,V1,K2,V2> newContext = new StandaloneTaskAttemptContext<>(clone, context.getTaskAttemptID(), typeReporter);
+                    h.setup(newContext);
+                    handlers.add(h);
+                } catch (ClassNotFoundException e) {
+                    log.error("Error finding DataTypeHandler " + handlerClassName, e);
+                } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+                    log.error("Error creating DataTypeHandler " + handlerClassName, e);
+                }
+            }
+        }
+        return handlers;
+    }
+
     private Set<RawRecordPredicate> getPredicates(final String type, final Context context, final Collection<String> basePredicates) {
         Collection<String> predicateClasses = new HashSet<>(context.getConfiguration().getTrimmedStringCollection(type + "." + RECORD_PREDICATES));
         predicateClasses.addAll(basePredicates);
@@ -428,7 +522,7 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
         }
 
         // ensure this datatype's handlers etc are loaded such that the predicates and validators are filled as well
-        List<DataTypeHandler<K1>> typeHandlers = loadDataType(value.getDataType().typeName(), context);
+        loadDataType(value.getDataType().typeName(), context);
 
         // This is a little bit fragile, but there is no other way
         // to get the context on a partitioner, and we are only
@@ -508,9 +602,9 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
         }
 
         // Add the list of handlers with the ALL specified handlers
-        List<DataTypeHandler<K1>> handlers = new ArrayList<>();
-        handlers.addAll(typeHandlers);
-        handlers.addAll(loadDataType(TypeRegistry.ALL_PREFIX, context));
+        List<String> handlerTypes = new ArrayList<>();
+        handlerTypes.add(value.getDataType().typeName());
+        handlerTypes.add(TypeRegistry.ALL_PREFIX);
 
         // Always include any event errors in the counters
         for (String error : value.getErrors()) {
@@ -520,10 +614,10 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
         // switch over to the errorHandlerList if still a fatal error
         if (value.fatalError()) {
             // now clear out the handlers to avoid processing this event
-            handlers.clear();
+            handlerTypes.clear();
             if (!value.ignorableError()) {
                 // since this is not an ignorable error, lets add the error handlers back into the list
-                handlers.addAll(loadDataType(TypeRegistry.ERROR_PREFIX, context));
+                handlerTypes.add(TypeRegistry.ERROR_PREFIX);
 
                 getCounter(context, IngestInput.EVENT_FATAL_ERROR).increment(1);
                 getCounter(context, IngestInput.EVENT_FATAL_ERROR.name(), "ValidationError").increment(1);
@@ -535,49 +629,34 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
             context.progress();
         }
 
-        Multimap<String,NormalizedContentInterface> fields = HashMultimap.create();
-        try {
-            processEvent(key, value, handlers, fields, context);
-        } catch (Exception e) {
-            // Rollback anything written for this event
-            contextWriter.rollback();
-
-            // Fail job on constraint violations
-            if (e instanceof ConstraintChecker.ConstraintViolationException) {
-                throw ((RuntimeException) e);
-            }
-
-            // ensure they know we are still working on it
-            context.progress();
-
-            // log error
-            log.error("Runtime exception processing event", e);
+        List<DataTypeHandler<K1>> handlers = new ArrayList<>();
+        for (String handlerType : handlerTypes) {
+            handlers.addAll(loadDataType(handlerType, context));
+        }
 
-            // now lets dump to the errors table
-            // first set the exception on the event if not a field normalization error in which case the fields contain the errors
-            if (!(e instanceof FieldNormalizationError)) {
-                value.setAuxData(e);
-            }
-            for (DataTypeHandler<K1> handler : loadDataType(TypeRegistry.ERROR_PREFIX, context)) {
-                if (log.isTraceEnabled())
-                    log.trace("executing handler: " + handler.getClass().getName());
+        if (processingService != null) {
+            if (handlers.stream().noneMatch(handler -> handler instanceof ExtendedDataTypeHandler)) {
                 try {
-                    executeHandler(key, value, fields, handler, context);
-                    context.progress();
-                } catch (Exception e2) {
-                    // This is a real bummer, we had a critical exception attempting to throw the event into the error table.
-                    // lets terminate this job
-                    log.error("Failed to process error data handlers for an event", e2);
-                    throw new IOException("Failed to process error data handlers for an event", e2);
+                    submitEvent(key, value, handlerTypes, context);
+                } finally {
+                    // Remove ORIG_FILE from NDC that was populated by reprocessing events from the error tables
+                    if (reprocessedNDCPush) {
+                        NDC.pop();
+                    }
                 }
+                offset++;
+                return;
             }
 
-            // now create some counters
-            getCounter(context, IngestProcess.RUNTIME_EXCEPTION).increment(1);
-            List<String> exceptions = getExceptionSynopsis(e);
-            for (String exception : exceptions) {
-                getCounter(context, IngestProcess.RUNTIME_EXCEPTION.name(), exception).increment(1);
-            }
+            // this event writes directly to the context writer, so it must follow any events which are still being processed
+            drainEvents(context, 0);
+        }
+
+        Multimap<String,NormalizedContentInterface> fields = HashMultimap.create();
+        try {
+            processEvent(key, value, handlers, fields, context);
+        } catch (Exception e) {
+            handleEventError(key, value, fields, e, context);
         } finally {
             // Remove ORIG_FILE from NDC that was populated by reprocessing events from the error tables
             if (reprocessedNDCPush) {
@@ -602,6 +681,133 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
         }
     }
 
+    /**
+     * Handle an exception thrown while processing an event by rolling back anything written for the event and passing it to the error handlers instead
+     *
+     * @param key
+     *            The key of the map process
+     * @param value
+     *            The event
+     * @param fields
+     *            The last set of fields gathered for the event
+     * @param e
+     *            The exception
+     * @param context
+     *            The context
+     * @throws IOException
+     *             if the error handlers fail
+     */
+    private void handleEventError(K1 key, RawRecordContainer value, Multimap<String,NormalizedContentInterface> fields, Exception e, Context context)
+                    throws IOException, InterruptedException {
+        // Rollback anything written for this event
+        contextWriter.rollback();
+
+        // Fail job on constraint violations
+        if (e instanceof ConstraintChecker.ConstraintViolationException) {
+            throw ((RuntimeException) e);
+        }
+
+        // ensure they know we are still working on it
+        context.progress();
+
+        // log error
+        log.error("Runtime exception processing event", e);
+
+        // now lets dump to the errors table
+        // first set the exception on the event if not a field normalization error in which case the fields contain the errors
+        if (!(e instanceof FieldNormalizationError)) {
+            value.setAuxData(e);
+        }
+        for (DataTypeHandler<K1> handler : loadDataType(TypeRegistry.ERROR_PREFIX, context)) {
+            if (log.isTraceEnabled())
+                log.trace("executing handler: " + handler.getClass().getName());
+            try {
+                executeHandler(key, value, fields, handler, context);
+                context.progress();
+            } catch (Exception e2) {
+                // This is a real bummer, we had a critical exception attempting to throw the event into the error table.
+                // lets terminate this job
+                log.error("Failed to process error data handlers for an event", e2);
+                throw new IOException("Failed to process error data handlers for an event", e2);
+            }
+        }
+
+        // now create some counters
+        getCounter(context, IngestProcess.RUNTIME_EXCEPTION).increment(1);
+        List<String> exceptions = getExceptionSynopsis(e);
+        for (String exception : exceptions) {
+            getCounter(context, IngestProcess.RUNTIME_EXCEPTION.name(), exception).increment(1);
+        }
+    }
+
+    /**
+     * Queue an event to be processed by the processing service, first writing out the oldest pending events if the window is full
+     *
+     * @param key
+     *            The key of the map process
+     * @param value
+     *            The event, which will be copied as the record reader may reuse it
+     * @param handlerTypes
+     *            The types whose handlers will process the event
+     * @param context
+     *            The context
+     * @throws IOException
+     *             if a pending event could not be processed
+     */
+    @SuppressWarnings("unchecked")
+    private void submitEvent(K1 key, RawRecordContainer value, List<String> handlerTypes, Context context) throws IOException, InterruptedException {
+        drainEvents(context, processingWindow - 1);
+
+        K1 keyCopy = key instanceof Writable ? (K1) WritableUtils.clone((Writable) key, context.getConfiguration()) : key;
+        // the processing thread validates the event with its own instances of the validators the map thread would use
+        String validatorType = validators.containsKey(value.getDataType().outputName()) ? value.getDataType().outputName() : null;
+        PendingEvent event = new PendingEvent(keyCopy, value.copy(), handlerTypes, validatorType, NDC.peek(), offset);
+        event.future = processingService.submit(event);
+        pendingEvents.addLast(event);
+    }
+
+    /**
+     * Write out pending events, in the order in which they were submitted, until no more than the given number remain. Any further events which have already
+     * been processed are written out as well.
+     *
+     * @param context
+     *            The context
+     * @param maxPending
+     *            The maximum number of events which may remain pending
+     * @throws IOException
+     *             if a pending event could not be processed
+     */
+    private void drainEvents(Context context, int maxPending) throws IOException, InterruptedException {
+        while (pendingEvents.size() > maxPending || (!pendingEvents.isEmpty() && pendingEvents.peekFirst().future.isDone())) {
+            PendingEvent event = pendingEvents.removeFirst();
+            try {
+                event.future.get();
+            } catch (ExecutionException e) {
+                throw new IOException("Failed to process event " + event.value.getId(), e.getCause());
+            }
+
+            for (CounterGroup cg : event.reporter.getCounters()) {
+                for (Counter c : cg) {
+                    getCounter(context, cg.getName(), c.getName()).increment(c.getValue());
+                }
+            }
+
+            try {
+                if (event.error != null) {
+                    handleEventError(event.key, event.value, event.fields, event.error, context);
+                } else {
+                    contextWriter.write(event.output, context);
+                }
+            } finally {
+                // cleanup the context writer
+                contextWriter.commit(context);
+                context.progress();
+            }
+
+            getCounter(context, IngestOutput.EVENTS_PROCESSED.name(), event.value.getDataType().typeName().toUpperCase()).increment(1);
+        }
+    }
+
     /**
      * Get an exception synopsis that is suitable as a counter. We want at a minimum the exception name and a useful location. A useful location is defined as
      * the highest location that is in the datawave.ingest package
@@ -657,8 +863,14 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
     @Override
     public void cleanup(Context context) throws IOException, InterruptedException {
 
+        // Write out the events which are still being processed
+        if (processingService != null) {
+            drainEvents(context, 0);
+            processingService.shutdown();
+        }
+
         // Write the metadata to the output
-        for (List<DataTypeHandler<K1>> handlers : typeMap.values()) {
+        for (List<DataTypeHandler<K1>> handlers : getAllHandlers()) {
             for (DataTypeHandler<K1> h : handlers)
                 if (h.getMetadata() != null) {
                     try {
@@ -677,19 +889,32 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
         // cleanup the context writer
         contextWriter.cleanup(context);
 
-        for (List<DataTypeHandler<K1>> handlers : typeMap.values()) {
+        for (List<DataTypeHandler<K1>> handlers : getAllHandlers()) {
             for (DataTypeHandler<K1> h : handlers)
                 h.close(context);
         }
         typeMap.clear();
 
-        // Add the counters from the standalone reporter to this context.
-        Counters counters = reporter.getCounters();
-        for (CounterGroup cg : counters) {
-            for (Counter c : cg) {
-                getCounter(context, cg.getName(), c.getName()).increment(c.getValue());
+        // Add the counters from the standalone reporters to this context.
+        List<StandaloneStatusReporter> reporters = new ArrayList<>();
+        reporters.add(reporter);
+        for (EventWorker eventWorker : workers) {
+            reporters.add(eventWorker.reporter);
+        }
+        for (StandaloneStatusReporter r : reporters) {
+            Counters counters = r.getCounters();
+            for (CounterGroup cg : counters) {
+                for (Counter c : cg) {
+                    getCounter(context, cg.getName(), c.getName()).increment(c.getValue());
+                }
             }
         }
+        workers.clear();
+
+        for (Entry<String,CacheStats> stats : normalizedValueCache.getStats().entrySet()) {
+            getCounter(context, NormalizedValueCache.COUNTER_GROUP, stats.getKey() + "_HITS").increment(stats.getValue().hitCount());
+            getCounter(context, NormalizedValueCache.COUNTER_GROUP, stats.getKey() + "_MISSES").increment(stats.getValue().missCount());
+        }
 
         super.cleanup(context);
 
@@ -699,6 +924,17 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
         }
     }
 
+    /**
+     * @return the handlers of the map thread, followed by those of every processing thread
+     */
+    private List<List<DataTypeHandler<K1>>> getAllHandlers() {
+        List<List<DataTypeHandler<K1>>> allHandlers = new ArrayList<>(typeMap.values());
+        for (EventWorker eventWorker : workers) {
+            allHandlers.addAll(eventWorker.handlers.values());
+        }
+        return allHandlers;
+    }
+
     /**
      * This is where we apply a list of handlers to an event.
      *
@@ -715,8 +951,39 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
      * @throws Exception
      *             if there is a problem
      */
-    public void processEvent(K1 key, RawRecordContainer value, List<DataTypeHandler<K1>> handlers, Multimap<String,NormalizedContentInterface> fields,
+    public final void processEvent(K1 key, RawRecordContainer value, List<DataTypeHandler<K1>> handlers, Multimap<String,NormalizedContentInterface> fields,
                     Context context) throws Exception {
+        processEvent(value, handlers, fields, validators.get(value.getDataType().outputName()), NDC.peek(), offset, dateNormalizer, handler -> {
+            executeHandler(key, value, fields, handler, context);
+            context.progress();
+        });
+    }
+
+    /**
+     * Apply a list of handlers to an event, independently of the thread doing so
+     *
+     * @param value
+     *            The event
+     * @param handlers
+     *            The list of handlers to apply
+     * @param fields
+     *            The list which keeps the last set of fields
+     * @param fieldValidators
+     *            The validators for the event's data type
+     * @param sourceFileName
+     *            The name of the file the event was read from
+     * @param eventOffset
+     *            The offset of the event within the split
+     * @param normalizer
+     *            The normalizer for the load date
+     * @param execution
+     *            Executes each handler once the fields have been gathered and validated
+     * @throws Exception
+     *             if there is a problem
+     */
+    private void processEvent(RawRecordContainer value, List<DataTypeHandler<K1>> handlers, Multimap<String,NormalizedContentInterface> fields,
+                    Collection<FieldValidator> fieldValidators, String sourceFileName, long eventOffset, DateNormalizer normalizer,
+                    HandlerExecution<K1> execution) throws Exception {
         IngestHelperInterface previousHelper = null;
 
         for (DataTypeHandler<K1> handler : handlers) {
@@ -741,7 +1008,7 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
             if (null == previousHelper || !previousHelper.getClass().getName().equals(thisHelper.getClass().getName())) {
                 fields.clear();
                 Throwable e = null;
-                for (Map.Entry<String,NormalizedContentInterface> entry : getFields(value, handler).entries()) {
+                for (Map.Entry<String,NormalizedContentInterface> entry : getFields(value, handler, sourceFileName, eventOffset, normalizer).entries()) {
                     // noinspection ThrowableResultOfMethodCallIgnored
                     if (entry.getValue().getError() != null) {
                         e = entry.getValue().getError();
@@ -764,17 +1031,18 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
                 previousHelper = thisHelper;
             }
 
-            Collection<FieldValidator> fieldValidators = validators.get(value.getDataType().outputName());
             for (FieldValidator validator : fieldValidators) {
                 validator.validate(value, fields);
             }
 
-            executeHandler(key, value, fields, handler, context);
-
-            context.progress();
+            execution.execute(handler);
         }
     }
 
+    private interface HandlerExecution<K1> {
+        void execute(DataTypeHandler<K1> handler) throws Exception;
+    }
+
     private static class FieldNormalizationError extends Exception {
         private static final long serialVersionUID = 1L;
 
@@ -783,7 +1051,12 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
         }
     }
 
-    public Multimap<String,NormalizedContentInterface> getFields(RawRecordContainer value, DataTypeHandler<K1> handler) throws Exception {
+    public final Multimap<String,NormalizedContentInterface> getFields(RawRecordContainer value, DataTypeHandler<K1> handler) throws Exception {
+        return getFields(value, handler, NDC.peek(), offset, dateNormalizer);
+    }
+
+    private Multimap<String,NormalizedContentInterface> getFields(RawRecordContainer value, DataTypeHandler<K1> handler, String sourceFileName,
+                    long eventOffset, DateNormalizer normalizer) throws Exception {
         Multimap<String,NormalizedContentInterface> newFields;
         // Parse the event into its field names and field values using the DataTypeHandler's BaseIngestHelper object.
         newFields = handler.getHelper(value.getDataType()).getEventFields(value);
@@ -811,14 +1084,14 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
         long loadDate = now.get();
         NormalizedFieldAndValue loadDateValue = new NormalizedFieldAndValue(LOAD_DATE_FIELDNAME, Long.toString(loadDate));
         // set an indexed field value for use by the date index data type handler
-        loadDateValue.setIndexedFieldValue(dateNormalizer.normalizeDelegateType(new Date(loadDate)));
+        loadDateValue.setIndexedFieldValue(normalizer.normalizeDelegateType(new Date(loadDate)));
         newFields.put(LOAD_DATE_FIELDNAME, loadDateValue);
 
         String seqFileName = null;
 
         // place the sequence filename into the event
         if (createSequenceFileName) {
-            seqFileName = NDC.peek();
+            seqFileName = sourceFileName;
 
             if (trimSequenceFileName) {
                 seqFileName = StringUtils.substringAfterLast(seqFileName, "/");
@@ -827,7 +1100,7 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
             if (null != seqFileName) {
                 StringBuilder seqFile = new StringBuilder(seqFileName);
 
-                seqFile.append(SRC_FILE_DEL).append(offset);
+                seqFile.append(SRC_FILE_DEL).append(eventOffset);
 
                 if (null != splitStart) {
                     seqFile.append(SRC_FILE_DEL).append(splitStart);
@@ -851,7 +1124,7 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
     }
 
     @SuppressWarnings("unchecked")
-    public void executeHandler(K1 key, RawRecordContainer event, Multimap<String,NormalizedContentInterface> fields, DataTypeHandler<K1> handler,
+    public final void executeHandler(K1 key, RawRecordContainer event, Multimap<String,NormalizedContentInterface> fields, DataTypeHandler<K1> handler,
                     Context context) throws Exception {
         long count = 0;
 
@@ -918,4 +1191,101 @@ public class EventMapper<K1,V1 extends RawRecordContainer,K2,V2> extends StatsDE
         return this.typeMap;
     }
 
+    /**
+     * The state of a processing thread, which has its own instances of the data type handlers and field validators so that they are never shared between
+     * threads
+     */
+    private class EventWorker {
+        private final Context context;
+        private final StandaloneStatusReporter reporter = new StandaloneStatusReporter();
+        private final Map<String,List<DataTypeHandler<K1>>> handlers = new HashMap<>();
+        private final Map<String,List<FieldValidator>> validators = new HashMap<>();
+        private final DateNormalizer dateNormalizer = new DateNormalizer();
+
+        EventWorker(Context context) {
+            this.context = context;
+        }
+
+        private List<DataTypeHandler<K1>> getHandlers(String typeStr) {
+            List<DataTypeHandler<K1>> typeHandlers = handlers.get(typeStr);
+            if (typeHandlers == null) {
+                if (TypeRegistry.getTypeNames().contains(typeStr)) {
+                    typeHandlers = createHandlers(TypeRegistry.getType(typeStr), context, reporter);
+                } else {
+                    typeHandlers = new ArrayList<>();
+                }
+                handlers.put(typeStr, typeHandlers);
+            }
+            return typeHandlers;
+        }
+
+        private List<FieldValidator> getValidators(String typeStr) {
+            if (typeStr == null) {
+                return Collections.emptyList();
+            }
+            return validators.computeIfAbsent(typeStr, type -> createValidators(type, TypeRegistry.getType(type), context));
+        }
+
+        void process(PendingEvent event) throws Exception {
+            List<DataTypeHandler<K1>> eventHandlers = new ArrayList<>();
+            for (String handlerType : event.handlerTypes) {
+                eventHandlers.addAll(getHandlers(handlerType));
+            }
+
+            List<FieldValidator> eventValidators = getValidators(event.validatorType);
+            processEvent(event.value, eventHandlers, event.fields, eventValidators, event.sourceFileName, event.offset, dateNormalizer, handler -> {
+                Multimap<BulkIngestKey,Value> r = handler.processBulk(event.key, event.value, event.fields, event.reporter);
+                if (r == null) {
+                    event.reporter.getCounter(IngestInput.EVENT_FATAL_ERROR).increment(1);
+                    event.reporter.getCounter(IngestInput.EVENT_FATAL_ERROR.name(), "NullMultiMap").increment(1);
+                } else if (!r.isEmpty()) {
+                    event.output.putAll(r);
+                    event.reporter.getCounter(IngestOutput.ROWS_CREATED.name(), handler.getClass().getSimpleName()).increment(r.size());
+                    event.reporter.getCounter(IngestOutput.ROWS_CREATED).increment(r.size());
+                }
+
+                if (handler.getMetadata() != null) {
+                    handler.getMetadata().addEvent(handler.getHelper(event.value.getDataType()), event.value, event.fields, now.get());
+                }
+            });
+        }
+    }
+
+    /**
+     * An event being processed by a processing thread. The keys and counters it produces are buffered until it is written out by the map thread.
+     */
+    private class PendingEvent implements Runnable {
+        private final K1 key;
+        private final RawRecordContainer value;
+        private final List<String> handlerTypes;
+        private final String validatorType;
+        private final String sourceFileName;
+        private final long offset;
+
+        private final Multimap<String,NormalizedContentInterface> fields = HashMultimap.create();
+        private final Multimap<BulkIngestKey,Value> output = ArrayListMultimap.create();
+        private final StandaloneStatusReporter reporter = new StandaloneStatusReporter();
+        private Exception error = null;
+        private Future<?> future = null;
+
+        PendingEvent(K1 key, RawRecordContainer value, List<String> handlerTypes, String validatorType, String sourceFileName, long offset) {
+            this.key = key;
+            this.value = value;
+            this.handlerTypes = handlerTypes;
+            this.validatorType = validatorType;
+            this.sourceFileName = sourceFileName;
+            this.offset = offset;
+        }
+
+        @Override
+        public void run() {
+            try {
+                worker.get().process(this);
+            } catch (Exception e) {
+                // nothing produced by a failed event is written, as it would have been rolled back
+                output.clear();
+                error = e;
+            }
+        }
+    }
 }
@@ -0,0 +1,111 @@
+package datawave.ingest.mapreduce.handler.edge;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import datawave.ingest.mapreduce.handler.edge.define.EdgeDefinition;
+
+/**
+ * Indexes the edge definitions of a data type by their source and sink field names, so that only the definitions whose fields are both present in an event
+ * are considered. The candidates are returned as a set of positions in the definition list, which preserves the order in which the definitions are processed.
+ * <p>
+ * The time spent evaluating the precondition of each definition is also tracked here. An index is not thread safe.
+ */
+public class EdgeDefinitionIndex {
+
+    private final List<EdgeDefinition> definitions;
+    private final int size;
+    private final Map<String,BitSet> sources = new HashMap<>();
+    private final Map<String,BitSet> sinks = new HashMap<>();
+
+    private final long[] evaluations;
+    private final long[] matches;
+    private final long[] evaluationNanos;
+
+    public EdgeDefinitionIndex(List<EdgeDefinition> definitions) {
+        this.definitions = definitions;
+        this.size = definitions.size();
+        for (int i = 0; i < size; i++) {
+            EdgeDefinition definition = definitions.get(i);
+            sources.computeIfAbsent(definition.getSourceFieldName(), k -> new BitSet(size)).set(i);
+            sinks.computeIfAbsent(definition.getSinkFieldName(), k -> new BitSet(size)).set(i);
+        }
+        this.evaluations = new long[size];
+        this.matches = new long[size];
+        this.evaluationNanos = new long[size];
+    }
+
+    /**
+     * @param definitions
+     *            the current edge definitions of the data type
+     * @return true if this index was built from the given definitions and they have not since been added to or removed from
+     */
+    public boolean isCurrent(List<EdgeDefinition> definitions) {
+        return this.definitions == definitions && size == definitions.size();
+    }
+
+    /**
+     * Find the definitions whose source and sink fields are both present.
+     *
+     * @param fieldNames
+     *            the names of the fields present in the event
+     * @return the positions of the matching definitions
+     */
+    public BitSet getCandidates(Set<String> fieldNames) {
+        BitSet candidates = new BitSet(size);
+        BitSet sinkCandidates = new BitSet(size);
+        for (String fieldName : fieldNames) {
+            BitSet source = sources.get(fieldName);
+            if (source != null) {
+                candidates.or(source);
+            }
+            BitSet sink = sinks.get(fieldName);
+            if (sink != null) {
+                sinkCandidates.or(sink);
+            }
+        }
+        candidates.and(sinkCandidates);
+        return candidates;
+    }
+
+    public EdgeDefinition get(int index) {
+        return definitions.get(index);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Record the evaluation of the precondition of a definition
+     *
+     * @param index
+     *            the position of the definition
+     * @param nanos
+     *            the time taken to evaluate the precondition
+     * @param matched
+     *            whether the precondition was met
+     */
+    public void recordEvaluation(int index, long nanos, boolean matched) {
+        evaluations[index]++;
+        evaluationNanos[index] += nanos;
+        if (matched) {
+            matches[index]++;
+        }
+    }
+
+    public long getEvaluations(int index) {
+        return evaluations[index];
+    }
+
+    public long getMatches(int index) {
+        return matches[index];
+    }
+
+    public long getEvaluationNanos(int index) {
+        return evaluationNanos[index];
+    }
+}
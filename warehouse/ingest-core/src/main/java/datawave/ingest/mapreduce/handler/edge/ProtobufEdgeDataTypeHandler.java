@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -23,7 +24,6 @@ import java.util.regex.Pattern;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.security.ColumnVisibility;
-import org.apache.commons.jexl3.JexlScript;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.StatusReporter;
@@ -68,6 +68,7 @@ import datawave.ingest.mapreduce.handler.edge.evaluation.EdgePreconditionArithme
 import datawave.ingest.mapreduce.handler.edge.evaluation.EdgePreconditionCacheHelper;
 import datawave.ingest.mapreduce.handler.edge.evaluation.EdgePreconditionJexlContext;
 import datawave.ingest.mapreduce.handler.edge.evaluation.EdgePreconditionJexlEvaluation;
+import datawave.ingest.mapreduce.handler.edge.evaluation.EdgePreconditionPredicate;
 import datawave.ingest.mapreduce.job.BulkIngestKey;
 import datawave.ingest.mapreduce.job.writer.ContextWriter;
 import datawave.ingest.metadata.RawRecordMetadata;
@@ -117,6 +118,13 @@ public class ProtobufEdgeDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> implements Exten
 
     public static final String INCLUDE_ALL_EDGES = "protobufedge.include.all.edges";
 
+    /**
+     * Counter groups for the precondition evaluations of each data type, reported when the handler is closed
+     */
+    public static final String PRECONDITION_EVALUATIONS_COUNTER = "EDGE_PRECONDITION_EVALUATIONS";
+    public static final String PRECONDITION_MATCHES_COUNTER = "EDGE_PRECONDITION_MATCHES";
+    public static final String PRECONDITION_MILLIS_COUNTER = "EDGE_PRECONDITION_MILLIS";
+
     public static final String TRIM_FIELD_GROUP = ".trim.field.group";
     protected boolean trimFieldGroup = false;
 
@@ -135,7 +143,8 @@ public class ProtobufEdgeDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> implements Exten
     private EdgePreconditionJexlEvaluation edgePreconditionEvaluation;
     private EdgePreconditionCacheHelper edgePreconditionCacheHelper;
     private EdgePreconditionArithmetic arithmetic = new EdgePreconditionArithmetic();
-    private Map<String,JexlScript> scriptCache;
+    private Map<String,EdgePreconditionPredicate> preconditionCache;
+    private Map<String,EdgeDefinitionIndex> edgeDefinitionIndexes = new HashMap<>();
 
     protected String edgeTableName = null;
     protected String metadataTableName = null;
@@ -235,6 +244,7 @@ public class ProtobufEdgeDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> implements Exten
          * Parse and Store the Edge defs by data type
          */
         edges = new HashMap<>();
+        edgeDefinitionIndexes.clear();
         ClassPathXmlApplicationContext ctx = null;
         try {
             ctx = new ClassPathXmlApplicationContext(ProtobufEdgeDataTypeHandler.class.getClassLoader().getResource(springConfigFile).toString());
@@ -306,7 +316,7 @@ public class ProtobufEdgeDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> implements Exten
             edgePreconditionContext = new EdgePreconditionJexlContext(edges);
             edgePreconditionEvaluation = new EdgePreconditionJexlEvaluation();
             edgePreconditionCacheHelper = new EdgePreconditionCacheHelper(arithmetic);
-            scriptCache = edgePreconditionCacheHelper.createScriptCacheFromEdges(edges);
+            preconditionCache = edgePreconditionCacheHelper.createPreconditionCacheFromEdges(edges);
         } else if (!includeAllEdges) {
 
             // Else remove edges with a precondition. No conditional edge defs will be evaluated possibly resulting in fewer edges
@@ -367,7 +377,7 @@ public class ProtobufEdgeDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> implements Exten
             edgePreconditionContext = new EdgePreconditionJexlContext(edges);
             edgePreconditionEvaluation = new EdgePreconditionJexlEvaluation();
             edgePreconditionCacheHelper = new EdgePreconditionCacheHelper(arithmetic);
-            scriptCache = edgePreconditionCacheHelper.createScriptCacheFromEdges(edges);
+            preconditionCache = edgePreconditionCacheHelper.createPreconditionCacheFromEdges(edges);
         } else {
 
             // Else remove edges with a precondition
@@ -427,6 +437,7 @@ public class ProtobufEdgeDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> implements Exten
 
     public void setEdges(Map<String,EdgeDefinitionConfigurationHelper> edges) {
         this.edges = edges;
+        this.edgeDefinitionIndexes.clear();
     }
 
     public Map<String,Set<String>> getDisallowlistFieldLookup() {
@@ -573,18 +584,18 @@ public class ProtobufEdgeDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> implements Exten
         Multimap<String,NormalizedContentInterface> mSource = null;
         Multimap<String,NormalizedContentInterface> mSink = null;
 
-        for (EdgeDefinition edgeDef : edgeDefs) {
+        // don't bother evaluating preconditions if we know this event doesn't have the necessary fields for an edge
+        EdgeDefinitionIndex edgeDefIndex = getEdgeDefinitionIndex(typeName, edgeDefs);
+        BitSet candidates = edgeDefIndex.getCandidates(depthFirstList.keySet());
+
+        for (int edgeDefPosition = candidates.nextSetBit(0); edgeDefPosition >= 0; edgeDefPosition = candidates.nextSetBit(edgeDefPosition + 1)) {
+            EdgeDefinition edgeDef = edgeDefIndex.get(edgeDefPosition);
             arithmetic.clearMatchingGroups();
             Map<String,Set<String>> matchingGroups = new HashMap<>();
             String jexlPreconditions = null;
 
-            // don't bother evaluating preconditions if we know this event doesn't have the necessary fields for this edge
-            if (depthFirstList.containsKey(edgeDef.getSourceFieldName()) && depthFirstList.containsKey(edgeDef.getSinkFieldName())) {
-                mSource = depthFirstList.get(edgeDef.getSourceFieldName());
-                mSink = depthFirstList.get(edgeDef.getSinkFieldName());
-            } else {
-                continue;
-            }
+            mSource = depthFirstList.get(edgeDef.getSourceFieldName());
+            mSink = depthFirstList.get(edgeDef.getSinkFieldName());
 
             // bail if the event doesn't contain any values for the source or sink field
             if (null == mSource || null == mSink) {
@@ -602,18 +613,21 @@ public class ProtobufEdgeDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> implements Exten
                 if (edgeDef.hasJexlPrecondition()) {
                     jexlPreconditions = edgeDef.getJexlPrecondition();
 
-                    long start = System.currentTimeMillis();
-                    if (!edgePreconditionEvaluation.apply(scriptCache.get(jexlPreconditions))) {
+                    long start = System.nanoTime();
+                    boolean matched = preconditionCache.get(jexlPreconditions).evaluate(edgePreconditionContext, edgePreconditionEvaluation);
+                    long elapsed = System.nanoTime() - start;
+                    edgeDefIndex.recordEvaluation(edgeDefPosition, elapsed, matched);
+                    if (!matched) {
 
                         if (log.isTraceEnabled()) {
-                            log.trace("Time to evaluate event(-): " + (System.currentTimeMillis() - start) + "ms.");
+                            log.trace("Time to evaluate event(-): " + (elapsed / 1000000) + "ms.");
                         }
                         continue;
 
                     } else {
                         matchingGroups = arithmetic.getMatchingGroups();
                         if (log.isTraceEnabled()) {
-                            log.trace("Time to evaluate event(+): " + (System.currentTimeMillis() - start) + "ms.");
+                            log.trace("Time to evaluate event(+): " + (elapsed / 1000000) + "ms.");
                         }
 
                     }
@@ -761,6 +775,21 @@ public class ProtobufEdgeDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> implements Exten
         return edgesCreated;
     }
 
+    /**
+     * Get the index of the edge definitions of a data type, rebuilding it if the definitions have changed since it was created
+     */
+    private EdgeDefinitionIndex getEdgeDefinitionIndex(String typeName, List<EdgeDefinition> edgeDefs) {
+        EdgeDefinitionIndex index = edgeDefinitionIndexes.get(typeName);
+        if (index == null || !index.isCurrent(edgeDefs)) {
+            if (index != null) {
+                logPreconditionTimes(typeName, index);
+            }
+            index = new EdgeDefinitionIndex(edgeDefs);
+            edgeDefinitionIndexes.put(typeName, index);
+        }
+        return index;
+    }
+
     private String getTypeName(Type dataType) {
         String typeName = dataType.typeName();
         String outputName = dataType.outputName();
@@ -1345,7 +1374,40 @@ public class ProtobufEdgeDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> implements Exten
     }
 
     @Override
-    public void close(TaskAttemptContext context) {}
+    public void close(TaskAttemptContext context) {
+        for (Entry<String,EdgeDefinitionIndex> entry : edgeDefinitionIndexes.entrySet()) {
+            EdgeDefinitionIndex index = entry.getValue();
+            long evaluations = 0, matches = 0, nanos = 0;
+            for (int i = 0; i < index.size(); i++) {
+                evaluations += index.getEvaluations(i);
+                matches += index.getMatches(i);
+                nanos += index.getEvaluationNanos(i);
+            }
+            if (evaluations > 0 && context != null) {
+                context.getCounter(PRECONDITION_EVALUATIONS_COUNTER, entry.getKey()).increment(evaluations);
+                context.getCounter(PRECONDITION_MATCHES_COUNTER, entry.getKey()).increment(matches);
+                context.getCounter(PRECONDITION_MILLIS_COUNTER, entry.getKey()).increment(nanos / 1000000);
+            }
+            logPreconditionTimes(entry.getKey(), index);
+        }
+        edgeDefinitionIndexes.clear();
+    }
+
+    /**
+     * Log the time spent evaluating the precondition of each edge definition, to find the definitions that slow down edge creation
+     */
+    private void logPreconditionTimes(String typeName, EdgeDefinitionIndex index) {
+        if (log.isInfoEnabled()) {
+            for (int i = 0; i < index.size(); i++) {
+                if (index.getEvaluations(i) > 0) {
+                    EdgeDefinition edgeDef = index.get(i);
+                    log.info("Edge precondition for " + typeName + " " + edgeDef.getSourceFieldName() + "-" + edgeDef.getSinkFieldName() + " ("
+                                    + edgeDef.getJexlPrecondition() + ") evaluated " + index.getEvaluations(i) + " times, matched " + index.getMatches(i)
+                                    + " times in " + (index.getEvaluationNanos(i) / 1000000) + "ms");
+                }
+            }
+        }
+    }
 
     // has chance to blow up memory depending on what is defined, so this isn't supported.
     @Override
@@ -6,6 +6,7 @@ import org.apache.commons.jexl3.JexlOptions;
 import org.apache.commons.jexl3.internal.Engine;
 import org.apache.commons.jexl3.internal.Frame;
 import org.apache.commons.jexl3.internal.Interpreter;
+import org.apache.commons.jexl3.parser.ASTJexlScript;
 
 public class EdgeJexlEngine extends Engine {
 
@@ -17,4 +18,15 @@ public class EdgeJexlEngine extends Engine {
     protected Interpreter createInterpreter(JexlContext context, Frame frame, JexlOptions opts) {
         return new EdgeJexlInterpreter(this, opts, context, frame);
     }
+
+    /**
+     * Parse a precondition into its syntax tree, as it would be parsed when creating a script.
+     *
+     * @param precondition
+     *            the precondition
+     * @return the root of the syntax tree
+     */
+    public ASTJexlScript parse(String precondition) {
+        return parse(createInfo(), false, precondition, null);
+    }
 }
@@ -7,6 +7,7 @@ import java.util.Map;
 import org.apache.commons.jexl3.JexlBuilder;
 import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.parser.ASTJexlScript;
 
 import datawave.ingest.mapreduce.handler.edge.define.EdgeDefinition;
 import datawave.ingest.mapreduce.handler.edge.define.EdgeDefinitionConfigurationHelper;
@@ -47,6 +48,30 @@ public class EdgePreconditionCacheHelper {
         return scriptCache;
     }
 
+    /**
+     * Create the preconditions of the edges, compiled where possible
+     *
+     * @param edges
+     *            the edge definitions by data type
+     * @return the preconditions keyed by their text
+     */
+    public Map<String,EdgePreconditionPredicate> createPreconditionCacheFromEdges(Map<String,EdgeDefinitionConfigurationHelper> edges) {
+        Map<String,EdgePreconditionPredicate> preconditionCache = new HashMap<>();
+        for (Map.Entry<String,JexlScript> entry : createScriptCacheFromEdges(edges).entrySet()) {
+            preconditionCache.put(entry.getKey(), createPreconditionFromScript(entry.getValue()));
+        }
+        return preconditionCache;
+    }
+
+    public EdgePreconditionPredicate createPreconditionFromScript(JexlScript script) {
+        // only the arithmetic of an edge engine is known to collect the matching groups
+        if (engine instanceof EdgeJexlEngine && engine.getArithmetic() instanceof EdgePreconditionArithmetic) {
+            ASTJexlScript tree = ((EdgeJexlEngine) engine).parse(script.getSourceText());
+            return new EdgePreconditionPredicate(script, tree, (EdgePreconditionArithmetic) engine.getArithmetic());
+        }
+        return new EdgePreconditionPredicate(script, null, null);
+    }
+
     public JexlScript createScriptFromString(String jexlPrecondition) {
         return engine.createScript(jexlPrecondition);
     }
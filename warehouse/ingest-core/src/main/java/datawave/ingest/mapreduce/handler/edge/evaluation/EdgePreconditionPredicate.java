@@ -0,0 +1,170 @@
+package datawave.ingest.mapreduce.handler.edge.evaluation;
+
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.parser.ASTAndNode;
+import org.apache.commons.jexl3.parser.ASTEQNode;
+import org.apache.commons.jexl3.parser.ASTERNode;
+import org.apache.commons.jexl3.parser.ASTGENode;
+import org.apache.commons.jexl3.parser.ASTGTNode;
+import org.apache.commons.jexl3.parser.ASTIdentifier;
+import org.apache.commons.jexl3.parser.ASTJexlScript;
+import org.apache.commons.jexl3.parser.ASTLENode;
+import org.apache.commons.jexl3.parser.ASTLTNode;
+import org.apache.commons.jexl3.parser.ASTNENode;
+import org.apache.commons.jexl3.parser.ASTNRNode;
+import org.apache.commons.jexl3.parser.ASTNotNode;
+import org.apache.commons.jexl3.parser.ASTNumberLiteral;
+import org.apache.commons.jexl3.parser.ASTOrNode;
+import org.apache.commons.jexl3.parser.ASTReference;
+import org.apache.commons.jexl3.parser.ASTReferenceExpression;
+import org.apache.commons.jexl3.parser.ASTStringLiteral;
+import org.apache.commons.jexl3.parser.JexlNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A precondition compiled into direct calls on the {@link EdgePreconditionArithmetic}, evaluated against the field values in the
+ * {@link EdgePreconditionJexlContext} without going through the interpreter.
+ * <p>
+ * Comparisons, {@code &&}, {@code ||} and {@code !} over field names, strings and numbers are compiled. The operators are applied exactly as the
+ * {@link EdgeJexlInterpreter} applies them, so the matching groups collected by the arithmetic are the same: {@code &&} stops at the first false operand
+ * while {@code ||} always evaluates both. A precondition using anything else, or one whose compiled form fails, is evaluated by its script instead.
+ */
+public class EdgePreconditionPredicate {
+
+    private static final Logger log = LoggerFactory.getLogger(EdgePreconditionPredicate.class);
+
+    private final JexlScript script;
+    private final EdgePreconditionArithmetic arithmetic;
+    private final Node root;
+
+    /**
+     * A compiled node of the precondition
+     */
+    private interface Node {
+        Object evaluate(JexlContext context);
+    }
+
+    public EdgePreconditionPredicate(JexlScript script, ASTJexlScript tree, EdgePreconditionArithmetic arithmetic) {
+        this.script = script;
+        this.arithmetic = arithmetic;
+        this.root = isSingleExpression(tree) ? compileCondition(tree.jjtGetChild(0)) : null;
+        if (root == null && log.isDebugEnabled()) {
+            log.debug("Precondition will be interpreted: " + script.getSourceText());
+        }
+    }
+
+    /**
+     * @return true if the precondition was compiled, false if it is interpreted
+     */
+    public boolean isCompiled() {
+        return root != null;
+    }
+
+    public JexlScript getScript() {
+        return script;
+    }
+
+    /**
+     * Evaluate the precondition.
+     *
+     * @param context
+     *            the context holding the field values of the event
+     * @param evaluation
+     *            used to interpret the precondition when it is not compiled
+     * @return true if the precondition is met
+     */
+    public boolean evaluate(JexlContext context, EdgePreconditionJexlEvaluation evaluation) {
+        if (root != null) {
+            try {
+                return (Boolean) root.evaluate(context);
+            } catch (RuntimeException e) {
+                // let the interpreter decide how the failure is reported
+                arithmetic.clearMatchingGroups();
+            }
+        }
+        return evaluation.apply(script);
+    }
+
+    private static boolean isSingleExpression(ASTJexlScript tree) {
+        return tree != null && tree.jjtGetNumChildren() == 1 && (tree.getPragmas() == null || tree.getPragmas().isEmpty());
+    }
+
+    private Node compileCondition(JexlNode node) {
+        node = unwrap(node);
+        if (node instanceof ASTAndNode || node instanceof ASTOrNode) {
+            if (node.jjtGetNumChildren() != 2) {
+                return null;
+            }
+            Node left = compileCondition(node.jjtGetChild(0));
+            Node right = compileCondition(node.jjtGetChild(1));
+            if (left == null || right == null) {
+                return null;
+            }
+            if (node instanceof ASTAndNode) {
+                return context -> (Boolean) left.evaluate(context) && (Boolean) right.evaluate(context);
+            }
+            // no short circuit, so the matching groups of both sides are collected
+            return context -> (Boolean) left.evaluate(context) | (Boolean) right.evaluate(context);
+        } else if (node instanceof ASTNotNode && node.jjtGetNumChildren() == 1) {
+            Node operand = compileCondition(node.jjtGetChild(0));
+            return operand == null ? null : context -> !(Boolean) operand.evaluate(context);
+        } else if (node.jjtGetNumChildren() != 2) {
+            return null;
+        }
+
+        Node left = compileOperand(node.jjtGetChild(0));
+        Node right = compileOperand(node.jjtGetChild(1));
+        if (left == null || right == null) {
+            return null;
+        }
+        if (node instanceof ASTEQNode) {
+            return context -> arithmetic.equals(left.evaluate(context), right.evaluate(context));
+        } else if (node instanceof ASTNENode) {
+            return context -> !arithmetic.equals(left.evaluate(context), right.evaluate(context));
+        } else if (node instanceof ASTERNode) {
+            // the pattern on the right is the container
+            return context -> {
+                Object value = left.evaluate(context);
+                return arithmetic.contains(right.evaluate(context), value);
+            };
+        } else if (node instanceof ASTNRNode) {
+            return context -> {
+                Object value = left.evaluate(context);
+                return !arithmetic.contains(right.evaluate(context), value);
+            };
+        } else if (node instanceof ASTLTNode) {
+            return context -> arithmetic.lessThan(left.evaluate(context), right.evaluate(context));
+        } else if (node instanceof ASTLENode) {
+            return context -> arithmetic.lessThanOrEqual(left.evaluate(context), right.evaluate(context));
+        } else if (node instanceof ASTGTNode) {
+            return context -> arithmetic.greaterThan(left.evaluate(context), right.evaluate(context));
+        } else if (node instanceof ASTGENode) {
+            return context -> arithmetic.greaterThanOrEqual(left.evaluate(context), right.evaluate(context));
+        }
+        return null;
+    }
+
+    private Node compileOperand(JexlNode node) {
+        node = unwrap(node);
+        if (node instanceof ASTIdentifier && node.jjtGetNumChildren() == 0 && ((ASTIdentifier) node).getNamespace() == null) {
+            String name = ((ASTIdentifier) node).getName();
+            return context -> context.get(name);
+        } else if (node instanceof ASTStringLiteral) {
+            String literal = ((ASTStringLiteral) node).getLiteral();
+            return context -> literal;
+        } else if (node instanceof ASTNumberLiteral) {
+            Number literal = ((ASTNumberLiteral) node).getLiteral();
+            return context -> literal;
+        }
+        return null;
+    }
+
+    private static JexlNode unwrap(JexlNode node) {
+        while ((node instanceof ASTReferenceExpression || node instanceof ASTReference) && node.jjtGetNumChildren() == 1) {
+            node = node.jjtGetChild(0);
+        }
+        return node;
+    }
+}
@@ -1,5 +1,7 @@
 package datawave.ingest.mapreduce.handler.shard;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -39,6 +41,7 @@ import datawave.ingest.mapreduce.MemberShipTest;
 import datawave.ingest.mapreduce.handler.DataTypeHandler;
 import datawave.ingest.mapreduce.job.BulkIngestKey;
 import datawave.ingest.mapreduce.job.statsd.StatsDEnabledDataTypeHandler;
+import datawave.ingest.metadata.EventMetadata;
 import datawave.ingest.metadata.RawRecordMetadata;
 import datawave.ingest.protobuf.Uid;
 import datawave.ingest.table.config.LoadDateTableConfigHelper;
@@ -169,6 +172,11 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
      */
     public static final String METADATA_TERM_FREQUENCY = "metadata.term.frequency.enabled";
 
+    /**
+     * Enable/Disable distinct and frequent value sketches for indexed fields in the metadata
+     */
+    public static final String METADATA_FIELD_SKETCHES = "metadata.field.sketches.enabled";
+
     /**
      * Enable/disable creating uids for the global index
      */
@@ -217,6 +225,14 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
     boolean isReindexEnabled;
     private Collection<String> requestedFieldsForReindex;
 
+    /**
+     * The most recently flattened event visibility, uid value and global index column qualifier. Each is shared by all of the keys of an event, and is
+     * replaced as a whole so that it may be read from any thread.
+     */
+    private volatile FlattenedVisibility lastVisibility = null;
+    private volatile UidValue lastUidValue = null;
+    private volatile IndexColumnQualifier lastIndexColq = null;
+
     @Override
     public void setup(TaskAttemptContext context) {
         markingFunctions = MarkingFunctions.Factory.createMarkingFunctions();
@@ -265,6 +281,9 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
         if (getMetadataTableName() != null) {
             setMetadata(ingestConfig.createMetadata(getShardTableName(), getMetadataTableName(), getLoadDatesTableName(), getShardIndexTableName(),
                             getShardReverseIndexTableName(), conf.getBoolean(METADATA_TERM_FREQUENCY, true)));
+            if (getMetadata() instanceof EventMetadata) {
+                ((EventMetadata) getMetadata()).setWriteFieldSketches(conf.getBoolean(METADATA_FIELD_SKETCHES, false));
+            }
         }
 
         tableName = conf.get(SHARD_DINDX_NAME, null);
@@ -456,7 +475,7 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
                     NormalizedContentInterface value = e.getValue();
                     byte[] visibility = getVisibility(event, value);
 
-                    values.putAll(createShardEventColumn(event, colf, value, visibility, maskedVisibility, maskedFieldHelper, shardId));
+                    createShardEventColumn(event, values, colf, value, visibility, maskedVisibility, maskedFieldHelper, shardId);
 
                 }
             }
@@ -515,13 +534,13 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
         Multimap<BulkIngestKey,Value> values = HashMultimap.create();
 
         // produce cardinality of terms
-        values.putAll(createTermIndexColumn(event, value.getIndexedFieldName(), value.getIndexedFieldValue(), visibility, maskedVisibility, maskedFieldHelper,
-                        shardId, this.getIndexStatsTableName(), indexValue, Direction.FORWARD));
+        createTermIndexColumn(event, values, value.getIndexedFieldName(), value.getIndexedFieldValue(), visibility, maskedVisibility, maskedFieldHelper,
+                        shardId, this.getIndexStatsTableName(), indexValue, Direction.FORWARD);
 
         String reverse = new StringBuilder(value.getIndexedFieldValue()).reverse().toString();
 
-        values.putAll(createTermIndexColumn(event, value.getIndexedFieldName(), reverse, visibility, maskedVisibility, maskedFieldHelper, shardId,
-                        this.getIndexStatsTableName(), indexValue, Direction.REVERSE));
+        createTermIndexColumn(event, values, value.getIndexedFieldName(), reverse, visibility, maskedVisibility, maskedFieldHelper, shardId,
+                        this.getIndexStatsTableName(), indexValue, Direction.REVERSE);
 
         return values;
     }
@@ -558,12 +577,12 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
         String fieldName = value.getIndexedFieldName();
         String fieldValue = value.getIndexedFieldValue();
         // produce field index.
-        values.putAll(createShardFieldIndexColumn(event, fieldName, fieldValue, visibility, maskedVisibility, maskedFieldHelper, shardId,
-                        createBloomFilter(event, fields, reporter)));
+        createShardFieldIndexColumn(event, values, fieldName, fieldValue, visibility, maskedVisibility, maskedFieldHelper, shardId,
+                        createBloomFilter(event, fields, reporter));
 
         // produce index column
-        values.putAll(createTermIndexColumn(event, fieldName, fieldValue, visibility, maskedVisibility, maskedFieldHelper, shardId,
-                        this.getShardIndexTableName(), indexValue, Direction.FORWARD));
+        createTermIndexColumn(event, values, fieldName, fieldValue, visibility, maskedVisibility, maskedFieldHelper, shardId, this.getShardIndexTableName(),
+                        indexValue, Direction.FORWARD);
 
         return values;
     }
@@ -577,8 +596,8 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
         String fieldName = value.getIndexedFieldName();
         String fieldValue = value.getIndexedFieldValue();
         // produce index column
-        values.putAll(createTermIndexColumn(event, fieldName, fieldValue, visibility, maskedVisibility, maskedFieldHelper, shardId,
-                        this.getShardReverseIndexTableName(), indexValue, Direction.REVERSE));
+        createTermIndexColumn(event, values, fieldName, fieldValue, visibility, maskedVisibility, maskedFieldHelper, shardId,
+                        this.getShardReverseIndexTableName(), indexValue, Direction.REVERSE);
 
         return values;
     }
@@ -702,19 +721,50 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
      */
     protected Multimap<BulkIngestKey,Value> createTermIndexColumn(RawRecordContainer event, String column, String fieldValue, byte[] visibility,
                     byte[] maskedVisibility, MaskedFieldHelper maskedFieldHelper, byte[] shardId, Text tableName, Value indexValue, Direction direction) {
+        Multimap<BulkIngestKey,Value> values = ArrayListMultimap.create();
+        createTermIndexColumn(event, values, column, fieldValue, visibility, maskedVisibility, maskedFieldHelper, shardId, tableName, indexValue, direction);
+        return values;
+    }
+
+    /**
+     * Creates a global index BulkIngestKey and Value and does apply masking logic
+     *
+     * @param event
+     *            the event
+     * @param values
+     *            the map of values to add the keys to
+     * @param column
+     *            the column
+     * @param fieldValue
+     *            the field value
+     * @param visibility
+     *            the event visibility
+     * @param maskedVisibility
+     *            the masked visibility
+     * @param maskedFieldHelper
+     *            the masked field helper
+     * @param shardId
+     *            the shard id
+     * @param tableName
+     *            the table name
+     * @param indexValue
+     *            the index value
+     * @param direction
+     *            the direction
+     */
+    protected void createTermIndexColumn(RawRecordContainer event, Multimap<BulkIngestKey,Value> values, String column, String fieldValue, byte[] visibility,
+                    byte[] maskedVisibility, MaskedFieldHelper maskedFieldHelper, byte[] shardId, Text tableName, Value indexValue, Direction direction) {
         // Shard Global Index Table Structure
         // Row: Field Value
         // Colf: Field Name
         // Colq: Shard Id : DataType
         // Value: UID
 
-        Multimap<BulkIngestKey,Value> values = ArrayListMultimap.create();
-
         if (log.isTraceEnabled()) {
             log.trace("Create index column " + tableName);
         }
         if (null == tableName) {
-            return values;
+            return;
         }
 
         // hold on to the helper
@@ -726,9 +776,8 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
             // It was observed that the normalized mask values aren't coming back reversed, so account for that before creating the row.
             String normalizedMaskedValue = helper.getNormalizedMaskedValue(column);
 
-            Text colf = new Text(column);
-            Text colq = new Text(shardId);
-            TextUtil.textAppend(colq, event.getDataType().outputName(), helper.getReplaceMalformedUTF8());
+            byte[] colf = encode(column);
+            byte[] colq = getIndexColumnQualifier(shardId, event.getDataType(), helper.getReplaceMalformedUTF8());
 
             // if this method was called with the intention to create reverse index keys, ensure the masked values are reversed.
             if (!StringUtils.isEmpty(normalizedMaskedValue)) {
@@ -751,9 +800,8 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
             }
         } else if (!StringUtils.isEmpty(fieldValue)) {
             // This field is not masked. Add a key with the original field value and masked visibility
-            Text colf = new Text(column);
-            Text colq = new Text(shardId);
-            TextUtil.textAppend(colq, event.getDataType().outputName(), helper.getReplaceMalformedUTF8());
+            byte[] colf = encode(column);
+            byte[] colq = getIndexColumnQualifier(shardId, event.getDataType(), helper.getReplaceMalformedUTF8());
 
             /**
              * For values that are not being masked, we use the "unmaskedValue" and the masked visibility e.g. release the value as it was in the event at the
@@ -770,8 +818,6 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
             values.put(bkey, indexValue);
 
         }
-
-        return values;
     }
 
     /**
@@ -791,8 +837,16 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
             } catch (MarkingFunctions.Exception e) {
                 throw new RuntimeException("Cannot convert record-level markings into a column visibility", e);
             }
+            return flatten(visibility);
         }
-        return flatten(visibility);
+
+        // most values carry the event visibility, so it is flattened once and shared by all of the keys of the event
+        FlattenedVisibility flattened = lastVisibility;
+        if (flattened == null || flattened.visibility != visibility) {
+            flattened = new FlattenedVisibility(visibility, flatten(visibility));
+            lastVisibility = flattened;
+        }
+        return flattened.flattened;
     }
 
     /**
@@ -807,7 +861,8 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
     }
 
     /**
-     * Create Key from input parameters
+     * Create Key from input parameters. The column family and qualifier are copied, so the caller may reuse them, while the row and visibility are shared as
+     * in {@link #createKey(byte[], byte[], byte[], byte[], long, boolean)}.
      *
      * @param row
      *            the row
@@ -824,9 +879,29 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
      * @return Accumulo Key object
      */
     protected Key createKey(byte[] row, Text colf, Text colq, byte[] vis, long ts, boolean delete) {
-        Key k = new Key(row, 0, row.length, colf.getBytes(), 0, colf.getLength(), colq.getBytes(), 0, colq.getLength(), vis, 0, vis.length, ts);
-        k.setDeleted(delete);
-        return k;
+        return createKey(row, colf.copyBytes(), colq.copyBytes(), vis, ts, delete);
+    }
+
+    /**
+     * Create Key from input parameters. The arrays are not copied, so they must not be modified once the key has been created. This allows the row and
+     * visibility of an event to be shared by all of its keys.
+     *
+     * @param row
+     *            the row
+     * @param colf
+     *            the column family
+     * @param colq
+     *            the column qualifier
+     * @param vis
+     *            the column visibility
+     * @param ts
+     *            the timestamp
+     * @param delete
+     *            the delete flag of the key
+     * @return Accumulo Key object
+     */
+    protected Key createKey(byte[] row, byte[] colf, byte[] colq, byte[] vis, long ts, boolean delete) {
+        return new Key(row, colf, colq, vis, ts, delete, false);
     }
 
     /**
@@ -836,6 +911,9 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
      * MapReduce unable to reduce all index keys together unless they occurred at the same millisecond. If we truncate the timestamp to the day, we should
      * reduce the number of keys output from a job.
      *
+     * The column family and qualifier are copied, so the caller may reuse them, while the row and visibility are shared as in
+     * {@link #createIndexKey(byte[], byte[], byte[], byte[], long, boolean)}.
+     *
      * @param row
      *            the row
      * @param colf
@@ -851,12 +929,64 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
      * @return Accumulo Key object
      */
     protected Key createIndexKey(byte[] row, Text colf, Text colq, byte[] vis, long ts, boolean delete) {
+        return createIndexKey(row, colf.copyBytes(), colq.copyBytes(), vis, ts, delete);
+    }
+
+    /**
+     * Create a global index Key from input parameters, truncating the timestamp to the day. The arrays are not copied, so they must not be modified once the
+     * key has been created.
+     *
+     * @param row
+     *            the row
+     * @param colf
+     *            the column family
+     * @param colq
+     *            the column qualifier
+     * @param vis
+     *            the column visibility
+     * @param ts
+     *            the timestamp
+     * @param delete
+     *            the delete flag of the key
+     * @return Accumulo Key object
+     */
+    protected Key createIndexKey(byte[] row, byte[] colf, byte[] colq, byte[] vis, long ts, boolean delete) {
         // Truncate the timestamp to the day
         long tsToDay = (ts / MS_PER_DAY) * MS_PER_DAY;
 
-        Key k = new Key(row, 0, row.length, colf.getBytes(), 0, colf.getLength(), colq.getBytes(), 0, colq.getLength(), vis, 0, vis.length, tsToDay);
-        k.setDeleted(delete);
-        return k;
+        return new Key(row, colf, colq, vis, tsToDay, delete, false);
+    }
+
+    /**
+     * Get the global index column qualifier for an event, i.e. the shard id and the data type separated by a null byte. The same array is returned for every
+     * term of the event.
+     *
+     * @param shardId
+     *            the shard id
+     * @param dataType
+     *            the data type
+     * @param replaceMalformedUTF8
+     *            flag to replace malformed characters
+     * @return the column qualifier
+     */
+    protected byte[] getIndexColumnQualifier(byte[] shardId, Type dataType, boolean replaceMalformedUTF8) {
+        IndexColumnQualifier colq = lastIndexColq;
+        if (colq == null || !Arrays.equals(colq.shardId, shardId) || !colq.dataType.equals(dataType.outputName())) {
+            Text text = new Text(shardId);
+            TextUtil.textAppend(text, dataType.outputName(), replaceMalformedUTF8);
+            colq = new IndexColumnQualifier(shardId, dataType.outputName(), TextUtil.getBytes(text));
+            lastIndexColq = colq;
+        }
+        return colq.colq;
+    }
+
+    private static byte[] encode(String string) {
+        try {
+            ByteBuffer buffer = Text.encode(string, true);
+            return buffer.array().length == buffer.limit() ? buffer.array() : Arrays.copyOf(buffer.array(), buffer.limit());
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException(e);
+        }
     }
 
     /**
@@ -900,8 +1030,33 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
      */
     protected Multimap<BulkIngestKey,Value> createShardEventColumn(RawRecordContainer event, Text colf, NormalizedContentInterface nFV, byte[] visibility,
                     byte[] maskedVisibility, MaskedFieldHelper maskedFieldHelper, byte[] shardId) {
-
         Multimap<BulkIngestKey,Value> values = ArrayListMultimap.create();
+        createShardEventColumn(event, values, colf, nFV, visibility, maskedVisibility, maskedFieldHelper, shardId);
+        return values;
+    }
+
+    /**
+     * Creates a shard column key and does apply masking logic
+     *
+     * @param event
+     *            the event container
+     * @param values
+     *            the map of values to add the keys to
+     * @param colf
+     *            the column family
+     * @param nFV
+     *            the normalized pair of the field and value
+     * @param visibility
+     *            the event visibility
+     * @param maskedVisibility
+     *            the masked visibility
+     * @param maskedFieldHelper
+     *            the masked field helper
+     * @param shardId
+     *            the shard id
+     */
+    protected void createShardEventColumn(RawRecordContainer event, Multimap<BulkIngestKey,Value> values, Text colf, NormalizedContentInterface nFV,
+                    byte[] visibility, byte[] maskedVisibility, MaskedFieldHelper maskedFieldHelper, byte[] shardId) {
         // hold on to the helper
         IngestHelperInterface helper = this.getHelper(event.getDataType());
         boolean replaceMalformedUTF8 = helper.getReplaceMalformedUTF8();
@@ -912,12 +1067,12 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
         String indexedFieldName = nFV.getIndexedFieldName();
 
         if (helper.isIndexOnlyField(indexedFieldName) || null == fieldValue) {
-            return values;
+            return;
         }
 
         // don't put composite fields into the event table, unless it is an overloaded composite field
         if (helper.isCompositeField(indexedFieldName) && !helper.isOverloadedCompositeField(indexedFieldName)) {
-            return values;
+            return;
         }
 
         // Create unmasked colq
@@ -961,9 +1116,6 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
                 log.trace("Creating bulk ingest Key " + bKey);
             values.put(bKey, NULL_VALUE);
         }
-
-        return values;
-
     }
 
     protected void createMaskedShardEventColumn(RawRecordContainer event, Text colf, byte[] maskedVisibility, byte[] shardId,
@@ -1153,7 +1305,13 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
      * @return a value
      */
     protected Value createUidArray(String uid, boolean isDeleted) {
-        return new Value(createUidList(uid, isDeleted).toByteArray());
+        // the same uid value is written for every global index term of an event
+        UidValue uidValue = lastUidValue;
+        if (uidValue == null || uidValue.deleted != isDeleted || !uidValue.uid.equals(uid)) {
+            uidValue = new UidValue(uid, isDeleted, new Value(createUidList(uid, isDeleted).toByteArray()));
+            lastUidValue = uidValue;
+        }
+        return uidValue.value;
     }
 
     /**
@@ -1225,9 +1383,8 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
             // These Keys are for the index, so if they are masked, we really want to use the normalized masked values
             final String normalizedMaskedValue = helper.getNormalizedMaskedValue(fieldName);
 
-            Text colf = new Text(fieldName);
-            Text colq = new Text(shardId);
-            TextUtil.textAppend(colq, event.getDataType().outputName(), helper.getReplaceMalformedUTF8());
+            byte[] colf = encode(fieldName);
+            byte[] colq = getIndexColumnQualifier(shardId, event.getDataType(), helper.getReplaceMalformedUTF8());
 
             Value val = createUidArray(event.getId().toString(), deleteMode);
 
@@ -1248,9 +1405,8 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
             }
         } else if (!StringUtils.isEmpty(fieldValue)) {
             // This field is not masked. Add a key with the original field value and masked visibility
-            Text colf = new Text(fieldName);
-            Text colq = new Text(shardId);
-            TextUtil.textAppend(colq, event.getDataType().outputName(), helper.getReplaceMalformedUTF8());
+            byte[] colf = encode(fieldName);
+            byte[] colq = getIndexColumnQualifier(shardId, event.getDataType(), helper.getReplaceMalformedUTF8());
 
             // Create a UID object for the Value
             Value val = createUidArray(event.getId().toString(), deleteMode);
@@ -1587,4 +1743,37 @@ public abstract class ShardedDataTypeHandler<KEYIN> extends StatsDEnabledDataTyp
     @Override
     public void close(TaskAttemptContext context) {}
 
+    private static class FlattenedVisibility {
+        private final ColumnVisibility visibility;
+        private final byte[] flattened;
+
+        FlattenedVisibility(ColumnVisibility visibility, byte[] flattened) {
+            this.visibility = visibility;
+            this.flattened = flattened;
+        }
+    }
+
+    private static class UidValue {
+        private final String uid;
+        private final boolean deleted;
+        private final Value value;
+
+        UidValue(String uid, boolean deleted, Value value) {
+            this.uid = uid;
+            this.deleted = deleted;
+            this.value = value;
+        }
+    }
+
+    private static class IndexColumnQualifier {
+        private final byte[] shardId;
+        private final String dataType;
+        private final byte[] colq;
+
+        IndexColumnQualifier(byte[] shardId, String dataType, byte[] colq) {
+            this.shardId = shardId;
+            this.dataType = dataType;
+            this.colq = colq;
+        }
+    }
 }
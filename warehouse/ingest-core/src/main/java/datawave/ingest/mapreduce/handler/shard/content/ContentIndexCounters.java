@@ -30,7 +30,9 @@ public class ContentIndexCounters {
                     TOKENIZER_OFFSET_CACHE_POSITIONS_OVERFLOWED = "Tokenizer Offset Cache Positions Overflowed",
                     CONTENT_RECORDS_CREATED = "Content Records Created", TRUNCATION_COUNTER = "Truncated Tokens",
                     LENGTH_WARNING_COUNTER = "Term Length Warnings", CONTENT_RECORDS_LIVE = "Content Records Live Ingest",
-                    CONTENT_RECORDS_BULK = "Content Records Bulk Ingest";
+                    CONTENT_RECORDS_BULK = "Content Records Bulk Ingest", TOKENIZER_POOL_TOKENS = "Tokenizer Pool Tokens",
+                    TOKENIZER_POOL_TIME_MSEC = "Tokenizer Pool Time (msec)", TOKENIZER_POOL_SUBMISSIONS = "Tokenizer Pool Submissions",
+                    TOKENIZER_POOL_QUEUE_DEPTH = "Tokenizer Pool Queue Depth (sum at submission)";
 
     public static final String COUNTER_GROUP_NAME = "Content Index Counters";
     public static final String TOKENIZER_TIME_GROUP_NAME = "Tokenizer Time Counters";
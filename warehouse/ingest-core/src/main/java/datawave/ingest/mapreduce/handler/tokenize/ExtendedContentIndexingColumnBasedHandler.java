@@ -9,9 +9,15 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 import java.util.zip.GZIPOutputStream;
 
@@ -35,6 +41,7 @@ import org.apache.lucene.analysis.CharArraySet;
 import org.infinispan.commons.util.Base64;
 
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import datawave.ingest.data.RawRecordContainer;
 import datawave.ingest.data.config.NormalizedContentInterface;
@@ -122,6 +129,15 @@ public abstract class ExtendedContentIndexingColumnBasedHandler<KEYIN,KEYOUT,VAL
      * base64.dcolumn allows you to turn off base64 gzipped content and store gzipped bytes. If not set, base64 encoding is on by default.
      */
     public static final String OPT_BASE64 = "content.ingest.base64.dcolumn";
+    /*
+     * The number of threads used to tokenize content ahead of the thread writing keys. If not set (or 0), content is tokenized on the calling thread.
+     */
+    public static final String OPT_TOKENIZER_THREADS = "content.ingest.tokenizer.threads";
+    /*
+     * The number of tokenizations that may wait for a tokenizer thread. Once full, the submitting thread tokenizes the content itself. Defaults to twice the
+     * number of tokenizer threads.
+     */
+    public static final String OPT_TOKENIZER_QUEUE_SIZE = "content.ingest.tokenizer.queue.size";
 
     private static final Logger log = Logger.getLogger(ExtendedContentIndexingColumnBasedHandler.class);
 
@@ -143,6 +159,11 @@ public abstract class ExtendedContentIndexingColumnBasedHandler<KEYIN,KEYOUT,VAL
     protected ExecutorService docWriterService;
     protected BatchWriter docWriter;
 
+    protected ThreadPoolExecutor tokenizerService;
+    private long tokenizerPoolTokens = 0;
+    private long tokenizerPoolMsec = 0;
+    private int tokenizerPoolMaxQueueDepth = 0;
+
     protected boolean tokenizerTimeWarned = false;
 
     protected boolean useBase64Encoding = true;
@@ -204,6 +225,14 @@ public abstract class ExtendedContentIndexingColumnBasedHandler<KEYIN,KEYOUT,VAL
                 };
             }
         }
+        int tokenizerThreads = conf.getInt(OPT_TOKENIZER_THREADS, 0);
+        if (tokenizerThreads > 0) {
+            int queueSize = Math.max(1, conf.getInt(OPT_TOKENIZER_QUEUE_SIZE, tokenizerThreads * 2));
+            tokenizerService = new ThreadPoolExecutor(tokenizerThreads, tokenizerThreads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                            new ThreadFactoryBuilder().setNameFormat("Tokenizer-%d").setDaemon(true).build(), new ThreadPoolExecutor.CallerRunsPolicy());
+            log.info("Tokenizing content with " + tokenizerThreads + " threads and a queue of " + queueSize);
+        }
+
         // The tokens offsets queue is a bounded priority queue that will allow us to cache the
         // highest cardinality offsets up to a predetermined max size
         tokenOffsetCache = new BoundedOffsetQueue<>(tokenHelper.getTokenOffsetCacheMaxSize());
@@ -223,6 +252,13 @@ public abstract class ExtendedContentIndexingColumnBasedHandler<KEYIN,KEYOUT,VAL
     @Override
     public void close(TaskAttemptContext context) {
         super.close(context);
+        if (tokenizerService != null) {
+            tokenizerService.shutdownNow();
+            if (tokenizerPoolMsec > 0) {
+                log.info("Tokenizer pool produced " + tokenizerPoolTokens + " tokens at " + (tokenizerPoolTokens * 1000 / tokenizerPoolMsec)
+                                + " tokens/sec, max queue depth " + tokenizerPoolMaxQueueDepth);
+            }
+        }
         if (!offlineDocProcessing) {
             try {
                 log.info("Attempting to flush document writer.");
@@ -271,6 +307,97 @@ public abstract class ExtendedContentIndexingColumnBasedHandler<KEYIN,KEYOUT,VAL
         return tokenizerTimeWarned;
     }
 
+    /**
+     * Starts tokenizing a piece of content. When tokenizer threads are configured the content is tokenized by the pool, allowing the calling thread to write
+     * the keys for previously tokenized content in the meantime; otherwise, or when the pool's queue is full, it is tokenized on the calling thread.
+     *
+     * @param fieldName
+     *            the name of the field being tokenized, used when reporting a timeout
+     * @param tokenizer
+     *            produces the tokens of the content
+     * @param reporter
+     *            the reporter
+     * @return the pending tokens, to be passed to {@link #awaitTokenization(PendingTokens, StatusReporter)}
+     */
+    protected PendingTokens submitTokenization(String fieldName, Callable<List<String>> tokenizer, StatusReporter reporter) {
+        PendingTokens pending = new PendingTokens(fieldName, tokenizer);
+        if (tokenizerService == null) {
+            pending.run();
+        } else {
+            tokenizerService.execute(pending);
+
+            int queueDepth = tokenizerService.getQueue().size();
+            tokenizerPoolMaxQueueDepth = Math.max(tokenizerPoolMaxQueueDepth, queueDepth);
+            counters.increment(ContentIndexCounters.TOKENIZER_POOL_SUBMISSIONS, reporter);
+            counters.incrementValue(ContentIndexCounters.TOKENIZER_POOL_QUEUE_DEPTH, queueDepth, reporter);
+        }
+        return pending;
+    }
+
+    /**
+     * Waits for tokens submitted via {@link #submitTokenization(String, Callable, StatusReporter)}. A tokenization which runs longer than the tokenizer error
+     * threshold is cancelled and fails the event, as it would when tokenizing on the calling thread.
+     *
+     * @param pending
+     *            the pending tokens
+     * @param reporter
+     *            the reporter
+     * @return the tokens
+     * @throws TokenizerTimeoutException
+     *             if the tokenization exceeded the error threshold
+     * @throws IOException
+     *             if the tokenizer failed
+     * @throws InterruptedException
+     *             if the thread is interrupted
+     */
+    protected List<String> awaitTokenization(PendingTokens pending, StatusReporter reporter) throws IOException, InterruptedException {
+        final long errorThresholdMsec = tokenHelper.getTokenizerTimeErrorThresholdMsec();
+        List<String> tokens = null;
+        try {
+            while (tokens == null) {
+                try {
+                    tokens = pending.get(HeartBeatThread.INTERVAL, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    if (pending.getElapsedMsec() > errorThresholdMsec) {
+                        pending.cancel(true);
+                        throw timeout(pending, errorThresholdMsec, reporter);
+                    }
+                    if (reporter != null) {
+                        reporter.progress();
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Tokenization of field " + pending.fieldName + " failed", cause);
+        }
+
+        // a tokenization run by the calling thread can only be checked once it is complete
+        long elapsedMsec = pending.getElapsedMsec();
+        if (elapsedMsec > errorThresholdMsec) {
+            throw timeout(pending, errorThresholdMsec, reporter);
+        }
+
+        if (tokenizerService != null) {
+            tokenizerPoolTokens += tokens.size();
+            tokenizerPoolMsec += elapsedMsec;
+            counters.incrementValue(ContentIndexCounters.TOKENIZER_POOL_TOKENS, tokens.size(), reporter);
+            counters.incrementValue(ContentIndexCounters.TOKENIZER_POOL_TIME_MSEC, (int) elapsedMsec, reporter);
+        }
+        return tokens;
+    }
+
+    private TokenizerTimeoutException timeout(PendingTokens pending, long errorThresholdMsec, StatusReporter reporter) {
+        counters.increment(ContentIndexCounters.TOKENIZER_TIME_ERRORS, reporter);
+        return new TokenizerTimeoutException("Tokenization of field " + pending.fieldName + " has exceeded error threshold " + errorThresholdMsec + "ms ("
+                        + pending.getElapsedMsec() + "ms), aborting");
+    }
+
     /**
      * Tokenize the event, and write all of the shard, shardIndex, and shardReverseIndex keys out to the context
      *
@@ -685,6 +812,56 @@ public abstract class ExtendedContentIndexingColumnBasedHandler<KEYIN,KEYOUT,VAL
         }
     }
 
+    /**
+     * The tokens of a piece of content which may still be being tokenized. The elapsed time only covers the tokenization itself, not the time spent waiting in
+     * the pool's queue.
+     */
+    protected static class PendingTokens extends FutureTask<List<String>> {
+        private final String fieldName;
+        private final TimedTokenizer tokenizer;
+
+        private PendingTokens(String fieldName, Callable<List<String>> tokenizer) {
+            this(fieldName, new TimedTokenizer(tokenizer));
+        }
+
+        private PendingTokens(String fieldName, TimedTokenizer tokenizer) {
+            super(tokenizer);
+            this.fieldName = fieldName;
+            this.tokenizer = tokenizer;
+        }
+
+        long getElapsedMsec() {
+            return tokenizer.getElapsedMsec();
+        }
+    }
+
+    private static class TimedTokenizer implements Callable<List<String>> {
+        private final Callable<List<String>> tokenizer;
+        private volatile long startMsec = -1;
+        private volatile long elapsedMsec = -1;
+
+        private TimedTokenizer(Callable<List<String>> tokenizer) {
+            this.tokenizer = tokenizer;
+        }
+
+        @Override
+        public List<String> call() throws Exception {
+            startMsec = System.currentTimeMillis();
+            try {
+                return tokenizer.call();
+            } finally {
+                elapsedMsec = System.currentTimeMillis() - startMsec;
+            }
+        }
+
+        long getElapsedMsec() {
+            if (elapsedMsec >= 0) {
+                return elapsedMsec;
+            }
+            return startMsec < 0 ? 0 : System.currentTimeMillis() - startMsec;
+        }
+    }
+
     private class DocWriter implements Runnable {
         Key k;
         byte[] shardId;
@@ -12,7 +12,6 @@ import org.apache.log4j.Logger;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 
-import datawave.data.type.Type;
 import datawave.ingest.data.RawDataErrorNames;
 import datawave.ingest.data.RawRecordContainer;
 import datawave.ingest.data.config.NormalizedContentInterface;
@@ -261,9 +260,8 @@ public class ExtendedContentIngestHelper extends BaseIngestHelper implements Ter
     public Set<NormalizedContentInterface> normalize(NormalizedContentInterface nci) {
 
         // normalize the event field value as required
-        Type<?> n = eventFieldNormalizerHelper.getType(nci.getEventFieldName());
         try {
-            nci.setEventFieldValue(n.normalize(nci.getEventFieldValue()));
+            nci.setEventFieldValue(eventFieldNormalizerHelper.normalize(nci.getEventFieldName(), nci.getEventFieldValue()));
 
             // copy the new value into the indexed value for further
             // normalization
@@ -4,6 +4,7 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 
+import org.apache.accumulo.core.data.ByteSequence;
 import org.apache.accumulo.core.data.Key;
 import org.apache.commons.lang.builder.ToStringBuilder;
 import org.apache.hadoop.io.Text;
@@ -14,8 +15,9 @@ import org.apache.hadoop.io.WritableUtils;
 /**
  * Used during bulk ingest to convey the table name to the reducer and stores the key for sorting.
  * <p>
- * <strong>Note:</strong> For serialization and binary comparison, this class does not handle keys with the deleted flag set. This should not be a problem for
- * ingest of new data.
+ * The serialized form is self describing: the table name, row, column family, column qualifier and column visibility are each written as a variable length
+ * size followed by their bytes, then the timestamp as a variable length long, and finally the deleted flag. The {@link Comparator} sorts this form directly,
+ * in the same order as {@link #compareTo(BulkIngestKey)}, without deserializing it or allocating any objects.
  */
 public class BulkIngestKey implements WritableComparable<BulkIngestKey> {
 
@@ -61,7 +63,8 @@ public class BulkIngestKey implements WritableComparable<BulkIngestKey> {
 
     @Override
     public void readFields(DataInput in) throws IOException {
-        tableName = new Text(readText(in));
+        tableName = new Text();
+        tableName.readWithKnownLength(in, WritableUtils.readVInt(in));
 
         byte[] row = readText(in);
         byte[] cf = readText(in);
@@ -84,21 +87,22 @@ public class BulkIngestKey implements WritableComparable<BulkIngestKey> {
 
     @Override
     public void write(DataOutput out) throws IOException {
-        writeText(out, tableName);
-        // reuse a text object for writing
-        Text t = new Text();
-        writeText(out, key.getRow(t));
-        writeText(out, key.getColumnFamily(t));
-        writeText(out, key.getColumnQualifier(t));
-        writeText(out, key.getColumnVisibility(t));
+        WritableUtils.writeVInt(out, tableName.getLength());
+        out.write(tableName.getBytes(), 0, tableName.getLength());
+
+        // write the key's own byte arrays rather than copying them
+        writeBytes(out, key.getRowData());
+        writeBytes(out, key.getColumnFamilyData());
+        writeBytes(out, key.getColumnQualifierData());
+        writeBytes(out, key.getColumnVisibilityData());
 
         WritableUtils.writeVLong(out, key.getTimestamp());
         out.writeBoolean(key.isDeleted());
     }
 
-    private void writeText(DataOutput out, Text t) throws IOException {
-        WritableUtils.writeVInt(out, t.getLength());
-        out.write(t.getBytes(), 0, t.getLength());
+    private void writeBytes(DataOutput out, ByteSequence bytes) throws IOException {
+        WritableUtils.writeVInt(out, bytes.length());
+        out.write(bytes.getBackingArray(), bytes.offset(), bytes.length());
     }
 
     @Override
@@ -154,17 +158,16 @@ public class BulkIngestKey implements WritableComparable<BulkIngestKey> {
 
             int o1 = s1;
             int o2 = s2;
-            int[] startAndLen = {0, 0};
-            // 5 parts to read (all Text... vint gives size of Text):
+            // 5 parts to read (all byte arrays... vint gives size of the array):
             // table name, row, col fam, col qual, col vis
             for (int i = 0; i < 5; i++) {
-                startAndLen[0] = o1;
-                // get Text's length in bytes
-                int tl1 = readVInt(b1, startAndLen);
-                o1 += startAndLen[1];
-                startAndLen[0] = o2;
-                int tl2 = readVInt(b2, startAndLen);
-                o2 += startAndLen[1];
+                // get the part's length in bytes
+                int vl1 = WritableUtils.decodeVIntSize(b1[o1]);
+                int tl1 = (int) decodeVLong(b1, o1, vl1);
+                o1 += vl1;
+                int vl2 = WritableUtils.decodeVIntSize(b2[o2]);
+                int tl2 = (int) decodeVLong(b2, o2, vl2);
+                o2 += vl2;
 
                 int result = compareBytes(b1, o1, tl1, b2, o2, tl2);
                 if (result != 0) {
@@ -175,12 +178,12 @@ public class BulkIngestKey implements WritableComparable<BulkIngestKey> {
             }
 
             // get timestamps (vlong)
-            startAndLen[0] = o1;
-            long ts1 = readVLong(b1, startAndLen);
-            o1 += startAndLen[1];
-            startAndLen[0] = o2;
-            long ts2 = readVLong(b2, startAndLen);
-            o2 += startAndLen[1];
+            int vl1 = WritableUtils.decodeVIntSize(b1[o1]);
+            long ts1 = decodeVLong(b1, o1, vl1);
+            o1 += vl1;
+            int vl2 = WritableUtils.decodeVIntSize(b2[o2]);
+            long ts2 = decodeVLong(b2, o2, vl2);
+            o2 += vl2;
 
             if (ts1 < ts2) {
                 return 1;
@@ -228,16 +231,29 @@ public class BulkIngestKey implements WritableComparable<BulkIngestKey> {
          * @return the value
          */
         public static long readVLong(byte[] bytes, int[] startAndLen) {
-            byte firstByte = bytes[startAndLen[0]];
-            startAndLen[1] = WritableUtils.decodeVIntSize(firstByte);
-            if (startAndLen[1] == 1) {
+            startAndLen[1] = WritableUtils.decodeVIntSize(bytes[startAndLen[0]]);
+            return decodeVLong(bytes, startAndLen[0], startAndLen[1]);
+        }
+
+        /**
+         * Decodes a Variable Long from a byte[] whose encoded size is already known
+         *
+         * @param bytes
+         *            payload containing variable long
+         * @param start
+         *            the offset into the byte array
+         * @param size
+         *            the encoded size, as given by {@link WritableUtils#decodeVIntSize(byte)}
+         * @return the value
+         */
+        private static long decodeVLong(byte[] bytes, int start, int size) {
+            byte firstByte = bytes[start];
+            if (size == 1) {
                 return firstByte;
             }
             long i = 0;
-            for (int idx = 0; idx < startAndLen[1] - 1; idx++) {
-                byte b = bytes[startAndLen[0] + 1 + idx];
-                i = i << 8;
-                i = i | (b & 0xFF);
+            for (int idx = start + 1; idx < start + size; idx++) {
+                i = (i << 8) | (bytes[idx] & 0xFF);
             }
             return (WritableUtils.isNegativeVInt(firstByte) ? (i ^ -1L) : i);
         }
@@ -15,16 +15,25 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Observer;
+import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.accumulo.core.client.Accumulo;
 import org.apache.accumulo.core.client.AccumuloClient;
@@ -37,6 +46,7 @@ import org.apache.accumulo.core.manager.thrift.ManagerClientService;
 import org.apache.accumulo.core.manager.thrift.ManagerClientService.Iface;
 import org.apache.accumulo.core.manager.thrift.ManagerMonitorInfo;
 import org.apache.accumulo.core.master.thrift.TableInfo;
+import org.apache.accumulo.core.master.thrift.TabletServerStatus;
 import org.apache.accumulo.core.rpc.ThriftUtil;
 import org.apache.accumulo.core.rpc.clients.ManagerClient;
 import org.apache.accumulo.core.rpc.clients.ThriftClientTypes;
@@ -67,6 +77,8 @@ import com.google.common.collect.Lists;
 
 import datawave.ingest.data.TypeRegistry;
 import datawave.ingest.mapreduce.StandaloneStatusReporter;
+import datawave.ingest.mapreduce.job.BulkLoadPipeline.Stage;
+import datawave.ingest.mapreduce.job.BulkLoadPipeline.StageStats;
 import datawave.util.cli.PasswordConverter;
 
 /**
@@ -82,6 +94,7 @@ public final class BulkIngestMapFileLoader implements Runnable {
     private static int MAJC_CHECK_INTERVAL = 1;
     private static int MAJC_THRESHOLD = 3000;
     private static int MAJC_WAIT_TIMEOUT = 0;// 2 * 60 * 1000;
+    private static int BULK_IMPORT_THRESHOLD = 100;
     private static int SHUTDOWN_PORT = 24111;
     private static boolean FIFO = true;
     private static boolean INGEST_METRICS = true;
@@ -108,6 +121,7 @@ public final class BulkIngestMapFileLoader implements Runnable {
     private volatile boolean running;
     private ExecutorService executor;
     private JobObservable jobObservable;
+    private BulkLoadPipeline pipeline = null;
 
     public static void main(String[] args) throws AccumuloSecurityException, IOException, NoSuchMethodException {
 
@@ -122,7 +136,9 @@ public final class BulkIngestMapFileLoader implements Runnable {
             log.error("usage: BulkIngestMapFileLoader hdfsWorkDir jobDirPattern instanceName zooKeepers username password "
                             + "[-sleepTime sleepTime] [-majcThreshold threshold] [-majcCheckInterval count] [-majcDelay majcDelay] "
                             + " [-seqFileHdfs seqFileSystemUri] [-srcHdfs srcFileSystemURI] [-destHdfs destFileSystemURI] [-jt jobTracker] "
-                            + "[-ingestMetricsDisabled] [-jobObservers jobObserverClasses] [-shutdownPort portNum] confFile [{confFile}]");
+                            + "[-ingestMetricsDisabled] [-jobObservers jobObserverClasses] [-shutdownPort portNum] [-pipeline] [-numValidateThreads count] "
+                            + "[-numMoveThreads count] [-numImportJobs count] [-numCleanupThreads count] [-bulkImportThreshold threshold] "
+                            + "confFile [{confFile}]");
             System.exit(-1);
         }
 
@@ -131,6 +147,8 @@ public final class BulkIngestMapFileLoader implements Runnable {
         List<Observer> jobObservers = new ArrayList<>();
         // default the number of HDFS threads to 1
         int numHdfsThreads = 1;
+        boolean pipeline = false;
+        Map<Stage,Integer> stageThreads = new EnumMap<>(Stage.class);
         if (args.length > 6) {
             for (int i = 6; i < args.length; ++i) {
                 if ("-sleepTime".equalsIgnoreCase(args[i])) {
@@ -222,6 +240,36 @@ public final class BulkIngestMapFileLoader implements Runnable {
                         log.error("-numAssignThreads must be followed by the number of bulk import assignment threads", e);
                         System.exit(-2);
                     }
+                } else if ("-pipeline".equalsIgnoreCase(args[i])) {
+                    pipeline = true;
+                    log.info("Loading job directories in a pipeline");
+                } else if ("-numValidateThreads".equalsIgnoreCase(args[i]) || "-numMoveThreads".equalsIgnoreCase(args[i])
+                                || "-numImportJobs".equalsIgnoreCase(args[i]) || "-numCleanupThreads".equalsIgnoreCase(args[i])) {
+                    Stage stage = ("-numValidateThreads".equalsIgnoreCase(args[i]) ? Stage.VALIDATE
+                                    : "-numMoveThreads".equalsIgnoreCase(args[i]) ? Stage.MOVE
+                                                    : "-numImportJobs".equalsIgnoreCase(args[i]) ? Stage.IMPORT : Stage.CLEANUP);
+                    if (i + 2 > args.length) {
+                        log.error(args[i] + " must be followed by the number of job directories to process concurrently in that stage");
+                        System.exit(-2);
+                    }
+                    try {
+                        stageThreads.put(stage, Integer.parseInt(args[++i]));
+                    } catch (NumberFormatException e) {
+                        log.error(args[i - 1] + " must be followed by the number of job directories to process concurrently in that stage", e);
+                        System.exit(-2);
+                    }
+                } else if ("-bulkImportThreshold".equalsIgnoreCase(args[i])) {
+                    if (i + 2 > args.length) {
+                        log.error("-bulkImportThreshold must be followed by the number of pending bulk imports at which to import one job directory at a time");
+                        System.exit(-2);
+                    }
+                    try {
+                        BULK_IMPORT_THRESHOLD = Integer.parseInt(args[++i]);
+                    } catch (NumberFormatException e) {
+                        log.error("-bulkImportThreshold must be followed by the number of pending bulk imports at which to import one job directory at a time",
+                                        e);
+                        System.exit(-2);
+                    }
                 } else if ("-seqFileHdfs".equalsIgnoreCase(args[i])) {
                     if (i + 2 > args.length) {
                         log.error("-seqFileHdfs must be followed a file system URI (e.g. hdfs://hostname:54310).");
@@ -332,6 +380,10 @@ public final class BulkIngestMapFileLoader implements Runnable {
         log.info("Using " + jobtracker + " as the jobtracker");
         log.info("Using " + SHUTDOWN_PORT + " as the shutdown port");
         log.info("Using " + (FIFO ? "FIFO" : "LIFO") + " processing order");
+        if (pipeline) {
+            log.info("Using " + stageThreads + " concurrent job directories per pipeline stage");
+            log.info("Will import one job directory at a time if there are more than " + BULK_IMPORT_THRESHOLD + " pending bulk imports.");
+        }
 
         for (String[] s : properties) {
             conf.set(s[0], s[1]);
@@ -360,6 +412,9 @@ public final class BulkIngestMapFileLoader implements Runnable {
 
         BulkIngestMapFileLoader processor = new BulkIngestMapFileLoader(workDir, jobDirPattern, instanceName, zooKeepers, user, new PasswordToken(passwordStr),
                         seqFileHdfs, srcHdfs, destHdfs, jobtracker, tablePriorities, conf, SHUTDOWN_PORT, numHdfsThreads, jobObservers);
+        if (pipeline) {
+            processor.setPipeline(new BulkLoadPipeline(stageThreads));
+        }
         Thread t = new Thread(processor, "map-file-watcher");
         t.start();
     }
@@ -421,8 +476,22 @@ public final class BulkIngestMapFileLoader implements Runnable {
         }
     }
 
+    /**
+     * Load job directories in a pipeline rather than one at a time
+     *
+     * @param pipeline
+     *            the pipeline, or null to load one job directory at a time
+     */
+    public void setPipeline(BulkLoadPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
     @Override
     public void run() {
+        if (pipeline != null) {
+            runPipeline();
+            return;
+        }
         log.info("Starting process to monitor map files.");
         long lastOnlineTime = 0;
         long lastLoadMessageTime = 0;
@@ -542,6 +611,200 @@ public final class BulkIngestMapFileLoader implements Runnable {
         log.info("Bulk map file loader shutting down.");
     }
 
+    /**
+     * Monitor for completed job directories, and hand each to the pipeline as soon as it is found. Discovery continues while earlier job directories are
+     * still being loaded, up to the total number of threads of the pipeline, and resumes immediately whenever a job directory completes. The number of
+     * concurrent imports follows the compaction and bulk import load of the tablet servers.
+     */
+    private void runPipeline() {
+        log.info("Starting pipelined process to monitor map files.");
+        long lastOnlineTime = 0;
+        long lastLoadMessageTime = 0;
+        final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+        final BlockingQueue<Path> completed = new LinkedBlockingQueue<>();
+        final AtomicInteger fsAccessFailures = new AtomicInteger();
+        final int maxInFlight = Stage.values().length * pipeline.getMaxImports();
+
+        try {
+            cleanJobDirectoriesOnStartup();
+        } catch (IOException e) {
+            log.error("Error Cleaning Up Directories.  Manually check for orphans: " + e.getMessage(), e);
+        }
+
+        try {
+            while (running) {
+                try {
+                    // wake up early whenever a job directory completes, as that leaves room for another
+                    List<Path> processedDirectories = new ArrayList<>();
+                    Path done = completed.poll(SLEEP_TIME, TimeUnit.MILLISECONDS);
+                    if (done != null) {
+                        processedDirectories.add(done);
+                        completed.drainTo(processedDirectories);
+                    }
+                    if (!running)
+                        break;
+                    long loadMessageDelta = System.currentTimeMillis() - lastLoadMessageTime;
+                    boolean logMessages = (loadMessageDelta > (5 * 60 * 1000));
+                    if (logMessages) {
+                        lastLoadMessageTime = System.currentTimeMillis();
+                    }
+
+                    ManagerMonitorInfo mmi = getManagerStats();
+                    int majC = getMajorCompactionCount(mmi);
+                    int bulkImports = getBulkImportCount(mmi);
+                    Level level = (logMessages ? Level.INFO : Level.DEBUG);
+                    log.log(level, "There are " + majC + " compactions and " + bulkImports + " bulk imports currently running or queued.");
+                    pipeline.setImportLimit(
+                                    BulkLoadPipeline.getImportLimit(pipeline.getMaxImports(), majC, MAJC_THRESHOLD, bulkImports, BULK_IMPORT_THRESHOLD));
+
+                    if (majC >= MAJC_THRESHOLD || (System.currentTimeMillis() - lastOnlineTime) <= MAJC_WAIT_TIMEOUT) {
+                        log.log(level, "Waiting for load to decrease before bringing more map files online.");
+                    } else if (inFlight.size() < maxInFlight) {
+                        long start = System.currentTimeMillis();
+                        // directories already in flight may still be listed until they have been validated
+                        Path[] jobDirectories = getJobDirectories(srcHdfs, new Path(workDir, jobDirPattern + '/' + COMPLETE_FILE_MARKER),
+                                        maxInFlight + MAX_DIRECTORIES);
+                        pipeline.record(Stage.DISCOVER, System.currentTimeMillis() - start);
+
+                        int started = 0;
+                        for (Path srcJobDirectory : jobDirectories) {
+                            if (inFlight.size() >= maxInFlight || started >= MAX_DIRECTORIES) {
+                                break;
+                            }
+                            if (inFlight.add(srcJobDirectory)) {
+                                started++;
+                                if (INGEST_METRICS) {
+                                    reporter.getCounter("MapFileLoader.StartTimes", srcJobDirectory.getName()).increment(System.currentTimeMillis());
+                                }
+                                new PipelinedLoad(srcJobDirectory, fsAccessFailures).start().whenComplete((processed, t) -> {
+                                    inFlight.remove(srcJobDirectory);
+                                    if (Boolean.TRUE.equals(processed)) {
+                                        completed.add(srcJobDirectory);
+                                    }
+                                });
+                            }
+                        }
+                        if (started > 0) {
+                            lastOnlineTime = System.currentTimeMillis();
+                            // now that we actually processed something, reset the last load message time to force a message on the next round
+                            lastLoadMessageTime = 0;
+                        }
+                    }
+
+                    writeStageStats(logMessages);
+                    if (!processedDirectories.isEmpty()) {
+                        writeStats(processedDirectories.toArray(new Path[processedDirectories.size()]));
+                    }
+                } catch (InterruptedException e) {
+                    log.warn("Interrupted while waiting for job directories.", e);
+                } catch (Exception e) {
+                    log.error("Error: " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            log.info("Shutting down pipeline and executor service");
+            try {
+                pipeline.shutdown(FAILURE_SLEEP_TIME);
+            } catch (InterruptedException e) {
+                log.warn("Interrupted while waiting for the pipeline to complete.", e);
+            }
+            accumuloClient.close();
+            executor.shutdown();
+        }
+        log.info("Bulk map file loader shutting down.");
+    }
+
+    /**
+     * Add the stage metrics of the pipeline to the ingest metrics
+     *
+     * @param logInfo
+     *            whether to log the metrics at info rather than debug
+     */
+    private void writeStageStats(boolean logInfo) {
+        Map<Stage,StageStats> stats = pipeline.drainMetrics();
+        log.log(logInfo ? Level.INFO : Level.DEBUG, "Pipeline stage latencies: " + stats);
+        if (INGEST_METRICS) {
+            for (Map.Entry<Stage,StageStats> entry : stats.entrySet()) {
+                String stage = entry.getKey().name();
+                reporter.getCounter("MapFileLoader.StageCounts", stage).increment(entry.getValue().getCount());
+                reporter.getCounter("MapFileLoader.StageWaitMillis", stage).increment(entry.getValue().getWaitMillis());
+                reporter.getCounter("MapFileLoader.StageRunMillis", stage).increment(entry.getValue().getRunMillis());
+            }
+        }
+    }
+
+    /**
+     * A job directory passing through the stages of the pipeline
+     */
+    private class PipelinedLoad {
+        private final Path srcJobDirectory;
+        private final AtomicInteger fsAccessFailures;
+        private Path dstJobDirectory;
+        private URI workingHdfs;
+        private long start;
+
+        PipelinedLoad(Path srcJobDirectory, AtomicInteger fsAccessFailures) {
+            this.srcJobDirectory = srcJobDirectory;
+            this.fsAccessFailures = fsAccessFailures;
+            this.dstJobDirectory = srcJobDirectory;
+            this.workingHdfs = srcHdfs;
+        }
+
+        /**
+         * @return whether the job directory was processed, i.e. ownership was taken
+         */
+        CompletableFuture<Boolean> start() {
+            return pipeline.submit(Stage.VALIDATE, () -> takeOwnershipJobDirectory(srcJobDirectory)).thenCompose(owned -> {
+                if (!owned) {
+                    return CompletableFuture.completedFuture(Boolean.FALSE);
+                }
+                start = System.currentTimeMillis();
+                log.info("Started processing " + srcJobDirectory);
+                return pipeline.submit(Stage.MOVE, this::move).thenCompose(mapFilesDir -> pipeline.submit(Stage.IMPORT, () -> load(mapFilesDir)))
+                                .thenCompose(mapFilesDir -> pipeline.submit(Stage.CLEANUP, () -> cleanUp(mapFilesDir))).handle((mapFilesDir, t) -> {
+                                    if (t != null) {
+                                        fail(t);
+                                    }
+                                    return Boolean.TRUE;
+                                });
+            });
+        }
+
+        private Path move() throws Exception {
+            // copy the data if needed
+            dstJobDirectory = distCpDirectory(srcJobDirectory);
+            workingHdfs = destHdfs;
+            return new Path(dstJobDirectory, "mapFiles");
+        }
+
+        private Path load(Path mapFilesDir) throws Exception {
+            bringMapFilesOnline(mapFilesDir);
+
+            // ensure everything got loaded
+            verifyNothingLeftBehind(mapFilesDir);
+            return mapFilesDir;
+        }
+
+        private Path cleanUp(Path mapFilesDir) throws IOException {
+            cleanUpJobDirectory(mapFilesDir);
+            log.info("Finished processing " + mapFilesDir + ", duration (sec): " + ((System.currentTimeMillis() - start) / 1000));
+            return mapFilesDir;
+        }
+
+        private void fail(Throwable t) {
+            Throwable cause = (t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+            log.error("Failed to process " + dstJobDirectory, cause);
+            if (!markJobDirectoryFailed(workingHdfs, dstJobDirectory)) {
+                if (fsAccessFailures.incrementAndGet() >= 3) {
+                    log.error("Too many failures updating marker files.  Exiting...");
+                    shutdown();
+                } else {
+                    log.warn("Failed to mark " + dstJobDirectory + " as failed.");
+                }
+            }
+        }
+    }
+
     protected void cleanJobDirectoriesOnStartup() throws IOException {
         Path[] cleanupDirectories = getJobDirectories(destHdfs, new Path(workDir, jobDirPattern + '/' + CLEANUP_FILE_MARKER));
         for (int i = 0; i < cleanupDirectories.length; i++) {
@@ -685,30 +948,56 @@ public final class BulkIngestMapFileLoader implements Runnable {
     }
 
     private int getMajorCompactionCount() {
+        return getMajorCompactionCount(getManagerStats());
+    }
+
+    private static int getMajorCompactionCount(ManagerMonitorInfo mmi) {
         int majC = 0;
+        if (mmi != null && mmi.getTableMap() != null) {
+            for (java.util.Map.Entry<String,TableInfo> e : mmi.getTableMap().entrySet()) {
+                if (e.getValue().getMajors() != null) {
+                    majC += e.getValue().getMajors().getQueued();
+                    majC += e.getValue().getMajors().getRunning();
+                }
+            }
+        }
+        return majC;
+    }
 
+    /**
+     * @param mmi
+     *            the manager stats
+     * @return the number of bulk imports in progress on the manager and tablet servers
+     */
+    private static int getBulkImportCount(ManagerMonitorInfo mmi) {
+        int bulkImports = 0;
+        if (mmi != null) {
+            bulkImports += mmi.getBulkImportsSize();
+            if (mmi.getTServerInfo() != null) {
+                for (TabletServerStatus status : mmi.getTServerInfo()) {
+                    bulkImports += status.getBulkImportsSize();
+                }
+            }
+        }
+        return bulkImports;
+    }
+
+    private ManagerMonitorInfo getManagerStats() {
         ManagerClientService.Client client = null;
         ClientContext context = (ClientContext) accumuloClient;
         try {
             client = ThriftClientTypes.MANAGER.getConnection(context);
-            ManagerMonitorInfo mmi = client.getManagerStats(null, context.rpcCreds());
-            Map<String,TableInfo> tableStats = mmi.getTableMap();
-
-            for (java.util.Map.Entry<String,TableInfo> e : tableStats.entrySet()) {
-                majC += e.getValue().getMajors().getQueued();
-                majC += e.getValue().getMajors().getRunning();
-            }
+            return client.getManagerStats(null, context.rpcCreds());
         } catch (Exception e) {
             // Accumulo API changed, catch exception for now until we redeploy
             // accumulo on lightning.
             log.error("Unable to retrieve major compaction stats: " + e.getMessage());
+            return null;
         } finally {
             if (client != null) {
                 ThriftUtil.close(client, context);
             }
         }
-
-        return majC;
     }
 
     /**
@@ -723,6 +1012,10 @@ public final class BulkIngestMapFileLoader implements Runnable {
      * @return a path array
      */
     private Path[] getJobDirectories(URI hdfs, Path pathPattern) throws IOException {
+        return getJobDirectories(hdfs, pathPattern, MAX_DIRECTORIES);
+    }
+
+    private Path[] getJobDirectories(URI hdfs, Path pathPattern, int maxDirectories) throws IOException {
         log.debug("Checking for completed job directories.");
         FileSystem fs = getFileSystem(hdfs);
         FileStatus[] files = fs.globStatus(pathPattern);
@@ -734,7 +1027,7 @@ public final class BulkIngestMapFileLoader implements Runnable {
                 long m2 = o2.getModificationTime();
                 return order * ((m1 < m2) ? -1 : ((m1 > m2) ? 1 : 0));
             });
-            jobDirectories = new Path[Math.min(MAX_DIRECTORIES, files.length)];
+            jobDirectories = new Path[Math.min(maxDirectories, files.length)];
             for (int i = 0; i < jobDirectories.length; i++) {
                 jobDirectories[i] = files[i].getPath().getParent();
             }
@@ -0,0 +1,274 @@
+package datawave.ingest.mapreduce.job;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * The stages through which the {@link BulkIngestMapFileLoader} brings a job directory online, each with its own bounded pool of threads. A job directory moves
+ * from one stage to the next as soon as its previous stage completes, so that the marker renames, copies and cleanup of some job directories overlap with the
+ * imports of others.
+ * <p>
+ * The number of concurrent imports is additionally bounded by a limit which can be adjusted while running, e.g. as the load on the tablet servers changes. The
+ * time each task waited for and spent in its stage is accumulated per stage.
+ */
+public class BulkLoadPipeline {
+    private static final Logger log = Logger.getLogger(BulkLoadPipeline.class);
+
+    public enum Stage {
+        /** finding completed job directories */
+        DISCOVER,
+        /** taking ownership of a job directory */
+        VALIDATE,
+        /** copying a job directory to the destination file system */
+        MOVE,
+        /** importing the map files of a job directory */
+        IMPORT,
+        /** marking the source files as loaded and removing the job directory */
+        CLEANUP
+    }
+
+    private final Map<Stage,ExecutorService> executors = new EnumMap<>(Stage.class);
+    private final Map<Stage,StageMetrics> metrics = new EnumMap<>(Stage.class);
+    private final int maxImports;
+    private int importLimit;
+    private int activeImports = 0;
+
+    /**
+     * @param threads
+     *            the number of threads per stage. The discover stage runs on the calling thread, and any other stage without a thread count is given one thread
+     */
+    public BulkLoadPipeline(Map<Stage,Integer> threads) {
+        for (Stage stage : Stage.values()) {
+            metrics.put(stage, new StageMetrics());
+            if (stage != Stage.DISCOVER) {
+                int numThreads = Math.max(1, threads.getOrDefault(stage, 1));
+                executors.put(stage, Executors.newFixedThreadPool(numThreads,
+                                new ThreadFactoryBuilder().setNameFormat("bulk-" + stage.name().toLowerCase() + "-%d").setDaemon(true).build()));
+            }
+        }
+        this.maxImports = Math.max(1, threads.getOrDefault(Stage.IMPORT, 1));
+        this.importLimit = maxImports;
+    }
+
+    /**
+     * Run a task in a stage
+     *
+     * @param stage
+     *            the stage
+     * @param task
+     *            the task
+     * @param <T>
+     *            the result type
+     * @return the future result of the task
+     */
+    public <T> CompletableFuture<T> submit(Stage stage, Callable<T> task) {
+        final long submitted = System.currentTimeMillis();
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable runnable = () -> {
+            long started = System.currentTimeMillis();
+            T value = null;
+            Throwable failure = null;
+            try {
+                if (stage == Stage.IMPORT) {
+                    acquireImport();
+                    started = System.currentTimeMillis();
+                }
+                try {
+                    value = task.call();
+                } finally {
+                    if (stage == Stage.IMPORT) {
+                        releaseImport();
+                    }
+                }
+            } catch (Throwable t) {
+                failure = t;
+            }
+
+            // record the metrics before completing, as completing runs the next stage's submission on this thread
+            metrics.get(stage).record(started - submitted, System.currentTimeMillis() - started);
+            if (failure == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(failure);
+            }
+        };
+
+        ExecutorService executor = executors.get(stage);
+        if (executor == null) {
+            runnable.run();
+        } else {
+            executor.execute(runnable);
+        }
+        return result;
+    }
+
+    /**
+     * Record the time spent in a stage for work which was not run by this pipeline
+     *
+     * @param stage
+     *            the stage
+     * @param runMillis
+     *            the time spent
+     */
+    public void record(Stage stage, long runMillis) {
+        metrics.get(stage).record(0, runMillis);
+    }
+
+    /**
+     * @return the largest number of imports which may run at once
+     */
+    public int getMaxImports() {
+        return maxImports;
+    }
+
+    /**
+     * @return the number of imports which may currently run at once
+     */
+    public synchronized int getImportLimit() {
+        return importLimit;
+    }
+
+    /**
+     * Change the number of imports which may run at once. Imports which are already running are not affected.
+     *
+     * @param limit
+     *            the new limit, which is kept between 1 and the number of import threads
+     */
+    public synchronized void setImportLimit(int limit) {
+        limit = Math.max(1, Math.min(maxImports, limit));
+        if (limit != importLimit) {
+            log.info("Changing the bulk import limit from " + importLimit + " to " + limit);
+            importLimit = limit;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Scale the number of concurrent imports down as the tablet servers approach either threshold, leaving a single import once either is reached
+     *
+     * @param maxImports
+     *            the number of import threads
+     * @param compactions
+     *            the number of running and queued major compactions
+     * @param compactionThreshold
+     *            the number of compactions at which imports are reduced to one
+     * @param bulkImports
+     *            the number of bulk imports in progress on the tablet servers
+     * @param bulkImportThreshold
+     *            the number of bulk imports at which imports are reduced to one
+     * @return the number of imports which may run at once
+     */
+    public static int getImportLimit(int maxImports, int compactions, int compactionThreshold, int bulkImports, int bulkImportThreshold) {
+        double load = 0;
+        if (compactionThreshold > 0) {
+            load = Math.max(load, (double) compactions / compactionThreshold);
+        }
+        if (bulkImportThreshold > 0) {
+            load = Math.max(load, (double) bulkImports / bulkImportThreshold);
+        }
+        load = Math.min(1.0d, load);
+        return Math.max(1, maxImports - (int) Math.round((maxImports - 1) * load));
+    }
+
+    private synchronized void acquireImport() throws InterruptedException {
+        while (activeImports >= importLimit) {
+            wait();
+        }
+        activeImports++;
+    }
+
+    private synchronized void releaseImport() {
+        activeImports--;
+        notifyAll();
+    }
+
+    /**
+     * Get the time spent per stage since the previous call, resetting the totals
+     *
+     * @return the metrics of each stage
+     */
+    public Map<Stage,StageStats> drainMetrics() {
+        Map<Stage,StageStats> stats = new EnumMap<>(Stage.class);
+        for (Map.Entry<Stage,StageMetrics> entry : metrics.entrySet()) {
+            stats.put(entry.getKey(), entry.getValue().drain());
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Stop accepting tasks and wait for the running tasks to complete
+     *
+     * @param timeoutMillis
+     *            the maximum time to wait per stage
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public void shutdown(long timeoutMillis) throws InterruptedException {
+        // stop in pipeline order, so that the tasks of the earlier stages may still hand off to the later ones
+        for (ExecutorService executor : executors.values()) {
+            executor.shutdown();
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                log.warn("Timed out waiting for bulk load tasks to complete");
+            }
+        }
+    }
+
+    private static class StageMetrics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder waitMillis = new LongAdder();
+        private final LongAdder runMillis = new LongAdder();
+
+        void record(long waited, long ran) {
+            count.increment();
+            waitMillis.add(waited);
+            runMillis.add(ran);
+        }
+
+        StageStats drain() {
+            return new StageStats(count.sumThenReset(), waitMillis.sumThenReset(), runMillis.sumThenReset());
+        }
+    }
+
+    /**
+     * The number of tasks run in a stage, and the time they spent waiting for and running in it
+     */
+    public static class StageStats {
+        private final long count;
+        private final long waitMillis;
+        private final long runMillis;
+
+        public StageStats(long count, long waitMillis, long runMillis) {
+            this.count = count;
+            this.waitMillis = waitMillis;
+            this.runMillis = runMillis;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getWaitMillis() {
+            return waitMillis;
+        }
+
+        public long getRunMillis() {
+            return runMillis;
+        }
+
+        @Override
+        public String toString() {
+            return count + " tasks, wait " + (count == 0 ? 0 : waitMillis / count) + "ms, run " + (count == 0 ? 0 : runMillis / count) + "ms";
+        }
+    }
+}
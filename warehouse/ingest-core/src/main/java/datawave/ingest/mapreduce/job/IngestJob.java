@@ -101,6 +101,7 @@ import datawave.ingest.mapreduce.job.writer.ChainedContextWriter;
 import datawave.ingest.mapreduce.job.writer.ContextWriter;
 import datawave.ingest.mapreduce.job.writer.DedupeContextWriter;
 import datawave.ingest.mapreduce.job.writer.LiveContextWriter;
+import datawave.ingest.mapreduce.job.writer.SortingContextWriter;
 import datawave.ingest.mapreduce.job.writer.TableCachingContextWriter;
 import datawave.ingest.mapreduce.partition.MultiTableRangePartitioner;
 import datawave.ingest.metric.IngestInput;
@@ -112,8 +113,9 @@ import datawave.util.cli.PasswordConverter;
 
 /**
  * Class that starts a MapReduce job to create Accumulo Map files that to be bulk imported into Accumulo If outputMutations is specified, then Mutations are
- * created instead which will modify accumulo directly instead of using Accumulo Map files (e.g. use for live ingest). If mapOnly is specified (only valid for
- * live ingest), then the combiner and reducers will be run as part of the map process. Beware that potentially more data may be cached in memory when doing
+ * created instead which will modify accumulo directly instead of using Accumulo Map files (e.g. use for live ingest). If mapOnly is specified, then the
+ * combiner and reducers will be run as part of the map process. For bulk ingest each mapper then sorts all of its output, spilling to local disk as needed, and
+ * writes its own Accumulo Map files, which avoids the shuffle for small jobs. Beware that potentially more data may be cached in memory when doing
  * mapOnly processing. This will only be an issue if something like the EdgeDataTypeHandler produces an unreasonable number of edges for one event. The general
  * sequence of events is as follows:
  * <p>
@@ -121,9 +123,10 @@ import datawave.util.cli.PasswordConverter;
  * DataTypeHelper implementations to produce BulkIngestKey,Value pairs BulkIngestDedupeCombiner is invoked from the DedupeContextWriter to primarily dedupe
  * BulkIngestKey,Value pairs if not running a mapOnly job, then the Delegating Partitioner will run, using the Partitioners that are configured for each table
  * or the default Partitioner if none is specified for a table. BulkIngestAggregatingReducer is used as the reducer (or invoked from the
- * AggregatingContextWriter in mapOnly mode) to produce dedupped BulkIngestKey,Value pairs The BulkContextWriter or the LiveContextWriter are at all stages to
- * write data to the context in the appropriate format For bulk ingest the MultiRFileOutputFormatter is then used to format the output which is placed in the
- * {@code <workDir>/mapFiles} directory For live ingest the AccumuloOutputFormat is then used to apply the mutations directly to accumulo
+ * AggregatingContextWriter or SortingContextWriter in mapOnly mode) to produce dedupped BulkIngestKey,Value pairs The BulkContextWriter or the
+ * LiveContextWriter are at all stages to write data to the context in the appropriate format For bulk ingest the MultiRFileOutputFormatter is then used to
+ * format the output which is placed in the {@code <workDir>/mapFiles} directory For live ingest the AccumuloOutputFormat is then used to apply the mutations
+ * directly to accumulo
  */
 public class IngestJob implements Tool {
 
@@ -533,7 +536,7 @@ public class IngestJob implements Tool {
         return 0;
     }
 
-    private void setupHandlers(Configuration conf) {
+    void setupHandlers(Configuration conf) {
         // default to all types
         Collection<Type> types = TypeRegistry.getTypes();
 
@@ -787,11 +790,6 @@ public class IngestJob implements Tool {
             return null;
         }
 
-        if (useMapOnly && !outputMutations) {
-            log.error("ERROR: Cannot do bulk ingest mapOnly (i.e. without the reduce phase).  Bulk ingest required sorted keys.");
-            return null;
-        }
-
         if (!outputMutations && destHdfs == null) {
             log.error("ERROR: -destHdfs must be specified for bulk ingest");
             return null;
@@ -976,8 +974,8 @@ public class IngestJob implements Tool {
                 job.getConfiguration().setBoolean(BulkIngestKeyAggregatingReducer.CONTEXT_WRITER_OUTPUT_TABLE_COUNTERS, tableCounters);
                 job.setReducerClass(BulkIngestKeyAggregatingReducer.class);
             } else {
-                // The dedupe context writer invokes the BulkIngestKeyDedupeCombiner, and the aggregating context writer
-                // invokes the BulkIngestKeyAggregatingReducer. The LiveContextWriter will take care of translating from BulkIngestKeys to Mutations
+                // The dedupe context writer invokes the BulkIngestKeyDedupeCombiner, and the sorting context writer sorts all of the map output
+                // and invokes the BulkIngestKeyAggregatingReducer in key order, so that the BulkContextWriter can write the RFiles directly
                 job.getConfiguration().setBoolean(EventMapper.CONTEXT_WRITER_OUTPUT_TABLE_COUNTERS, tableCounters);
 
                 if (useCombiner || useInlineCombiner) {
@@ -987,8 +985,8 @@ public class IngestJob implements Tool {
                     job.getConfiguration().setClass(EventMapper.CONTEXT_WRITER_CLASS, TableCachingContextWriter.class, ChainedContextWriter.class);
                 }
 
-                job.getConfiguration().setClass(TableCachingContextWriter.CONTEXT_WRITER_CLASS, AggregatingContextWriter.class, ContextWriter.class);
-                job.getConfiguration().setClass(AggregatingContextWriter.CONTEXT_WRITER_CLASS, BulkContextWriter.class, ContextWriter.class);
+                job.getConfiguration().setClass(TableCachingContextWriter.CONTEXT_WRITER_CLASS, SortingContextWriter.class, ContextWriter.class);
+                job.getConfiguration().setClass(SortingContextWriter.CONTEXT_WRITER_CLASS, BulkContextWriter.class, ContextWriter.class);
             }
         }
 
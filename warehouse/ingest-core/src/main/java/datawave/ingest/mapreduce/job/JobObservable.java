@@ -4,6 +4,10 @@ import java.util.Observable;
 
 import org.apache.hadoop.fs.FileSystem;
 
+/**
+ * Notifies observers of the id of each completed job. Jobs may be completed concurrently, e.g. by the cleanup threads of the {@link BulkIngestMapFileLoader},
+ * so the id is set and the observers are notified under a single lock, and the id is passed as the argument of the notification.
+ */
 public class JobObservable extends Observable {
     private final FileSystem fs;
     private String jobId;
@@ -12,14 +16,14 @@ public class JobObservable extends Observable {
         this.fs = fs;
     }
 
-    public String getJobId() {
+    public synchronized String getJobId() {
         return jobId;
     }
 
-    public void setJobId(String jobId) {
+    public synchronized void setJobId(String jobId) {
         this.jobId = jobId;
         setChanged();
-        notifyObservers();
+        notifyObservers(jobId);
     }
 
     public FileSystem getFs() {
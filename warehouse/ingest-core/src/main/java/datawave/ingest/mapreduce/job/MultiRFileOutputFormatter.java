@@ -4,13 +4,23 @@ import static org.apache.accumulo.core.conf.Property.TABLE_CRYPTO_PREFIX;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.conf.AccumuloConfiguration;
@@ -46,6 +56,7 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import datawave.ingest.data.config.ingest.AccumuloHelper;
 import datawave.ingest.mapreduce.handler.shard.ShardedDataTypeHandler;
@@ -75,6 +86,11 @@ public class MultiRFileOutputFormatter extends FileOutputFormat<BulkIngestKey,Va
     protected static final String MAX_RFILE_UNDEDUPPED_ENTRIES = PREFIX + ".maxRFileUndeduppedEntries";
     protected static final String GENERATE_MAP_FILE_ROW_KEYS = PREFIX + ".generateMapFileRowKeys";
     protected static final String GENERATE_MAP_FILE_PER_SHARD_LOCATION = PREFIX + ".generateMapFilePerShardLocation";
+    protected static final String COMPRESSED_BLOCK_SIZE = PREFIX + ".compressedBlockSize";
+    protected static final String COMPRESSED_INDEX_BLOCK_SIZE = PREFIX + ".compressedIndexBlockSize";
+    protected static final String ASYNC_WRITER_THREADS = PREFIX + ".asyncWriterThreads";
+    protected static final String ASYNC_WRITER_BUFFER_SIZE = PREFIX + ".asyncWriterBufferSize";
+    protected static final int DEFAULT_ASYNC_WRITER_BUFFER_SIZE = 10000;
 
     protected static final String BASE = "bulk.output.partition.count.";
     public static final String CONFIGURE_LOCALITY_GROUPS = PREFIX + ".tables";
@@ -102,6 +118,10 @@ public class MultiRFileOutputFormatter extends FileOutputFormat<BulkIngestKey,Va
     protected boolean generateMapFilePerShardLocation = false;
     private long startWriteTime = 0L;
 
+    protected ExecutorService asyncWriterService = null;
+    protected int asyncWriterBufferSize = DEFAULT_ASYNC_WRITER_BUFFER_SIZE;
+    protected List<AsyncSizeTrackingWriter> asyncWriters = new ArrayList<>();
+
     protected Map<String,Map<Text,String>> columnFamilyToLocalityGroup;
 
     protected Map<String,Map<String,Set<ByteSequence>>> localityGroupToColumnFamilies;
@@ -118,18 +138,80 @@ public class MultiRFileOutputFormatter extends FileOutputFormat<BulkIngestKey,Va
 
     public static void setCompressionType(Configuration conf, String compressionType) {
         if (compressionType != null) {
-            if (!("snappy".equals(compressionType) || "lzo".equals(compressionType) || "gz".equals(compressionType) || "zstd".equals(compressionType)
-                            || "none".equals(compressionType)))
-
-                throw new IllegalArgumentException("compressionType must be one of snappy, lzo, gz, zstd, or none");
+            validateCompressionType(compressionType);
             conf.set(COMPRESSION_TYPE, compressionType);
         }
     }
 
+    /**
+     * Set the compression type for a single table, overriding the compression type of the job. Tables in the compression disallow list remain uncompressed.
+     *
+     * @param conf
+     *            the configuration
+     * @param tableName
+     *            the table name
+     * @param compressionType
+     *            one of snappy, lzo, gz, zstd, or none
+     */
+    public static void setCompressionType(Configuration conf, String tableName, String compressionType) {
+        if (compressionType != null) {
+            validateCompressionType(compressionType);
+            conf.set(COMPRESSION_TYPE + '.' + tableName, compressionType);
+        }
+    }
+
+    private static void validateCompressionType(String compressionType) {
+        if (!("snappy".equals(compressionType) || "lzo".equals(compressionType) || "gz".equals(compressionType) || "zstd".equals(compressionType)
+                        || "none".equals(compressionType)))
+
+            throw new IllegalArgumentException("compressionType must be one of snappy, lzo, gz, zstd, or none");
+    }
+
     protected static String getCompressionType(Configuration conf) {
         return conf.get(COMPRESSION_TYPE, "gz");
     }
 
+    protected static String getCompressionType(Configuration conf, String tableName) {
+        return conf.get(COMPRESSION_TYPE + '.' + tableName, getCompressionType(conf));
+    }
+
+    /**
+     * Set the compressed data and index block sizes of the files written for a table, overriding those of the table configuration
+     *
+     * @param conf
+     *            the configuration
+     * @param tableName
+     *            the table name
+     * @param blockSize
+     *            the compressed data block size, e.g. 100K, or null to keep the table's setting
+     * @param indexBlockSize
+     *            the compressed index block size, e.g. 128K, or null to keep the table's setting
+     */
+    public static void setCompressedBlockSizes(Configuration conf, String tableName, String blockSize, String indexBlockSize) {
+        if (blockSize != null) {
+            conf.set(COMPRESSED_BLOCK_SIZE + '.' + tableName, blockSize);
+        }
+        if (indexBlockSize != null) {
+            conf.set(COMPRESSED_INDEX_BLOCK_SIZE + '.' + tableName, indexBlockSize);
+        }
+    }
+
+    /**
+     * Write files asynchronously. Each file is written by one thread of a pool at a time, in the order the keys were given to it, and may buffer up to
+     * bufferSize operations before the reduce thread blocks. Closing a file when it rolls over is also left to the pool.
+     *
+     * @param conf
+     *            the configuration
+     * @param threads
+     *            the number of writer threads, or 0 to write synchronously on the calling thread
+     * @param bufferSize
+     *            the number of operations which may be buffered per file
+     */
+    public static void setAsyncWriters(Configuration conf, int threads, int bufferSize) {
+        conf.setInt(ASYNC_WRITER_THREADS, threads);
+        conf.setInt(ASYNC_WRITER_BUFFER_SIZE, bufferSize);
+    }
+
     public static void setCompressionTableDisallowList(Configuration conf, Set<String> compressionTableDisallowList) {
         if (compressionTableDisallowList != null) {
             StringBuilder tableList = new StringBuilder();
@@ -238,6 +320,11 @@ public class MultiRFileOutputFormatter extends FileOutputFormat<BulkIngestKey,Va
 
         // now create and register the writer
         SizeTrackingWriter writer = openWriter(filename.toString(), tableConf);
+        if (asyncWriterService != null) {
+            AsyncSizeTrackingWriter asyncWriter = new AsyncSizeTrackingWriter(writer, asyncWriterService, asyncWriterBufferSize);
+            asyncWriters.add(asyncWriter);
+            writer = asyncWriter;
+        }
         writer.startDefaultLocalityGroup();
         writers.put(key, writer);
         unusedWriterPaths.put(key, filename);
@@ -330,6 +417,189 @@ public class MultiRFileOutputFormatter extends FileOutputFormat<BulkIngestKey,Va
         }
     }
 
+    /**
+     * A writer which hands its operations to a pool, so that compressing and flushing a file overlaps with the processing of further keys. Operations are
+     * queued per file and applied by at most one thread at a time, in order. The number of queued operations is bounded, after which the caller blocks until
+     * the file has caught up.
+     * <p>
+     * The size and entry counts are updated by the caller, so that files roll over at exactly the same keys as they would when written synchronously. A failure
+     * of the underlying writer is rethrown by the next operation, or by {@link #awaitClose()}.
+     */
+    public static class AsyncSizeTrackingWriter extends SizeTrackingWriter {
+        private final FileSKVWriter target;
+        private final ExecutorService executor;
+        private final int batchSize;
+        private final Semaphore capacity;
+        private final Queue<WriterOperation> operations = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private volatile IOException failure = null;
+
+        public AsyncSizeTrackingWriter(FileSKVWriter target, ExecutorService executor, int bufferSize) {
+            super(target);
+            this.target = target;
+            this.executor = executor;
+            this.batchSize = Math.max(1, bufferSize);
+            this.capacity = new Semaphore(this.batchSize);
+        }
+
+        @Override
+        public void startNewLocalityGroup(String name, Set<ByteSequence> columnFamilies) throws IOException {
+            submit(() -> target.startNewLocalityGroup(name, columnFamilies));
+        }
+
+        @Override
+        public void startDefaultLocalityGroup() throws IOException {
+            submit(target::startDefaultLocalityGroup);
+        }
+
+        @Override
+        public void append(Key key, Value value) throws IOException {
+            entries++;
+            size += key.getLength() + (value == null ? 0 : value.getSize());
+
+            // the caller may reuse the key and value once this returns
+            final Key keyCopy = new Key(key);
+            final Value valueCopy = (value == null ? null : new Value(value));
+            submit(() -> target.append(keyCopy, valueCopy));
+        }
+
+        @Override
+        public DataOutputStream createMetaStore(String name) throws IOException {
+            // the meta store is written by the caller, so wait for everything before it
+            final CountDownLatch flushed = new CountDownLatch(1);
+            submit(flushed::countDown);
+            await(flushed);
+            checkFailure();
+            return target.createMetaStore(name);
+        }
+
+        @Override
+        public void close() throws IOException {
+            submit(new WriterOperation() {
+                @Override
+                public void apply() throws IOException {
+                    target.close();
+                }
+
+                @Override
+                public boolean isClose() {
+                    return true;
+                }
+            });
+        }
+
+        /**
+         * Wait for a previous {@link #close()} to complete
+         *
+         * @throws IOException
+         *             if writing or closing the file failed, or the thread was interrupted
+         */
+        public void awaitClose() throws IOException {
+            await(closed);
+            checkFailure();
+        }
+
+        private void submit(WriterOperation operation) throws IOException {
+            checkFailure();
+            try {
+                capacity.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the file writer");
+            }
+            operations.add(operation);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!operations.isEmpty() && scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Apply a batch of queued operations, then yield the thread to the other files
+         */
+        private void drain() {
+            try {
+                WriterOperation operation;
+                for (int i = 0; i < batchSize && (operation = operations.poll()) != null; i++) {
+                    try {
+                        // after a failure, the only operation still applied is the close
+                        if (failure == null || operation.isClose()) {
+                            operation.apply();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        if (failure == null) {
+                            failure = (e instanceof IOException ? (IOException) e : new IOException(e));
+                        }
+                    } finally {
+                        capacity.release();
+                        if (operation.isClose()) {
+                            closed.countDown();
+                        }
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                schedule();
+            }
+        }
+
+        private void checkFailure() throws IOException {
+            if (failure != null) {
+                throw new IOException("Asynchronous file write failed", failure);
+            }
+        }
+
+        private static void await(CountDownLatch latch) throws IOException {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the file writer");
+            }
+        }
+
+        private interface WriterOperation {
+            void apply() throws IOException;
+
+            default boolean isClose() {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Wait for every asynchronously written file to be closed
+     *
+     * @throws IOException
+     *             if any file failed to be written or closed
+     */
+    protected void awaitAsyncWriters() throws IOException {
+        IOException failure = null;
+        for (AsyncSizeTrackingWriter writer : asyncWriters) {
+            try {
+                writer.awaitClose();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        asyncWriters.clear();
+        if (asyncWriterService != null) {
+            asyncWriterService.shutdown();
+            asyncWriterService = null;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     /**
      * Get a writer that was previously registered. This will mark the writer as being used.
      *
@@ -400,15 +670,24 @@ public class MultiRFileOutputFormatter extends FileOutputFormat<BulkIngestKey,Va
 
         tableIds = tcu.getJobOutputTableNames(conf);
         Set<String> compressionTableDisallowList = getCompressionTableDisallowList(conf);
-        String compressionType = getCompressionType(conf);
         for (String tableName : tableIds) {
             Map<String,String> properties = tcu.getTableProperties(tableName);
             if (null == properties || properties.isEmpty()) {
                 log.error("No properties found for table " + tableName);
             } else {
                 ConfigurationCopy tableConfig = new ConfigurationCopy(properties);
-                tableConfig.set(Property.TABLE_FILE_COMPRESSION_TYPE.getKey(),
-                                (compressionTableDisallowList.contains(tableName) ? new NoCompression().getName() : compressionType));
+                tableConfig.set(Property.TABLE_FILE_COMPRESSION_TYPE.getKey(), (compressionTableDisallowList.contains(tableName) ? new NoCompression().getName()
+                                : getCompressionType(conf, tableName)));
+
+                // per table block sizes
+                String blockSize = conf.get(COMPRESSED_BLOCK_SIZE + '.' + tableName);
+                if (blockSize != null) {
+                    tableConfig.set(Property.TABLE_FILE_COMPRESSED_BLOCK_SIZE.getKey(), blockSize);
+                }
+                String indexBlockSize = conf.get(COMPRESSED_INDEX_BLOCK_SIZE + '.' + tableName);
+                if (indexBlockSize != null) {
+                    tableConfig.set(Property.TABLE_FILE_COMPRESSED_BLOCK_SIZE_INDEX.getKey(), indexBlockSize);
+                }
 
                 // the locality groups feature is broken and will be removed in a future MR
                 if (Iterables.contains(localityGroupTables, tableName)) {
@@ -490,6 +769,14 @@ public class MultiRFileOutputFormatter extends FileOutputFormat<BulkIngestKey,Va
         generateMapFileRowKeys = conf.getBoolean(GENERATE_MAP_FILE_ROW_KEYS, generateMapFileRowKeys);
         generateMapFilePerShardLocation = conf.getBoolean(GENERATE_MAP_FILE_PER_SHARD_LOCATION, generateMapFilePerShardLocation);
 
+        int asyncWriterThreads = conf.getInt(ASYNC_WRITER_THREADS, 0);
+        if (asyncWriterThreads > 0 && asyncWriterService == null) {
+            asyncWriterBufferSize = conf.getInt(ASYNC_WRITER_BUFFER_SIZE, DEFAULT_ASYNC_WRITER_BUFFER_SIZE);
+            asyncWriterService = Executors.newFixedThreadPool(asyncWriterThreads,
+                            new ThreadFactoryBuilder().setNameFormat("RFileWriter-%d").setDaemon(true).build());
+            log.info("Writing files asynchronously with " + asyncWriterThreads + " threads and a buffer of " + asyncWriterBufferSize + " per file");
+        }
+
         // Only do this once.
         if (null == writers) {
             writers = new HashMap<>();
@@ -566,6 +853,8 @@ public class MultiRFileOutputFormatter extends FileOutputFormat<BulkIngestKey,Va
                 for (SizeTrackingWriter writer : writers.values()) {
                     writer.close();
                 }
+                // wait for the asynchronous writers, including those closed when their files rolled over
+                awaitAsyncWriters();
                 // To verify the file was actually written successfully, we need to reopen it which will reread
                 // the index at the end and verify its integrity.
                 FileOperations fops = FileOperations.getInstance();
@@ -0,0 +1,562 @@
+package datawave.ingest.mapreduce.job;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.client.MultiTableBatchWriter;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.MRJobConfig;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.hadoop.mapreduce.lib.map.WrappedMapper;
+import org.apache.hadoop.mapreduce.task.MapContextImpl;
+import org.apache.log4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import datawave.ingest.data.RawRecordContainer;
+import datawave.ingest.data.Type;
+import datawave.ingest.data.TypeRegistry;
+import datawave.ingest.data.config.DataTypeHelper;
+import datawave.ingest.data.config.ingest.AccumuloHelper;
+import datawave.ingest.data.config.ingest.NormalizedValueCache;
+import datawave.ingest.input.reader.EventRecordReader;
+import datawave.ingest.mapreduce.EventMapper;
+import datawave.ingest.mapreduce.StandaloneStatusReporter;
+import datawave.util.cli.PasswordConverter;
+
+/**
+ * A long running alternative to the {@link IngestJob} for feeds which need to be searchable within seconds rather than minutes. Files dropped into a watched
+ * directory, on the local file system or HDFS, are ingested as soon as they appear rather than being batched into MapReduce jobs by the flag maker.
+ * <p>
+ * The watched directory contains a subdirectory per data type, named after the type. Each file is processed by the same record reader, ingest helper and data
+ * type handlers as the {@link EventMapper} of a live ingest job, using the same configuration files, and its mutations are written through the
+ * {@link datawave.ingest.mapreduce.job.writer.LiveContextWriter} to a shared {@link MultiTableBatchWriter}. The batch writer sends its mutations at least as
+ * often as the configured latency, so records are visible shortly after they are read.
+ * <p>
+ * A batch writer which fails to write its mutations keeps failing, so when a file fails because its mutations were rejected the batch writer is closed and
+ * replaced. The other files being written to the failed batch writer fail as well, as their mutations may have been lost.
+ * <p>
+ * Files are processed by a pool of workers, one file per worker at a time, and each file moves through the work directory:
+ * <ol>
+ * <li>a file is claimed by renaming it into {@code processing/<type>}, so that it is only ever claimed by one worker</li>
+ * <li>once every record has been read, the batch writer is flushed</li>
+ * <li>only then is the file renamed into {@code done/<type>}, which is the checkpoint of that file</li>
+ * </ol>
+ * A file which fails is renamed into {@code failed/<type>}. The batch writer is shared, so the mutations which a failed file wrote before its failure may
+ * still be flushed with those of the other files: a failed file may have been partially applied, and should be fixed and dropped into the watched directory
+ * again rather than discarded. Files left in {@code processing} by a previous run did not reach their checkpoint, and are processed again from the beginning
+ * when the service starts. The keys generated for a record are deterministic, so the mutations of a file which is processed again overwrite those written
+ * before the failure, and each file is checkpointed exactly once.
+ * <p>
+ * Each file is processed by its own {@link EventMapper}, but the cache of normalized values is configured once by the service and shared by every file, rather
+ * than emptied whenever a file starts.
+ * <p>
+ * Several services may watch the same directory, as a new file is claimed by whichever renames it first, but each must have its own work directory: a
+ * service which starts takes every file in {@code processing} of its work directory to have been abandoned by a previous run, and would process the files of
+ * another service using that work directory a second time.
+ */
+public class StreamingIngestService implements Runnable {
+    private static final Logger log = Logger.getLogger(StreamingIngestService.class);
+
+    public static final String PROCESSING_DIR = "processing";
+    public static final String DONE_DIR = "done";
+    public static final String FAILED_DIR = "failed";
+
+    private final Configuration conf;
+    private final FileSystem fs;
+    private final Path watchDir;
+    private final Path workDir;
+    private final AccumuloClient client;
+    private final BatchWriterConfig batchWriterConfig;
+    private final Object writerLock = new Object();
+    private MultiTableBatchWriter writer = null;
+    private final ExecutorService workers;
+    private final int maxInFlight;
+    private final long pollInterval;
+
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String,Configuration> typeConfs = new HashMap<>();
+    private final AtomicLong filesProcessed = new AtomicLong();
+    private final AtomicLong filesFailed = new AtomicLong();
+    private final NormalizedValueCache normalizedValueCache;
+    private volatile boolean running = true;
+
+    /**
+     * @param conf
+     *            the ingest configuration
+     * @param watchDir
+     *            the directory containing a subdirectory of files per data type
+     * @param workDir
+     *            the directory in which files are claimed and checkpointed, on the same file system as the watched directory, and used by no other service
+     * @param client
+     *            the client with which the batch writer for the mutations of every file is created
+     * @param batchWriterConfig
+     *            the configuration of the batch writer
+     * @param numThreads
+     *            the number of files to process concurrently
+     * @param pollInterval
+     *            the number of milliseconds to wait between checks for new files
+     * @throws IOException
+     *             if the file system cannot be accessed
+     */
+    public StreamingIngestService(Configuration conf, Path watchDir, Path workDir, AccumuloClient client, BatchWriterConfig batchWriterConfig, int numThreads,
+                    long pollInterval) throws IOException {
+        this.conf = conf;
+        this.fs = watchDir.getFileSystem(conf);
+        this.watchDir = fs.makeQualified(watchDir);
+        this.workDir = fs.makeQualified(workDir);
+        this.client = client;
+        this.batchWriterConfig = batchWriterConfig;
+        this.workers = Executors.newFixedThreadPool(Math.max(1, numThreads),
+                        new ThreadFactoryBuilder().setNameFormat("StreamingIngest-%d").setDaemon(true).build());
+        // keep the workers busy without claiming more files than can be started soon
+        this.maxInFlight = Math.max(1, numThreads) * 2;
+        this.pollInterval = pollInterval;
+
+        // live ingest writes mutations rather than bulk keys
+        conf.setClass(MRJobConfig.MAP_OUTPUT_KEY_CLASS, Text.class, Object.class);
+        conf.setClass(MRJobConfig.MAP_OUTPUT_VALUE_CLASS, Mutation.class, Object.class);
+        TypeRegistry.getInstance(conf);
+        this.normalizedValueCache = NormalizedValueCache.configure(conf);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            log.error("usage: StreamingIngestService watchDir workDir [-instance instanceName] [-zookeepers zooKeepers] [-user username] [-pass password] "
+                            + "[-threads numThreads] [-pollInterval ms] [-batchLatency ms] [-batchMemory bytes] [-createTables] [-property=value] "
+                            + "confFile [{confFile}]");
+            System.exit(-1);
+        }
+
+        Configuration conf = new Configuration();
+        int numThreads = 4;
+        long pollInterval = 1000;
+        long batchLatency = 1000;
+        long batchMemory = 10 * 1024 * 1024;
+        boolean createTables = false;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("-instance")) {
+                AccumuloHelper.setInstanceName(conf, args[++i]);
+            } else if (args[i].equals("-zookeepers")) {
+                AccumuloHelper.setZooKeepers(conf, args[++i]);
+            } else if (args[i].equals("-user")) {
+                AccumuloHelper.setUsername(conf, args[++i]);
+            } else if (args[i].equals("-pass")) {
+                AccumuloHelper.setPassword(conf, PasswordConverter.parseArg(args[++i]).getBytes());
+            } else if (args[i].equals("-threads")) {
+                numThreads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-pollInterval")) {
+                pollInterval = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-batchLatency")) {
+                batchLatency = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-batchMemory")) {
+                batchMemory = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-createTables")) {
+                createTables = true;
+            } else if (args[i].startsWith("-")) {
+                int index = args[i].indexOf('=', 1);
+                if (index < 0) {
+                    log.error("WARN: skipping bad property configuration " + args[i]);
+                } else {
+                    conf.set(args[i].substring(1, index), args[i].substring(index + 1));
+                }
+            } else {
+                log.info("Adding resource " + args[i]);
+                conf.addResource(new Path(args[i]));
+            }
+        }
+
+        TypeRegistry.getInstance(conf);
+        if (TypeRegistry.getTypes().isEmpty()) {
+            log.error("No data types were configured");
+            System.exit(-2);
+        }
+
+        IngestJob.setupAndCacheTables(conf, createTables);
+        new IngestJob().setupHandlers(conf);
+
+        AccumuloHelper accumuloHelper = new AccumuloHelper();
+        accumuloHelper.setup(conf);
+        try (AccumuloClient client = accumuloHelper.newClient()) {
+            BatchWriterConfig batchWriterConfig = new BatchWriterConfig().setMaxLatency(batchLatency, TimeUnit.MILLISECONDS).setMaxMemory(batchMemory)
+                            .setMaxWriteThreads(numThreads);
+            StreamingIngestService service = new StreamingIngestService(conf, new Path(args[0]), new Path(args[1]), client, batchWriterConfig, numThreads,
+                            pollInterval);
+            Runtime.getRuntime().addShutdownHook(new Thread(service::shutdown, "StreamingIngest-shutdown"));
+            service.run();
+        }
+    }
+
+    @Override
+    public void run() {
+        log.info("Watching " + watchDir + " for files of types " + TypeRegistry.getTypeNames());
+        try {
+            recover();
+        } catch (IOException e) {
+            log.error("Unable to recover the files being processed by a previous run from " + new Path(workDir, PROCESSING_DIR), e);
+        }
+
+        try {
+            while (running) {
+                try {
+                    claimFiles();
+                } catch (IOException e) {
+                    log.error("Error checking for new files: " + e.getMessage(), e);
+                }
+                try {
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException e) {
+                    log.warn("Interrupted while sleeping.", e);
+                    running = false;
+                }
+            }
+        } finally {
+            close();
+        }
+        log.info("Streaming ingest shut down after processing " + filesProcessed.get() + " files, " + filesFailed.get() + " failed");
+    }
+
+    /**
+     * Stop claiming new files. The files which have been claimed are completed before the service shuts down.
+     */
+    public void shutdown() {
+        running = false;
+    }
+
+    /**
+     * @return the number of files which were processed and checkpointed
+     */
+    public long getFilesProcessed() {
+        return filesProcessed.get();
+    }
+
+    /**
+     * @return the number of files which failed
+     */
+    public long getFilesFailed() {
+        return filesFailed.get();
+    }
+
+    /**
+     * Process the files which a previous run claimed but did not checkpoint. Every file in the processing directory is taken to have been abandoned, which is
+     * why no other service may share the work directory.
+     *
+     * @throws IOException
+     *             if the work directory cannot be read
+     */
+    protected void recover() throws IOException {
+        for (String typeName : TypeRegistry.getTypeNames()) {
+            Path processing = new Path(new Path(workDir, PROCESSING_DIR), typeName);
+            if (fs.exists(processing)) {
+                for (FileStatus status : fs.listStatus(processing)) {
+                    if (status.isFile()) {
+                        log.info("Processing " + status.getPath() + " again, as it was not checkpointed by a previous run");
+                        submit(typeName, status.getPath());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Claim the new files of every type, as long as there is room for them
+     *
+     * @throws IOException
+     *             if the file system cannot be accessed
+     */
+    protected void claimFiles() throws IOException {
+        for (String typeName : TypeRegistry.getTypeNames()) {
+            Path typeDir = new Path(watchDir, typeName);
+            if (!fs.exists(typeDir)) {
+                continue;
+            }
+            for (FileStatus status : fs.listStatus(typeDir, path -> !path.getName().startsWith(".") && !path.getName().startsWith("_"))) {
+                if (inFlight.size() >= maxInFlight || !running) {
+                    return;
+                }
+                if (!status.isFile()) {
+                    continue;
+                }
+                Path claimed = moveTo(status.getPath(), PROCESSING_DIR, typeName);
+                if (claimed != null) {
+                    submit(typeName, claimed);
+                }
+            }
+        }
+    }
+
+    private void submit(String typeName, Path file) {
+        inFlight.add(file);
+        workers.execute(() -> {
+            long start = System.currentTimeMillis();
+            MultiTableBatchWriter fileWriter = null;
+            try {
+                // the file is written to and flushed by the same batch writer, even if another file fails and replaces it meanwhile
+                fileWriter = getWriter();
+                ingest(typeName, file, fileWriter);
+                // the mutations of this file must be durable before it is checkpointed
+                if (fileWriter != null) {
+                    fileWriter.flush();
+                }
+                moveTo(file, DONE_DIR, typeName);
+                filesProcessed.incrementAndGet();
+                log.info("Ingested " + file.getName() + " in " + (System.currentTimeMillis() - start) + "ms");
+            } catch (Exception e) {
+                log.error("Failed to ingest " + file, e);
+                filesFailed.incrementAndGet();
+                if (fileWriter != null && isRejected(e)) {
+                    replaceWriter(fileWriter);
+                }
+                try {
+                    moveTo(file, FAILED_DIR, typeName);
+                } catch (IOException ioe) {
+                    log.error("Unable to move " + file + " to " + FAILED_DIR, ioe);
+                }
+            } finally {
+                inFlight.remove(file);
+            }
+        });
+    }
+
+    /**
+     * Run the record reader and event mapper of a data type over a file, writing its mutations to the batch writer
+     *
+     * @param typeName
+     *            the data type of the file
+     * @param file
+     *            the file
+     * @param writer
+     *            the batch writer for the mutations of the file
+     * @throws Exception
+     *             if the file could not be ingested
+     */
+    @SuppressWarnings("unchecked")
+    protected void ingest(String typeName, Path file, MultiTableBatchWriter writer) throws Exception {
+        Configuration typeConf = getTypeConf(typeName);
+        Type type = TypeRegistry.getType(typeName);
+        RecordReader<Object,Object> typeReader = (RecordReader<Object,Object>) type.newRecordReader();
+        if (typeReader == null) {
+            throw new IllegalStateException("No record reader could be created for " + typeName);
+        }
+        // event record readers, such as those reading lines, build the event from their current value as the input formats of the ingest job do
+        RecordReader<Object,RawRecordContainer> reader = (typeReader instanceof EventRecordReader ? new EventReader(typeReader)
+                        : (RecordReader<Object,RawRecordContainer>) (RecordReader<Object,?>) typeReader);
+
+        FileSplit split = new FileSplit(file, 0, fs.getFileStatus(file).getLen(), null);
+        StandaloneStatusReporter reporter = new StandaloneStatusReporter();
+        MapContextImpl<Object,RawRecordContainer,Text,Mutation> mapContext = new MapContextImpl<>(typeConf, new TaskAttemptID(), reader,
+                        new BatchWriterRecordWriter(writer), null, reporter, split);
+        try {
+            reader.initialize(split, mapContext);
+            EventMapper<Object,RawRecordContainer,Text,Mutation> mapper = new EventMapper<Object,RawRecordContainer,Text,Mutation>() {
+                @Override
+                protected NormalizedValueCache configureNormalizedValueCache(Configuration conf) {
+                    return normalizedValueCache;
+                }
+            };
+            mapper.run(new WrappedMapper<Object,RawRecordContainer,Text,Mutation>().getMapContext(mapContext));
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * @param typeName
+     *            a data type
+     * @return a copy of the configuration for the data type, as the readers and mappers take their data type from it
+     */
+    private Configuration getTypeConf(String typeName) {
+        synchronized (typeConfs) {
+            return new Configuration(typeConfs.computeIfAbsent(typeName, name -> {
+                Configuration typeConf = new Configuration(conf);
+                typeConf.set(DataTypeHelper.Properties.DATA_NAME, name);
+                return typeConf;
+            }));
+        }
+    }
+
+    /**
+     * Create the batch writer shared by the files being processed
+     *
+     * @return the batch writer, or null if there is no client
+     */
+    protected MultiTableBatchWriter createWriter() {
+        return client == null ? null : client.createMultiTableBatchWriter(batchWriterConfig);
+    }
+
+    private MultiTableBatchWriter getWriter() {
+        synchronized (writerLock) {
+            if (writer == null) {
+                writer = createWriter();
+            }
+            return writer;
+        }
+    }
+
+    /**
+     * Close a batch writer which rejected mutations and create a new one for the files processed from now on, unless another file has already replaced it
+     *
+     * @param failed
+     *            the batch writer which rejected mutations
+     */
+    private void replaceWriter(MultiTableBatchWriter failed) {
+        synchronized (writerLock) {
+            if (writer != failed) {
+                return;
+            }
+            log.warn("Replacing the batch writer after it rejected mutations");
+            writer = null;
+            try {
+                failed.close();
+            } catch (MutationsRejectedException e) {
+                log.debug("The failed batch writer rejected its remaining mutations", e);
+            }
+        }
+    }
+
+    private static boolean isRejected(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MutationsRejectedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Atomically move a file into a subdirectory of the work directory
+     *
+     * @param file
+     *            the file
+     * @param dirName
+     *            the work subdirectory
+     * @param typeName
+     *            the data type of the file
+     * @return the new path, or null if the file was moved by another process
+     * @throws IOException
+     *             if the file system cannot be accessed
+     */
+    protected Path moveTo(Path file, String dirName, String typeName) throws IOException {
+        Path dir = new Path(new Path(workDir, dirName), typeName);
+        fs.mkdirs(dir);
+        Path dest = new Path(dir, file.getName());
+        if (!fs.rename(file, dest)) {
+            if (fs.exists(file)) {
+                throw new IOException("Unable to move " + file + " to " + dest);
+            }
+            log.debug(file + " was claimed by another process");
+            return null;
+        }
+        return dest;
+    }
+
+    private void close() {
+        workers.shutdown();
+        try {
+            while (!workers.awaitTermination(pollInterval, TimeUnit.MILLISECONDS)) {
+                log.info("Waiting for " + inFlight.size() + " files to complete");
+            }
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while waiting for files to complete", e);
+        }
+        synchronized (writerLock) {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (MutationsRejectedException e) {
+                    log.error("Unable to write the remaining mutations", e);
+                }
+                writer = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the events built by an {@link EventRecordReader} from its current values
+     */
+    private static class EventReader extends RecordReader<Object,RawRecordContainer> {
+        private final RecordReader<Object,Object> delegate;
+
+        EventReader(RecordReader<Object,Object> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void initialize(InputSplit split, TaskAttemptContext context) throws IOException, InterruptedException {
+            delegate.initialize(split, context);
+        }
+
+        @Override
+        public boolean nextKeyValue() throws IOException, InterruptedException {
+            return delegate.nextKeyValue();
+        }
+
+        @Override
+        public Object getCurrentKey() throws IOException, InterruptedException {
+            return delegate.getCurrentKey();
+        }
+
+        @Override
+        public RawRecordContainer getCurrentValue() {
+            return ((EventRecordReader) delegate).getEvent();
+        }
+
+        @Override
+        public float getProgress() throws IOException, InterruptedException {
+            return delegate.getProgress();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    /**
+     * Writes the mutations of the {@link datawave.ingest.mapreduce.job.writer.LiveContextWriter} to the batch writer of their table
+     */
+    private static class BatchWriterRecordWriter extends RecordWriter<Text,Mutation> {
+        private final MultiTableBatchWriter writer;
+
+        BatchWriterRecordWriter(MultiTableBatchWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(Text table, Mutation mutation) throws IOException {
+            try {
+                writer.getBatchWriter(table.toString()).addMutation(mutation);
+            } catch (AccumuloException | AccumuloSecurityException | TableNotFoundException e) {
+                throw new IOException("Unable to write to " + table, e);
+            }
+        }
+
+        @Override
+        public void close(TaskAttemptContext context) {
+            // the batch writer is shared by every file
+        }
+    }
+}
@@ -3,13 +3,18 @@ package datawave.ingest.mapreduce.job.reduce;
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.accumulo.core.data.Mutation;
 import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.iterators.Combiner;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.WritableUtils;
 import org.apache.hadoop.mapreduce.TaskInputOutputContext;
 import org.apache.hadoop.mapreduce.TaskType;
@@ -18,11 +23,14 @@ import org.apache.log4j.Logger;
 import com.google.common.collect.Iterators;
 
 import datawave.ingest.data.TypeRegistry;
+import datawave.ingest.mapreduce.handler.shard.ShardedDataTypeHandler;
 import datawave.ingest.mapreduce.job.BulkIngestKey;
 import datawave.ingest.mapreduce.job.IngestJob;
 import datawave.ingest.mapreduce.job.writer.BulkContextWriter;
 import datawave.ingest.mapreduce.job.writer.ContextWriter;
 import datawave.ingest.mapreduce.job.writer.LiveContextWriter;
+import datawave.ingest.mapreduce.partition.ShardVolumeStatistics;
+import datawave.ingest.mapreduce.partition.SkewAwareShardPartitioner;
 import datawave.ingest.metric.IngestOutput;
 import datawave.ingest.table.aggregator.PropogatingCombiner;
 
@@ -40,6 +48,14 @@ public class BulkIngestKeyAggregatingReducer<K2,V2> extends AggregatingReducer<B
     private boolean verboseCounters = false;
     private boolean superExtraExplanatoryHappyPartitionerMode = false;
 
+    // the bytes written per shard, recorded for the SkewAwareShardPartitioner
+    private ShardVolumeStatistics shardVolumes = null;
+    private Set<Text> shardedTableNames = null;
+    private String statsOutput = null;
+    private final Text volumeTable = new Text();
+    private final Text volumeRow = new Text();
+    private long volumeBytes = 0;
+
     @SuppressWarnings("unchecked")
     @Override
     public void setup(Configuration conf) throws IOException, InterruptedException {
@@ -53,6 +69,15 @@ public class BulkIngestKeyAggregatingReducer<K2,V2> extends AggregatingReducer<B
         usingCombiner = conf.getBoolean(BulkIngestKeyDedupeCombiner.USING_COMBINER, false);
         verboseCounters = conf.getBoolean(VERBOSE_COUNTERS, verboseCounters);
         superExtraExplanatoryHappyPartitionerMode = conf.getBoolean(VERBOSE_PARTITIONING_COUNTERS, false);
+
+        statsOutput = conf.get(SkewAwareShardPartitioner.STATS_OUTPUT);
+        if (statsOutput != null) {
+            shardVolumes = new ShardVolumeStatistics();
+            shardedTableNames = new HashSet<>();
+            for (String tableName : conf.getTrimmedStrings(ShardedDataTypeHandler.SHARDED_TNAMES)) {
+                shardedTableNames.add(new Text(tableName));
+            }
+        }
     }
 
     protected void setupContextWriter(Configuration conf) throws IOException {
@@ -78,6 +103,9 @@ public class BulkIngestKeyAggregatingReducer<K2,V2> extends AggregatingReducer<B
     public void finish(TaskInputOutputContext<?,?,K2,V2> context) throws IOException, InterruptedException {
         super.finish(context);
         contextWriter.cleanup(context);
+        if (shardVolumes != null) {
+            writeShardVolumes(context);
+        }
     }
 
     public void flush(TaskInputOutputContext<?,?,K2,V2> context) throws IOException, InterruptedException {
@@ -103,6 +131,36 @@ public class BulkIngestKeyAggregatingReducer<K2,V2> extends AggregatingReducer<B
         contextWriter.write(key, value, ctx);
         // the reducer needs to preserve order writing out, so lets avoid any caching
         contextWriter.commit(ctx);
+        if (shardVolumes != null && shardedTableNames.contains(key.getTableName())) {
+            recordShardVolume(key, value);
+        }
+    }
+
+    private void recordShardVolume(BulkIngestKey key, Value value) {
+        // keys arrive sorted, so the bytes are totaled per shard before they're added to the statistics
+        if (!volumeTable.equals(key.getTableName()) || key.getKey().compareRow(volumeRow) != 0) {
+            addShardVolume();
+            volumeTable.set(key.getTableName());
+            key.getKey().getRow(volumeRow);
+        }
+        volumeBytes += key.getKey().getSize() + value.getSize();
+    }
+
+    private void addShardVolume() {
+        if (volumeBytes > 0) {
+            shardVolumes.add(volumeTable.toString(), volumeRow.toString(), volumeBytes);
+            volumeBytes = 0;
+        }
+    }
+
+    private void writeShardVolumes(TaskInputOutputContext<?,?,K2,V2> context) throws IOException {
+        addShardVolume();
+        Path file = new Path(statsOutput, String.format("part-r-%05d", context.getTaskAttemptID().getTaskID().getId()));
+        FileSystem fs = file.getFileSystem(context.getConfiguration());
+        shardVolumes.write(fs, file);
+        if (log.isDebugEnabled()) {
+            log.debug("Wrote shard volumes to " + file);
+        }
     }
 
     @Override
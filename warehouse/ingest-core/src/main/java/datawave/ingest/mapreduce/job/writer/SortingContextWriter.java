@@ -0,0 +1,261 @@
+package datawave.ingest.mapreduce.job.writer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.apache.accumulo.core.data.Value;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
+import org.apache.log4j.Logger;
+
+import com.google.common.collect.Multimap;
+
+import datawave.ingest.mapreduce.job.BulkIngestKey;
+import datawave.ingest.mapreduce.job.reduce.BulkIngestKeyAggregatingReducer;
+
+/**
+ * A context writer for map only bulk ingest, which does in the mapper what the shuffle and the {@link BulkIngestKeyAggregatingReducer} would otherwise do. All
+ * of the entries written by the mapper are buffered and sorted, and when the mapper is cleaned up the entries for each key are passed through the aggregating
+ * reducer, and so through the configured combiners, in sorted order. The {@link datawave.ingest.mapreduce.job.MultiRFileOutputFormatter} can then append them
+ * directly to the RFiles for each table and shard location.
+ * <p>
+ * When the buffered entries exceed the configured number of bytes they are sorted and spilled to a local file, and the spilled runs are merged on cleanup.
+ * Entries with the same key are passed to the reducer in the order they were written.
+ */
+public class SortingContextWriter<OK,OV> extends AbstractContextWriter<OK,OV> implements ChainedContextWriter<OK,OV> {
+
+    private static final Logger log = Logger.getLogger(SortingContextWriter.class);
+
+    public static final String CONTEXT_WRITER_CLASS = BulkIngestKeyAggregatingReducer.CONTEXT_WRITER_CLASS;
+
+    /**
+     * Configuration parameter to specify the number of bytes of entries to sort in memory before spilling them to a local file. Default is 64 MB.
+     */
+    public static final String SORT_BUFFER_BYTES = "ingest.map.sort.buffer.bytes";
+
+    /**
+     * Configuration parameter to specify the local directory in which to spill sorted entries. Default is the java.io.tmpdir of the task.
+     */
+    public static final String SORT_SPILL_DIR = "ingest.map.sort.spill.dir";
+
+    public static final long DEFAULT_SORT_BUFFER_BYTES = 64L * 1024 * 1024;
+
+    // counters to keep track of how often the sort buffer was spilled
+    public static final String SPILL_COUNTER = "MAP_SORT_SPILLS";
+    public static final String SPILLED_ENTRIES_COUNTER = "MAP_SORT_SPILLED_ENTRIES";
+
+    // an estimate of the memory used by the objects of a buffered entry, in addition to the bytes of its key and value
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private BulkIngestKeyAggregatingReducer<OK,OV> reducer = null;
+
+    private List<Map.Entry<BulkIngestKey,Value>> buffer = new ArrayList<>();
+    private long bufferBytes = 0;
+    private long maxBufferBytes = DEFAULT_SORT_BUFFER_BYTES;
+    private String spillDirName = null;
+    private File spillDir = null;
+    private final List<File> spills = new ArrayList<>();
+
+    @Override
+    public void configureChainedContextWriter(Configuration conf, Class<? extends ContextWriter<OK,OV>> contextWriterClass) {
+        conf.setClass(CONTEXT_WRITER_CLASS, contextWriterClass, ContextWriter.class);
+    }
+
+    @Override
+    public void setup(Configuration conf, boolean outputTableCounters) throws IOException, InterruptedException {
+        super.setup(conf, false);
+        conf.setBoolean(BulkIngestKeyAggregatingReducer.CONTEXT_WRITER_OUTPUT_TABLE_COUNTERS, outputTableCounters);
+        reducer = createReducer();
+        reducer.setup(conf);
+        maxBufferBytes = conf.getLong(SORT_BUFFER_BYTES, DEFAULT_SORT_BUFFER_BYTES);
+        spillDirName = conf.get(SORT_SPILL_DIR, System.getProperty("java.io.tmpdir"));
+    }
+
+    protected BulkIngestKeyAggregatingReducer<OK,OV> createReducer() {
+        return new BulkIngestKeyAggregatingReducer<>();
+    }
+
+    @Override
+    protected void flush(Multimap<BulkIngestKey,Value> entries, TaskInputOutputContext<?,?,OK,OV> context) throws IOException, InterruptedException {
+        for (Map.Entry<BulkIngestKey,Value> entry : entries.entries()) {
+            buffer.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+            bufferBytes += ENTRY_OVERHEAD + entry.getKey().getTableName().getLength() + entry.getKey().getKey().getSize() + entry.getValue().getSize();
+        }
+        if (bufferBytes > maxBufferBytes) {
+            spill(context);
+        }
+    }
+
+    private void sortBuffer() {
+        // the sort is stable, so the values of equal keys stay in the order they were written
+        buffer.sort(Map.Entry.comparingByKey());
+    }
+
+    private void spill(TaskInputOutputContext<?,?,OK,OV> context) throws IOException {
+        sortBuffer();
+        if (spillDir == null) {
+            spillDir = Files.createTempDirectory(new File(spillDirName).toPath(), "sort").toFile();
+        }
+        File spill = new File(spillDir, "spill" + spills.size());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spill), 64 * 1024))) {
+            out.writeInt(buffer.size());
+            for (Map.Entry<BulkIngestKey,Value> entry : buffer) {
+                entry.getKey().write(out);
+                entry.getValue().write(out);
+            }
+        }
+        spills.add(spill);
+        getCounter(context, SPILL_COUNTER, getClass().getSimpleName()).increment(1);
+        getCounter(context, SPILLED_ENTRIES_COUNTER, getClass().getSimpleName()).increment(buffer.size());
+        if (log.isDebugEnabled()) {
+            log.debug("Spilled " + buffer.size() + " entries of " + bufferBytes + " bytes to " + spill);
+        }
+        // let garbage collection clear the buffer
+        buffer = new ArrayList<>();
+        bufferBytes = 0;
+    }
+
+    @Override
+    public void cleanup(TaskInputOutputContext<?,?,OK,OV> context) throws IOException, InterruptedException {
+        super.cleanup(context);
+        try {
+            writeSorted(context);
+        } finally {
+            if (spillDir != null) {
+                FileUtils.deleteQuietly(spillDir);
+                spillDir = null;
+            }
+            spills.clear();
+        }
+        reducer.finish(context);
+    }
+
+    private void writeSorted(TaskInputOutputContext<?,?,OK,OV> context) throws IOException, InterruptedException {
+        sortBuffer();
+        List<Run> runs = new ArrayList<>(spills.size() + 1);
+        try {
+            for (File spill : spills) {
+                runs.add(new SpillRun(runs.size(), spill));
+            }
+            runs.add(new BufferRun(runs.size(), buffer.iterator()));
+
+            // merge the runs, preferring the earlier runs for equal keys
+            PriorityQueue<Run> queue = new PriorityQueue<>(runs.size(), (a, b) -> {
+                int result = a.key.compareTo(b.key);
+                return result != 0 ? result : Integer.compare(a.index, b.index);
+            });
+            for (Run run : runs) {
+                if (run.advance()) {
+                    queue.add(run);
+                }
+            }
+
+            BulkIngestKey key = null;
+            List<Value> values = new ArrayList<>();
+            while (!queue.isEmpty()) {
+                Run run = queue.poll();
+                if (key != null && key.compareTo(run.key) != 0) {
+                    reducer.doReduce(key, values, context);
+                    values = new ArrayList<>();
+                }
+                key = run.key;
+                values.add(run.value);
+                if (run.advance()) {
+                    queue.add(run);
+                }
+            }
+            if (key != null) {
+                reducer.doReduce(key, values, context);
+            }
+        } finally {
+            for (Run run : runs) {
+                run.close();
+            }
+            buffer = new ArrayList<>();
+            bufferBytes = 0;
+        }
+    }
+
+    /**
+     * A sorted run of entries
+     */
+    private abstract static class Run implements Closeable {
+        final int index;
+        BulkIngestKey key;
+        Value value;
+
+        Run(int index) {
+            this.index = index;
+        }
+
+        abstract boolean advance() throws IOException;
+
+        @Override
+        public void close() throws IOException {}
+    }
+
+    private static class BufferRun extends Run {
+        private final Iterator<Map.Entry<BulkIngestKey,Value>> entries;
+
+        BufferRun(int index, Iterator<Map.Entry<BulkIngestKey,Value>> entries) {
+            super(index);
+            this.entries = entries;
+        }
+
+        @Override
+        boolean advance() {
+            if (!entries.hasNext()) {
+                return false;
+            }
+            Map.Entry<BulkIngestKey,Value> entry = entries.next();
+            key = entry.getKey();
+            value = entry.getValue();
+            return true;
+        }
+    }
+
+    private static class SpillRun extends Run {
+        private final DataInputStream in;
+        private int remaining;
+
+        SpillRun(int index, File spill) throws IOException {
+            super(index);
+            this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(spill), 64 * 1024));
+            this.remaining = in.readInt();
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            // the values of a key are held until the key is reduced, so each entry is read into new objects
+            key = new BulkIngestKey();
+            key.readFields(in);
+            value = new Value();
+            value.readFields(in);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
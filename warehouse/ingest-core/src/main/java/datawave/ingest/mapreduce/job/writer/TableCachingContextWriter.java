@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.accumulo.core.data.Mutation;
 import org.apache.accumulo.core.data.Value;
@@ -23,7 +25,11 @@ import datawave.ingest.mapreduce.job.reduce.BulkIngestKeyDedupeCombiner;
  * This is a caching context writer that will cache the entries for a table and will only actually flush entries once that cache is full. The cache will be
  * aggregated as the entries are received. This cache will cache values across calls to commit, which means that entries are aggregated across events (see
  * EventMapper contextWriter commit calls).
- *
+ * <p>
+ * A cache is full once it reaches either its configured number of entries or its configured number of bytes, where the bytes of an entry are estimated from
+ * the sizes of its key and value. When a cache fills up, only the entries which have not been aggregated with another entry since the cache last filled up
+ * are flushed. Keys which keep recurring, such as the global index and metadata entries of common terms, therefore stay in the cache and continue to be
+ * aggregated rather than being written out once per flush. If the recurring entries alone fill more than half of the cache, then the entire cache is flushed.
  */
 public class TableCachingContextWriter extends AbstractContextWriter<BulkIngestKey,Value> implements ChainedContextWriter<BulkIngestKey,Value> {
 
@@ -37,15 +43,28 @@ public class TableCachingContextWriter extends AbstractContextWriter<BulkIngestK
     public static final String FLUSHED_BUFFER_COUNTER = "TABLE_CACHE_FLUSHES";
     public static final String FLUSHED_BUFFER_TOTAL = "TABLE_CACHE_FLUSHED_ENTRIES";
 
-    // This is the cache configuration
-    private static final Map<Text,Integer> tableCacheConf = new HashMap<>();
+    // This is the cache configuration, which is rebuilt from the configuration in setup
+    private final Map<Text,Integer> tableCacheConf = new HashMap<>();
 
     // the tables to cache will be configured by setting a <tablename>.table.context.writer.cache property where the value is the max size of the cache in
     // entries
     public static final String TABLES_TO_CACHE_SUFFIX = ".table.context.writer.cache";
 
+    // the tables to cache may also be configured by setting a <tablename>.table.context.writer.cache.bytes property where the value is the max size of the
+    // cache in bytes
+    public static final String TABLES_TO_CACHE_BYTES_SUFFIX = ".table.context.writer.cache.bytes";
+
+    // a counter to keep track of how many entries were kept in the cache for further aggregation when the buffer for a table was flushed
+    public static final String RETAINED_BUFFER_TOTAL = "TABLE_CACHE_RETAINED_ENTRIES";
+
+    // an estimate of the memory used by the objects of a cached entry, in addition to the bytes of its key and value
+    private static final int ENTRY_OVERHEAD = 128;
+
+    // This is the cache size configuration in bytes, which is rebuilt from the configuration in setup
+    private final Map<Text,Long> tableCacheBytesConf = new HashMap<>();
+
     // This is the cache
-    private final Map<Text,Multimap<BulkIngestKey,Value>> aggregatedCache = new HashMap<>();
+    private final Map<Text,TableCache> aggregatedCache = new HashMap<>();
 
     // This is the combiner used to aggregate values
     private CachingContextWriter combinerCache = new CachingContextWriter();
@@ -72,14 +91,25 @@ public class TableCachingContextWriter extends AbstractContextWriter<BulkIngestK
         combiner.setup(conf);
 
         // get the tables to cache configuration
+        tableCacheConf.clear();
+        tableCacheBytesConf.clear();
         for (Map.Entry<String,String> prop : conf) {
             if (prop.getKey().endsWith(TABLES_TO_CACHE_SUFFIX)) {
                 String tableName = prop.getKey().substring(0, prop.getKey().length() - TABLES_TO_CACHE_SUFFIX.length());
                 int maxCacheSize = Integer.parseInt(prop.getValue());
                 tableCacheConf.put(new Text(tableName), maxCacheSize);
+            } else if (prop.getKey().endsWith(TABLES_TO_CACHE_BYTES_SUFFIX)) {
+                String tableName = prop.getKey().substring(0, prop.getKey().length() - TABLES_TO_CACHE_BYTES_SUFFIX.length());
+                long maxCacheBytes = Long.parseLong(prop.getValue());
+                tableCacheBytesConf.put(new Text(tableName), maxCacheBytes);
             }
         }
 
+        // a table with only a byte limit is not limited by entries
+        for (Text tableName : tableCacheBytesConf.keySet()) {
+            tableCacheConf.putIfAbsent(tableName, Integer.MAX_VALUE);
+        }
+
         // create and setup the chained context writer
         Class<ContextWriter<BulkIngestKey,Value>> contextWriterClass = null;
         if (Mutation.class.equals(conf.getClass(MAPRED_OUTPUT_VALUE_CLASS, null))) {
@@ -134,11 +164,11 @@ public class TableCachingContextWriter extends AbstractContextWriter<BulkIngestK
 
     private void flushAll(TaskInputOutputContext<?,?,BulkIngestKey,Value> context) throws IOException, InterruptedException {
         // pass all of the data through the delegate and clear the cache
-        for (Map.Entry<Text,Multimap<BulkIngestKey,Value>> entries : aggregatedCache.entrySet()) {
-            if (!entries.getValue().isEmpty()) {
-                getCounter(context, FLUSHED_BUFFER_TOTAL, entries.getKey().toString()).increment(entries.getValue().size());
+        for (Map.Entry<Text,TableCache> entries : aggregatedCache.entrySet()) {
+            if (!entries.getValue().entries.isEmpty()) {
+                getCounter(context, FLUSHED_BUFFER_TOTAL, entries.getKey().toString()).increment(entries.getValue().entries.size());
                 getCounter(context, FLUSHED_BUFFER_COUNTER, entries.getKey().toString()).increment(1);
-                contextWriter.write(entries.getValue(), context);
+                contextWriter.write(entries.getValue().entries, context);
             }
         }
         aggregatedCache.clear();
@@ -149,28 +179,37 @@ public class TableCachingContextWriter extends AbstractContextWriter<BulkIngestK
         List<Value> valueList = new ArrayList<>();
         valueList.addAll(values);
 
-        Multimap<BulkIngestKey,Value> entries = aggregatedCache.get(key.getTableName());
-        if (entries != null) {
-            valueList.addAll(entries.removeAll(key));
+        TableCache cache = aggregatedCache.get(key.getTableName());
+        if (cache != null) {
+            valueList.addAll(cache.remove(key));
         } else {
-            entries = HashMultimap.create();
-            aggregatedCache.put(key.getTableName(), entries);
+            cache = new TableCache(tableCacheConf.get(key.getTableName()), tableCacheBytesConf.getOrDefault(key.getTableName(), Long.MAX_VALUE));
+            aggregatedCache.put(key.getTableName(), cache);
         }
 
         // reduce the entries as needed
         if (valueList.size() > 1) {
-            entries.putAll(key, reduceValues(key, valueList, context));
+            cache.put(key, reduceValues(key, valueList, context), true);
         } else {
-            entries.putAll(key, valueList);
+            cache.put(key, valueList, false);
         }
 
         // now flush this tables cache if needed
-        if (entries.size() >= tableCacheConf.get(key.getTableName())) {
+        if (cache.isFull()) {
             // register that we overran the cache for this table
-            getCounter(context, FLUSHED_BUFFER_TOTAL, key.getTableName().toString()).increment(entries.size());
             getCounter(context, FLUSHED_BUFFER_COUNTER, key.getTableName().toString()).increment(1);
-            contextWriter.write(entries, context);
-            aggregatedCache.remove(key.getTableName());
+
+            // first flush the entries which have not been aggregated since the last flush
+            Multimap<BulkIngestKey,Value> flushed = cache.removeUnaggregated();
+            if (cache.isHalfFull()) {
+                flushed.putAll(cache.entries);
+                aggregatedCache.remove(key.getTableName());
+            } else {
+                getCounter(context, RETAINED_BUFFER_TOTAL, key.getTableName().toString()).increment(cache.entries.size());
+            }
+
+            getCounter(context, FLUSHED_BUFFER_TOTAL, key.getTableName().toString()).increment(flushed.size());
+            contextWriter.write(flushed, context);
         }
     }
 
@@ -199,6 +238,70 @@ public class TableCachingContextWriter extends AbstractContextWriter<BulkIngestK
         }
     }
 
+    /**
+     * The cached entries of a table, along with an estimate of their size in bytes and the keys which have been aggregated since the cache last filled up
+     */
+    private static class TableCache {
+        private final int maxEntries;
+        private final long maxBytes;
+
+        private final Multimap<BulkIngestKey,Value> entries = HashMultimap.create();
+        private final Set<BulkIngestKey> aggregated = new HashSet<>();
+        private long bytes = 0;
+
+        TableCache(int maxEntries, long maxBytes) {
+            this.maxEntries = maxEntries;
+            this.maxBytes = maxBytes;
+        }
+
+        Collection<Value> remove(BulkIngestKey key) {
+            Collection<Value> values = entries.removeAll(key);
+            for (Value value : values) {
+                bytes -= estimateSize(key, value);
+            }
+            return values;
+        }
+
+        void put(BulkIngestKey key, Collection<Value> values, boolean wasAggregated) {
+            for (Value value : values) {
+                if (entries.put(key, value)) {
+                    bytes += estimateSize(key, value);
+                }
+            }
+            if (wasAggregated) {
+                aggregated.add(key);
+            }
+        }
+
+        boolean isFull() {
+            return entries.size() >= maxEntries || bytes >= maxBytes;
+        }
+
+        boolean isHalfFull() {
+            return entries.size() >= maxEntries / 2 || bytes >= maxBytes / 2;
+        }
+
+        /**
+         * Remove the entries whose keys have not been aggregated since the last time this was called
+         *
+         * @return the removed entries
+         */
+        Multimap<BulkIngestKey,Value> removeUnaggregated() {
+            Multimap<BulkIngestKey,Value> removed = HashMultimap.create();
+            for (BulkIngestKey key : new ArrayList<>(entries.keySet())) {
+                if (!aggregated.contains(key)) {
+                    removed.putAll(key, remove(key));
+                }
+            }
+            aggregated.clear();
+            return removed;
+        }
+
+        private static long estimateSize(BulkIngestKey key, Value value) {
+            return ENTRY_OVERHEAD + key.getTableName().getLength() + key.getKey().getSize() + value.getSize();
+        }
+    }
+
     /**
      * This is a context writer that simply puts the keys into a cache, retrievable by the getKeys() and getValues() call
      */
@@ -0,0 +1,122 @@
+package datawave.ingest.mapreduce.partition;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.Logger;
+
+/**
+ * The number of bytes written for each shard of each sharded table, as recorded by the reducers of an ingest job and used by the
+ * {@link SkewAwareShardPartitioner} to balance the next job. Statistics are stored as lines of {@code tableName<tab>shardId<tab>bytes}, one file per
+ * reducer.
+ */
+public class ShardVolumeStatistics {
+    private static final Logger log = Logger.getLogger(ShardVolumeStatistics.class);
+
+    private final Map<String,Map<String,Long>> volumes = new TreeMap<>();
+
+    public void add(String tableName, String shardId, long bytes) {
+        volumes.computeIfAbsent(tableName, k -> new TreeMap<>()).merge(shardId, bytes, Long::sum);
+    }
+
+    public void addAll(ShardVolumeStatistics other) {
+        for (Map.Entry<String,Map<String,Long>> table : other.volumes.entrySet()) {
+            for (Map.Entry<String,Long> shard : table.getValue().entrySet()) {
+                add(table.getKey(), shard.getKey(), shard.getValue());
+            }
+        }
+    }
+
+    public long getVolume(String tableName, String shardId) {
+        Long bytes = volumes.getOrDefault(tableName, Collections.emptyMap()).get(shardId);
+        return bytes == null ? 0 : bytes;
+    }
+
+    /**
+     * @return the bytes written by shard id, by table name, in sorted order
+     */
+    public Map<String,Map<String,Long>> getVolumes() {
+        return Collections.unmodifiableMap(volumes);
+    }
+
+    public boolean isEmpty() {
+        return volumes.isEmpty();
+    }
+
+    /**
+     * Write the statistics to a file, replacing it if it exists
+     *
+     * @param fs
+     *            the file system
+     * @param file
+     *            the file to write
+     * @throws IOException
+     *             if the file can't be written
+     */
+    public void write(FileSystem fs, Path file) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(fs.create(file, true), StandardCharsets.UTF_8))) {
+            for (Map.Entry<String,Map<String,Long>> table : volumes.entrySet()) {
+                for (Map.Entry<String,Long> shard : table.getValue().entrySet()) {
+                    writer.write(table.getKey() + '\t' + shard.getKey() + '\t' + shard.getValue());
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the statistics from a file, or from all of the files in a directory
+     *
+     * @param fs
+     *            the file system
+     * @param path
+     *            a statistics file, or a directory of them
+     * @return the combined statistics
+     * @throws IOException
+     *             if the statistics can't be read
+     */
+    public static ShardVolumeStatistics read(FileSystem fs, Path path) throws IOException {
+        ShardVolumeStatistics statistics = new ShardVolumeStatistics();
+        FileStatus status = fs.getFileStatus(path);
+        if (status.isDirectory()) {
+            for (FileStatus file : fs.listStatus(path)) {
+                String name = file.getPath().getName();
+                // skip markers such as _SUCCESS and hidden files
+                if (file.isFile() && !name.startsWith("_") && !name.startsWith(".")) {
+                    statistics.readFile(fs, file.getPath());
+                }
+            }
+        } else {
+            statistics.readFile(fs, path);
+        }
+        return statistics;
+    }
+
+    private void readFile(FileSystem fs, Path file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(fs.open(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts.length != 3) {
+                    log.warn("Skipping malformed shard volume in " + file + ": " + line);
+                    continue;
+                }
+                try {
+                    add(parts[0], parts[1], Long.parseLong(parts[2]));
+                } catch (NumberFormatException e) {
+                    log.warn("Skipping malformed shard volume in " + file + ": " + line);
+                }
+            }
+        }
+    }
+}
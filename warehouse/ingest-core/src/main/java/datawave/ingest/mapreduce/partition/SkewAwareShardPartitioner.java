@@ -0,0 +1,217 @@
+package datawave.ingest.mapreduce.partition;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Partitioner;
+import org.apache.log4j.Logger;
+
+import datawave.ingest.mapreduce.job.BulkIngestKey;
+import datawave.ingest.mapreduce.job.SplitsFile;
+
+/**
+ * Balances the bytes written to each reducer for the sharded tables, using the volume of each shard recorded by the reducers of a previous job (see
+ * {@link ShardVolumeStatistics}). Shards are packed into reducers largest first, each going to the reducer already holding shards from the same tablet server
+ * when that reducer has room, and otherwise to the least loaded reducer. A reducer has room while it holds less than its even share of the bytes plus the
+ * allowed imbalance, so a single hot shard gets a reducer to itself rather than trailing behind the shards that share its tablet server.
+ * <p>
+ * Every mapper reads the same statistics and splits, so every mapper makes the same assignments. Shards that weren't seen by the previous job are partitioned
+ * by the {@link BalancedShardPartitioner}. Set {@link #STATS_OUTPUT} to record the statistics for the next job; the first job runs without {@link #STATS_INPUT}
+ * and is partitioned entirely by the {@link BalancedShardPartitioner}.
+ */
+public class SkewAwareShardPartitioner extends Partitioner<BulkIngestKey,Value> implements Configurable, DelegatePartitioner {
+    private static final Logger log = Logger.getLogger(SkewAwareShardPartitioner.class);
+
+    public static final String PREFIX = SkewAwareShardPartitioner.class.getName();
+    // the statistics file, or directory of statistics files, written by a previous job
+    public static final String STATS_INPUT = PREFIX + ".stats.input";
+    // the directory in which the reducers of this job write their statistics
+    public static final String STATS_OUTPUT = PREFIX + ".stats.output";
+    // how far past its even share of the bytes a reducer may be filled to keep shards with their tablet server
+    public static final String IMBALANCE = PREFIX + ".imbalance";
+    public static final float DEFAULT_IMBALANCE = 0.1f;
+
+    private Configuration conf;
+    private BalancedShardPartitioner fallback;
+    private ShardVolumeStatistics statistics;
+    private Map<String,Map<Text,Integer>> partitionsByTable;
+    private int assignedReduceTasks = -1;
+    private final Text row = new Text();
+
+    @Override
+    public synchronized int getPartition(BulkIngestKey key, Value value, int numReduceTasks) {
+        try {
+            if (numReduceTasks != assignedReduceTasks) {
+                partitionsByTable = assignPartitions(numReduceTasks);
+                assignedReduceTasks = numReduceTasks;
+            }
+            Map<Text,Integer> partitions = partitionsByTable.get(key.getTableName().toString());
+            if (partitions != null) {
+                Integer partition = partitions.get(key.getKey().getRow(row));
+                if (partition != null) {
+                    return partition;
+                }
+            }
+            return fallback.getPartition(key, value, numReduceTasks);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Map<String,Map<Text,Integer>> assignPartitions(int numReduceTasks) throws IOException {
+        Map<String,Map<Text,Integer>> assignments = new HashMap<>();
+        ShardVolumeStatistics volumes = getStatistics();
+        if (volumes.isEmpty()) {
+            return assignments;
+        }
+
+        Map<String,Map<Text,String>> locationsByTable = new HashMap<>();
+        for (String tableName : volumes.getVolumes().keySet()) {
+            Map<Text,String> locations = SplitsFile.getSplitsAndLocations(conf, tableName);
+            locationsByTable.put(tableName, locations == null ? Collections.emptyMap() : locations);
+        }
+
+        float imbalance = conf.getFloat(IMBALANCE, DEFAULT_IMBALANCE);
+        for (Shard shard : assign(volumes, locationsByTable, numReduceTasks, imbalance)) {
+            assignments.computeIfAbsent(shard.tableName, k -> new HashMap<>()).put(new Text(shard.shardId), shard.partition);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Assigned shards for " + assignments.keySet() + " across " + numReduceTasks + " reducers");
+        }
+        return assignments;
+    }
+
+    private ShardVolumeStatistics getStatistics() throws IOException {
+        if (statistics == null) {
+            String input = conf.get(STATS_INPUT);
+            if (input == null) {
+                statistics = new ShardVolumeStatistics();
+            } else {
+                Path path = new Path(input);
+                FileSystem fs = path.getFileSystem(conf);
+                if (fs.exists(path)) {
+                    statistics = ShardVolumeStatistics.read(fs, path);
+                } else {
+                    log.warn("No shard volume statistics found at " + path + ", using the " + BalancedShardPartitioner.class.getSimpleName());
+                    statistics = new ShardVolumeStatistics();
+                }
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Packs the shards into partitions, largest first. Ties are broken by table name and shard id so that every caller computes the same assignments.
+     *
+     * @param volumes
+     *            the bytes written for each shard
+     * @param locationsByTable
+     *            the tablet server hosting each shard, by table name
+     * @param numPartitions
+     *            the number of partitions
+     * @param imbalance
+     *            the fraction past its even share of the bytes a partition may be filled to keep shards with their tablet server
+     * @return the shards with their assigned partitions
+     */
+    static List<Shard> assign(ShardVolumeStatistics volumes, Map<String,Map<Text,String>> locationsByTable, int numPartitions, float imbalance) {
+        List<Shard> shards = new ArrayList<>();
+        long total = 0;
+        for (Map.Entry<String,Map<String,Long>> table : volumes.getVolumes().entrySet()) {
+            Map<Text,String> locations = locationsByTable.getOrDefault(table.getKey(), Collections.emptyMap());
+            for (Map.Entry<String,Long> volume : table.getValue().entrySet()) {
+                shards.add(new Shard(table.getKey(), volume.getKey(), volume.getValue(), locations.get(new Text(volume.getKey()))));
+                total += volume.getValue();
+            }
+        }
+        // the volumes are sorted by table and shard, and the sort is stable
+        shards.sort((a, b) -> Long.compare(b.bytes, a.bytes));
+
+        long capacity = (long) Math.ceil(((double) total / numPartitions) * (1 + imbalance));
+        long[] loads = new long[numPartitions];
+        Map<String,Integer> partitionsByLocation = new HashMap<>();
+        for (Shard shard : shards) {
+            Integer partition = shard.location == null ? null : partitionsByLocation.get(shard.location);
+            if (partition == null || loads[partition] + shard.bytes > capacity) {
+                partition = 0;
+                for (int i = 1; i < numPartitions; i++) {
+                    if (loads[i] < loads[partition]) {
+                        partition = i;
+                    }
+                }
+                if (shard.location != null) {
+                    partitionsByLocation.put(shard.location, partition);
+                }
+            }
+            loads[partition] += shard.bytes;
+            shard.partition = partition;
+        }
+        return shards;
+    }
+
+    static class Shard {
+        final String tableName;
+        final String shardId;
+        final long bytes;
+        final String location;
+        int partition;
+
+        Shard(String tableName, String shardId, long bytes, String location) {
+            this.tableName = tableName;
+            this.shardId = shardId;
+            this.bytes = bytes;
+            this.location = location;
+        }
+    }
+
+    @Override
+    public void configureWithPrefix(String prefix) {/* no op */}
+
+    @Override
+    public int getNumPartitions() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void initializeJob(Job job) {
+        String input = job.getConfiguration().get(STATS_INPUT);
+        if (input == null) {
+            log.info("No shard volume statistics configured with " + STATS_INPUT + ", using the " + BalancedShardPartitioner.class.getSimpleName());
+        }
+    }
+
+    @Override
+    public boolean needSplits() {
+        return true;
+    }
+
+    @Override
+    public boolean needSplitLocations() {
+        return true;
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+        this.fallback = new BalancedShardPartitioner();
+        this.fallback.setConf(conf);
+        this.statistics = null;
+        this.partitionsByTable = null;
+        this.assignedReduceTasks = -1;
+    }
+}
@@ -78,6 +78,14 @@ import datawave.util.time.DateHelper;
  * <td>Count</td>
  * </tr>
  * <tr>
+ * <td>MetaData</td>
+ * <td>Indexed Field Sketch (See FieldSketch)</td>
+ * <td>Normalized Field Name</td>
+ * <td>'fs'</td>
+ * <td>DataType\0YYYYMMDD</td>
+ * <td>FieldSketch</td>
+ * </tr>
+ * <tr>
  * <td>Load Dates Table</td>
  * <td>Load Date Frequency (See LoadDateScanBuilder)</td>
  * <td>Field Name</td>
@@ -109,7 +117,11 @@ public class EventMetadata implements RawRecordMetadata {
     private final MetadataCounterGroup indexedCounts = new MetadataCounterGroup(ColumnFamilyConstants.COLF_I);
     private final MetadataCounterGroup reverseIndexedCounts = new MetadataCounterGroup(ColumnFamilyConstants.COLF_RI);
 
+    // stores distinct value and frequent value sketches of indexed fields by event date
+    private final MetadataSketchGroup fieldSketches = new MetadataSketchGroup(FieldSketch.COLF_FS);
+
     private boolean writeFrequencyCounts = false;
+    private boolean writeFieldSketches = false;
 
     /**
      * @param shardTableName
@@ -135,6 +147,18 @@ public class EventMetadata implements RawRecordMetadata {
         this.reverseIndexedFieldsLoadDateCounts = new MetadataCounterGroup("FIELD_NAME", shardReverseIndexTableName);
     }
 
+    /**
+     * @param writeFieldSketches
+     *            whether to add to the metadata table's distinct and frequent value sketches for indexed fields by event date
+     */
+    public void setWriteFieldSketches(boolean writeFieldSketches) {
+        this.writeFieldSketches = writeFieldSketches;
+    }
+
+    public boolean isWriteFieldSketches() {
+        return writeFieldSketches;
+    }
+
     @Override
     public void addEvent(IngestHelperInterface helper, RawRecordContainer event, Multimap<String,NormalizedContentInterface> fields, long loadTimeInMillis) {
         addEvent(helper, event, fields, this.writeFrequencyCounts, INCLUDE_LOAD_DATES, loadTimeInMillis);
@@ -175,6 +199,10 @@ public class EventMetadata implements RawRecordMetadata {
             if (helper.isIndexedField(fieldName)) {
                 shouldWriteDataType = true;
                 updateForIndexedField(helper, event, fields, countDelta, loadDateStr, NO_TOKEN_DESIGNATOR, fieldName);
+                // sketches can only be added to, so deletes are not reflected in them
+                if (writeFieldSketches && countDelta > 0) {
+                    addToFieldSketches(event, fields.get(fieldName));
+                }
             }
 
             if (helper.isReverseIndexedField(fieldName)) {
@@ -242,6 +270,13 @@ public class EventMetadata implements RawRecordMetadata {
         frequencyCounts.addToCount(countDelta, event.getDataType().outputName(), fieldName, date);
     }
 
+    protected void addToFieldSketches(RawRecordContainer event, Collection<NormalizedContentInterface> norms) {
+        String date = DateHelper.format(event.getDate());
+        for (NormalizedContentInterface norm : norms) {
+            fieldSketches.offer(norm.getIndexedFieldValue(), event.getDataType().outputName(), norm.getIndexedFieldName(), date);
+        }
+    }
+
     protected void updateForIndexedField(@SuppressWarnings("UnusedParameters") IngestHelperInterface helper, RawRecordContainer event,
                     Multimap<String,NormalizedContentInterface> fields, long countDelta, String loadDate, String tokenDesignator, String fieldName) {
         update(event, fields.get(fieldName), tokenDesignator, countDelta, loadDate, indexedCounts, indexedFieldsLoadDateCounts);
@@ -409,6 +444,7 @@ public class EventMetadata implements RawRecordMetadata {
         addCountsToMetadata(bulkData, indexedCounts);
         addCountsToMetadata(bulkData, reverseIndexedCounts);
         addCountsToMetadata(bulkData, frequencyCounts);
+        addSketchesToMetadata(bulkData, fieldSketches);
 
         addIndexedFieldToMetadata(bulkData, dataTypeFieldsInfo);
         addIndexedFieldToMetadata(bulkData, normalizedFieldsInfo);
@@ -445,6 +481,14 @@ public class EventMetadata implements RawRecordMetadata {
         }
     }
 
+    protected void addSketchesToMetadata(Multimap<BulkIngestKey,Value> results, MetadataSketchGroup sketches) {
+        for (MetadataSketchGroup.Components entry : sketches.getEntries()) {
+            Key key = new Key(new Text(entry.getRowId()), sketches.getColumnFamily(), new Text(entry.getDataType() + DELIMITER + entry.getDate()),
+                            DateHelper.parse(entry.getDate()).getTime());
+            results.put(new BulkIngestKey(this.metadataTableName, key), entry.getSketch().toValue());
+        }
+    }
+
     protected void addToResults(Multimap<BulkIngestKey,Value> results, Long value, Key key, Text tableName) {
         BulkIngestKey bk = new BulkIngestKey(tableName, key);
         results.put(bk, new Value(SummingCombiner.VAR_LEN_ENCODER.encode(value)));
@@ -472,6 +516,7 @@ public class EventMetadata implements RawRecordMetadata {
 
         this.indexedCounts.clear();
         this.reverseIndexedCounts.clear();
+        this.fieldSketches.clear();
 
         this.reverseIndexedFieldsLoadDateCounts.clear();
     }
@@ -0,0 +1,151 @@
+package datawave.ingest.metadata;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableUtils;
+
+import com.clearspring.analytics.stream.Counter;
+import com.clearspring.analytics.stream.StreamSummary;
+import com.clearspring.analytics.stream.cardinality.CardinalityMergeException;
+import com.clearspring.analytics.stream.cardinality.HyperLogLogPlus;
+
+/**
+ * Approximate statistics about the values of a field for a datatype and day: a HyperLogLog++ estimate of the number of distinct values and a summary of the
+ * most frequent values. Sketches are written to the metadata table with the format:
+ * <p>
+ * <br>
+ * <table border="1">
+ * <caption>FieldSketch</caption>
+ * <tr>
+ * <th>Row</th>
+ * <th>Column Family</th>
+ * <th>Column Qualifier</th>
+ * <th>Value</th>
+ * </tr>
+ * <tr>
+ * <td>Field Name</td>
+ * <td>'fs'</td>
+ * <td>DataType\0YYYYMMDD</td>
+ * <td>FieldSketch</td>
+ * </tr>
+ * </table>
+ * <p>
+ * and merged by the {@link datawave.iterators.FieldSketchCombiner}. The frequent values are tracked with the Space-Saving algorithm, so their counts are upper
+ * bounds once more distinct values have been seen than the sketch has capacity for.
+ */
+public class FieldSketch {
+
+    public static final Text COLF_FS = new Text("fs");
+
+    public static final int PRECISION = 12;
+    public static final int SPARSE_PRECISION = 25;
+    public static final int CAPACITY = 64;
+
+    private static final byte VERSION = 1;
+
+    private final HyperLogLogPlus cardinality;
+    private final StreamSummary<String> frequencies;
+
+    public FieldSketch() {
+        this(new HyperLogLogPlus(PRECISION, SPARSE_PRECISION), new StreamSummary<>(CAPACITY));
+    }
+
+    private FieldSketch(HyperLogLogPlus cardinality, StreamSummary<String> frequencies) {
+        this.cardinality = cardinality;
+        this.frequencies = frequencies;
+    }
+
+    public void offer(String value) {
+        cardinality.offer(value);
+        frequencies.offer(value);
+    }
+
+    /**
+     * Adds the values seen by another sketch to this one
+     *
+     * @param other
+     *            the other sketch
+     */
+    public void merge(FieldSketch other) {
+        try {
+            cardinality.addAll(other.cardinality);
+        } catch (CardinalityMergeException e) {
+            throw new IllegalArgumentException("Unable to merge field sketches", e);
+        }
+        for (Counter<String> counter : other.frequencies.topK(CAPACITY)) {
+            frequencies.offer(counter.getItem(), (int) Math.min(counter.getCount(), Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * @return the estimated number of distinct values
+     */
+    public long getCardinality() {
+        return cardinality.cardinality();
+    }
+
+    /**
+     * @param k
+     *            the number of values
+     * @return up to k of the most frequent values, with their estimated counts, most frequent first
+     */
+    public Map<String,Long> getTopValues(int k) {
+        Map<String,Long> topValues = new LinkedHashMap<>();
+        for (Counter<String> counter : frequencies.topK(k)) {
+            topValues.put(counter.getItem(), counter.getCount());
+        }
+        return topValues;
+    }
+
+    public Value toValue() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(VERSION);
+            byte[] hll = cardinality.getBytes();
+            WritableUtils.writeVInt(out, hll.length);
+            out.write(hll);
+            List<Counter<String>> counters = frequencies.topK(CAPACITY);
+            WritableUtils.writeVInt(out, counters.size());
+            for (Counter<String> counter : counters) {
+                WritableUtils.writeString(out, counter.getItem());
+                WritableUtils.writeVLong(out, counter.getCount());
+            }
+            out.flush();
+            return new Value(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to serialize field sketch", e);
+        }
+    }
+
+    public static FieldSketch fromValue(Value value) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(value.get()));
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unknown field sketch version " + version);
+        }
+        byte[] hll = new byte[WritableUtils.readVInt(in)];
+        in.readFully(hll);
+        StreamSummary<String> frequencies = new StreamSummary<>(CAPACITY);
+        int size = WritableUtils.readVInt(in);
+        for (int i = 0; i < size; i++) {
+            String item = WritableUtils.readString(in);
+            frequencies.offer(item, (int) Math.min(WritableUtils.readVLong(in), Integer.MAX_VALUE));
+        }
+        return new FieldSketch(HyperLogLogPlus.Builder.build(hll), frequencies);
+    }
+
+    @Override
+    public String toString() {
+        return "FieldSketch [cardinality=" + getCardinality() + ", topValues=" + getTopValues(10) + "]";
+    }
+}
@@ -0,0 +1,73 @@
+package datawave.ingest.metadata;
+
+import java.util.Collection;
+import java.util.HashMap;
+
+import org.apache.hadoop.io.Text;
+
+/**
+ * Collects a {@link FieldSketch} per datatype, field name and date, in the manner of the {@link MetadataCounterGroup}
+ */
+public class MetadataSketchGroup {
+    private final Text columnFamily;
+    private HashMap<String,Components> sketches = new HashMap<>();
+
+    public MetadataSketchGroup(Text columnFamily) {
+        this.columnFamily = columnFamily;
+    }
+
+    private static String createKey(String dataType, String rowId, String date) {
+        return dataType + rowId + date;
+    }
+
+    public void offer(String value, String dataType, String rowId, String date) {
+        String hashMapKey = createKey(dataType, rowId, date);
+        Components components = sketches.get(hashMapKey);
+        if (null == components) {
+            components = new Components(dataType, rowId, date);
+            sketches.put(hashMapKey, components);
+        }
+        components.getSketch().offer(value);
+    }
+
+    public void clear() {
+        sketches.clear();
+    }
+
+    public Text getColumnFamily() {
+        return columnFamily;
+    }
+
+    public Collection<Components> getEntries() {
+        return sketches.values();
+    }
+
+    public static class Components {
+        private final String dataType;
+        private final String rowId;
+        private final String date;
+        private final FieldSketch sketch = new FieldSketch();
+
+        public Components(String dataType, String rowId, String date) {
+            this.dataType = dataType;
+            this.rowId = rowId;
+            this.date = date;
+        }
+
+        public String getDataType() {
+            return dataType;
+        }
+
+        public String getDate() {
+            return date;
+        }
+
+        public String getRowId() {
+            return rowId;
+        }
+
+        public FieldSketch getSketch() {
+            return sketch;
+        }
+    }
+}
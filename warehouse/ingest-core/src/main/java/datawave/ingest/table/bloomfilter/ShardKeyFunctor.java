@@ -87,8 +87,39 @@ public class ShardKeyFunctor implements KeyFunctor {
          * If the end key is precisely the key immediately after the start key including everything up to the deleted flag, then we should consider the bloom
          * filter.
          */
-        return range.getStartKey().followingKey(PartialKey.ROW_COLFAM_COLQUAL).equals(range.getEndKey(), PartialKey.ROW_COLFAM_COLQUAL_COLVIS_TIME)
-                        && !range.isEndKeyInclusive();
+        if (range.getStartKey().followingKey(PartialKey.ROW_COLFAM_COLQUAL).equals(range.getEndKey(), PartialKey.ROW_COLFAM_COLQUAL_COLVIS_TIME)
+                        && !range.isEndKeyInclusive()) {
+            return true;
+        }
+
+        /**
+         * If the range is confined to a single field value within a single field index column, then every key within it maps to the same bloom filter key and
+         * we should consider the bloom filter. This is the case for a field index scan over one term in one shard.
+         */
+        return isRangeWithinFieldValue(range);
+    }
+
+    /**
+     * Determine whether the start and end keys of a range share the row and field index column family, and their column qualifiers both start with the same
+     * field value followed by a null byte. Any key between them must then have that same field name and field value.
+     *
+     * @param range
+     *            the range to check
+     * @return true if the range only covers a single field value
+     */
+    static boolean isRangeWithinFieldValue(Range range) {
+        if (!range.getStartKey().equals(range.getEndKey(), PartialKey.ROW_COLFAM)) {
+            return false;
+        }
+
+        ByteSequence startCq = range.getStartKey().getColumnQualifierData();
+        ByteSequence endCq = range.getEndKey().getColumnQualifierData();
+        int index = getIndexOf(startCq, (byte) 0);
+        if (index == startCq.length() || index >= endCq.length() || endCq.byteAt(index) != 0) {
+            return false;
+        }
+
+        return startCq.subSequence(0, index).equals(endCq.subSequence(0, index));
     }
 
     /**
@@ -12,6 +12,7 @@ import org.apache.log4j.Logger;
 
 import datawave.data.ColumnFamilyConstants;
 import datawave.ingest.mapreduce.handler.shard.ShardedDataTypeHandler;
+import datawave.ingest.metadata.FieldSketch;
 
 public class MetadataTableConfigHelper extends AbstractTableConfigHelper {
 
@@ -27,6 +28,7 @@ public class MetadataTableConfigHelper extends AbstractTableConfigHelper {
                 setIndexCombiner(tops, scope.name());
                 setReverseIndexCombiner(tops, scope.name());
                 setCombinerForCountMetadata(tops, scope.name());
+                setCombinerForFieldSketches(tops, scope.name());
                 setCombinerForEdgeMetadata(tops, scope.name());
             }
         }
@@ -51,6 +53,15 @@ public class MetadataTableConfigHelper extends AbstractTableConfigHelper {
         return stem;
     }
 
+    // Add the FieldSketchCombiner to the field sketch column.
+    private String setCombinerForFieldSketches(TableOperations tops, String scopeName)
+                    throws AccumuloException, AccumuloSecurityException, TableNotFoundException {
+        String stem = String.format("%s%s.%s", Property.TABLE_ITERATOR_PREFIX, scopeName, "FieldSketchCombiner");
+        setPropertyIfNecessary(tableName, stem, "16,datawave.iterators.FieldSketchCombiner", tops, log);
+        setPropertyIfNecessary(tableName, stem + ".opt.columns", FieldSketch.COLF_FS.toString(), tops, log);
+        return stem;
+    }
+
     // Add the SummingCombiner to the frequency column.
     private String setFrequencyCombiner(TableOperations tops, String scopeName) throws AccumuloException, AccumuloSecurityException, TableNotFoundException {
         String stem = String.format("%s%s.%s", Property.TABLE_ITERATOR_PREFIX, scopeName, "FrequencyCombiner");
@@ -1,14 +1,10 @@
 package datawave.ingest.util;
 
 import java.io.IOException;
-import java.io.Reader;
 import java.io.StringReader;
 
 import org.apache.log4j.Logger;
-import org.apache.lucene.analysis.TokenStream;
-import org.apache.lucene.analysis.core.LowerCaseFilter;
 import org.apache.lucene.analysis.ngram.NGramTokenizer;
-import org.apache.lucene.analysis.standard.ClassicFilter;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 
 import com.google.common.hash.BloomFilter;
@@ -19,6 +15,9 @@ import datawave.util.StringUtils;
 
 /**
  * Base implementation for tokenizing normalized content into n-grams, which are applied as an update to a BloomFilter
+ * <p>
+ * The n-gram tokenizer and its term attribute are kept between calls to {@link #tokenize(NormalizedContentInterface, int)} and reset onto each value, rather
+ * than being created for every value. A strategy is therefore not thread-safe.
  *
  * @see com.google.common.hash.BloomFilter
  * @see datawave.ingest.util.BloomFilterUtil
@@ -27,6 +26,13 @@ public class NGramTokenizationStrategy extends AbstractNGramTokenizationStrategy
     private final Logger log = Logger.getLogger(NGramTokenizationStrategy.class);
     private boolean loggedInvalidMaxNGramLength;
 
+    /*
+     * the tokenizer reused across values, its term attribute, and the maximum n-gram length it was created with
+     */
+    private NGramTokenizer tokenizer;
+    private CharTermAttribute tokenizerTermAttribute;
+    private int tokenizerMaxNGramLength;
+
     /**
      * Constructor
      */
@@ -67,7 +73,8 @@ public class NGramTokenizationStrategy extends AbstractNGramTokenizationStrategy
         if (null == ngram) {
             try {
                 if ((null != tokenizer) && tokenizer.incrementToken()) {
-                    final CharTermAttribute charTermAttribute = tokenizer.getAttribute(CharTermAttribute.class);
+                    final CharTermAttribute charTermAttribute = (tokenizer == this.tokenizer) ? this.tokenizerTermAttribute
+                                    : tokenizer.getAttribute(CharTermAttribute.class);
                     if (null != charTermAttribute) {
                         ngram = charTermAttribute.toString();
                         charTermAttribute.resizeBuffer(0);
@@ -118,25 +125,11 @@ public class NGramTokenizationStrategy extends AbstractNGramTokenizationStrategy
                 }
 
                 // Tokenize
-                NGramTokenizer tokenizer = null;
-                TokenStream tokenStream = null;
-                TokenizationException exception = null;
+                final NGramTokenizer tokenizer = this.getTokenizer(maxNGramLength);
+                boolean reusable = false;
                 try {
-                    // Create a reader and determine, if applicable, the max number of allowed n-grams
-                    final Reader reader;
-                    if (null != fieldValue) {
-                        reader = new StringReader(fieldValue);
-                    } else {
-                        reader = new StringReader(StringUtils.EMPTY_STRING);
-                    }
-
-                    // Create the tokenizer and tokenizing stream
-                    tokenizer = new NGramTokenizer(2, maxNGramLength);
-                    tokenizer.setReader(reader);
+                    tokenizer.setReader(new StringReader((null != fieldValue) ? fieldValue : StringUtils.EMPTY_STRING));
                     tokenizer.reset();
-                    tokenStream = new ClassicFilter(tokenizer);
-                    tokenStream = new LowerCaseFilter(tokenStream);
-                    tokenStream.addAttribute(CharTermAttribute.class);
 
                     // Reset the n-gram count
                     ngramCount = 0;
@@ -148,30 +141,20 @@ public class NGramTokenizationStrategy extends AbstractNGramTokenizationStrategy
                             ngramCount++;
                         }
                     }
-                } catch (final TokenizationException e) {
-                    exception = e;
-                    throw e;
+
+                    tokenizer.end();
+                    reusable = true;
                 } catch (final IOException e) {
-                    exception = new TokenizationException(e);
-                    throw exception;
+                    throw new TokenizationException(e);
                 } finally {
-                    // Close the tokenizer
-                    if (null != tokenizer) {
-                        try {
-                            tokenizer.end();
-                            tokenizer.close();
-                        } catch (final IOException ignore) {}
+                    // Close the tokenizer, which allows it to be reset onto the next value
+                    try {
+                        tokenizer.close();
+                    } catch (final IOException e) {
+                        reusable = false;
                     }
-                    // Close the stream
-                    if (null != tokenStream) {
-                        try {
-                            tokenStream.close();
-                        } catch (final IOException e) {
-                            // Prevent this secondary problem from masking a more serious one
-                            if (null == exception) {
-                                throw new TokenizationException(e);
-                            }
-                        }
+                    if (!reusable) {
+                        this.tokenizer = null;
                     }
                 }
             }
@@ -180,6 +163,22 @@ public class NGramTokenizationStrategy extends AbstractNGramTokenizationStrategy
         return ngramCount;
     }
 
+    /**
+     * Get the tokenizer for a maximum n-gram length, creating it if the length differs from that of the previous value
+     *
+     * @param maxNGramLength
+     *            Maximum length of tokenized n-grams
+     * @return the tokenizer, ready to be given a reader
+     */
+    private NGramTokenizer getTokenizer(int maxNGramLength) {
+        if ((null == this.tokenizer) || (this.tokenizerMaxNGramLength != maxNGramLength)) {
+            this.tokenizer = new NGramTokenizer(2, maxNGramLength);
+            this.tokenizerTermAttribute = this.tokenizer.addAttribute(CharTermAttribute.class);
+            this.tokenizerMaxNGramLength = maxNGramLength;
+        }
+        return this.tokenizer;
+    }
+
     /**
      * Applies a tokenized n-gram to the BloomFilter based on the specified normalized content
      *
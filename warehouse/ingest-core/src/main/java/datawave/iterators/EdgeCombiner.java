@@ -18,6 +18,7 @@ import datawave.edge.protobuf.EdgeData;
 import datawave.edge.util.EdgeKey;
 import datawave.edge.util.EdgeKey.STATS_TYPE;
 import datawave.edge.util.EdgeKeyDecoder;
+import datawave.edge.util.EdgeKeyView;
 import datawave.edge.util.EdgeValue;
 import datawave.edge.util.EdgeValue.EdgeValueBuilder;
 import datawave.edge.util.EdgeValueHelper;
@@ -32,7 +33,7 @@ import datawave.edge.util.EdgeValueHelper;
 public class EdgeCombiner extends Combiner {
 
     static final Logger log = Logger.getLogger(EdgeCombiner.class);
-    private final Text colFam = new Text();
+    private final EdgeKeyView view = new EdgeKeyView();
     private final Text colQual = new Text();
 
     /**
@@ -52,15 +53,15 @@ public class EdgeCombiner extends Combiner {
         if (log.isTraceEnabled())
             log.trace("Running Edge Combiner for : " + key);
 
-        key.getColumnFamily(colFam);
-        EdgeKey.EDGE_FORMAT edgeFormat = EdgeKeyDecoder.determineEdgeFormat(colFam);
+        view.set(key);
+        EdgeKey.EDGE_FORMAT edgeFormat = view.getFormat();
 
         switch (edgeFormat) {
             case STANDARD:
                 combinedValue = combineStandardKey(key, iter);
                 break;
             case STATS:
-                STATS_TYPE statsType = EdgeKeyDecoder.determineStatsType(colFam);
+                STATS_TYPE statsType = view.getStatsType();
                 combinedValue = combineStatsKey(statsType, key, iter);
                 break;
             case UNKNOWN:
@@ -0,0 +1,66 @@
+package datawave.iterators;
+
+import java.util.Iterator;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.Combiner;
+import org.apache.log4j.Logger;
+
+import datawave.ingest.metadata.FieldSketch;
+
+/**
+ * Merges the {@link FieldSketch}es written for a field, datatype and day.
+ */
+public class FieldSketchCombiner extends Combiner {
+
+    private static final Logger log = Logger.getLogger(FieldSketchCombiner.class);
+
+    /**
+     * Reduces a list of Values into a single Value.
+     *
+     * @param key
+     *            The most recent version of the Key being reduced.
+     *
+     * @param iter
+     *            An iterator over the Values for different versions of the key.
+     *
+     * @return The combined Value, or the first Value if none of them could be decoded.
+     */
+    @Override
+    public Value reduce(Key key, Iterator<Value> iter) {
+
+        FieldSketch sketch = null;
+        Value singletonValue = null;
+        Value firstValue = null;
+
+        while (iter.hasNext()) {
+            Value value = iter.next();
+            if (firstValue == null) {
+                firstValue = value;
+            }
+            try {
+                FieldSketch newSketch = FieldSketch.fromValue(value);
+                if (sketch == null) {
+                    sketch = newSketch;
+                    singletonValue = value;
+                } else {
+                    sketch.merge(newSketch);
+                    singletonValue = null;
+                }
+            } catch (Exception e) {
+                log.error("Unable to decode field sketch from " + key + " / " + value, e);
+            }
+        }
+
+        if (singletonValue != null) {
+            return singletonValue;
+        } else if (sketch != null) {
+            return sketch.toValue();
+        } else {
+            // keep what was written rather than replacing it with an empty value
+            return firstValue;
+        }
+    }
+
+}
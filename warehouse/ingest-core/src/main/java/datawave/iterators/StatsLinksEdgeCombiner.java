@@ -1,6 +1,5 @@
 package datawave.iterators;
 
-import static datawave.edge.util.EdgeKey.EDGE_FORMAT.STATS;
 import static datawave.edge.util.EdgeKey.STATS_TYPE.LINKS;
 
 import java.io.IOException;
@@ -19,16 +18,14 @@ import org.apache.accumulo.core.iterators.IteratorUtil;
 import org.apache.accumulo.core.iterators.OptionDescriber;
 import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
 import org.apache.accumulo.core.iterators.WrappingIterator;
-import org.apache.hadoop.io.Text;
-import org.apache.hadoop.io.WritableComparator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import datawave.edge.util.EdgeKeyView;
 import datawave.edge.util.ExtendedHyperLogLogPlus;
 
 public class StatsLinksEdgeCombiner extends WrappingIterator implements OptionDescriber {
     private static final Logger LOG = LoggerFactory.getLogger(StatsLinksEdgeCombiner.class);
-    private static final Text STATS_LINKS = new Text(STATS + "/" + LINKS + "/");
     private static final byte[] ERROR_EHLLP_BYTES;
 
     static {
@@ -72,7 +69,7 @@ public class StatsLinksEdgeCombiner extends WrappingIterator implements OptionDe
     }
 
     private final Key workKey = new Key();
-    private final Text workColumnFamily = new Text();
+    private final EdgeKeyView workView = new EdgeKeyView();
 
     /**
      * Sets the topKey and topValue based on the top key of the source. If the column of the source top key is in the set of combiners, topKey will be the top
@@ -88,11 +85,8 @@ public class StatsLinksEdgeCombiner extends WrappingIterator implements OptionDe
                 return;
             }
 
-            // FIll workColumnFamily with current column family
-            workKey.getColumnFamily(workColumnFamily);
-
             // Only combine STATS/LINKS edges
-            if (startsWith(workColumnFamily, STATS_LINKS)) {
+            if (workView.set(workKey).isStatsType(LINKS)) {
                 topKey = workKey;
                 topValue = combineStatsLinksEdgeValues(getSource());
             }
@@ -124,11 +118,6 @@ public class StatsLinksEdgeCombiner extends WrappingIterator implements OptionDe
         return (new Value(ERROR_EHLLP_BYTES));
     }
 
-    private static boolean startsWith(final Text workColumnFamily2, final Text statsLinks) {
-        return (WritableComparator.compareBytes(workColumnFamily2.getBytes(), 0, statsLinks.getLength(), statsLinks.getBytes(), 0,
-                        statsLinks.getLength()) == 0);
-    }
-
     @Override
     public void seek(final Range range, final Collection<ByteSequence> columnFamilies, final boolean inclusive) throws IOException {
         // do not want to seek to the middle of a value that should be combined...
@@ -14,7 +14,9 @@ import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.text.DecimalFormat;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Observable;
@@ -76,6 +78,8 @@ public class FlagMaker implements Runnable, Observer, SizeValidator {
     private ExecutorService executor;
     private final FlagMakerConfig fmc;
     final FlagDistributor fd;
+    // lists only the input directories that changed since the last cycle, when enabled
+    private final IncrementalFileTracker fileTracker;
     private volatile boolean running = true;
     private FlagSocket flagSocket;
     private final DecimalFormat df = new DecimalFormat("#0.00");
@@ -100,6 +104,13 @@ public class FlagMaker implements Runnable, Observer, SizeValidator {
                 .concurrencyLevel(fmc.getMaxHdfsThreads())
                 .build();
         // @formatter:on
+
+        if (this.fmc.isIncrementalFileTracking()) {
+            String index = this.fmc.getFileTrackerIndex();
+            this.fileTracker = new IncrementalFileTracker(index == null ? null : new File(index));
+        } else {
+            this.fileTracker = null;
+        }
     }
 
     public static void main(String... args) throws Exception {
@@ -260,6 +271,10 @@ public class FlagMaker implements Runnable, Observer, SizeValidator {
             }
 
         }
+
+        if (fileTracker != null) {
+            fileTracker.save();
+        }
     }
 
     /**
@@ -279,8 +294,8 @@ public class FlagMaker implements Runnable, Observer, SizeValidator {
                 if (log.isTraceEnabled()) {
                     log.trace("searching for " + fc.getDataName() + " files in " + folderPattern);
                 }
-                FileStatus[] files = fs.globStatus(new Path(folderPattern));
-                if (files == null || files.length == 0) {
+                Collection<FileStatus> files = listFiles(fs, folderPattern);
+                if (files.isEmpty()) {
                     continue;
                 }
 
@@ -315,6 +330,14 @@ public class FlagMaker implements Runnable, Observer, SizeValidator {
         }
     }
 
+    private Collection<FileStatus> listFiles(FileSystem fs, String folderPattern) throws IOException {
+        if (fileTracker != null) {
+            return fileTracker.listFiles(fs, folderPattern);
+        }
+        FileStatus[] files = fs.globStatus(new Path(folderPattern));
+        return files == null ? Collections.emptyList() : Arrays.asList(files);
+    }
+
     protected void logFileInfo(FlagDataTypeConfig fc, FileStatus status) {
         log.trace("File {} : {}", fc.getDataName(), status);
     }
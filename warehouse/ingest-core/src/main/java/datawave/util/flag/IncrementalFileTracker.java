@@ -0,0 +1,207 @@
+package datawave.util.flag;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.GlobFilter;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds the files matching a folder pattern without listing every file on every cycle. The directories matching the parent of the pattern are globbed, and a
+ * directory is only listed again when its modification time has changed since it was last listed, which happens whenever a file is added to, renamed into or
+ * moved out of it. The listings are kept per folder pattern and, when an index file is given, saved so that a restarted flag maker only lists the directories
+ * that changed while it was down.
+ * <p>
+ * Files written in place, rather than renamed into the directory, don't change the directory's modification time, so their sizes are as of the last listing.
+ */
+public class IncrementalFileTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(IncrementalFileTracker.class);
+
+    // modification times are only trusted once they are older than this when a directory is listed
+    static final long MTIME_GRANULARITY = 1000L;
+
+    private final File indexFile;
+    private final Map<String,Map<Path,Listing>> listingsByPattern = new HashMap<>();
+    private boolean dirty = false;
+    private long listed = 0;
+    private long reused = 0;
+
+    /**
+     * @param indexFile
+     *            the local file in which to save the listings, or null to only keep them in memory. Saved listings that can't be read are ignored.
+     */
+    public IncrementalFileTracker(File indexFile) {
+        this.indexFile = indexFile;
+        if (indexFile != null && indexFile.exists()) {
+            load();
+        }
+    }
+
+    /**
+     * Get the files matching a folder pattern
+     *
+     * @param fs
+     *            the file system
+     * @param folderPattern
+     *            a glob whose last component matches files
+     * @return the matching files
+     * @throws IOException
+     *             if the file system can't be listed
+     */
+    public List<FileStatus> listFiles(FileSystem fs, String folderPattern) throws IOException {
+        Path pattern = new Path(folderPattern);
+        List<FileStatus> files = new ArrayList<>();
+        Map<Path,Listing> listings = listingsByPattern.computeIfAbsent(folderPattern, k -> new HashMap<>());
+        if (pattern.getParent() == null) {
+            FileStatus[] matches = fs.globStatus(pattern);
+            if (matches != null) {
+                for (FileStatus match : matches) {
+                    if (!match.isDirectory()) {
+                        files.add(match);
+                    }
+                }
+            }
+            return files;
+        }
+
+        GlobFilter filter = new GlobFilter(pattern.getName());
+        FileStatus[] directories = fs.globStatus(pattern.getParent());
+        Map<Path,Listing> current = new HashMap<>();
+        if (directories != null) {
+            for (FileStatus directory : directories) {
+                if (!directory.isDirectory()) {
+                    continue;
+                }
+                Path path = fs.makeQualified(directory.getPath());
+                Listing listing = listings.get(path);
+                if (listing == null || !listing.isCurrent(directory.getModificationTime())) {
+                    listing = list(fs, path, directory.getModificationTime(), filter);
+                    dirty = true;
+                    listed++;
+                } else {
+                    reused++;
+                }
+                current.put(path, listing);
+                files.addAll(listing.files);
+            }
+        }
+        if (!current.keySet().equals(listings.keySet())) {
+            dirty = true;
+        }
+        listingsByPattern.put(folderPattern, current);
+        return files;
+    }
+
+    private Listing list(FileSystem fs, Path directory, long modificationTime, GlobFilter filter) throws IOException {
+        long listedAt = System.currentTimeMillis();
+        List<FileStatus> files = new ArrayList<>();
+        for (FileStatus status : fs.listStatus(directory, filter)) {
+            if (!status.isDirectory()) {
+                files.add(status);
+            }
+        }
+        if (log.isTraceEnabled()) {
+            log.trace("Listed {} files in {}", files.size(), directory);
+        }
+        return new Listing(modificationTime, listedAt, files);
+    }
+
+    /**
+     * Save the listings to the index file, if there is one and they changed since they were last saved
+     *
+     * @throws IOException
+     *             if the index file can't be written
+     */
+    public void save() throws IOException {
+        if (log.isDebugEnabled()) {
+            log.debug("Listed {} directories and reused {} listings since the last save", listed, reused);
+        }
+        listed = 0;
+        reused = 0;
+        if (indexFile == null || !dirty) {
+            return;
+        }
+
+        File tmp = new File(indexFile.getPath() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+            for (Map.Entry<String,Map<Path,Listing>> pattern : listingsByPattern.entrySet()) {
+                writer.write("P\t" + pattern.getKey());
+                writer.newLine();
+                for (Map.Entry<Path,Listing> directory : pattern.getValue().entrySet()) {
+                    Listing listing = directory.getValue();
+                    writer.write("D\t" + directory.getKey() + '\t' + listing.modificationTime + '\t' + listing.listedAt);
+                    writer.newLine();
+                    for (FileStatus file : listing.files) {
+                        writer.write("F\t" + file.getPath() + '\t' + file.getLen() + '\t' + file.getBlockSize() + '\t' + file.getModificationTime());
+                        writer.newLine();
+                    }
+                }
+            }
+        }
+        Files.move(tmp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        dirty = false;
+    }
+
+    private void load() {
+        Map<Path,Listing> listings = null;
+        Listing listing = null;
+        try (BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts.length == 2 && "P".equals(parts[0])) {
+                    listings = listingsByPattern.computeIfAbsent(parts[1], k -> new HashMap<>());
+                    listing = null;
+                } else if (parts.length == 4 && "D".equals(parts[0]) && listings != null) {
+                    listing = new Listing(Long.parseLong(parts[2]), Long.parseLong(parts[3]), new ArrayList<>());
+                    listings.put(new Path(parts[1]), listing);
+                } else if (parts.length == 5 && "F".equals(parts[0]) && listing != null) {
+                    long length = Long.parseLong(parts[2]);
+                    long blockSize = Long.parseLong(parts[3]);
+                    long modificationTime = Long.parseLong(parts[4]);
+                    listing.files.add(new FileStatus(length, false, 0, blockSize, modificationTime, new Path(parts[1])));
+                } else {
+                    throw new IOException("Malformed line in file tracker index " + indexFile + ": " + line);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // the directories will all be listed again
+            log.warn("Unable to load file tracker index " + indexFile + ", ignoring it", e);
+            listingsByPattern.clear();
+        }
+    }
+
+    private static class Listing {
+        private final long modificationTime;
+        private final long listedAt;
+        private final List<FileStatus> files;
+
+        Listing(long modificationTime, long listedAt, List<FileStatus> files) {
+            this.modificationTime = modificationTime;
+            this.listedAt = listedAt;
+            this.files = files;
+        }
+
+        /**
+         * A file added within the granularity of the modification time of the listing would not change it, so a listing is only current when it was made
+         * well after the directory was last modified.
+         */
+        boolean isCurrent(long directoryModificationTime) {
+            return directoryModificationTime == modificationTime && listedAt - modificationTime > MTIME_GRANULARITY;
+        }
+    }
+}
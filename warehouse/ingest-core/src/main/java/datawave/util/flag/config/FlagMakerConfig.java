@@ -66,6 +66,10 @@ public class FlagMakerConfig {
     protected int directoryCacheSize = 2000;
     // directory cache timeout. Default is 2 Hours
     protected long directoryCacheTimeout = (2 * 60 * 60 * 1000);
+    // only list the input directories whose modification time changed since they were last listed
+    private boolean incrementalFileTracking = false;
+    // local file in which to save the directory listings between runs, or null to keep them in memory
+    private String fileTrackerIndex = null;
     // implementation of flagmaker to run
     private String flagMakerClass = FlagMaker.class.getName();
 
@@ -173,6 +177,22 @@ public class FlagMakerConfig {
         this.directoryCacheTimeout = directoryCacheTimeout;
     }
 
+    public boolean isIncrementalFileTracking() {
+        return incrementalFileTracking;
+    }
+
+    public void setIncrementalFileTracking(boolean incrementalFileTracking) {
+        this.incrementalFileTracking = incrementalFileTracking;
+    }
+
+    public String getFileTrackerIndex() {
+        return fileTrackerIndex;
+    }
+
+    public void setFileTrackerIndex(String fileTrackerIndex) {
+        this.fileTrackerIndex = fileTrackerIndex;
+    }
+
     public int getMaxFileLength() {
         return maxFileLength;
     }
@@ -370,6 +390,8 @@ public class FlagMakerConfig {
         result.append("maxHdfsThreads: " + this.getMaxHdfsThreads() + "\n");
         result.append("directoryCacheSize: " + this.getDirectoryCacheSize() + "\n");
         result.append("directoryCacheTimeout: " + this.getDirectoryCacheTimeout() + "\n");
+        result.append("incrementalFileTracking: " + this.isIncrementalFileTracking() + "\n");
+        result.append("fileTrackerIndex: " + this.getFileTrackerIndex() + "\n");
         result.append("flagMakerClass: " + this.getFlagMakerClass() + "\n");
         return result.toString();
     }
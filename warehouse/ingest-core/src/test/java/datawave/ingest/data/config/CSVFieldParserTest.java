@@ -0,0 +1,92 @@
+package datawave.ingest.data.config;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.commons.lang.text.StrMatcher;
+import org.apache.commons.lang.text.StrTokenizer;
+import org.junit.Test;
+
+public class CSVFieldParserTest {
+
+    @Test
+    public void testCsv() {
+        CSVFieldParser parser = new CSVFieldParser(",");
+        assertArrayEquals(new String[] {"a", "b c", null, "d,e", "say \"hi\"", null}, parse(parser, " a , b c ,, \"d,e\" ,\"say \"\"hi\"\"\","));
+        assertTrue(parser.isNull(2));
+        assertFalse(parser.isNull(3));
+        assertTrue(parser.isNull(5));
+
+        // quotes are only honoured at the start of a field
+        assertArrayEquals(new String[] {"a\"b", "c"}, parse(parser, "a\"b,c"));
+        assertArrayEquals(new String[] {null, null}, parse(parser, "\"\","));
+        assertArrayEquals(new String[0], parse(parser, ""));
+    }
+
+    @Test
+    public void testOffsets() {
+        CSVFieldParser parser = new CSVFieldParser(",");
+        byte[] bytes = "xxx,é,\"ü\",yyy".getBytes(StandardCharsets.UTF_8);
+        assertEquals(2, parser.parse(bytes, 4, bytes.length - 8));
+        assertEquals("é", parser.getField(0));
+        assertEquals("ü", parser.getField(1));
+    }
+
+    @Test
+    public void testSeparators() {
+        assertArrayEquals(new String[] {"a", "b c", "d"}, parse(new CSVFieldParser("\\t"), "a\t b c \t\"d\""));
+        // any other separator is literal, without quotes or trimming
+        assertArrayEquals(new String[] {" a", "\"b\" ", null}, parse(new CSVFieldParser("||"), " a||\"b\" ||"));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testFieldIndex() {
+        CSVFieldParser parser = new CSVFieldParser(",");
+        parse(parser, "a,b");
+        parser.getField(2);
+    }
+
+    @Test
+    public void testMatchesTokenizer() {
+        Random random = new Random(7);
+        String alphabet = "ab ,\t\"|é";
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder record = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                record.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String value = record.toString();
+            assertTokens(value, ",", StrTokenizer.getCSVInstance(), true);
+            assertTokens(value, ",", StrTokenizer.getCSVInstance().setTrimmerMatcher(StrMatcher.noneMatcher()), false);
+            assertTokens(value, "\\t", StrTokenizer.getTSVInstance(), true);
+            StrTokenizer pipes = new StrTokenizer();
+            pipes.setDelimiterString("|");
+            assertTokens(value, "|", pipes, false);
+        }
+    }
+
+    private static void assertTokens(String value, String separator, StrTokenizer tokenizer, boolean trim) {
+        tokenizer.setIgnoreEmptyTokens(false);
+        tokenizer.setEmptyTokenAsNull(true);
+        tokenizer.reset(value);
+        CSVFieldParser parser = new CSVFieldParser(separator).setTrimWhitespace(trim);
+        assertArrayEquals("[" + value + "] with " + separator, tokenizer.getTokenArray(), parse(parser, value));
+        for (int i = 0; i < parser.getFieldCount(); i++) {
+            assertEquals(parser.getField(i) == null, parser.isNull(i));
+        }
+    }
+
+    private static String[] parse(CSVFieldParser parser, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        parser.parse(bytes, 0, bytes.length);
+        String[] fields = parser.getFields();
+        assertEquals(fields.length, parser.getFieldCount());
+        return fields;
+    }
+}
@@ -0,0 +1,90 @@
+package datawave.ingest.data.config.ingest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.junit.Before;
+import org.junit.Test;
+
+import datawave.TestBaseIngestHelper;
+import datawave.data.type.LcNoDiacriticsType;
+import datawave.data.type.NoOpType;
+import datawave.ingest.data.TypeRegistry;
+import datawave.ingest.data.config.DataTypeHelper;
+import datawave.ingest.mapreduce.SimpleDataTypeHandler;
+import datawave.policy.IngestPolicyEnforcer;
+
+public class BaseIngestHelperTest {
+
+    private final TestBaseIngestHelper ingestHelper = new TestBaseIngestHelper();
+    private final Configuration conf = new Configuration();
+
+    @Before
+    public void setUp() {
+        conf.set(DataTypeHelper.Properties.DATA_NAME, "test");
+        conf.set("test" + DataTypeHelper.Properties.INGEST_POLICY_ENFORCER_CLASS, IngestPolicyEnforcer.NoOpIngestPolicyEnforcer.class.getName());
+        conf.set("test" + BaseIngestHelper.DEFAULT_TYPE, NoOpType.class.getName());
+        conf.set("test.NAME_*" + BaseIngestHelper.FIELD_TYPE, LcNoDiacriticsType.class.getName());
+        conf.set("test" + BaseIngestHelper.INDEX_FIELDS, "NAME_*,AGE");
+        conf.set("test" + BaseIngestHelper.DEFAULT_FAILED_NORMALIZATION_POLICY, BaseIngestHelper.FailurePolicy.LEAVE.name());
+        conf.set("test.NAME_*" + BaseIngestHelper.FIELD_FAILED_NORMALIZATION_POLICY, BaseIngestHelper.FailurePolicy.DROP.name());
+
+        datawave.ingest.data.Type type = new datawave.ingest.data.Type("test", null, null, new String[] {SimpleDataTypeHandler.class.getName()}, 10, null);
+        TypeRegistry.reset();
+        TypeRegistry.getInstance(conf).put("test", type);
+
+        ingestHelper.setup(conf);
+    }
+
+    @Test
+    public void testFieldProfile() {
+        BaseIngestHelper.FieldProfile profile = ingestHelper.getFieldProfile("NAME_FIRST");
+        assertTypes(profile.getDataTypes(), LcNoDiacriticsType.class);
+        assertTrue(profile.isIndexed());
+        assertFalse(profile.isReverseIndexed());
+        assertEquals(BaseIngestHelper.FailurePolicy.DROP, profile.getFailurePolicy());
+
+        profile = ingestHelper.getFieldProfile("COLOR");
+        assertTypes(profile.getDataTypes(), NoOpType.class);
+        assertFalse(profile.isIndexed());
+        assertEquals(BaseIngestHelper.FailurePolicy.LEAVE, profile.getFailurePolicy());
+    }
+
+    @Test
+    public void testFieldProfileIsCached() {
+        assertSame(ingestHelper.getFieldProfile("NAME_LAST"), ingestHelper.getFieldProfile("NAME_LAST"));
+    }
+
+    @Test
+    public void testFieldProfileIsInvalidated() {
+        assertFalse(ingestHelper.isIndexedField("COLOR"));
+        assertFalse(ingestHelper.isReverseIndexedField("COLOR"));
+
+        ingestHelper.addIndexedField("COLOR");
+        ingestHelper.addReverseIndexedField("COLOR");
+        assertTrue(ingestHelper.isIndexedField("COLOR"));
+        assertTrue(ingestHelper.isReverseIndexedField("COLOR"));
+
+        ingestHelper.updateDatawaveTypes("COLOR", LcNoDiacriticsType.class.getName());
+        assertTypes(ingestHelper.getDataTypes("COLOR"), LcNoDiacriticsType.class);
+    }
+
+    @Test
+    public void testFieldProfileIsDroppedOnSetup() {
+        assertFalse(ingestHelper.isIndexedField("COLOR"));
+
+        conf.set("test" + BaseIngestHelper.INDEX_FIELDS, "NAME_*,AGE,COLOR");
+        ingestHelper.setup(conf);
+        assertTrue(ingestHelper.isIndexedField("COLOR"));
+    }
+
+    private static void assertTypes(List<datawave.data.type.Type<?>> types, Class<?> expected) {
+        assertEquals(1, types.size());
+        assertEquals(expected, types.get(0).getClass());
+    }
+}
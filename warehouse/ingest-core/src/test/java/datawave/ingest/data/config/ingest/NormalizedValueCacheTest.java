@@ -0,0 +1,125 @@
+package datawave.ingest.data.config.ingest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hadoop.conf.Configuration;
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.cache.CacheStats;
+
+import datawave.data.type.LcNoDiacriticsType;
+
+public class NormalizedValueCacheTest {
+
+    private static class CountingType extends LcNoDiacriticsType {
+        private static final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String normalize(String in) {
+            calls.incrementAndGet();
+            if ("BAD".equals(in)) {
+                throw new IllegalArgumentException("bad value");
+            }
+            return super.normalize(in);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        NormalizedValueCache.configure(new Configuration());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        NormalizedValueCache cache = NormalizedValueCache.configure(new Configuration());
+        assertFalse(cache.isEnabled());
+
+        int before = CountingType.calls.get();
+        CountingType type = new CountingType();
+        assertEquals("abc", cache.normalize(type, "ABC"));
+        assertEquals("abc", cache.normalize(type, "ABC"));
+        assertEquals(before + 2, CountingType.calls.get());
+        assertTrue(cache.getStats().isEmpty());
+    }
+
+    @Test
+    public void testValuesAreNormalizedOnce() {
+        Configuration conf = new Configuration();
+        conf.setBoolean(NormalizedValueCache.ENABLED, true);
+        NormalizedValueCache cache = NormalizedValueCache.configure(conf);
+        assertTrue(NormalizedValueCache.getInstance() == cache);
+
+        int before = CountingType.calls.get();
+        for (int i = 0; i < 10; i++) {
+            // separate instances of a type class share the cache
+            assertEquals("abc", cache.normalize(new CountingType(), "ABC"));
+            assertEquals("xyz", cache.normalize(new CountingType(), "XYZ"));
+        }
+        assertEquals(before + 2, CountingType.calls.get());
+
+        CacheStats stats = cache.getStats().get(CountingType.class.getSimpleName());
+        assertEquals(18, stats.hitCount());
+        assertEquals(2, stats.missCount());
+    }
+
+    @Test
+    public void testFailuresAreNotCached() {
+        Configuration conf = new Configuration();
+        conf.setBoolean(NormalizedValueCache.ENABLED, true);
+        NormalizedValueCache cache = NormalizedValueCache.configure(conf);
+
+        int before = CountingType.calls.get();
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.normalize(new CountingType(), "BAD");
+                fail("expected the normalization to fail");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        assertEquals(before + 2, CountingType.calls.get());
+    }
+
+    @Test
+    public void testDisabledTypes() {
+        Configuration conf = new Configuration();
+        conf.setBoolean(NormalizedValueCache.ENABLED, true);
+        conf.set(NormalizedValueCache.DISABLED_TYPES, CountingType.class.getName());
+        NormalizedValueCache cache = NormalizedValueCache.configure(conf);
+
+        int before = CountingType.calls.get();
+        cache.normalize(new CountingType(), "ABC");
+        cache.normalize(new CountingType(), "ABC");
+        assertEquals(before + 2, CountingType.calls.get());
+        assertTrue(cache.getStats().isEmpty());
+
+        // other types are still cached
+        assertEquals("abc", cache.normalize(new LcNoDiacriticsType(), "ABC"));
+        assertEquals("abc", cache.normalize(new LcNoDiacriticsType(), "ABC"));
+        assertEquals(1, cache.getStats().get(LcNoDiacriticsType.class.getSimpleName()).hitCount());
+    }
+
+    @Test
+    public void testBoundedSize() {
+        Configuration conf = new Configuration();
+        conf.setBoolean(NormalizedValueCache.ENABLED, true);
+        conf.setInt(NormalizedValueCache.SIZE, 10);
+        NormalizedValueCache cache = NormalizedValueCache.configure(conf);
+
+        int before = CountingType.calls.get();
+        for (int i = 0; i < 100; i++) {
+            cache.normalize(new CountingType(), "VALUE" + i);
+        }
+        for (int i = 0; i < 100; i++) {
+            cache.normalize(new CountingType(), "VALUE" + i);
+        }
+        // at most the last ten values could have been remembered
+        assertTrue(CountingType.calls.get() - before >= 190);
+    }
+}
@@ -0,0 +1,60 @@
+package datawave.ingest.data.tokenize;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.lucene.analysis.CharArraySet;
+import org.junit.Test;
+
+public class DefaultTokenSearchTest {
+
+    private static final Pattern TOKEN_WORD_PATTERN = Pattern.compile("[\\p{Punct}\\p{Space}\\p{Cntrl}]+");
+
+    private static final String[] INPUTS = {"", "word", "two words", " leading", "trailing. ", ",", "..,,", "a_b-c.d", "user@example.com",
+            "c:\\program files\\foo.exe", "tab\tand\nnewline", "caf\u00e9 na\u00efve", "\u0000ctrl\u007fchars", "x y", "The Quick_Brown fox"};
+
+    private final DefaultTokenSearch search = new DefaultTokenSearch(new CharArraySet(Arrays.asList("the", "and"), true));
+
+    @Test
+    public void testTokenWordsMatchPatternSplit() {
+        for (String input : INPUTS) {
+            assertArrayEquals(input, TOKEN_WORD_PATTERN.split(input, 0), search.getTokenWords(input));
+        }
+
+        for (char c = 0; c < 256; c++) {
+            String input = "a" + c + "b";
+            assertArrayEquals(input, TOKEN_WORD_PATTERN.split(input, 0), search.getTokenWords(input));
+        }
+    }
+
+    @Test
+    public void testTokenWordsSkipStopWords() {
+        for (String input : INPUTS) {
+            List<String> expected = new ArrayList<>();
+            for (String word : TOKEN_WORD_PATTERN.split(input, 0)) {
+                if (!word.isEmpty() && !search.isStop(word) && !word.equals(input)) {
+                    expected.add(word.toLowerCase() + ":zone");
+                }
+            }
+
+            List<String> words = new ArrayList<>();
+            search.getTokenWords(input, ":zone", words);
+            assertEquals(input, expected, words);
+        }
+    }
+
+    @Test
+    public void testTermSynonyms() {
+        Collection<String> synonyms = search.getSynonyms(new String[] {"The_Quick_Brown", ""}, "<ALPHANUM>", false);
+        assertEquals(Arrays.asList("the_quick_brown", "quick", "brown"), new ArrayList<>(synonyms));
+
+        synonyms = search.getSynonyms(new String[] {"Bob.Smith@Example.com", ""}, "<EMAIL>", false);
+        assertEquals(Arrays.asList("bob.smith@example.com", "bob.smith", "@example.com", "bob", "smith"), new ArrayList<>(synonyms));
+    }
+}
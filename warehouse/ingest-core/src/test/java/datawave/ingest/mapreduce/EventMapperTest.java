@@ -7,12 +7,17 @@ import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.accumulo.core.data.Value;
 import org.apache.hadoop.conf.Configuration;
@@ -41,6 +46,7 @@ import datawave.ingest.mapreduce.job.metrics.Metric;
 import datawave.ingest.mapreduce.job.metrics.MetricsConfiguration;
 import datawave.ingest.mapreduce.job.metrics.TestEventCountMetricsReceiver;
 import datawave.ingest.mapreduce.job.writer.ContextWriter;
+import datawave.ingest.validation.FieldValidator;
 
 public class EventMapperTest {
 
@@ -403,6 +409,82 @@ public class EventMapperTest {
 
     }
 
+    @Test
+    public void shouldProcessEventsConcurrently() throws IOException, InterruptedException {
+        conf.setInt(EventMapper.PROCESSING_THREADS, 4);
+        conf.setInt(EventMapper.PROCESSING_WINDOW, 4);
+
+        eventMapper.setup(mapContext);
+        for (int i = 0; i < 10; i++) {
+            RawRecordContainer event = record.copy();
+            event.setRawData(("some data " + i).getBytes());
+            event.generateId(null);
+            eventMapper.map(new LongWritable(i), event, mapContext);
+        }
+        eventMapper.cleanup(mapContext);
+
+        Multimap<BulkIngestKey,Value> written = TestContextWriter.getWritten();
+
+        // every event is written with the offset it was read at
+        Set<String> origFiles = new HashSet<>();
+        for (Map.Entry<BulkIngestKey,Value> entry : written.entries()) {
+            if (entry.getKey().getKey().getColumnFamily().toString().equals(EventMapper.SEQUENCE_FILE_FIELDNAME)) {
+                origFiles.add(entry.getKey().getKey().getColumnQualifier().toString());
+            }
+        }
+        assertEquals(10, origFiles.size());
+        for (int i = 0; i < 10; i++) {
+            assertTrue(origFiles.contains("|" + i));
+        }
+
+        assertNotNull(getRawFileName(written));
+        assertNotNull(getFieldEntry(written, "fileExtension"));
+    }
+
+    @Test
+    public void shouldNotShareValidatorsBetweenProcessingThreads() throws IOException, InterruptedException {
+        conf.setInt(EventMapper.PROCESSING_THREADS, 4);
+        conf.setInt(EventMapper.PROCESSING_WINDOW, 8);
+        conf.set("file" + FieldValidator.FIELD_VALIDATOR_NAMES, ThreadRecordingValidator.class.getName());
+        ThreadRecordingValidator.threads.clear();
+
+        eventMapper.setup(mapContext);
+        for (int i = 0; i < 20; i++) {
+            RawRecordContainer event = record.copy();
+            event.setRawData(("some data " + i).getBytes());
+            event.generateId(null);
+            eventMapper.map(new LongWritable(i), event, mapContext);
+        }
+        eventMapper.cleanup(mapContext);
+
+        // every event is validated once, and each validator is only ever used by a single processing thread
+        int validated = 0;
+        for (List<Thread> validatorThreads : ThreadRecordingValidator.threads.values()) {
+            assertEquals(1, new HashSet<>(validatorThreads).size());
+            assertNotEquals(Thread.currentThread(), validatorThreads.get(0));
+            validated += validatorThreads.size();
+        }
+        assertEquals(20, validated);
+    }
+
+    /**
+     * A validator which records the threads that use each of its instances
+     */
+    public static class ThreadRecordingValidator implements FieldValidator {
+        private static final Map<ThreadRecordingValidator,List<Thread>> threads = new ConcurrentHashMap<>();
+
+        @Override
+        public void init(Type type, Configuration conf) {}
+
+        @Override
+        public void validate(RawRecordContainer event, Multimap<String,NormalizedContentInterface> fields) {
+            threads.computeIfAbsent(this, validator -> new CopyOnWriteArrayList<>()).add(Thread.currentThread());
+        }
+
+        @Override
+        public void validate(Multimap<String,String> fields) {}
+    }
+
     private Map.Entry<BulkIngestKey,Value> getMetric(Multimap<BulkIngestKey,Value> written) {
         return getFieldEntry(written, Metric.EVENT_COUNT.toString());
     }
@@ -0,0 +1,63 @@
+package datawave.ingest.mapreduce.handler.edge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import datawave.ingest.mapreduce.handler.edge.define.EdgeDefinition;
+
+public class EdgeDefinitionIndexTest {
+
+    @Test
+    public void testCandidates() {
+        List<EdgeDefinition> definitions = new ArrayList<>();
+        definitions.add(create("A", "B"));
+        definitions.add(create("B", "C"));
+        definitions.add(create("A", "C"));
+        definitions.add(create("B", "A"));
+        EdgeDefinitionIndex index = new EdgeDefinitionIndex(definitions);
+
+        assertEquals(bits(0, 3), index.getCandidates(Set.of("A", "B")));
+        assertEquals(bits(0, 1, 2, 3), index.getCandidates(Set.of("A", "B", "C", "D")));
+        assertEquals(bits(), index.getCandidates(Set.of("C", "D")));
+        assertEquals("C", index.get(2).getSinkFieldName());
+
+        assertTrue(index.isCurrent(definitions));
+        definitions.remove(3);
+        assertFalse(index.isCurrent(definitions));
+        assertFalse(index.isCurrent(new ArrayList<>(definitions)));
+    }
+
+    @Test
+    public void testEvaluations() {
+        EdgeDefinitionIndex index = new EdgeDefinitionIndex(List.of(create("A", "B"), create("B", "C")));
+        index.recordEvaluation(1, 100, true);
+        index.recordEvaluation(1, 50, false);
+        assertEquals(0, index.getEvaluations(0));
+        assertEquals(2, index.getEvaluations(1));
+        assertEquals(1, index.getMatches(1));
+        assertEquals(150, index.getEvaluationNanos(1));
+    }
+
+    private static EdgeDefinition create(String source, String sink) {
+        EdgeDefinition definition = new EdgeDefinition();
+        definition.setSourceFieldName(source);
+        definition.setSinkFieldName(sink);
+        return definition;
+    }
+
+    private static BitSet bits(int... positions) {
+        BitSet bits = new BitSet();
+        for (int position : positions) {
+            bits.set(position);
+        }
+        return bits;
+    }
+}
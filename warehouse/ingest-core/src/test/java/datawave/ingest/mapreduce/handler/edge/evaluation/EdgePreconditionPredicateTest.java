@@ -0,0 +1,123 @@
+package datawave.ingest.mapreduce.handler.edge.evaluation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.commons.jexl3.JexlScript;
+import org.junit.Before;
+import org.junit.Test;
+
+import datawave.attribute.EventFieldValueTuple;
+
+public class EdgePreconditionPredicateTest {
+
+    private static final String[] FIELDS = {"A", "B", "C"};
+    private static final String[] OPERATORS = {"==", "!=", "<", "<=", ">", ">=", "=~", "!~"};
+
+    private final EdgePreconditionArithmetic arithmetic = new EdgePreconditionArithmetic();
+    private final EdgePreconditionCacheHelper cacheHelper = new EdgePreconditionCacheHelper(arithmetic);
+    private final EdgePreconditionJexlContext context = new EdgePreconditionJexlContext();
+    private final EdgePreconditionJexlEvaluation evaluation = new EdgePreconditionJexlEvaluation(context);
+
+    @Before
+    public void setUp() {
+        context.clearContext();
+        set("A", "A.PET.0", "1");
+        set("A", "A.PET.1", "2");
+        set("B", "B.PET.0", "2");
+        set("B", "B.THING.0", "3");
+    }
+
+    @Test
+    public void testCompiled() {
+        assertMatches("A == '2'", true, "PET", "1");
+        assertMatches("A == B", true, "PET", "0", "1");
+        assertMatches("A == '1' || B == '5'", true, "PET", "0");
+        assertMatches("A == '5' && B == '2'", false);
+        assertMatches("!(A != '1') && A > 1", true, "PET", "0", "1");
+        assertMatches("C == '1'", false);
+        assertMatches("C != '1'", true);
+    }
+
+    @Test
+    public void testInterpreted() {
+        EdgePreconditionPredicate precondition = create("A.size() == 2");
+        assertFalse(precondition.isCompiled());
+        assertTrue(precondition.evaluate(context, evaluation));
+    }
+
+    @Test
+    public void testMatchesInterpreter() {
+        Random random = new Random(11);
+        for (int i = 0; i < 5000; i++) {
+            String expression = randomCondition(random, 3);
+            EdgePreconditionPredicate precondition = create(expression);
+            assertTrue(expression, precondition.isCompiled());
+
+            arithmetic.clearMatchingGroups();
+            boolean expected = evaluation.apply(precondition.getScript());
+            Map<String,Set<String>> expectedGroups = arithmetic.getMatchingGroups();
+
+            arithmetic.clearMatchingGroups();
+            assertEquals(expression, expected, precondition.evaluate(context, evaluation));
+            assertEquals(expression, expectedGroups, arithmetic.getMatchingGroups());
+        }
+    }
+
+    private String randomCondition(Random random, int depth) {
+        int choice = random.nextInt(depth > 0 ? 5 : 1);
+        switch (choice) {
+            case 1:
+                return randomCondition(random, depth - 1) + " && " + randomCondition(random, depth - 1);
+            case 2:
+                return randomCondition(random, depth - 1) + " || " + randomCondition(random, depth - 1);
+            case 3:
+                return "!(" + randomCondition(random, depth - 1) + ")";
+            case 4:
+                return "(" + randomCondition(random, depth - 1) + ")";
+            default:
+                String operator = OPERATORS[random.nextInt(OPERATORS.length)];
+                String left = FIELDS[random.nextInt(FIELDS.length - 1)];
+                String right = random.nextBoolean() ? FIELDS[random.nextInt(FIELDS.length - 1)] : "'" + (random.nextInt(4)) + "'";
+                if (operator.contains("~")) {
+                    right = "'.*" + random.nextInt(4) + ".*'";
+                } else if (operator.contains("<") || operator.contains(">")) {
+                    // the arithmetic only orders fields against values
+                    right = random.nextBoolean() ? "'" + random.nextInt(4) + "'" : String.valueOf(random.nextInt(4));
+                }
+                return left + " " + operator + " " + right;
+        }
+    }
+
+    private void assertMatches(String expression, boolean matches, String... groups) {
+        EdgePreconditionPredicate precondition = create(expression);
+        assertTrue(precondition.isCompiled());
+        arithmetic.clearMatchingGroups();
+        assertEquals(matches, precondition.evaluate(context, evaluation));
+        if (groups.length > 0) {
+            Map<String,Set<String>> expected = new HashMap<>();
+            expected.put(groups[0], new HashSet<>(Arrays.asList(groups).subList(1, groups.length)));
+            assertEquals(expected, arithmetic.getMatchingGroups());
+        }
+    }
+
+    private EdgePreconditionPredicate create(String expression) {
+        JexlScript script = cacheHelper.createScriptFromString(expression);
+        return cacheHelper.createPreconditionFromScript(script);
+    }
+
+    private void set(String field, String groupedName, String value) {
+        EventFieldValueTuple tuple = new EventFieldValueTuple();
+        tuple.setFieldName(groupedName);
+        tuple.setValue(value);
+        context.set(field, tuple);
+    }
+}
@@ -1,6 +1,8 @@
 package datawave.ingest.mapreduce.handler.shard;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.nio.charset.StandardCharsets;
@@ -262,4 +264,34 @@ public class ShardedDataTypeHandlerTest {
         }
     }
 
+    @Test
+    public void testIndexKeysShareEventParts() {
+        Type dataType = new Type(DATA_TYPE_NAME, TestIngestHelper.class, null, null, 10, null);
+        RawRecordContainer record = new RawRecordContainerImpl();
+        record.setDataType(dataType);
+        record.setRawFileName("data_" + 0 + ".dat");
+        record.setRawRecordNumber(1);
+        record.setRawData("testingtesting".getBytes(StandardCharsets.UTF_8));
+
+        Value uid = handler.createUidArray("d8zay2.-3pnndm.-anolok", false);
+        assertSame(uid, handler.createUidArray("d8zay2.-3pnndm.-anolok", false));
+        assertNotSame(uid, handler.createUidArray("d8zay2.-3pnndm.-anolok", true));
+        assertNotSame(uid, handler.createUidArray("another.-uid", false));
+
+        byte[] visibility = new byte[] {65, 76, 76};
+        byte[] shardId = new byte[] {50, 48, 48, 48, 48, 49, 48, 49, 95, 54, 57};
+
+        Multimap<BulkIngestKey,Value> termIndex = HashMultimap.create();
+        handler.createTermIndexColumn(record, termIndex, "TEST_COL", "FIELD_VALUE", visibility, null, null, shardId, handler.getShardIndexTableName(), uid,
+                        Direction.FORWARD);
+        handler.createTermIndexColumn(record, termIndex, "OTHER_COL", "OTHER_VALUE", visibility, null, null, shardId, handler.getShardIndexTableName(), uid,
+                        Direction.FORWARD);
+
+        assertEquals(2, termIndex.size());
+        for (BulkIngestKey k : termIndex.keySet()) {
+            assertEquals("20000101_69\u0000" + DATA_TYPE_NAME, k.getKey().getColumnQualifier().toString());
+            assertTrue(Arrays.equals(visibility, k.getKey().getColumnVisibility().getBytes()));
+            assertSame(uid, termIndex.get(k).iterator().next());
+        }
+    }
 }
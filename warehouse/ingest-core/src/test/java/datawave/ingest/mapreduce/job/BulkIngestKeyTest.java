@@ -9,6 +9,9 @@ import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import org.apache.accumulo.core.data.Key;
 import org.apache.commons.io.output.ByteArrayOutputStream;
@@ -158,6 +161,64 @@ public class BulkIngestKeyTest {
         assertFalse(bik1.toString().equals(""));
     }
 
+    @Test
+    public void testBinaryComparisonMatchesCompareTo() throws IOException {
+        Random random = new Random(42);
+        List<BulkIngestKey> keys = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            // long parts require multi-byte lengths, and negative timestamps multi-byte encodings
+            Key key = new Key(randomText(random, 300), randomText(random, 3), randomText(random, 200), randomText(random, 2),
+                            random.nextInt(5) - 2 + (random.nextBoolean() ? 0 : Long.MAX_VALUE / (random.nextInt(10) + 1)));
+            key.setDeleted(random.nextBoolean());
+            keys.add(new BulkIngestKey(randomText(random, 2), key));
+        }
+
+        BulkIngestKey.Comparator comparator = new BulkIngestKey.Comparator();
+        for (BulkIngestKey key1 : keys) {
+            byte[] key1bytes = serialize(key1);
+            for (BulkIngestKey key2 : keys) {
+                byte[] key2bytes = serialize(key2);
+                int expected = Integer.signum(key1.compareTo(key2));
+                int actual = Integer.signum(comparator.compare(key1bytes, 0, key1bytes.length, key2bytes, 0, key2bytes.length));
+                assertEquals(key1 + " vs " + key2, expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testBinaryComparisonWithOffsets() throws IOException {
+        BulkIngestKey key1 = new BulkIngestKey(new Text("table"), new Key("row", "cf", "cq", "cv", 5L));
+        BulkIngestKey key2 = new BulkIngestKey(new Text("table"), new Key("row", "cf", "cq", "cv", 4L));
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+        key1.write(dos);
+        int length1 = bos.size();
+        key2.write(dos);
+        byte[] bytes = bos.toByteArray();
+
+        BulkIngestKey.Comparator comparator = new BulkIngestKey.Comparator();
+        assertTrue(comparator.compare(bytes, 0, length1, bytes, length1, bytes.length - length1) < 0);
+        assertTrue(comparator.compare(bytes, length1, bytes.length - length1, bytes, 0, length1) > 0);
+        assertEquals(0, comparator.compare(bytes, length1, bytes.length - length1, bytes, length1, bytes.length - length1));
+    }
+
+    private static Text randomText(Random random, int maxLength) {
+        byte[] bytes = new byte[random.nextInt(maxLength + 1)];
+        for (int i = 0; i < bytes.length; i++) {
+            // a small alphabet, including bytes above 0x7f, so that parts frequently share prefixes
+            bytes[i] = (byte) (random.nextBoolean() ? 'a' : 0xf0);
+        }
+        return new Text(bytes);
+    }
+
+    private static byte[] serialize(BulkIngestKey key) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+        key.write(dos);
+        return bos.toByteArray();
+    }
+
     @Test
     public void testHashCode() {
         Text tableName1 = new Text("testTable");
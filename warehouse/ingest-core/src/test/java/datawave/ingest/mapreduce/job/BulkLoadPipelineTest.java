@@ -0,0 +1,174 @@
+package datawave.ingest.mapreduce.job;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import datawave.ingest.mapreduce.job.BulkLoadPipeline.Stage;
+import datawave.ingest.mapreduce.job.BulkLoadPipeline.StageStats;
+
+public class BulkLoadPipelineTest {
+
+    private BulkLoadPipeline pipeline;
+
+    @After
+    public void after() throws InterruptedException {
+        if (pipeline != null) {
+            pipeline.shutdown(10000);
+        }
+    }
+
+    @Test
+    public void testImportLimit() {
+        // no load allows every import thread
+        assertEquals(8, BulkLoadPipeline.getImportLimit(8, 0, 3000, 0, 100));
+        // the more loaded of the two thresholds wins
+        assertEquals(4, BulkLoadPipeline.getImportLimit(8, 1500, 3000, 10, 100));
+        assertEquals(4, BulkLoadPipeline.getImportLimit(8, 0, 3000, 50, 100));
+        // reaching a threshold leaves a single import
+        assertEquals(1, BulkLoadPipeline.getImportLimit(8, 3000, 3000, 0, 100));
+        assertEquals(1, BulkLoadPipeline.getImportLimit(8, 0, 3000, 500, 100));
+        // a threshold of zero is ignored
+        assertEquals(8, BulkLoadPipeline.getImportLimit(8, 10, 0, 10, 0));
+    }
+
+    @Test
+    public void testStagesAreChained() throws Exception {
+        pipeline = new BulkLoadPipeline(threads(2));
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final String job = "job" + i;
+            results.add(pipeline.submit(Stage.VALIDATE, () -> job).thenCompose(j -> pipeline.submit(Stage.MOVE, () -> j + ".moved"))
+                            .thenCompose(j -> pipeline.submit(Stage.IMPORT, () -> j + ".imported"))
+                            .thenCompose(j -> pipeline.submit(Stage.CLEANUP, () -> j + ".cleaned")));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertEquals("job" + i + ".moved.imported.cleaned", results.get(i).get());
+        }
+
+        pipeline.record(Stage.DISCOVER, 5);
+        Map<Stage,StageStats> stats = pipeline.drainMetrics();
+        assertEquals(1, stats.get(Stage.DISCOVER).getCount());
+        assertEquals(5, stats.get(Stage.DISCOVER).getRunMillis());
+        for (Stage stage : new Stage[] {Stage.VALIDATE, Stage.MOVE, Stage.IMPORT, Stage.CLEANUP}) {
+            assertEquals(stage.name(), 5, stats.get(stage).getCount());
+        }
+
+        // the metrics are reset once drained
+        assertEquals(0, pipeline.drainMetrics().get(Stage.IMPORT).getCount());
+    }
+
+    @Test
+    public void testImportLimitBoundsConcurrentImports() throws Exception {
+        pipeline = new BulkLoadPipeline(threads(4));
+        assertEquals(4, pipeline.getMaxImports());
+        pipeline.setImportLimit(2);
+        assertEquals(2, pipeline.getImportLimit());
+
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pipeline.submit(Stage.IMPORT, () -> {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                return active.decrementAndGet();
+            }));
+        }
+        for (CompletableFuture<Integer> result : results) {
+            result.get();
+        }
+        assertTrue("Expected at most 2 concurrent imports but saw " + maxActive.get(), maxActive.get() <= 2);
+
+        // the limit stays within the number of import threads
+        pipeline.setImportLimit(10);
+        assertEquals(4, pipeline.getImportLimit());
+        pipeline.setImportLimit(0);
+        assertEquals(1, pipeline.getImportLimit());
+    }
+
+    @Test
+    public void testFailureIsPropagated() throws Exception {
+        pipeline = new BulkLoadPipeline(threads(1));
+        CompletableFuture<String> result = pipeline.submit(Stage.MOVE, () -> {
+            throw new IOException("copy failed");
+        });
+        try {
+            result.get();
+            fail("Expected the failure of the stage");
+        } catch (ExecutionException e) {
+            assertEquals("copy failed", e.getCause().getMessage());
+        }
+        assertEquals(1, pipeline.drainMetrics().get(Stage.MOVE).getCount());
+
+        // a failed import releases its slot
+        pipeline.setImportLimit(1);
+        CompletableFuture<String> failed = pipeline.submit(Stage.IMPORT, () -> {
+            throw new IOException("import failed");
+        });
+        try {
+            failed.get();
+            fail("Expected the failure of the import");
+        } catch (ExecutionException e) {
+            assertEquals("import failed", e.getCause().getMessage());
+        }
+        assertEquals("ok", pipeline.submit(Stage.IMPORT, () -> "ok").get());
+    }
+
+    @Test
+    public void testConcurrentCleanupNotifiesEachJobOnce() throws Exception {
+        pipeline = new BulkLoadPipeline(threads(4));
+        JobObservable observable = new JobObservable(null);
+        Map<String,Integer> notified = new ConcurrentHashMap<>();
+        List<String> mismatched = new CopyOnWriteArrayList<>();
+        observable.addObserver((o, arg) -> {
+            // widen the window in which another cleanup could change the job id
+            Thread.yield();
+            String jobId = ((JobObservable) o).getJobId();
+            if (!jobId.equals(arg)) {
+                mismatched.add(arg + " != " + jobId);
+            }
+            notified.merge(jobId, 1, Integer::sum);
+        });
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final String jobId = "job_" + i;
+            results.add(pipeline.submit(Stage.CLEANUP, () -> {
+                observable.setJobId(jobId);
+                return null;
+            }));
+        }
+        for (CompletableFuture<Void> result : results) {
+            result.get();
+        }
+
+        assertTrue("Observers saw another job id: " + mismatched, mismatched.isEmpty());
+        assertEquals(200, notified.size());
+        for (int count : notified.values()) {
+            assertEquals(1, count);
+        }
+    }
+
+    private static Map<Stage,Integer> threads(int count) {
+        Map<Stage,Integer> threads = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            threads.put(stage, count);
+        }
+        return threads;
+    }
+}
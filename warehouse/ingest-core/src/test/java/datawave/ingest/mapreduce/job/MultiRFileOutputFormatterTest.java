@@ -1,19 +1,26 @@
 package datawave.ingest.mapreduce.job;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
 import org.apache.accumulo.core.conf.AccumuloConfiguration;
+import org.apache.accumulo.core.conf.ConfigurationCopy;
+import org.apache.accumulo.core.conf.Property;
 import org.apache.accumulo.core.data.ByteSequence;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
@@ -39,6 +46,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.powermock.api.easymock.PowerMock;
 
+import datawave.ingest.config.TableConfigCache;
 import datawave.ingest.data.config.ingest.AccumuloHelper;
 import datawave.util.TableName;
 
@@ -46,6 +54,8 @@ public class MultiRFileOutputFormatterTest {
 
     private static final String JOB_ID = "job_201109071404_1";
     private List<String> filenames = new ArrayList<>();
+    private Map<String,List<Key>> appendedKeys = Collections.synchronizedMap(new HashMap<>());
+    private Set<String> closedFiles = Collections.synchronizedSet(new HashSet<>());
     protected static final Logger logger = Logger.getLogger(MultiRFileOutputFormatterTest.class);
     protected static Map<String,String> mockedConfiguration = new HashMap<>();
 
@@ -412,7 +422,9 @@ public class MultiRFileOutputFormatterTest {
                     }
 
                     @Override
-                    public void close() throws IOException {}
+                    public void close() throws IOException {
+                        closedFiles.add(filename);
+                    }
 
                     @Override
                     public long getLength() throws IOException {
@@ -420,7 +432,9 @@ public class MultiRFileOutputFormatterTest {
                     }
 
                     @Override
-                    public void append(Key key, Value value) throws IOException {}
+                    public void append(Key key, Value value) throws IOException {
+                        appendedKeys.computeIfAbsent(filename, k -> Collections.synchronizedList(new ArrayList<>())).add(key);
+                    }
                 });
 
             }
@@ -512,6 +526,92 @@ public class MultiRFileOutputFormatterTest {
         assertFileNameForShard(4, "server2", 2);
     }
 
+    @Test
+    public void testAsyncWriters() throws IOException, InterruptedException {
+        MultiRFileOutputFormatter.setRFileLimits(conf, 1, 0);
+        MultiRFileOutputFormatter.setAsyncWriters(conf, 2, 1);
+        RecordWriter<BulkIngestKey,Value> writer = createWriter(formatter, conf);
+        writeShardPairs(writer, 2);
+
+        // the files roll over at the same keys as when written synchronously
+        assertNumFileNames(5);
+        assertFileNameForShardIndex(0);
+        expectShardFiles(4);
+
+        for (MultiRFileOutputFormatter.SizeTrackingWriter open : formatter.writers.values()) {
+            open.close();
+        }
+        formatter.awaitAsyncWriters();
+
+        for (int i = 1; i <= 4; i++) {
+            String filename = filenames.get(i);
+            Assert.assertTrue(filename, closedFiles.contains(filename));
+            Assert.assertEquals(filename, Collections.singletonList(new Key("20100101_" + (2 - i % 2), "bla", "bla")), appendedKeys.get(filename));
+        }
+    }
+
+    @Test
+    public void testAsyncWriterFailure() throws IOException, InterruptedException {
+        FileSKVWriter failing = EasyMock.createNiceMock(FileSKVWriter.class);
+        failing.append(EasyMock.anyObject(Key.class), EasyMock.anyObject(Value.class));
+        EasyMock.expectLastCall().andThrow(new IOException("disk full"));
+        EasyMock.replay(failing);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        MultiRFileOutputFormatter.AsyncSizeTrackingWriter writer = new MultiRFileOutputFormatter.AsyncSizeTrackingWriter(failing, executor, 1);
+        try {
+            writer.append(new Key("row"), new Value(new byte[0]));
+            writer.close();
+            writer.awaitClose();
+            Assert.fail("Expected the failed append to be rethrown");
+        } catch (IOException e) {
+            Assert.assertEquals("disk full", e.getCause().getMessage());
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(1, writer.getNumEntries());
+    }
+
+    @Test
+    public void testPerTableCompressionSettings() throws IOException {
+        AccumuloHelper.setInstanceName(conf, "instance");
+        AccumuloHelper.setUsername(conf, "user");
+        AccumuloHelper.setPassword(conf, "passw0rd".getBytes());
+        AccumuloHelper.setZooKeepers(conf, "zookeepers");
+        conf.setStrings(TableConfigurationUtil.JOB_OUTPUT_TABLE_NAMES, TableName.SHARD, TableName.SHARD_INDEX);
+        for (String table : new String[] {TableName.SHARD, TableName.SHARD_INDEX}) {
+            HashMap<String,String> properties = new HashMap<>();
+            properties.put(Property.TABLE_FILE_COMPRESSED_BLOCK_SIZE.getKey(), "100K");
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(properties);
+            }
+            conf.set(table + TableConfigurationUtil.TABLE_CONFIGURATION_PROPERTY, Base64.encodeBase64String(bytes.toByteArray()));
+        }
+        MultiRFileOutputFormatter.setCompressionType(conf, "gz");
+        MultiRFileOutputFormatter.setCompressionType(conf, TableName.SHARD_INDEX, "zstd");
+        MultiRFileOutputFormatter.setCompressedBlockSizes(conf, TableName.SHARD_INDEX, "1M", "512K");
+
+        // read the table properties from the serialized configuration rather than whatever an earlier test left in the cache
+        TableConfigCache.getCurrentCache(conf).clear();
+        MultiRFileOutputFormatter uut = new MultiRFileOutputFormatter();
+        uut.conf = conf;
+        try {
+            uut.setTableIdsAndConfigs();
+        } finally {
+            TableConfigCache.getCurrentCache(conf).clear();
+        }
+
+        ConfigurationCopy shardConfig = uut.tableConfigs.get(TableName.SHARD);
+        Assert.assertEquals("gz", shardConfig.get(Property.TABLE_FILE_COMPRESSION_TYPE));
+        Assert.assertEquals("100K", shardConfig.get(Property.TABLE_FILE_COMPRESSED_BLOCK_SIZE));
+
+        ConfigurationCopy indexConfig = uut.tableConfigs.get(TableName.SHARD_INDEX);
+        Assert.assertEquals("zstd", indexConfig.get(Property.TABLE_FILE_COMPRESSION_TYPE));
+        Assert.assertEquals("1M", indexConfig.get(Property.TABLE_FILE_COMPRESSED_BLOCK_SIZE));
+        Assert.assertEquals("512K", indexConfig.get(Property.TABLE_FILE_COMPRESSED_BLOCK_SIZE_INDEX));
+    }
+
     private void writeShardPairs(RecordWriter<BulkIngestKey,Value> writer, int numOfPairs) throws IOException, InterruptedException {
         for (int i = 0; i < numOfPairs; i++) {
             writeShardEntry(writer, 1);
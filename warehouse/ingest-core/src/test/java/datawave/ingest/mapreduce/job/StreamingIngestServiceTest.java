@@ -0,0 +1,392 @@
+package datawave.ingest.mapreduce.job;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.client.MultiTableBatchWriter;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.hadoop.mapreduce.lib.input.LineRecordReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+
+import datawave.accumulo.inmemory.InMemoryAccumuloClient;
+import datawave.accumulo.inmemory.InMemoryInstance;
+import datawave.data.type.LcNoDiacriticsType;
+import datawave.ingest.data.RawRecordContainer;
+import datawave.ingest.data.Type;
+import datawave.ingest.data.TypeRegistry;
+import datawave.ingest.data.config.CSVHelper;
+import datawave.ingest.data.config.DataTypeHelper;
+import datawave.ingest.data.config.DataTypeHelperImpl;
+import datawave.ingest.data.config.ingest.BaseIngestHelper;
+import datawave.ingest.data.config.ingest.CSVIngestHelper;
+import datawave.ingest.data.config.ingest.IngestHelperInterface;
+import datawave.ingest.data.config.ingest.NormalizedValueCache;
+import datawave.ingest.input.reader.EventRecordReader;
+import datawave.ingest.mapreduce.SimpleDataTypeHandler;
+import datawave.ingest.mapreduce.SimpleRawRecord;
+import datawave.policy.IngestPolicyEnforcer;
+
+public class StreamingIngestServiceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Configuration conf = new Configuration();
+    private File watchDir;
+    private File workDir;
+    private final List<String> ingested = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        TypeRegistry.reset();
+        TypeRegistry.getInstance(conf).put("test", new Type("test", null, null, new String[] {SimpleDataTypeHandler.class.getName()}, 10, null));
+        watchDir = folder.newFolder("watch");
+        workDir = folder.newFolder("work");
+    }
+
+    @After
+    public void tearDown() {
+        TypeRegistry.reset();
+    }
+
+    @Test
+    public void testFilesAreCheckpointed() throws Exception {
+        write(new File(watchDir, "test"), "a.txt");
+        write(new File(watchDir, "test"), "b.txt");
+        write(new File(watchDir, "test"), "bad.txt");
+        // files being written are hidden until they are complete
+        write(new File(watchDir, "test"), ".c.txt");
+        // files of unknown types are left alone
+        write(new File(watchDir, "other"), "d.txt");
+
+        StreamingIngestService service = runUntil(3);
+        assertEquals(2, service.getFilesProcessed());
+        assertEquals(1, service.getFilesFailed());
+
+        assertEquals(Collections.singletonList(".c.txt"), list(new File(watchDir, "test")));
+        assertEquals(Collections.singletonList("d.txt"), list(new File(watchDir, "other")));
+        assertEquals(List.of("a.txt", "b.txt"), list(new File(workDir, StreamingIngestService.DONE_DIR + "/test")));
+        assertEquals(Collections.singletonList("bad.txt"), list(new File(workDir, StreamingIngestService.FAILED_DIR + "/test")));
+        assertTrue(list(new File(workDir, StreamingIngestService.PROCESSING_DIR + "/test")).isEmpty());
+        assertFalse(ingested.contains(".c.txt"));
+    }
+
+    @Test
+    public void testUncheckpointedFilesAreRecovered() throws Exception {
+        // left behind by a previous run which did not reach the checkpoint
+        write(new File(workDir, StreamingIngestService.PROCESSING_DIR + "/test"), "a.txt");
+
+        StreamingIngestService service = runUntil(1);
+        assertEquals(1, service.getFilesProcessed());
+        assertEquals(Collections.singletonList("a.txt"), ingested);
+        assertEquals(Collections.singletonList("a.txt"), list(new File(workDir, StreamingIngestService.DONE_DIR + "/test")));
+        assertTrue(list(new File(workDir, StreamingIngestService.PROCESSING_DIR + "/test")).isEmpty());
+    }
+
+    @Test
+    public void testRejectingWriterIsReplaced() throws Exception {
+        write(new File(watchDir, "test"), "a.txt");
+        write(new File(watchDir, "test"), "b.txt");
+
+        List<TestWriter> writers = new CopyOnWriteArrayList<>();
+        StreamingIngestService service = new StreamingIngestService(conf, new Path(watchDir.toURI()), new Path(workDir.toURI()), null, null, 1, 10) {
+            @Override
+            protected MultiTableBatchWriter createWriter() {
+                // the first writer rejects the mutations of the first file
+                TestWriter writer = new TestWriter(writers.isEmpty());
+                writers.add(writer);
+                return writer;
+            }
+
+            @Override
+            protected void ingest(String typeName, Path file, MultiTableBatchWriter writer) throws Exception {
+                Mutation m = new Mutation(file.getName());
+                m.put("cf", "cq", "");
+                writer.getBatchWriter("table").addMutation(m);
+            }
+        };
+        run(service, 2);
+        assertEquals(1, service.getFilesProcessed());
+        assertEquals(1, service.getFilesFailed());
+
+        // the file processed after the failure was written with a new writer
+        assertEquals(2, writers.size());
+        assertTrue(writers.get(0).closed);
+        assertEquals(1, writers.get(1).flushed.size());
+        String processed = new String(writers.get(1).flushed.get(0).getRow());
+        String failed = processed.equals("a.txt") ? "b.txt" : "a.txt";
+        assertEquals(Collections.singletonList(processed), list(new File(workDir, StreamingIngestService.DONE_DIR + "/test")));
+        assertEquals(Collections.singletonList(failed), list(new File(workDir, StreamingIngestService.FAILED_DIR + "/test")));
+    }
+
+    @Test
+    public void testIngestCSV() throws Exception {
+        conf.set("csv" + CSVHelper.DATA_HEADER, "NAME,COLOR");
+        conf.set("csv" + CSVHelper.DATA_SEP, ",");
+        conf.set("all" + DataTypeHelper.Properties.INGEST_POLICY_ENFORCER_CLASS, IngestPolicyEnforcer.NoOpIngestPolicyEnforcer.class.getName());
+        conf.set("csv.NAME" + BaseIngestHelper.FIELD_TYPE, LcNoDiacriticsType.class.getName());
+        conf.setBoolean(NormalizedValueCache.ENABLED, true);
+        TypeRegistry.getInstance(conf).put("csv",
+                        new Type("csv", CSVIngestHelper.class, CSVLineRecordReader.class, new String[] {CSVDataTypeHandler.class.getName()}, 10, null));
+
+        AccumuloClient client = new InMemoryAccumuloClient("root", new InMemoryInstance("streaming"));
+        client.tableOperations().create(SimpleDataTypeHandler.TABLE.toString());
+
+        File csvDir = new File(watchDir, "csv");
+        csvDir.mkdirs();
+        Files.write(new File(csvDir, "people.csv").toPath(), "alice,red\nbob,blue\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(csvDir, "more.csv").toPath(), "alice,green\n".getBytes(StandardCharsets.UTF_8));
+
+        StreamingIngestService service = new StreamingIngestService(conf, new Path(watchDir.toURI()), new Path(workDir.toURI()), client,
+                        new BatchWriterConfig(), 1, 10);
+        NormalizedValueCache cache = NormalizedValueCache.getInstance();
+        run(service, 2);
+        assertEquals(2, service.getFilesProcessed());
+        assertEquals(0, service.getFilesFailed());
+        assertEquals(List.of("more.csv", "people.csv"), list(new File(workDir, StreamingIngestService.DONE_DIR + "/csv")));
+
+        // the files shared the cache of normalized values configured by the service, so the name read by both was normalized once
+        assertSame(cache, NormalizedValueCache.getInstance());
+        assertTrue(cache.getStats().get(LcNoDiacriticsType.class.getSimpleName()).hitCount() > 0);
+
+        // the event mapper wrote a mutation for each field of each record through the live context writer
+        Multimap<String,String> fields = HashMultimap.create();
+        try (Scanner scanner = client.createScanner(SimpleDataTypeHandler.TABLE.toString(), new Authorizations())) {
+            for (Map.Entry<Key,Value> entry : scanner) {
+                fields.put(entry.getKey().getColumnFamily().toString(), entry.getKey().getColumnQualifier().toString());
+            }
+        }
+        assertEquals(Set.of("alice", "bob"), fields.get("NAME"));
+        assertEquals(Set.of("red", "blue", "green"), fields.get("COLOR"));
+    }
+
+    private StreamingIngestService runUntil(int numFiles) throws Exception {
+        StreamingIngestService service = new StreamingIngestService(conf, new Path(watchDir.toURI()), new Path(workDir.toURI()), null, null, 2, 10) {
+            @Override
+            protected void ingest(String typeName, Path file, MultiTableBatchWriter writer) throws Exception {
+                assertEquals("test", typeName);
+                if (file.getName().startsWith("bad")) {
+                    throw new IOException("unable to parse " + file);
+                }
+                ingested.add(file.getName());
+            }
+        };
+        return run(service, numFiles);
+    }
+
+    private static StreamingIngestService run(StreamingIngestService service, int numFiles) throws Exception {
+        Thread thread = new Thread(service);
+        thread.start();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (service.getFilesProcessed() + service.getFilesFailed() < numFiles && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        service.shutdown();
+        thread.join(10000);
+        return service;
+    }
+
+    /**
+     * Reads each line of a file as a record of the csv type
+     */
+    public static class CSVLineRecordReader extends RecordReader<LongWritable,Text> implements EventRecordReader {
+        private final LineRecordReader lines = new LineRecordReader();
+        private final DataTypeHelperImpl helper = new DataTypeHelperImpl();
+        private String rawFileName;
+        private long rawFileTimestamp;
+
+        @Override
+        public void initialize(InputSplit split, TaskAttemptContext context) throws IOException {
+            initializeEvent(context.getConfiguration());
+            lines.initialize(split, context);
+            Path path = ((FileSplit) split).getPath();
+            rawFileName = path.toString();
+            rawFileTimestamp = path.getFileSystem(context.getConfiguration()).getFileStatus(path).getModificationTime();
+        }
+
+        @Override
+        public void initializeEvent(Configuration conf) {
+            helper.setup(conf);
+        }
+
+        @Override
+        public boolean nextKeyValue() throws IOException {
+            return lines.nextKeyValue();
+        }
+
+        @Override
+        public LongWritable getCurrentKey() {
+            return lines.getCurrentKey();
+        }
+
+        @Override
+        public Text getCurrentValue() {
+            return lines.getCurrentValue();
+        }
+
+        @Override
+        public float getProgress() throws IOException {
+            return lines.getProgress();
+        }
+
+        @Override
+        public void close() throws IOException {
+            lines.close();
+        }
+
+        @Override
+        public RawRecordContainer getEvent() {
+            SimpleRawRecord record = new SimpleRawRecord();
+            record.setDataType(helper.getType());
+            record.setRawFileName(rawFileName);
+            record.setRawFileTimestamp(rawFileTimestamp);
+            record.setRawRecordNumber(getCurrentKey().get());
+            record.setDate(rawFileTimestamp);
+            record.setRawData(getCurrentValue().copyBytes());
+            record.generateId(null);
+            return record;
+        }
+
+        @Override
+        public String getRawInputFileName() {
+            return rawFileName;
+        }
+
+        @Override
+        public long getRawInputFileTimestamp() {
+            return rawFileTimestamp;
+        }
+
+        @Override
+        public RawRecordContainer enforcePolicy(RawRecordContainer event) {
+            return event;
+        }
+
+        @Override
+        public void setInputDate(long time) {}
+    }
+
+    /**
+     * Writes the fields found by the ingest helper of the data type
+     */
+    public static class CSVDataTypeHandler<K> extends SimpleDataTypeHandler<K> {
+        private Configuration conf;
+
+        @Override
+        public void setup(TaskAttemptContext context) {
+            conf = context.getConfiguration();
+        }
+
+        @Override
+        public IngestHelperInterface getHelper(Type datatype) {
+            return datatype.getIngestHelper(conf);
+        }
+    }
+
+    /**
+     * Records the mutations it flushes, or rejects them
+     */
+    private static class TestWriter implements MultiTableBatchWriter {
+        private final boolean reject;
+        private final List<Mutation> pending = new ArrayList<>();
+        private final List<Mutation> flushed = new ArrayList<>();
+        private boolean closed = false;
+
+        TestWriter(boolean reject) {
+            this.reject = reject;
+        }
+
+        @Override
+        public BatchWriter getBatchWriter(String table) {
+            return new BatchWriter() {
+                @Override
+                public void addMutation(Mutation m) {
+                    pending.add(m);
+                }
+
+                @Override
+                public void addMutations(Iterable<Mutation> iterable) {
+                    iterable.forEach(pending::add);
+                }
+
+                @Override
+                public void flush() throws MutationsRejectedException {
+                    TestWriter.this.flush();
+                }
+
+                @Override
+                public void close() {}
+            };
+        }
+
+        @Override
+        public synchronized void flush() throws MutationsRejectedException {
+            if (reject) {
+                throw new MutationsRejectedException((AccumuloClient) null, Collections.emptyList(), Collections.emptyMap(),
+                                Collections.singletonList("tserver"), 0, null);
+            }
+            flushed.addAll(pending);
+            pending.clear();
+        }
+
+        @Override
+        public void close() throws MutationsRejectedException {
+            closed = true;
+            flush();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+    }
+
+    private static void write(File dir, String name) throws IOException {
+        dir.mkdirs();
+        Files.write(new File(dir, name).toPath(), "data".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> list(File dir) {
+        String[] names = dir.list((d, name) -> !name.endsWith(".crc"));
+        List<String> list = new ArrayList<>(Arrays.asList(names == null ? new String[0] : names));
+        list.sort(null);
+        return list;
+    }
+}
@@ -0,0 +1,161 @@
+package datawave.ingest.mapreduce.job.writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Multimap;
+
+import datawave.ingest.mapreduce.StandaloneStatusReporter;
+import datawave.ingest.mapreduce.StandaloneTaskAttemptContext;
+import datawave.ingest.mapreduce.job.BulkIngestKey;
+import datawave.ingest.mapreduce.job.reduce.BulkIngestKeyAggregatingReducer;
+import datawave.ingest.metric.IngestOutput;
+
+public class SortingContextWriterTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static final List<BulkIngestKey> written = new ArrayList<>();
+
+    private Configuration conf;
+    private StandaloneStatusReporter reporter;
+    private StandaloneTaskAttemptContext<?,?,BulkIngestKey,Value> context;
+    private File spillDir;
+
+    /**
+     * Records the order in which entries are written
+     */
+    public static class OrderedContextWriter implements ContextWriter<BulkIngestKey,Value> {
+        @Override
+        public void setup(Configuration conf, boolean outputTableCounters) {}
+
+        @Override
+        public void write(BulkIngestKey key, Value value, TaskInputOutputContext<?,?,BulkIngestKey,Value> context) {
+            written.add(key);
+        }
+
+        @Override
+        public void write(Multimap<BulkIngestKey,Value> entries, TaskInputOutputContext<?,?,BulkIngestKey,Value> context) {
+            written.addAll(entries.keys());
+        }
+
+        @Override
+        public void commit(TaskInputOutputContext<?,?,BulkIngestKey,Value> context) {}
+
+        @Override
+        public void rollback() {}
+
+        @Override
+        public void cleanup(TaskInputOutputContext<?,?,BulkIngestKey,Value> context) {}
+    }
+
+    /**
+     * A sorting context writer whose reducer doesn't need the table configurations
+     */
+    private static class TestSortingContextWriter extends SortingContextWriter<BulkIngestKey,Value> {
+        @Override
+        protected BulkIngestKeyAggregatingReducer<BulkIngestKey,Value> createReducer() {
+            return new BulkIngestKeyAggregatingReducer<BulkIngestKey,Value>() {
+                @Override
+                public void setup(Configuration conf) throws IOException {
+                    setupContextWriter(conf);
+                }
+            };
+        }
+    }
+
+    @Before
+    public void setup() throws Exception {
+        written.clear();
+        spillDir = temporaryFolder.newFolder();
+        conf = new Configuration();
+        conf.setInt(AbstractContextWriter.CONTEXT_WRITER_MAX_CACHE_SIZE, 10);
+        conf.set(SortingContextWriter.SORT_SPILL_DIR, spillDir.getPath());
+        conf.setClass(SortingContextWriter.CONTEXT_WRITER_CLASS, OrderedContextWriter.class, ContextWriter.class);
+        reporter = new StandaloneStatusReporter();
+        context = new StandaloneTaskAttemptContext<>(conf, reporter);
+    }
+
+    private List<BulkIngestKey> writeShuffled(SortingContextWriter<BulkIngestKey,Value> writer, int rows) throws Exception {
+        List<BulkIngestKey> keys = new ArrayList<>();
+        for (String table : new String[] {"shard", "shardIndex"}) {
+            for (int i = 0; i < rows; i++) {
+                BulkIngestKey key = new BulkIngestKey(new Text(table), new Key(String.format("row%04d", i), "cf", "cq"));
+                keys.add(key);
+                // every tenth key is written twice
+                if (i % 10 == 0) {
+                    keys.add(new BulkIngestKey(new Text(table), new Key(String.format("row%04d", i), "cf", "cq")));
+                }
+            }
+        }
+        Collections.shuffle(keys, new Random(42));
+
+        int count = 0;
+        for (BulkIngestKey key : keys) {
+            writer.write(key, new Value(key.getKey().getRow().toString().getBytes()), context);
+            if (++count % 7 == 0) {
+                writer.commit(context);
+            }
+        }
+        writer.cleanup(context);
+        return keys;
+    }
+
+    private void assertSortedAndDeduped(List<BulkIngestKey> keys) {
+        List<BulkIngestKey> expected = new ArrayList<>(new TreeSet<>(keys));
+        assertEquals(expected, written);
+        assertEquals(keys.size() - expected.size(), reporter.getCounters().findCounter(IngestOutput.DUPLICATE_KEY).getValue());
+    }
+
+    @Test
+    public void testSortInMemory() throws Exception {
+        SortingContextWriter<BulkIngestKey,Value> writer = new TestSortingContextWriter();
+        writer.setup(conf, false);
+        assertSortedAndDeduped(writeShuffled(writer, 100));
+        assertEquals(0, reporter.getCounters().findCounter(SortingContextWriter.SPILL_COUNTER, TestSortingContextWriter.class.getSimpleName()).getValue());
+    }
+
+    @Test
+    public void testSortWithSpills() throws Exception {
+        conf.setLong(SortingContextWriter.SORT_BUFFER_BYTES, 4096);
+        SortingContextWriter<BulkIngestKey,Value> writer = new TestSortingContextWriter();
+        writer.setup(conf, false);
+        assertSortedAndDeduped(writeShuffled(writer, 500));
+        assertTrue(reporter.getCounters().findCounter(SortingContextWriter.SPILL_COUNTER, TestSortingContextWriter.class.getSimpleName()).getValue() > 1);
+
+        // the spills are removed once they are merged
+        assertEquals(0, spillDir.list().length);
+    }
+
+    @Test
+    public void testRollback() throws Exception {
+        SortingContextWriter<BulkIngestKey,Value> writer = new TestSortingContextWriter();
+        writer.setup(conf, false);
+        BulkIngestKey kept = new BulkIngestKey(new Text("shard"), new Key("b"));
+        writer.write(kept, new Value(), context);
+        writer.commit(context);
+        writer.write(new BulkIngestKey(new Text("shard"), new Key("a")), new Value(), context);
+        writer.rollback();
+        writer.cleanup(context);
+        assertEquals(Collections.singletonList(kept), written);
+    }
+}
@@ -0,0 +1,182 @@
+package datawave.ingest.mapreduce.job.writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+
+import datawave.ingest.data.config.ingest.AccumuloHelper;
+import datawave.ingest.mapreduce.StandaloneStatusReporter;
+import datawave.ingest.mapreduce.StandaloneTaskAttemptContext;
+import datawave.ingest.mapreduce.job.BulkIngestKey;
+import datawave.ingest.mapreduce.job.reduce.BulkIngestKeyDedupeCombiner;
+
+public class TableCachingContextWriterTest {
+
+    private static final Text CACHED_TABLE = new Text("shardIndex");
+    private static final Text TABLE = new Text("shard");
+
+    private static final Multimap<BulkIngestKey,Value> written = ArrayListMultimap.create();
+
+    private StandaloneStatusReporter reporter;
+    private StandaloneTaskAttemptContext<?,?,BulkIngestKey,Value> context;
+    private TableCachingContextWriter writer;
+
+    /**
+     * Records the entries which are passed on by the caching context writer
+     */
+    public static class RecordingContextWriter implements ContextWriter<BulkIngestKey,Value> {
+        @Override
+        public void setup(Configuration conf, boolean outputTableCounters) {}
+
+        @Override
+        public void write(BulkIngestKey key, Value value, TaskInputOutputContext<?,?,BulkIngestKey,Value> context) {
+            written.put(key, value);
+        }
+
+        @Override
+        public void write(Multimap<BulkIngestKey,Value> entries, TaskInputOutputContext<?,?,BulkIngestKey,Value> context) {
+            written.putAll(entries);
+        }
+
+        @Override
+        public void commit(TaskInputOutputContext<?,?,BulkIngestKey,Value> context) {}
+
+        @Override
+        public void rollback() {}
+
+        @Override
+        public void cleanup(TaskInputOutputContext<?,?,BulkIngestKey,Value> context) {}
+    }
+
+    @Before
+    public void setup() throws Exception {
+        written.clear();
+        Configuration conf = createConf();
+        conf.setInt(CACHED_TABLE + TableCachingContextWriter.TABLES_TO_CACHE_SUFFIX, 4);
+        reporter = new StandaloneStatusReporter();
+        context = new StandaloneTaskAttemptContext<>(conf, reporter);
+        writer = new TableCachingContextWriter();
+        writer.setup(conf, false);
+    }
+
+    private static Configuration createConf() {
+        Configuration conf = new Configuration();
+        conf.set(AccumuloHelper.USERNAME, "root");
+        conf.set(AccumuloHelper.PASSWORD, Base64.encodeBase64String("secret".getBytes()));
+        conf.set(AccumuloHelper.INSTANCE_NAME, "instance");
+        conf.set(AccumuloHelper.ZOOKEEPERS, "localhost");
+        conf.setBoolean(BulkIngestKeyDedupeCombiner.USING_COMBINER, true);
+        conf.setClass(TableCachingContextWriter.CONTEXT_WRITER_CLASS, RecordingContextWriter.class, ContextWriter.class);
+        return conf;
+    }
+
+    private void write(Text table, String row) throws Exception {
+        writer.write(new BulkIngestKey(table, new Key(row, "cf", "cq")), new Value("1"), context);
+    }
+
+    private Set<String> writtenRows() {
+        return written.keySet().stream().map(k -> k.getKey().getRow().toString()).collect(Collectors.toSet());
+    }
+
+    private long counter(String group) {
+        return reporter.getCounters().findCounter(group, CACHED_TABLE.toString()).getValue();
+    }
+
+    @Test
+    public void testFlushOnceFull() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            write(CACHED_TABLE, "row" + i);
+        }
+        writer.commit(context);
+        assertTrue(written.isEmpty());
+
+        write(CACHED_TABLE, "row3");
+        writer.commit(context);
+        assertEquals(Set.of("row0", "row1", "row2", "row3"), writtenRows());
+        assertEquals(1, counter(TableCachingContextWriter.FLUSHED_BUFFER_COUNTER));
+        assertEquals(4, counter(TableCachingContextWriter.FLUSHED_BUFFER_TOTAL));
+
+        writer.cleanup(context);
+        assertEquals(4, written.size());
+    }
+
+    @Test
+    public void testAggregatedKeysAreRetained() throws Exception {
+        write(CACHED_TABLE, "common");
+        write(TABLE, "event");
+        writer.commit(context);
+        // entries of tables which are not cached pass straight through
+        assertEquals(Set.of("event"), writtenRows());
+
+        write(CACHED_TABLE, "common");
+        write(CACHED_TABLE, "row0");
+        writer.commit(context);
+        write(CACHED_TABLE, "row1");
+        write(CACHED_TABLE, "row2");
+        writer.commit(context);
+
+        // the recurring key stays in the cache to be aggregated further
+        assertEquals(Set.of("event", "row0", "row1", "row2"), writtenRows());
+        assertEquals(1, counter(TableCachingContextWriter.FLUSHED_BUFFER_COUNTER));
+        assertEquals(3, counter(TableCachingContextWriter.FLUSHED_BUFFER_TOTAL));
+        assertEquals(1, counter(TableCachingContextWriter.RETAINED_BUFFER_TOTAL));
+
+        write(CACHED_TABLE, "common");
+        writer.cleanup(context);
+        assertEquals(Set.of("event", "row0", "row1", "row2", "common"), writtenRows());
+        assertEquals(1, written.get(new BulkIngestKey(CACHED_TABLE, new Key("common", "cf", "cq"))).size());
+    }
+
+    @Test
+    public void testConfigurationIsNotShared() throws Exception {
+        // another writer which only caches the other table by bytes
+        Configuration conf = createConf();
+        conf.setLong(TABLE + TableCachingContextWriter.TABLES_TO_CACHE_BYTES_SUFFIX, 1024 * 1024);
+        TableCachingContextWriter other = new TableCachingContextWriter();
+        other.setup(conf, false);
+
+        other.write(new BulkIngestKey(CACHED_TABLE, new Key("passed", "cf", "cq")), new Value("1"), context);
+        other.write(new BulkIngestKey(TABLE, new Key("cached", "cf", "cq")), new Value("1"), context);
+        other.commit(context);
+        assertEquals(Set.of("passed"), writtenRows());
+
+        // the first writer is unaffected by the configuration of the other
+        write(TABLE, "event");
+        writer.commit(context);
+        assertEquals(Set.of("passed", "event"), writtenRows());
+
+        // once reconfigured, the other writer no longer caches a table which is absent from its new configuration
+        other.cleanup(context);
+        written.clear();
+        other.setup(createConf(), false);
+        other.write(new BulkIngestKey(TABLE, new Key("uncached", "cf", "cq")), new Value("1"), context);
+        other.commit(context);
+        assertEquals(Set.of("uncached"), writtenRows());
+    }
+
+    @Test
+    public void testRollback() throws Exception {
+        write(CACHED_TABLE, "kept");
+        writer.commit(context);
+        write(CACHED_TABLE, "dropped");
+        write(TABLE, "dropped");
+        writer.rollback();
+        writer.cleanup(context);
+        assertEquals(Set.of("kept"), writtenRows());
+        assertEquals(1, written.size());
+    }
+}
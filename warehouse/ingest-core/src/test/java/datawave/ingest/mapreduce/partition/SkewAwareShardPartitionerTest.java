@@ -0,0 +1,151 @@
+package datawave.ingest.mapreduce.partition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import datawave.ingest.mapreduce.handler.shard.ShardIdFactory;
+import datawave.ingest.mapreduce.handler.shard.ShardedDataTypeHandler;
+import datawave.ingest.mapreduce.job.BulkIngestKey;
+import datawave.ingest.mapreduce.job.TableSplitsCache;
+import datawave.util.TableName;
+
+public class SkewAwareShardPartitionerTest {
+    private static final int NUM_REDUCE_TASKS = 3;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Configuration conf;
+    private Map<Text,String> locations;
+
+    @Before
+    public void setUp() throws IOException {
+        conf = new Configuration();
+        TableSplitsCache.getCurrentCache(conf).clear();
+        conf.setInt(ShardIdFactory.NUM_SHARDS, 6);
+        conf.setBoolean(TableSplitsCache.REFRESH_SPLITS, false);
+        conf.set(ShardedDataTypeHandler.SHARDED_TNAMES, TableName.SHARD);
+
+        locations = new HashMap<>();
+        locations.put(new Text("20240101_0"), "tserver1");
+        locations.put(new Text("20240101_1"), "tserver1");
+        locations.put(new Text("20240101_2"), "tserver2");
+        locations.put(new Text("20240101_3"), "tserver2");
+        locations.put(new Text("20240101_4"), "tserver3");
+        locations.put(new Text("20240101_5"), "tserver3");
+        new TestShardGenerator(conf, temporaryFolder.newFolder(), locations, TableName.SHARD);
+    }
+
+    private ShardVolumeStatistics hotShardStatistics() {
+        ShardVolumeStatistics statistics = new ShardVolumeStatistics();
+        statistics.add(TableName.SHARD, "20240101_0", 1000);
+        for (int i = 1; i < 6; i++) {
+            statistics.add(TableName.SHARD, "20240101_" + i, 100);
+        }
+        return statistics;
+    }
+
+    @Test
+    public void testHotShardGetsItsOwnPartition() {
+        Map<String,Map<Text,String>> locationsByTable = new HashMap<>();
+        locationsByTable.put(TableName.SHARD, locations);
+
+        Map<String,Integer> partitions = new HashMap<>();
+        long[] loads = new long[NUM_REDUCE_TASKS];
+        List<SkewAwareShardPartitioner.Shard> shards = SkewAwareShardPartitioner.assign(hotShardStatistics(), locationsByTable, NUM_REDUCE_TASKS, 0.1f);
+        for (SkewAwareShardPartitioner.Shard shard : shards) {
+            partitions.put(shard.shardId, shard.partition);
+            loads[shard.partition] += shard.bytes;
+        }
+
+        // the hot shard is alone, and the rest are kept with their tablet servers
+        int hot = partitions.get("20240101_0");
+        for (int i = 1; i < 6; i++) {
+            assertNotEquals(hot, (int) partitions.get("20240101_" + i));
+        }
+        assertEquals(1000, loads[hot]);
+        assertEquals(partitions.get("20240101_2"), partitions.get("20240101_3"));
+        assertEquals(partitions.get("20240101_4"), partitions.get("20240101_5"));
+
+        // the assignments are deterministic
+        List<SkewAwareShardPartitioner.Shard> again = SkewAwareShardPartitioner.assign(hotShardStatistics(), locationsByTable, NUM_REDUCE_TASKS, 0.1f);
+        for (int i = 0; i < shards.size(); i++) {
+            assertEquals(shards.get(i).shardId, again.get(i).shardId);
+            assertEquals(shards.get(i).partition, again.get(i).partition);
+        }
+    }
+
+    @Test
+    public void testStatisticsRoundTrip() throws IOException {
+        File directory = temporaryFolder.newFolder();
+        FileSystem fs = FileSystem.getLocal(conf);
+        ShardVolumeStatistics first = new ShardVolumeStatistics();
+        first.add(TableName.SHARD, "20240101_0", 10);
+        first.add(TableName.SHARD_INDEX, "20240101_0", 5);
+        first.write(fs, new Path(directory.getPath(), "part-r-00000"));
+        ShardVolumeStatistics second = new ShardVolumeStatistics();
+        second.add(TableName.SHARD, "20240101_0", 7);
+        second.write(fs, new Path(directory.getPath(), "part-r-00001"));
+        fs.create(new Path(directory.getPath(), "_SUCCESS")).close();
+
+        ShardVolumeStatistics statistics = ShardVolumeStatistics.read(fs, new Path(directory.getPath()));
+        assertEquals(17, statistics.getVolume(TableName.SHARD, "20240101_0"));
+        assertEquals(5, statistics.getVolume(TableName.SHARD_INDEX, "20240101_0"));
+        assertEquals(0, statistics.getVolume(TableName.SHARD, "20240101_1"));
+    }
+
+    @Test
+    public void testPartitionerUsesPreviousStatistics() throws IOException {
+        File file = new File(temporaryFolder.newFolder(), "shard-volumes");
+        hotShardStatistics().write(FileSystem.getLocal(conf), new Path(file.getPath()));
+        conf.set(SkewAwareShardPartitioner.STATS_INPUT, file.getPath());
+
+        SkewAwareShardPartitioner partitioner = new SkewAwareShardPartitioner();
+        partitioner.setConf(conf);
+
+        int hot = getPartition(partitioner, "20240101_0");
+        for (int i = 1; i < 6; i++) {
+            assertNotEquals(hot, getPartition(partitioner, "20240101_" + i));
+        }
+        assertEquals(getPartition(partitioner, "20240101_2"), getPartition(partitioner, "20240101_3"));
+
+        // shards without statistics fall back to the balanced shard partitioner
+        int partition = getPartition(partitioner, "20240102_0");
+        assertTrue(partition >= 0 && partition < NUM_REDUCE_TASKS);
+    }
+
+    @Test
+    public void testPartitionerWithoutStatistics() {
+        SkewAwareShardPartitioner partitioner = new SkewAwareShardPartitioner();
+        partitioner.setConf(conf);
+
+        BalancedShardPartitioner balanced = new BalancedShardPartitioner();
+        balanced.setConf(conf);
+        for (int i = 0; i < 6; i++) {
+            BulkIngestKey key = new BulkIngestKey(new Text(TableName.SHARD), new Key("20240101_" + i));
+            assertEquals(balanced.getPartition(key, new Value(), NUM_REDUCE_TASKS), partitioner.getPartition(key, new Value(), NUM_REDUCE_TASKS));
+        }
+    }
+
+    private int getPartition(SkewAwareShardPartitioner partitioner, String shardId) {
+        return partitioner.getPartition(new BulkIngestKey(new Text(TableName.SHARD), new Key(shardId)), new Value(), NUM_REDUCE_TASKS);
+    }
+}
@@ -154,6 +154,35 @@ public class EventMetadataTest {
         assertContainsLoadDateTableEntry("FIELD_1", "FIELD_NAME" + DELIMITER + "shardIndex", "20140404" + DELIMITER + "xyzabc", encodeCount(2L));
     }
 
+    /**
+     * Test the sketches written for an indexed field.
+     */
+    @Test
+    public void testFieldSketches() throws Exception {
+        // Configure the helper interface.
+        IngestHelper helper = createIngestHelper();
+        helper.addDataType("FIELD_1", new IdentityDataType());
+        helper.addIndexedField("FIELD_1");
+
+        // Init the event metadata with sketches and add the events.
+        initEventMetadata();
+        eventMetadata.setWriteFieldSketches(true);
+        long eventDate = getMillis("20140402");
+        givenFieldValue("FIELD_1", "HEY");
+        eventMetadata.addEvent(helper, createMockEvent("xyzabc", eventDate, helper), fieldValues);
+        givenFieldValue("FIELD_1", "HO");
+        eventMetadata.addEvent(helper, createMockEvent("xyzabc", eventDate, helper), fieldValues);
+
+        // Validate the resulting sketch.
+        collectBulkEntries();
+        BulkIngestKey sketchKey = createBulkIngestKey(METADATA_TABLE_NAME, "FIELD_1", "fs", "xyzabc" + DELIMITER + "20140402", eventDate);
+        assertEquals(1, bulkMetadata.get(sketchKey).size());
+        FieldSketch sketch = FieldSketch.fromValue(bulkMetadata.get(sketchKey).iterator().next());
+        assertEquals(2, sketch.getCardinality());
+        assertEquals(Long.valueOf(2), sketch.getTopValues(1).get("HEY"));
+        assertEquals(Long.valueOf(1), sketch.getTopValues(2).get("HO"));
+    }
+
     /**
      * Test ingesting an event for a reverse indexed field.
      */
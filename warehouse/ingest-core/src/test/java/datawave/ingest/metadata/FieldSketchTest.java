@@ -0,0 +1,70 @@
+package datawave.ingest.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.junit.Test;
+
+import datawave.iterators.FieldSketchCombiner;
+
+public class FieldSketchTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        FieldSketch sketch = new FieldSketch();
+        for (int i = 0; i < 1000; i++) {
+            sketch.offer("value" + (i % 50));
+        }
+        sketch.offer("value0");
+
+        FieldSketch copy = FieldSketch.fromValue(sketch.toValue());
+        assertEquals(sketch.getCardinality(), copy.getCardinality());
+        assertEquals(50, copy.getCardinality());
+        Map<String,Long> topValues = copy.getTopValues(1);
+        assertEquals(Long.valueOf(21), topValues.get("value0"));
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        FieldSketch first = new FieldSketch();
+        FieldSketch second = new FieldSketch();
+        for (int i = 0; i < 500; i++) {
+            first.offer("a" + i);
+            second.offer("b" + i);
+        }
+        for (int i = 0; i < 10; i++) {
+            first.offer("hot");
+            second.offer("hot");
+        }
+
+        first.merge(second);
+        assertEquals(1001, first.getCardinality(), 20);
+        assertEquals("hot", first.getTopValues(1).keySet().iterator().next());
+        assertTrue(first.getTopValues(1).get("hot") >= 20);
+    }
+
+    @Test
+    public void testCombiner() throws Exception {
+        FieldSketch first = new FieldSketch();
+        first.offer("x");
+        first.offer("y");
+        FieldSketch second = new FieldSketch();
+        second.offer("y");
+        second.offer("z");
+
+        Iterator<Value> values = Arrays.asList(first.toValue(), new Value("garbage".getBytes()), second.toValue()).iterator();
+        FieldSketch combined = FieldSketch.fromValue(new FieldSketchCombiner().reduce(new Key("FIELD"), values));
+        assertEquals(3, combined.getCardinality());
+        assertEquals(Long.valueOf(2), combined.getTopValues(1).get("y"));
+
+        // a single sketch is returned as is
+        Value single = first.toValue();
+        assertEquals(single, new FieldSketchCombiner().reduce(new Key("FIELD"), Arrays.asList(single).iterator()));
+    }
+}
@@ -97,6 +97,31 @@ public class ShardKeyFunctorTest {
                         ShardKeyFunctor.isRangeInBloomFilter(new Range(cbKey1, true, cbKey2, false)));
     }
 
+    @Test
+    public void testIsRangeWithinFieldValueInBloomFilter() {
+        org.apache.accumulo.core.data.Key start = new org.apache.accumulo.core.data.Key("row", "fi\0FIELD", "value\0");
+        org.apache.accumulo.core.data.Key end = new org.apache.accumulo.core.data.Key("row", "fi\0FIELD", "value\0\uffff");
+        Assert.assertTrue("a single field value in a single row should be in bloom filter", ShardKeyFunctor.isRangeInBloomFilter(new Range(start, end)));
+        Assert.assertEquals(functor.transform(new org.apache.accumulo.core.data.Key("row", "fi\0FIELD", "value\0datatype\0uid")),
+                        functor.transform(new Range(start, end)));
+
+        start = new org.apache.accumulo.core.data.Key("row", "fi\0FIELD", "value\0datatype\0uid1");
+        end = new org.apache.accumulo.core.data.Key("row", "fi\0FIELD", "value\0datatype\0uid9");
+        Assert.assertTrue("documents of a single field value should be in bloom filter", ShardKeyFunctor.isRangeInBloomFilter(new Range(start, end)));
+
+        end = new org.apache.accumulo.core.data.Key("row", "fi\0FIELD", "value2\0");
+        Assert.assertFalse("different field values should not be in bloom filter", ShardKeyFunctor.isRangeInBloomFilter(new Range(start, end)));
+
+        end = new org.apache.accumulo.core.data.Key("row", "fi\0FIELD", "value\1");
+        Assert.assertFalse("a value without a null terminator should not be in bloom filter", ShardKeyFunctor.isRangeInBloomFilter(new Range(start, end)));
+
+        end = new org.apache.accumulo.core.data.Key("row2", "fi\0FIELD", "value\0\uffff");
+        Assert.assertFalse("different rows should not be in bloom filter", ShardKeyFunctor.isRangeInBloomFilter(new Range(start, end)));
+
+        end = new org.apache.accumulo.core.data.Key("row", "fi\0FIELD2", "value\0\uffff");
+        Assert.assertFalse("different fields should not be in bloom filter", ShardKeyFunctor.isRangeInBloomFilter(new Range(start, end)));
+    }
+
     @Test
     public void testTransformRange() {
         // key should only be in bloom filter if it is a field index column (cf = 'fi\x00'...) and
@@ -0,0 +1,129 @@
+package datawave.util.flag;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IncrementalFileTrackerTest extends AbstractFlagConfig {
+
+    private static final String INDEX = "target/test/fileTrackerIndex";
+
+    private FileSystem fs;
+    private String pattern;
+    private File dayDir;
+    private long aged;
+
+    @Before
+    public void setUp() throws Exception {
+        fmc = getDefaultFMC();
+        cleanTestDirs();
+        new File(INDEX).delete();
+        fs = FileSystem.getLocal(new Configuration());
+        pattern = fmc.getBaseHDFSDir() + "/foo/" + fmc.getFilePatterns().get(0);
+        createTestFiles(2, 3);
+        dayDir = new File(fmc.getBaseHDFSDir(), "foo/2013/01/01");
+        aged = System.currentTimeMillis() - 10000;
+        age();
+    }
+
+    @Test
+    public void testUnchangedDirectoriesAreNotListed() throws Exception {
+        IncrementalFileTracker tracker = new IncrementalFileTracker(null);
+        Set<Path> expected = glob();
+        assertEquals(6, expected.size());
+        assertEquals(expected, paths(tracker.listFiles(fs, pattern)));
+
+        // a file removed without changing the directory modification time is still reported from the last listing
+        File removed = dayDir.listFiles()[0];
+        assertTrue(removed.delete());
+        age();
+        assertEquals(expected, paths(tracker.listFiles(fs, pattern)));
+    }
+
+    @Test
+    public void testChangedDirectoriesAreListed() throws Exception {
+        IncrementalFileTracker tracker = new IncrementalFileTracker(null);
+        tracker.listFiles(fs, pattern);
+
+        assertTrue(new File(dayDir, "added").createNewFile());
+        assertTrue(dayDir.setLastModified(System.currentTimeMillis() - 5000));
+        Set<Path> found = paths(tracker.listFiles(fs, pattern));
+        assertEquals(glob(), found);
+        assertEquals(7, found.size());
+
+        // ignored files and removed directories are dropped
+        assertTrue(new File(dayDir, "_ignored").createNewFile());
+        for (File file : new File(fmc.getBaseHDFSDir(), "foo/2013/01/02").listFiles()) {
+            assertTrue(file.delete());
+        }
+        assertTrue(new File(fmc.getBaseHDFSDir(), "foo/2013/01/02").delete());
+        found = paths(tracker.listFiles(fs, pattern));
+        assertEquals(glob(), found);
+        assertEquals(4, found.size());
+    }
+
+    @Test
+    public void testIndexIsSaved() throws Exception {
+        IncrementalFileTracker tracker = new IncrementalFileTracker(new File(INDEX));
+        Collection<FileStatus> listed = tracker.listFiles(fs, pattern);
+        tracker.save();
+        assertTrue(new File(INDEX).exists());
+
+        File removed = dayDir.listFiles()[0];
+        assertTrue(removed.delete());
+        age();
+
+        IncrementalFileTracker restarted = new IncrementalFileTracker(new File(INDEX));
+        Collection<FileStatus> reloaded = restarted.listFiles(fs, pattern);
+        assertEquals(paths(listed), paths(reloaded));
+        for (FileStatus status : reloaded) {
+            FileStatus original = listed.stream().filter(s -> s.getPath().equals(status.getPath())).findFirst().get();
+            assertEquals(original.getLen(), status.getLen());
+            assertEquals(original.getModificationTime(), status.getModificationTime());
+            assertEquals(original.getBlockSize(), status.getBlockSize());
+            assertFalse(status.isDirectory());
+        }
+    }
+
+    @Test
+    public void testUnreadableIndexIsIgnored() throws Exception {
+        new File(INDEX).getParentFile().mkdirs();
+        Files.write(new File(INDEX).toPath(), "bogus".getBytes());
+        IncrementalFileTracker tracker = new IncrementalFileTracker(new File(INDEX));
+        assertEquals(glob(), paths(tracker.listFiles(fs, pattern)));
+    }
+
+    /**
+     * Backdate the day directories, always to the same time, so that their listings are trusted
+     */
+    private void age() throws IOException {
+        for (File day : new File(fmc.getBaseHDFSDir(), "foo/2013/01").listFiles()) {
+            if (!day.setLastModified(aged)) {
+                throw new IOException("unable to set modification time of " + day);
+            }
+        }
+    }
+
+    private Set<Path> glob() throws IOException {
+        return paths(Arrays.asList(fs.globStatus(new Path(pattern))));
+    }
+
+    private static Set<Path> paths(Collection<FileStatus> files) {
+        return files.stream().map(FileStatus::getPath).collect(Collectors.toSet());
+    }
+}
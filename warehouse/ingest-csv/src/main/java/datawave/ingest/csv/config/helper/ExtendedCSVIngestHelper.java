@@ -5,16 +5,14 @@ import java.util.Map.Entry;
 import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang.text.StrMatcher;
-import org.apache.commons.lang.text.StrTokenizer;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.log4j.Logger;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 
-import datawave.data.type.Type;
 import datawave.ingest.data.RawRecordContainer;
+import datawave.ingest.data.config.CSVFieldParser;
 import datawave.ingest.data.config.CSVHelper;
 import datawave.ingest.data.config.NormalizedContentInterface;
 import datawave.ingest.data.config.NormalizedFieldAndValue;
@@ -124,9 +122,8 @@ public class ExtendedCSVIngestHelper extends CSVIngestHelper {
     public Set<NormalizedContentInterface> normalize(NormalizedContentInterface nci) {
 
         // normalize the event field value as required
-        Type<?> n = eventFieldNormalizerHelper.getType(nci.getEventFieldName());
         try {
-            nci.setEventFieldValue(n.normalize(nci.getEventFieldValue()));
+            nci.setEventFieldValue(eventFieldNormalizerHelper.normalize(nci.getEventFieldName(), nci.getEventFieldValue()));
 
             // copy the new value into the indexed value for further normalization
             nci.setIndexedFieldValue(nci.getEventFieldValue());
@@ -140,33 +137,21 @@ public class ExtendedCSVIngestHelper extends CSVIngestHelper {
     }
 
     @Override
-    protected StrTokenizer configureTokenizer(StrTokenizer tokenizer) {
-        // Remove the trim matcher, trim in preProcessRawData instead so
+    protected CSVFieldParser configureParser(CSVFieldParser parser) {
+        // Remove the trimming, trim in getRawDataOffset instead so
         // we don't lost any trailing whitespace on the last metadata pair
         // on the record
-        return tokenizer.setTrimmerMatcher(StrMatcher.noneMatcher());
+        return parser.setTrimWhitespace(false);
     }
 
     @Override
-    protected String preProcessRawData(byte[] data) {
-        String buf = new String(data);
-
-        // Need to make sure we're operating on chars in case
-        // we're manipulating multi-byte characters
-        char[] chars = buf.toCharArray();
-
-        // Trim all initial whitespace by skipping
+    protected int getRawDataOffset(byte[] data) {
+        // Trim all initial whitespace by skipping. Whitespace is never
+        // part of a multi-byte character, so the bytes may be checked
         int index = 0;
-        while (index < chars.length && chars[index] <= 32) {
+        while (index < data.length && (data[index] & 0xff) <= 32) {
             index++;
         }
-
-        // If we trimmed the front, return a new String
-        if (index > 0) {
-            return new String(chars, index, chars.length - index);
-        } else {
-            // Otherwise, we don't have to
-            return buf;
-        }
+        return index;
     }
 }
@@ -1,10 +1,10 @@
 package datawave.ingest.csv.mr.input;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.apache.commons.lang.StringEscapeUtils;
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang.text.StrTokenizer;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.mapreduce.InputSplit;
@@ -16,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import datawave.data.hash.UID;
 import datawave.ingest.data.RawDataErrorNames;
 import datawave.ingest.data.RawRecordContainer;
+import datawave.ingest.data.config.CSVFieldParser;
 import datawave.ingest.data.config.CSVHelper;
 import datawave.ingest.input.reader.EventRecordReader;
 import datawave.ingest.input.reader.LongLineEventRecordReader;
@@ -55,9 +56,9 @@ public class CSVReaderBase extends LongLineEventRecordReader implements EventRec
     private CSVHelper csvHelper;
 
     /**
-     * Splits raw input records Strings according to the configured separator.
+     * Splits raw input records according to the configured separator.
      */
-    private StrTokenizer _tokenizer;
+    private CSVFieldParser parser;
 
     /**
      * Super class returns the position in bytes in the file as the key. This returns the record number.
@@ -118,11 +119,11 @@ public class CSVReaderBase extends LongLineEventRecordReader implements EventRec
     public void initializeEvent(Configuration conf) throws IOException {
         super.initializeEvent(conf);
         setCsvHelper((CSVHelper) helper);
-        initializeTokenizer();
+        initializeParser();
     }
 
-    public void initializeTokenizer() {
-        _tokenizer = createTokenizer();
+    public void initializeParser() {
+        parser = new CSVFieldParser(csvHelper.getSeparator());
     }
 
     /**
@@ -150,10 +151,8 @@ public class CSVReaderBase extends LongLineEventRecordReader implements EventRec
 
         processedSize += value.getLength();
 
-        final String rawEventRecordStr = value.toString();
-        _tokenizer.reset(rawEventRecordStr);
-
-        final String[] rawEventFields = _tokenizer.getTokenArray();
+        // only the offsets of the fields are found here, the Strings are created as each field is processed
+        final int rawEventFields = parser.parse(value.getBytes(), 0, value.getLength());
         final String[] header = csvHelper.getHeader();
 
         // If the event date field name is not specified in the configuration, then set the event date to the file modification time.
@@ -161,12 +160,15 @@ public class CSVReaderBase extends LongLineEventRecordReader implements EventRec
             event.setDate(fileModificationTime);
 
         // We still try to process the event record.
-        final int fields = Math.min(rawEventFields.length, header.length);
+        final int fields = Math.min(rawEventFields, header.length);
         String field, fieldName;
         int i;
 
         for (i = 0; i < fields; i++) {
-            field = StringEscapeUtils.unescapeCsv(rawEventFields[i]);
+            field = parser.getField(i);
+            if (field == null)
+                continue;
+            field = StringEscapeUtils.unescapeCsv(field);
             fieldName = header[i];
 
             field = csvHelper.clean(fieldName, field);
@@ -175,9 +177,9 @@ public class CSVReaderBase extends LongLineEventRecordReader implements EventRec
         }
 
         // Check to see if we have data beyond the header specification that should be processed. This is the case for the CSV logs
-        if (csvHelper.processExtraFields() && rawEventFields.length > header.length) {
-            while (i < rawEventFields.length) {
-                processExtraField(rawEventFields[i]);
+        if (csvHelper.processExtraFields() && rawEventFields > header.length) {
+            while (i < rawEventFields) {
+                processExtraField(parser.getField(i));
                 i++;
             }
         }
@@ -185,7 +187,7 @@ public class CSVReaderBase extends LongLineEventRecordReader implements EventRec
         // decorate with additional data (used by overriding classes)
         decorateEvent();
 
-        event.setRawData(rawEventRecordStr.getBytes());
+        event.setRawData(value.copyBytes());
 
         // Check to see if we need to override the UID. The use case for this is that some of the hashes are "enrichment" and the same
         // values will be loaded over and over again. By default, the UID is calculated on the raw byte[]
@@ -198,12 +200,12 @@ public class CSVReaderBase extends LongLineEventRecordReader implements EventRec
 
         enforcePolicy(event);
 
-        if (header.length > rawEventFields.length) {
+        if (header.length > rawEventFields) {
             event.addError(RawDataErrorNames.NOT_ENOUGH_FIELDS);
-            log.error("More fields in header than in data. Header fields: {}, data fields: {}", header.length, rawEventFields.length);
-        } else if ((!csvHelper.processExtraFields()) && (header.length < rawEventFields.length)) {
+            log.error("More fields in header than in data. Header fields: {}, data fields: {}", header.length, rawEventFields);
+        } else if ((!csvHelper.processExtraFields()) && (header.length < rawEventFields)) {
             event.addError(RawDataErrorNames.TOO_MANY_FIELDS);
-            log.error("More fields in data than in header. Header fields: {}, data fields: {}", header.length, rawEventFields.length);
+            log.error("More fields in data than in header. Header fields: {}, data fields: {}", header.length, rawEventFields);
         }
 
         return event;
@@ -224,29 +226,6 @@ public class CSVReaderBase extends LongLineEventRecordReader implements EventRec
         }
     }
 
-    /**
-     * Creates a new StrTokenizer based on the configuration.
-     *
-     * @return a string tokenizer
-     */
-    private StrTokenizer createTokenizer() {
-        final StrTokenizer tokenizer;
-
-        if (csvHelper.getSeparator().equals(",")) {
-            tokenizer = StrTokenizer.getCSVInstance();
-        } else if (csvHelper.getSeparator().equals("\\t")) {
-            tokenizer = StrTokenizer.getTSVInstance();
-        } else {
-            tokenizer = new StrTokenizer();
-            tokenizer.setDelimiterString(csvHelper.getSeparator());
-        }
-
-        tokenizer.setIgnoreEmptyTokens(false);
-        tokenizer.setEmptyTokenAsNull(true);
-
-        return tokenizer;
-    }
-
     /**
      * Used to process extra fields. The PROCESS_EXTRA_FIELDS configuration parameter must be set to enable this processing.
      *
@@ -286,7 +265,7 @@ public class CSVReaderBase extends LongLineEventRecordReader implements EventRec
     protected void processPreSplitField(String fieldName, final String fieldValue) {
         if (csvHelper.isMultiValuedField(fieldName)) {
             // Value can be multiple parts, need to break on semi-colon
-            final String[] values = fieldValue.split(csvHelper.getEscapeSafeMultiValueSeparatorPattern());
+            final List<String> values = csvHelper.splitMultiValuedField(fieldValue);
 
             // Can be renamed if specified in multivalued fields, but not if using disallowlist
             if (!csvHelper.usingMultiValuedFieldsDisallowlist()) {
@@ -316,12 +295,12 @@ public class CSVReaderBase extends LongLineEventRecordReader implements EventRec
         return Math.min(1f, (float) processedSize / (float) totalSize);
     }
 
-    public StrTokenizer getTokenizer() {
-        return _tokenizer;
+    public CSVFieldParser getParser() {
+        return parser;
     }
 
-    public void setTokenizer(StrTokenizer _tokenizer) {
-        this._tokenizer = _tokenizer;
+    public void setParser(CSVFieldParser parser) {
+        this.parser = parser;
     }
 
     public CSVHelper getCsvHelper() {
@@ -1,5 +1,6 @@
 package datawave.ingest.csv.config.helper;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -8,9 +9,35 @@ import org.apache.hadoop.conf.Configuration;
 import org.junit.Test;
 
 import datawave.ingest.data.TypeRegistry;
+import datawave.ingest.data.config.CSVHelper;
 
 public class ExtendedCSVHelperTest {
 
+    private static Configuration createConf() {
+        Configuration conf = new Configuration();
+        conf.addResource(ExtendedCSVHelperTest.class.getClassLoader().getResource("config/ingest/all-config.xml"));
+        conf.addResource(ExtendedCSVHelperTest.class.getClassLoader().getResource("config/ingest/csv-ingest-config.xml"));
+        return conf;
+    }
+
+    @Test
+    public void testSplitMultiValuedField() {
+        for (String separator : new String[] {";", "::", "|"}) {
+            Configuration conf = createConf();
+            conf.set("mycsv" + CSVHelper.MULTI_VALUED_SEPARATOR, separator);
+            TypeRegistry.reset();
+            TypeRegistry.getInstance(conf);
+
+            ExtendedCSVHelper helper = new ExtendedCSVHelper();
+            helper.setup(conf);
+
+            for (String value : new String[] {"", "a", "a;b", ";a;;b;;", "a\\;b;c", "\\;", "a::b:::c\\::d::", "a|b\\|c||"}) {
+                assertArrayEquals(separator + " in " + value, value.split(helper.getEscapeSafeMultiValueSeparatorPattern()),
+                                helper.splitMultiValuedField(value).toArray());
+            }
+        }
+    }
+
     @Test
     public void testValidConfig() throws Exception {
         Configuration conf = new Configuration();
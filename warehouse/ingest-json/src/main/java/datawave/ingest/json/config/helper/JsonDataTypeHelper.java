@@ -22,17 +22,20 @@ public class JsonDataTypeHelper extends CSVHelper {
 
         String COLUMN_VISIBILITY_FIELD = ".data.category.marking.visibility.field";
         String FLATTENER_MODE = ".data.json.flattener.mode";
+        String NEWLINE_DELIMITED = ".data.json.newline.delimited";
 
     }
 
     protected String columnVisibilityField = null;
     protected FlattenMode jsonObjectFlattenMode = FlattenMode.NORMAL;
+    protected boolean newlineDelimited = false;
 
     @Override
     public void setup(Configuration config) throws IllegalArgumentException {
         super.setup(config);
         this.setJsonObjectFlattenModeByName(config.get(this.getType().typeName() + Properties.FLATTENER_MODE, FlattenMode.NORMAL.name()));
         this.setColumnVisibilityField(config.get(this.getType().typeName() + Properties.COLUMN_VISIBILITY_FIELD));
+        this.setNewlineDelimited(config.getBoolean(this.getType().typeName() + Properties.NEWLINE_DELIMITED, false));
     }
 
     public String getColumnVisibilityField() {
@@ -55,6 +58,17 @@ public class JsonDataTypeHelper extends CSVHelper {
         this.jsonObjectFlattenMode = mode;
     }
 
+    /**
+     * @return true if each line of the input holds a single json object, in which case the input may be split at any line boundary
+     */
+    public boolean isNewlineDelimited() {
+        return newlineDelimited;
+    }
+
+    public void setNewlineDelimited(boolean newlineDelimited) {
+        this.newlineDelimited = newlineDelimited;
+    }
+
     public JsonObjectFlattener newFlattener() {
 
         // Set flattener's allowlist and disallowlist according to current state of the helper
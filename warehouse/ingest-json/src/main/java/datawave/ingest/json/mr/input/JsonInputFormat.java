@@ -2,8 +2,10 @@ package datawave.ingest.json.mr.input;
 
 import java.io.IOException;
 
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
 import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.JobContext;
 import org.apache.hadoop.mapreduce.RecordReader;
@@ -11,12 +13,20 @@ import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
 
 import datawave.ingest.data.RawRecordContainer;
+import datawave.ingest.data.config.DataTypeHelper;
+import datawave.ingest.json.config.helper.JsonDataTypeHelper;
 
 public class JsonInputFormat extends SequenceFileInputFormat<LongWritable,RawRecordContainer> {
 
     @Override
     protected boolean isSplitable(JobContext context, Path filename) {
-        return false;
+        // Only newline delimited json may be split, as the objects of any other file may span the split boundaries
+        Configuration conf = context.getConfiguration();
+        String typeName = conf.get(DataTypeHelper.Properties.DATA_NAME_OVERRIDE, conf.get(DataTypeHelper.Properties.DATA_NAME));
+        if (typeName == null || !conf.getBoolean(typeName + JsonDataTypeHelper.Properties.NEWLINE_DELIMITED, false)) {
+            return false;
+        }
+        return new CompressionCodecFactory(conf).getCodec(filename) == null;
     }
 
     @Override
@@ -6,16 +6,20 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.apache.accumulo.core.security.ColumnVisibility;
 import org.apache.commons.collections4.IteratorUtils;
 import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.BytesWritable;
 import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.input.FileSplit;
@@ -24,15 +28,18 @@ import org.apache.log4j.Logger;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 
 import datawave.data.hash.UID;
+import datawave.ingest.data.RawDataErrorNames;
 import datawave.ingest.data.RawRecordContainer;
 import datawave.ingest.data.config.DataTypeHelper;
 import datawave.ingest.input.reader.AbstractEventRecordReader;
+import datawave.ingest.input.reader.LfLineReader;
 import datawave.ingest.json.config.helper.JsonDataTypeHelper;
 import datawave.ingest.json.config.helper.JsonIngestFlattener;
 import datawave.ingest.json.util.JsonObjectFlattener;
@@ -51,6 +58,11 @@ import datawave.ingest.json.util.JsonObjectFlattener;
  * </blockquote>
  *
  * <p>
+ * Json arrays are read one element at a time, so that only the current object is held in memory regardless of the size of the array. If the data type is
+ * configured as {@link JsonDataTypeHelper.Properties#NEWLINE_DELIMITED newline delimited}, each line holds a single object and the input may be split at any
+ * line boundary.
+ *
+ * <p>
  * For custom parsing requirements, extend this class and override the 'parseCurrentValue' method to suit your needs.
  */
 public class JsonRecordReader extends AbstractEventRecordReader<BytesWritable> {
@@ -72,6 +84,9 @@ public class JsonRecordReader extends AbstractEventRecordReader<BytesWritable> {
     protected Multimap<String,String> currentValue = HashMultimap.create();
     protected Iterator<JsonElement> jsonIterator;
     protected JsonReader reader;
+    protected LfLineReader lineReader;
+    protected final Text currentLine = new Text();
+    protected final JsonParser parser = new JsonParser();
     protected JsonElement currentJsonObj;
     protected boolean parseHeaderOnly = true;
     protected JsonDataTypeHelper jsonHelper = null;
@@ -79,8 +94,15 @@ public class JsonRecordReader extends AbstractEventRecordReader<BytesWritable> {
 
     @Override
     public synchronized void close() throws IOException {
-        reader.close();
-        countingInputStream.close();
+        if (reader != null) {
+            reader.close();
+        }
+        if (countingInputStream != null) {
+            countingInputStream.close();
+        }
+        if (lineReader != null) {
+            lineReader.close();
+        }
     }
 
     @Override
@@ -125,23 +147,27 @@ public class JsonRecordReader extends AbstractEventRecordReader<BytesWritable> {
         rawFileName = file.getName();
         fileURI = file.toUri();
         FileSystem fs = file.getFileSystem(context.getConfiguration());
-        InputStream is = fs.open(file);
+        FSDataInputStream is = fs.open(file);
         start = fsplit.getStart();
         end = start + fsplit.getLength();
         pos = start;
 
         String normURI = fileURI.getScheme() + "://" + fileURI.getPath();
 
-        setupReader(is);
-
-        if (logger.isInfoEnabled()) {
-            logger.info("Reading Json records from " + normURI + " via " + is.getClass().getName());
-        }
-
         jsonHelper = (JsonDataTypeHelper) createHelper(context.getConfiguration());
         this.parseHeaderOnly = !jsonHelper.processExtraFields();
         jsonFlattener = jsonHelper.newFlattener();
 
+        if (jsonHelper.isNewlineDelimited()) {
+            setupLineReader(is, compressionCodecs.getCodec(file), context.getConfiguration());
+        } else {
+            setupReader(is);
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info("Reading Json records from " + normURI + " via " + is.getClass().getName() + (lineReader != null ? " by line" : ""));
+        }
+
         if (logger.isInfoEnabled()) {
             logger.info("Json flattener mode: " + jsonFlattener.getFlattenMode().name());
         }
@@ -154,23 +180,95 @@ public class JsonRecordReader extends AbstractEventRecordReader<BytesWritable> {
         setupIterator(reader);
     }
 
+    /**
+     * Position the line reader at the first complete line of the split. The line which straddles the start of the split is read by the previous split.
+     *
+     * @param is
+     *            the input stream of the file
+     * @param codec
+     *            the compression codec of the file, if any
+     * @param conf
+     *            the configuration
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    protected void setupLineReader(FSDataInputStream is, CompressionCodec codec, Configuration conf) throws IOException {
+        if (codec != null) {
+            lineReader = new LfLineReader(codec.createInputStream(is), conf);
+            end = Long.MAX_VALUE;
+        } else {
+            boolean skipFirstLine = false;
+            if (start != 0) {
+                skipFirstLine = true;
+                --start;
+                is.seek(start);
+            }
+            lineReader = new LfLineReader(is, conf);
+            if (skipFirstLine) {
+                // the straddling line must be consumed in full, however far past the end of the split it runs
+                start += lineReader.readLine(new Text(), 0, Integer.MAX_VALUE);
+            }
+        }
+        pos = start;
+    }
+
     protected void setupIterator(JsonReader reader) {
-        JsonParser parser = new JsonParser();
-        JsonElement root = parser.parse(reader);
+        try {
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                // Currently positioned to read a set of objects, which are parsed one at a time
+                reader.beginArray();
+                jsonIterator = new JsonArrayIterator(reader);
+            } else {
+                // Currently positioned to read a single object
+                jsonIterator = IteratorUtils.singletonIterator(parser.parse(reader));
+            }
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
 
-        if (root.isJsonArray()) {
-            // Currently positioned to read a set of objects
-            jsonIterator = root.getAsJsonArray().iterator();
-        } else {
-            // Currently positioned to read a single object
-            jsonIterator = IteratorUtils.singletonIterator(root);
+    /**
+     * Read the next object from a newline delimited split, skipping blank lines
+     *
+     * @return the next object, or null once the end of the split is reached
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    protected JsonElement nextLine() throws IOException {
+        while (pos < end) {
+            // a line which starts within the split is read in full, even when it ends beyond the split
+            int size = lineReader.readLine(currentLine, Integer.MAX_VALUE, Integer.MAX_VALUE);
+            if (size == 0) {
+                break;
+            }
+            pos += size;
+            String line = currentLine.toString().trim();
+            if (!line.isEmpty()) {
+                return parser.parse(line);
+            }
         }
+        return null;
     }
 
     protected void parseCurrentValue(JsonObject jsonObject) {
         jsonFlattener.flatten(jsonObject, currentValue);
     }
 
+    /**
+     * Parse the element into the current value. Only objects can be flattened, so anything else is left without fields and flagged as invalid by
+     * {@link #getEvent()}.
+     *
+     * @param jsonElement
+     *            the element just read
+     */
+    protected void parseCurrentElement(JsonElement jsonElement) {
+        if (jsonElement.isJsonObject()) {
+            parseCurrentValue(jsonElement.getAsJsonObject());
+        } else {
+            logger.warn("Expected a json object in " + rawFileName + " but found: " + StringUtils.abbreviate(jsonElement.toString(), 100));
+        }
+    }
+
     @Override
     public boolean nextKeyValue() throws IOException {
 
@@ -179,7 +277,17 @@ public class JsonRecordReader extends AbstractEventRecordReader<BytesWritable> {
         currentValue.clear();
         counter++;
 
-        if (!jsonIterator.hasNext()) {
+        if (lineReader != null) {
+            JsonElement jsonElement = nextLine();
+            if (jsonElement == null) {
+                return false;
+            }
+            parseCurrentElement(jsonElement);
+            currentJsonObj = jsonElement;
+            return true;
+        }
+
+        while (!jsonIterator.hasNext()) {
             /*
              * Note that for streaming purposes we support files containing multiple distinct json objects concatenated together, where each object will
              * represent a distinct event/document in our shard table. For example, the file might look like the following...
@@ -187,7 +295,8 @@ public class JsonRecordReader extends AbstractEventRecordReader<BytesWritable> {
              * { "doc1": ... }{ "doc2": ... }...{ "docN": ... }
              *
              * As a whole, this would represent an invalid json document, but it is useful for streaming large numbers of objects in batch. Therefore, we simply
-             * check here to see if the reader has more objects to read, and if so we keep going
+             * check here to see if the reader has more objects to read, and if so we keep going. The same applies to concatenated arrays, any of which may be
+             * empty
              */
             if (reader.peek() == JsonToken.END_DOCUMENT) {
                 return false;
@@ -198,7 +307,7 @@ public class JsonRecordReader extends AbstractEventRecordReader<BytesWritable> {
         if (jsonIterator.hasNext()) {
             JsonElement jsonElement = jsonIterator.next();
 
-            parseCurrentValue(jsonElement.getAsJsonObject());
+            parseCurrentElement(jsonElement);
             pos = countingInputStream.getByteCount();
 
             // Save ref to the current json element, to be used when writing the raw data to the record in getEvent
@@ -213,6 +322,10 @@ public class JsonRecordReader extends AbstractEventRecordReader<BytesWritable> {
     public RawRecordContainer getEvent() {
         super.getEvent();
 
+        if (!currentJsonObj.isJsonObject()) {
+            event.addError(RawDataErrorNames.INVALID_DATA_ERROR);
+        }
+
         if (StringUtils.isEmpty(eventDateFieldName)) {
             event.setDate(this.inputDate);
         }
@@ -303,4 +416,40 @@ public class JsonRecordReader extends AbstractEventRecordReader<BytesWritable> {
     public boolean isParseHeaderOnly() {
         return parseHeaderOnly;
     }
+
+    /**
+     * Iterates over the remaining elements of a json array, parsing each element only when it is requested. The end of the array is consumed once the last
+     * element has been read, leaving the reader positioned at whatever follows the array.
+     */
+    protected class JsonArrayIterator implements Iterator<JsonElement> {
+        private final JsonReader arrayReader;
+        private boolean exhausted = false;
+
+        public JsonArrayIterator(JsonReader arrayReader) {
+            this.arrayReader = arrayReader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!exhausted) {
+                try {
+                    if (!arrayReader.hasNext()) {
+                        arrayReader.endArray();
+                        exhausted = true;
+                    }
+                } catch (IOException e) {
+                    throw new JsonIOException(e);
+                }
+            }
+            return !exhausted;
+        }
+
+        @Override
+        public JsonElement next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return parser.parse(arrayReader);
+        }
+    }
 }
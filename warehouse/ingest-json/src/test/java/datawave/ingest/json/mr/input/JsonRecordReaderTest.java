@@ -1,54 +1,195 @@
 package datawave.ingest.json.mr.input;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.TaskAttemptID;
 import org.apache.hadoop.mapreduce.lib.input.FileSplit;
 import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import datawave.ingest.data.RawDataErrorNames;
 import datawave.ingest.data.RawRecordContainer;
 import datawave.ingest.data.TypeRegistry;
+import datawave.ingest.data.config.DataTypeHelper;
+import datawave.ingest.input.reader.LineReader;
+import datawave.ingest.json.config.helper.JsonDataTypeHelper;
 import datawave.ingest.json.util.JsonObjectFlattener.FlattenMode;
 
 public class JsonRecordReaderTest {
 
-    protected JsonRecordReader init(boolean parseHeaderOnly, FlattenMode mode) throws Exception {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
 
-        Configuration conf = null;
-        TaskAttemptContext ctx = null;
-        InputSplit split = null;
-        File dataFile = null;
+    protected JsonRecordReader init(boolean parseHeaderOnly, FlattenMode mode) throws Exception {
+        URL data = JsonRecordReaderTest.class.getResource("/input/my.json");
+        Assert.assertNotNull(data);
+        File dataFile = new File(data.toURI());
+        return init(createConf(parseHeaderOnly, mode), dataFile, 0, dataFile.length());
+    }
 
-        conf = new Configuration();
+    protected Configuration createConf(boolean parseHeaderOnly, FlattenMode mode) {
+        Configuration conf = new Configuration();
         conf.addResource(ClassLoader.getSystemResource("config/ingest/all-config.xml"));
         conf.addResource(ClassLoader.getSystemResource("config/ingest/json-ingest-config.xml"));
 
         conf.set("myjson.data.json.flattener.mode", mode.name());
         conf.set("myjson.data.process.extra.fields", String.valueOf(!parseHeaderOnly));
+        return conf;
+    }
 
-        URL data = JsonRecordReaderTest.class.getResource("/input/my.json");
-        Assert.assertNotNull(data);
-
+    protected JsonRecordReader init(Configuration conf, File dataFile, long start, long length) throws Exception {
         TypeRegistry.reset();
         TypeRegistry.getInstance(conf);
 
-        dataFile = new File(data.toURI());
         Path p = new Path(dataFile.toURI().toString());
-        split = new FileSplit(p, 0, dataFile.length(), null);
-        ctx = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+        InputSplit split = new FileSplit(p, start, length, null);
+        TaskAttemptContext ctx = new TaskAttemptContextImpl(conf, new TaskAttemptID());
 
         JsonRecordReader reader = new JsonRecordReader();
         reader.initialize(split, ctx);
         return reader;
     }
 
+    @Test
+    public void testArraysAreStreamed() throws Exception {
+        // two arrays concatenated together, the second of which is empty, followed by a single object
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 4; i++) {
+            json.append(i == 0 ? "" : ",").append(record(i));
+        }
+        json.append("]\n[]\n").append(record(4));
+        File dataFile = write(json.toString());
+
+        JsonRecordReader reader = init(createConf(false, FlattenMode.NORMAL), dataFile, 0, dataFile.length());
+        reader.setInputDate(System.currentTimeMillis());
+        Assert.assertEquals(List.of("ID0", "ID1", "ID2", "ID3", "ID4"), readIds(reader));
+        Assert.assertEquals(1.0f, reader.getProgress(), 0.0f);
+        reader.close();
+    }
+
+    @Test
+    public void testNewlineDelimitedSplits() throws Exception {
+        StringBuilder json = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            json.append(record(i)).append(i % 5 == 0 ? "\n\n" : "\n");
+            expected.add("ID" + i);
+        }
+        File dataFile = write(json.toString());
+        Configuration conf = createConf(false, FlattenMode.NORMAL);
+        conf.setBoolean("myjson" + JsonDataTypeHelper.Properties.NEWLINE_DELIMITED, true);
+
+        // every object is read exactly once, whichever lines the split boundaries happen to fall on
+        for (long splitSize : new long[] {1, 17, 100, 333, dataFile.length()}) {
+            List<String> ids = new ArrayList<>();
+            for (long start = 0; start < dataFile.length(); start += splitSize) {
+                JsonRecordReader reader = init(conf, dataFile, start, Math.min(splitSize, dataFile.length() - start));
+                reader.setInputDate(System.currentTimeMillis());
+                ids.addAll(readIds(reader));
+                Assert.assertEquals(1.0f, reader.getProgress(), 0.0f);
+                reader.close();
+            }
+            Collections.sort(ids);
+            Collections.sort(expected);
+            Assert.assertEquals("split size " + splitSize, expected, ids);
+        }
+    }
+
+    @Test
+    public void testRecordsLongerThanTheBufferCrossSplits() throws Exception {
+        StringBuilder json = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            json.append(record(i)).append('\n');
+            expected.add("ID" + i);
+        }
+        File dataFile = write(json.toString());
+        Configuration conf = createConf(false, FlattenMode.NORMAL);
+        conf.setBoolean("myjson" + JsonDataTypeHelper.Properties.NEWLINE_DELIMITED, true);
+        // every record spans several buffers, so a line which runs past the end of a split must still be read in full
+        conf.setInt(LineReader.Properties.IO_FILE_BUFFER_SIZE, 16);
+
+        for (long splitSize : new long[] {40, 100, 150}) {
+            List<String> ids = new ArrayList<>();
+            for (long start = 0; start < dataFile.length(); start += splitSize) {
+                JsonRecordReader reader = init(conf, dataFile, start, Math.min(splitSize, dataFile.length() - start));
+                reader.setInputDate(System.currentTimeMillis());
+                ids.addAll(readIds(reader));
+                reader.close();
+            }
+            Assert.assertEquals("split size " + splitSize, expected, ids);
+        }
+    }
+
+    @Test
+    public void testNonObjectsAreInvalid() throws Exception {
+        File dataFile = write("[1,2]\n\"text\"\n" + record(0) + "\n");
+        Configuration conf = createConf(false, FlattenMode.NORMAL);
+        conf.setBoolean("myjson" + JsonDataTypeHelper.Properties.NEWLINE_DELIMITED, true);
+
+        JsonRecordReader reader = init(conf, dataFile, 0, dataFile.length());
+        reader.setInputDate(System.currentTimeMillis());
+        for (int i = 0; i < 2; i++) {
+            Assert.assertTrue(reader.nextKeyValue());
+            Assert.assertTrue(reader.getCurrentFields().isEmpty());
+            Assert.assertTrue(reader.getEvent().getErrors().contains(RawDataErrorNames.INVALID_DATA_ERROR));
+        }
+        Assert.assertTrue(reader.nextKeyValue());
+        Assert.assertEquals(List.of("ID0"), new ArrayList<>(reader.getCurrentFields().get("HEADER_ID")));
+        Assert.assertTrue(reader.getEvent().getErrors().isEmpty());
+        Assert.assertFalse(reader.nextKeyValue());
+        reader.close();
+    }
+
+    @Test
+    public void testOnlyNewlineDelimitedIsSplitable() throws Exception {
+        Configuration conf = createConf(false, FlattenMode.NORMAL);
+        JsonInputFormat format = new JsonInputFormat();
+        Assert.assertFalse(format.isSplitable(Job.getInstance(conf), new Path("/data/my.json")));
+
+        conf.setBoolean("myjson" + JsonDataTypeHelper.Properties.NEWLINE_DELIMITED, true);
+        Assert.assertTrue(format.isSplitable(Job.getInstance(conf), new Path("/data/my.json")));
+        Assert.assertFalse(format.isSplitable(Job.getInstance(conf), new Path("/data/my.json.gz")));
+
+        // the data type override takes precedence over the configured data type
+        conf.set(DataTypeHelper.Properties.DATA_NAME_OVERRIDE, "otherjson");
+        Assert.assertFalse(format.isSplitable(Job.getInstance(conf), new Path("/data/my.json")));
+    }
+
+    private static String record(int i) {
+        return "{\"header_date\":\"2017-01-01T01:00:00Z\",\"header_id\":\"ID" + i + "\",\"header_text_1\":\"Some text " + i + "\"}";
+    }
+
+    private File write(String json) throws IOException {
+        File dataFile = folder.newFile("data.json");
+        Files.write(dataFile.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        return dataFile;
+    }
+
+    private static List<String> readIds(JsonRecordReader reader) throws IOException {
+        List<String> ids = new ArrayList<>();
+        while (reader.nextKeyValue()) {
+            Assert.assertNotNull(reader.getEvent());
+            ids.addAll(reader.getCurrentFields().get("HEADER_ID"));
+        }
+        return ids;
+    }
+
     @Test
     public void testInitialize() throws Exception {
         JsonRecordReader reader = init(true, FlattenMode.NORMAL);
@@ -3,7 +3,9 @@ package datawave.ingest.wikipedia;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -73,6 +75,11 @@ public class WikipediaDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> extends ExtendedCon
     private WikipediaIngestHelper ingestHelper = null;
     private WikipediaHelper helper = null;
 
+    /*
+     * The revisions of the current event, the first of which are submitted to the tokenizer pool before its standard keys are written
+     */
+    private List<RevisionContent> pendingRevisions = null;
+
     @Override
     public void setup(TaskAttemptContext context) {
         super.setup(context);
@@ -130,8 +137,15 @@ public class WikipediaDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> extends ExtendedCon
         this.eventDataTypeName = event.getDataType().outputName();
         this.eventUid = event.getId().toString();
 
+        // when tokenizing on a pool, start tokenizing the first revisions while the standard set of keys is written
+        StatusReporter reporter = new ContextWrappedStatusReporter(context);
+        if (tokenizerService != null) {
+            this.pendingRevisions = parseRevisions(event);
+            submitRevisions(this.pendingRevisions, 0, reporter);
+        }
+
         // write the standard set of keys
-        Multimap<BulkIngestKey,Value> keys = super.processBulk(key, event, eventFields, new ContextWrappedStatusReporter(context));
+        Multimap<BulkIngestKey,Value> keys = super.processBulk(key, event, eventFields, reporter);
         long count = keys.size();
         contextWriter.write(keys, context);
 
@@ -139,7 +153,6 @@ public class WikipediaDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> extends ExtendedCon
         keys = null;
 
         // stream the tokens to the context writer here
-        StatusReporter reporter = new ContextWrappedStatusReporter(context);
         count += tokenizeEvent(event, context, contextWriter, reporter);
 
         // return the number of records written
@@ -168,11 +181,74 @@ public class WikipediaDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> extends ExtendedCon
         long count = 0;
 
         final byte[] visibility = flatten(event.getVisibility());
-        final byte[] rawData = event.getRawData();
 
+        List<RevisionContent> revisions = (this.pendingRevisions != null ? this.pendingRevisions : parseRevisions(event));
+        this.pendingRevisions = null;
+
+        if (tokenizerService == null) {
+            // tokenize and write one revision at a time, so that only the tokens of a single revision are held in memory
+            for (RevisionContent revision : revisions) {
+                count += tokenizeTextNode(revision.content, event, visibility, context, contextWriter, revision.fieldName, revision.fieldNameToken,
+                                reporter);
+            }
+            return count;
+        }
+
+        try {
+            // the next few revisions are tokenized while the keys of the current one are written
+            for (int i = 0; i < revisions.size(); i++) {
+                submitRevisions(revisions, i, reporter);
+                RevisionContent revision = revisions.get(i);
+                count += tokenizeTextNode(revision.content, revision.tokens, event, visibility, context, contextWriter, revision.fieldName,
+                                revision.fieldNameToken, reporter);
+                revision.tokens = null;
+            }
+        } finally {
+            // stop tokenizing the remaining revisions if the event failed
+            for (RevisionContent revision : revisions) {
+                if (revision.tokens != null) {
+                    revision.tokens.cancel(true);
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Submit the revision at the given index to the tokenizer pool, along with as many of the following revisions as there are tokenizer threads, unless
+     * they have already been submitted
+     *
+     * @param revisions
+     *            the revisions of the event
+     * @param index
+     *            the index of the revision whose keys are about to be written
+     * @param reporter
+     *            the reporter
+     */
+    private void submitRevisions(List<RevisionContent> revisions, int index, StatusReporter reporter) {
+        int end = (int) Math.min(revisions.size(), (long) index + 1 + tokenizerService.getMaximumPoolSize());
+        for (int i = index; i < end; i++) {
+            RevisionContent revision = revisions.get(i);
+            if (revision.tokens == null) {
+                revision.tokens = submitTokenization(revision.fieldName, () -> tokenize(revision.content), reporter);
+            }
+        }
+    }
+
+    /**
+     * Parse the event and collect the content of each of its revisions
+     *
+     * @param event
+     *            the event
+     * @return the revision content, in document order
+     * @throws IOException
+     *             if there is an issue reading the event
+     */
+    private List<RevisionContent> parseRevisions(RawRecordContainer event) throws IOException {
         Document root;
         try {
-            root = this.parser.parse(new ByteArrayInputStream(rawData));
+            root = this.parser.parse(new ByteArrayInputStream(event.getRawData()));
         } catch (SAXException e) {
             throw new RuntimeException(e);
         }
@@ -180,6 +256,7 @@ public class WikipediaDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> extends ExtendedCon
         NodeList revisions = root.getElementsByTagName("revision");
 
         // For each revision, try to find the stuff we want to tokenize
+        List<RevisionContent> contents = new ArrayList<>();
         for (int i = 0; i < revisions.getLength(); i++) {
             Node revision = revisions.item(i);
             NodeList children = revision.getChildNodes();
@@ -187,23 +264,39 @@ public class WikipediaDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> extends ExtendedCon
                 Node revChild = children.item(j);
 
                 if (REVISION_COMMENT.equals(revChild.getNodeName())) {
-                    count += tokenizeTextNode(revChild.getTextContent(), event, visibility, context, contextWriter, REVISION_COMMENT_FIELD_NAME,
-                                    REVISION_COMMENT_TOKEN, reporter);
+                    contents.add(new RevisionContent(revChild.getTextContent(), REVISION_COMMENT_FIELD_NAME, REVISION_COMMENT_TOKEN));
                 } else if (REVISION_TEXT.equals(revChild.getNodeName())) {
-                    count += tokenizeTextNode(revChild.getTextContent(), event, visibility, context, contextWriter, REVISION_TEXT_FIELD_NAME,
-                                    REVISION_TEXT_TOKEN, reporter);
+                    contents.add(new RevisionContent(revChild.getTextContent(), REVISION_TEXT_FIELD_NAME, REVISION_TEXT_TOKEN));
                 }
             }
         }
+        return contents;
+    }
 
-        return count;
+    private static List<String> tokenize(String content) throws IOException {
+        List<String> terms = new ArrayList<>();
+        try (WikipediaTokenizer wikiTokenizer = new WikipediaTokenizer()) {
+            wikiTokenizer.setReader(new StringReader(content));
+            CharTermAttribute termAttr = wikiTokenizer.addAttribute(CharTermAttribute.class);
+            wikiTokenizer.reset();
+
+            while (wikiTokenizer.incrementToken()) {
+                terms.add(termAttr.toString());
+            }
+        }
+        return terms;
     }
 
     protected long tokenizeTextNode(String content, RawRecordContainer event, byte[] visibility,
                     TaskInputOutputContext<KEYIN,? extends RawRecordContainer,KEYOUT,VALUEOUT> context, ContextWriter<KEYOUT,VALUEOUT> contextWriter,
                     String fieldName, String fieldNameToken, StatusReporter reporter) throws IOException, InterruptedException {
+        return tokenizeTextNode(content, submitTokenization(fieldName, () -> tokenize(content), reporter), event, visibility, context, contextWriter,
+                        fieldName, fieldNameToken, reporter);
+    }
 
-        StringReader contentReader = new StringReader(content);
+    protected long tokenizeTextNode(String content, PendingTokens tokens, RawRecordContainer event, byte[] visibility,
+                    TaskInputOutputContext<KEYIN,? extends RawRecordContainer,KEYOUT,VALUEOUT> context, ContextWriter<KEYOUT,VALUEOUT> contextWriter,
+                    String fieldName, String fieldNameToken, StatusReporter reporter) throws IOException, InterruptedException {
 
         int position = 0;
         try {
@@ -235,29 +328,21 @@ public class WikipediaDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> extends ExtendedCon
                 }
             }
 
-            try (WikipediaTokenizer wikiTokenizer = new WikipediaTokenizer()) {
-                wikiTokenizer.setReader(contentReader);
-                CharTermAttribute termAttr = wikiTokenizer.addAttribute(CharTermAttribute.class);
-                wikiTokenizer.reset();
-
-                while (wikiTokenizer.incrementToken()) {
-                    String term = termAttr.toString();
-
-                    // getting the next token can take a long time depending on the compexity of the data...
-                    // so lets report progress to hadoop on each round
-                    if (context != null)
-                        context.progress();
+            for (String term : awaitTokenization(tokens, reporter)) {
+                // writing the keys for a token can take a long time depending on the compexity of the data...
+                // so lets report progress to hadoop on each round
+                if (context != null)
+                    context.progress();
 
-                    if (StringUtils.isBlank(term)) {
-                        context.getCounter("Tokenization", "Blank tokens (null, empty, or whitespace)").increment(1l);
-                        continue;
-                    }
+                if (StringUtils.isBlank(term)) {
+                    context.getCounter("Tokenization", "Blank tokens (null, empty, or whitespace)").increment(1l);
+                    continue;
+                }
 
-                    processTerm(event, position, term, null, context, contextWriter, fieldName, fieldNameToken, reporter);
+                processTerm(event, position, term, null, context, contextWriter, fieldName, fieldNameToken, reporter);
 
-                    // Get the word position for this term
-                    position++;
-                }
+                // Get the word position for this term
+                position++;
             }
 
             // now flush out the offset queue
@@ -295,6 +380,8 @@ public class WikipediaDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> extends ExtendedCon
                 getMetadata().addEvent(this.ingestHelper, event, normMap);
             }
 
+        } catch (TokenizerTimeoutException e) {
+            throw e;
         } catch (Exception e) {
             // If error, return empty results map.
             log.error("Error processing Wikipedia document", e);
@@ -489,4 +576,19 @@ public class WikipediaDataTypeHandler<KEYIN,KEYOUT,VALUEOUT> extends ExtendedCon
         }
     }
 
+    /**
+     * The content of a revision field, and its pending tokens once it has been submitted to the tokenizer pool
+     */
+    private static class RevisionContent {
+        private final String content;
+        private final String fieldName;
+        private final String fieldNameToken;
+        private PendingTokens tokens = null;
+
+        private RevisionContent(String content, String fieldName, String fieldNameToken) {
+            this.content = content;
+            this.fieldName = fieldName;
+            this.fieldNameToken = fieldNameToken;
+        }
+    }
 }
@@ -21,6 +21,7 @@ import datawave.ingest.data.config.NormalizedContentInterface;
 import datawave.ingest.data.config.ingest.VirtualIngest;
 import datawave.ingest.mapreduce.StandaloneStatusReporter;
 import datawave.ingest.mapreduce.StandaloneTaskAttemptContext;
+import datawave.ingest.mapreduce.handler.tokenize.ExtendedContentIndexingColumnBasedHandler;
 import datawave.ingest.mapreduce.job.BulkIngestKey;
 import datawave.ingest.mapreduce.job.writer.AbstractContextWriter;
 import datawave.util.TableName;
@@ -151,4 +152,48 @@ public class WikipediaDataTypeHandlerTest extends WikipediaTestBed {
         Assert.assertEquals(22766 + numberOfDatawaveMetadataEntries + numberOfLoadDateEntries, results.size());
     }
 
+    @Test
+    public void testWikiWithTokenizerThreads() throws Exception {
+        ctx.getConfiguration().setInt(ExtendedContentIndexingColumnBasedHandler.OPT_TOKENIZER_THREADS, 2);
+        ctx.getConfiguration().setInt(ExtendedContentIndexingColumnBasedHandler.OPT_TOKENIZER_QUEUE_SIZE, 1);
+
+        WikipediaRecordReader reader = new WikipediaRecordReader();
+        reader.initialize(split, ctx);
+        reader.setInputDate(System.currentTimeMillis());
+
+        WikipediaDataTypeHandler<Text,BulkIngestKey,Value> threadedHandler = new WikipediaDataTypeHandler<>();
+        threadedHandler.setup(ctx);
+
+        WikipediaIngestHelper helper = new WikipediaIngestHelper();
+        helper.setup(conf);
+
+        StandaloneTaskAttemptContext<Text,RawRecordContainer,BulkIngestKey,Value> taskContext = new StandaloneTaskAttemptContext<>(conf,
+                        new StandaloneStatusReporter());
+
+        // the second record has enough revisions to keep the pool and its queue busy
+        int[] expectedShardKeys = {82, 9785};
+        for (int expected : expectedShardKeys) {
+            Assert.assertTrue(reader.nextKeyValue());
+            RawRecordContainer e = reader.getEvent();
+
+            Multimap<String,NormalizedContentInterface> eventFields = helper.getEventFields(e);
+            Multimap<String,NormalizedContentInterface> virtualFields = ((VirtualIngest) helper).getVirtualFields(eventFields);
+            for (Entry<String,NormalizedContentInterface> v : virtualFields.entries()) {
+                eventFields.put(v.getKey(), v.getValue());
+            }
+
+            MyCachingContextWriter contextWriter = new MyCachingContextWriter();
+            threadedHandler.process(new Text("1"), e, eventFields, taskContext, contextWriter);
+            contextWriter.commit(taskContext);
+
+            Multimap<String,BulkIngestKey> tableToKey = HashMultimap.create();
+            for (BulkIngestKey biKey : contextWriter.getCache().keySet()) {
+                tableToKey.put(biKey.getTableName().toString(), biKey);
+            }
+            Assert.assertEquals(expected, tableToKey.get(TableName.SHARD).size());
+        }
+
+        threadedHandler.close(taskContext);
+    }
+
 }
@@ -4,7 +4,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
- * Holds timing information for query iterator next, source, seek, and yield counts.
+ * Holds timing information for query iterator next, source, seek, yield, and pruned range counts.
  */
 public class TimingMetadata extends Metadata {
 
@@ -12,6 +12,7 @@ public class TimingMetadata extends Metadata {
     private static final String SOURCE_COUNT = "SOURCE_COUNT";
     private static final String SEEK_COUNT = "SEEK_COUNT";
     private static final String YIELD_COUNT = "YIELD_COUNT";
+    private static final String PRUNED_RANGE_COUNT = "PRUNED_RANGE_COUNT";
     private static final String STAGE_TIMERS = "STAGE_TIMERS";
     private static final String HOST = "HOST";
 
@@ -68,6 +69,19 @@ public class TimingMetadata extends Metadata {
         put(YIELD_COUNT, new Numeric(yieldCount, this.getMetadata(), this.isToKeep()));
     }
 
+    public long getPrunedRangeCount() {
+        Numeric numericValue = (Numeric) get(PRUNED_RANGE_COUNT);
+        if (numericValue != null) {
+            return ((Number) numericValue.getData()).longValue();
+        } else {
+            return 0L;
+        }
+    }
+
+    public void setPrunedRangeCount(long prunedRangeCount) {
+        put(PRUNED_RANGE_COUNT, new Numeric(prunedRangeCount, this.getMetadata(), this.isToKeep()));
+    }
+
     public void addStageTimer(String stageName, Numeric elapsed) {
         Metadata stageTimers = (Metadata) get(STAGE_TIMERS);
         if (stageTimers == null) {
@@ -492,6 +492,44 @@ public class ShardQueryConfiguration extends GenericQueryConfiguration implement
      */
     private boolean sortQueryByCounts = false;
 
+    /**
+     * If true, term frequency offsets are retained in their serialized form and lazily decoded into primitive arrays when a content function is evaluated,
+     * instead of being eagerly decoded into boxed term frequency lists for every candidate document.
+     */
+    private boolean primitiveTermOffsetsEnabled = false;
+
+    /**
+     * If true, each single shard range is probed for the anchor terms of the query before the field index iterators are built. Ranges whose anchor terms
+     * have no field index entries are pruned. When the shard table has bloom filters enabled with the {@code ShardKeyFunctor}, these probes are answered by
+     * the bloom filters without reading the field index.
+     */
+    private boolean bloomFilterPruningEnabled = false;
+
+    /**
+     * The yield threshold used in place of the yieldThresholdMs while the tablet server is under load, i.e. its load average per processor exceeds the
+     * systemLoadThreshold. This time slices long running scans so that they release their scan threads to queued scans. Scans whose shard table
+     * scan_type hint is one of the interactiveScanTypes are never sliced.
+     */
+    private long loadAwareYieldThresholdMs = Long.MAX_VALUE;
+
+    /**
+     * The load average per processor above which a tablet server is considered to be under load, and the loadAwareYieldThresholdMs applies.
+     */
+    private double systemLoadThreshold = 2.0d;
+
+    /**
+     * The scan_type execution hints of the shard table which identify interactive scans. Interactive scans are not time sliced by the
+     * loadAwareYieldThresholdMs.
+     */
+    private Set<String> interactiveScanTypes = Collections.emptySet();
+
+    /**
+     * The number of documents within a shard for which the values of a delayed index-only field are fetched individually from the field index. Once
+     * exceeded, the remaining documents of the shard are resolved by a single ordered sweep of the field index for that field. A negative value disables
+     * sweeping.
+     */
+    private int delayedNonEventSweepThreshold = -1;
+
     /**
      * Default constructor
      */
@@ -716,6 +754,12 @@ public class ShardQueryConfiguration extends GenericQueryConfiguration implement
         this.setUseTermCounts(other.getUseTermCounts());
         this.setSortQueryBeforeGlobalIndex(other.isSortQueryBeforeGlobalIndex());
         this.setSortQueryByCounts(other.isSortQueryByCounts());
+        this.setPrimitiveTermOffsetsEnabled(other.isPrimitiveTermOffsetsEnabled());
+        this.setBloomFilterPruningEnabled(other.isBloomFilterPruningEnabled());
+        this.setLoadAwareYieldThresholdMs(other.getLoadAwareYieldThresholdMs());
+        this.setSystemLoadThreshold(other.getSystemLoadThreshold());
+        this.setInteractiveScanTypes(null == other.getInteractiveScanTypes() ? null : Sets.newHashSet(other.getInteractiveScanTypes()));
+        this.setDelayedNonEventSweepThreshold(other.getDelayedNonEventSweepThreshold());
     }
 
     /**
@@ -2736,6 +2780,54 @@ public class ShardQueryConfiguration extends GenericQueryConfiguration implement
         this.sortQueryByCounts = sortQueryByCounts;
     }
 
+    public boolean isPrimitiveTermOffsetsEnabled() {
+        return primitiveTermOffsetsEnabled;
+    }
+
+    public void setPrimitiveTermOffsetsEnabled(boolean primitiveTermOffsetsEnabled) {
+        this.primitiveTermOffsetsEnabled = primitiveTermOffsetsEnabled;
+    }
+
+    public boolean isBloomFilterPruningEnabled() {
+        return bloomFilterPruningEnabled;
+    }
+
+    public void setBloomFilterPruningEnabled(boolean bloomFilterPruningEnabled) {
+        this.bloomFilterPruningEnabled = bloomFilterPruningEnabled;
+    }
+
+    public long getLoadAwareYieldThresholdMs() {
+        return loadAwareYieldThresholdMs;
+    }
+
+    public void setLoadAwareYieldThresholdMs(long loadAwareYieldThresholdMs) {
+        this.loadAwareYieldThresholdMs = loadAwareYieldThresholdMs;
+    }
+
+    public double getSystemLoadThreshold() {
+        return systemLoadThreshold;
+    }
+
+    public void setSystemLoadThreshold(double systemLoadThreshold) {
+        this.systemLoadThreshold = systemLoadThreshold;
+    }
+
+    public Set<String> getInteractiveScanTypes() {
+        return interactiveScanTypes;
+    }
+
+    public void setInteractiveScanTypes(Set<String> interactiveScanTypes) {
+        this.interactiveScanTypes = interactiveScanTypes;
+    }
+
+    public int getDelayedNonEventSweepThreshold() {
+        return delayedNonEventSweepThreshold;
+    }
+
+    public void setDelayedNonEventSweepThreshold(int delayedNonEventSweepThreshold) {
+        this.delayedNonEventSweepThreshold = delayedNonEventSweepThreshold;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -2942,7 +3034,13 @@ public class ShardQueryConfiguration extends GenericQueryConfiguration implement
                 getUseFieldCounts() == that.getUseFieldCounts() &&
                 getUseTermCounts() == that.getUseTermCounts() &&
                 isSortQueryBeforeGlobalIndex() == that.isSortQueryBeforeGlobalIndex() &&
-                isSortQueryByCounts() == that.isSortQueryByCounts();
+                isSortQueryByCounts() == that.isSortQueryByCounts() &&
+                isPrimitiveTermOffsetsEnabled() == that.isPrimitiveTermOffsetsEnabled() &&
+                isBloomFilterPruningEnabled() == that.isBloomFilterPruningEnabled() &&
+                getLoadAwareYieldThresholdMs() == that.getLoadAwareYieldThresholdMs() &&
+                getSystemLoadThreshold() == that.getSystemLoadThreshold() &&
+                Objects.equals(getInteractiveScanTypes(), that.getInteractiveScanTypes()) &&
+                getDelayedNonEventSweepThreshold() == that.getDelayedNonEventSweepThreshold();
         // @formatter:on
     }
 
@@ -3146,7 +3244,13 @@ public class ShardQueryConfiguration extends GenericQueryConfiguration implement
                 getUseFieldCounts(),
                 getUseTermCounts(),
                 isSortQueryBeforeGlobalIndex(),
-                isSortQueryByCounts());
+                isSortQueryByCounts(),
+                isPrimitiveTermOffsetsEnabled(),
+                isBloomFilterPruningEnabled(),
+                getLoadAwareYieldThresholdMs(),
+                getSystemLoadThreshold(),
+                getInteractiveScanTypes(),
+                getDelayedNonEventSweepThreshold());
         // @formatter:on
     }
 
@@ -26,6 +26,7 @@ import datawave.query.iterator.IndexOnlyFunctionIterator;
 import datawave.query.iterator.QueryOptions;
 import datawave.query.jexl.DatawaveJexlContext;
 import datawave.query.jexl.DelayedNonEventIndexContext;
+import datawave.query.jexl.DelayedNonEventIndexFetcher;
 import datawave.query.jexl.IndexOnlyJexlContext;
 import datawave.query.jexl.visitors.IteratorBuildingVisitor;
 import datawave.query.jexl.visitors.SetMembershipVisitor;
@@ -69,11 +70,8 @@ public class IndexOnlyContextCreator extends JexlContextCreator {
     private final CompositeMetadata compositeMetadata;
     private final Range range;
 
-    private final IteratorBuildingVisitor iteratorBuildingVisitor;
     private final Multimap<String,JexlNode> delayedNonEventFieldMap;
-    private final Equality equality;
-    private final Collection<ByteSequence> columnFamilies;
-    private final boolean inclusive;
+    private final DelayedNonEventIndexFetcher delayedNonEventIndexFetcher;
 
     private static final String SIMPLE_NAME = IndexOnlyContextCreator.class.getSimpleName();
     private static final String SKVI_SIMPLE_NAME = SortedKeyValueIterator.class.getSimpleName();
@@ -125,12 +123,14 @@ public class IndexOnlyContextCreator extends JexlContextCreator {
         this.includeRecordId = options.isIncludeRecordId();
         this.indexOnlyFields = options.getIndexOnlyFields();
 
-        // for delayed index lookup
-        this.iteratorBuildingVisitor = iteratorBuildingVisitor;
+        // for delayed index lookup, the fetcher is shared by every document evaluated by this creator
         this.delayedNonEventFieldMap = delayedNonEventFieldMap;
-        this.equality = equality;
-        this.columnFamilies = columnFamilies;
-        this.inclusive = inclusive;
+        if (delayedNonEventFieldMap != null && !delayedNonEventFieldMap.isEmpty()) {
+            this.delayedNonEventIndexFetcher = new DelayedNonEventIndexFetcher(iteratorBuildingVisitor, delayedNonEventFieldMap, columnFamilies, inclusive,
+                            equality, options.getDelayedNonEventSweepThreshold());
+        } else {
+            this.delayedNonEventIndexFetcher = null;
+        }
 
         this.range = range;
         this.timeFilter = options.getTimeFilter();
@@ -211,8 +211,7 @@ public class IndexOnlyContextCreator extends JexlContextCreator {
             Key endKey = new Key(startKey.getRow().toString(), startKey.getColumnFamily() + Constants.MAX_UNICODE_STRING);
             Range docRange = new Range(startKey, true, endKey, false);
 
-            newContext = new DelayedNonEventIndexContext(newContext, iteratorBuildingVisitor, delayedNonEventFieldMap, docRange, columnFamilies, inclusive,
-                            equality);
+            newContext = new DelayedNonEventIndexContext(newContext, delayedNonEventIndexFetcher, docRange);
         }
 
         return newContext;
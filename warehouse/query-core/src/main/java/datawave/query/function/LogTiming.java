@@ -57,6 +57,7 @@ public class LogTiming implements Function<Entry<Key,Document>,Entry<Key,Documen
                 } else {
                     timingMetadata.setYieldCount(0L);
                 }
+                timingMetadata.setPrunedRangeCount(querySpan.getPrunedRangeCount());
 
                 long totalStageTimers = querySpan.getStageTimerTotal();
                 // do not report timers that are less than 5% of the total
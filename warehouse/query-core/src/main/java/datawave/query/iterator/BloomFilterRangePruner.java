@@ -0,0 +1,164 @@
+package datawave.query.iterator;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.PartialKey;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.commons.jexl3.parser.ASTAndNode;
+import org.apache.commons.jexl3.parser.ASTEQNode;
+import org.apache.commons.jexl3.parser.ASTJexlScript;
+import org.apache.commons.jexl3.parser.JexlNode;
+import org.apache.hadoop.io.Text;
+import org.apache.log4j.Logger;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+
+import datawave.query.Constants;
+import datawave.query.jexl.JexlASTHelper;
+import datawave.query.jexl.nodes.QueryPropertyMarker;
+
+/**
+ * Determines whether a shard range can be skipped before any field index iterators are built for it.
+ * <p>
+ * The anchor terms of a query are the indexed equality terms that every matching document must contain, i.e. those that are the query itself or a top level
+ * conjunct of it. For a range within a single shard, each anchor term is probed with a field index range that is confined to that term. If any anchor term has
+ * no field index entries in the shard, then nothing in the range can satisfy the query.
+ * <p>
+ * A probe range covers a single field value within a single row, which the {@code ShardKeyFunctor} maps onto one bloom filter key. When the shard table has
+ * bloom filters enabled, the probe for an absent term is answered by the bloom filter of each file without reading the field index.
+ * <p>
+ * Ranges that span multiple shards (e.g. day ranges) are never pruned, as the shards they contain are not known until they are scanned.
+ */
+public class BloomFilterRangePruner {
+    private static final Logger log = Logger.getLogger(BloomFilterRangePruner.class);
+
+    private final Multimap<String,String> anchorTerms;
+
+    /**
+     * @param script
+     *            the query
+     * @param indexedFields
+     *            the fields which are indexed for every datatype
+     */
+    public BloomFilterRangePruner(ASTJexlScript script, Set<String> indexedFields) {
+        this.anchorTerms = HashMultimap.create();
+        if (script != null) {
+            findAnchorTerms(script, indexedFields, anchorTerms);
+        }
+    }
+
+    /**
+     * @return the anchor terms, keyed by field
+     */
+    public Multimap<String,String> getAnchorTerms() {
+        return anchorTerms;
+    }
+
+    /**
+     * Determine whether a range is confined to a single shard, and any of the anchor terms is absent from that shard
+     *
+     * @param range
+     *            the seek range
+     * @param source
+     *            a source to probe, which will be re-seeked
+     * @return true if the range cannot contain any results
+     * @throws IOException
+     *             if the source cannot be seeked
+     */
+    public boolean isPrunable(Range range, SortedKeyValueIterator<Key,Value> source) throws IOException {
+        if (anchorTerms.isEmpty()) {
+            return false;
+        }
+
+        Text row = getShard(range);
+        if (row == null) {
+            return false;
+        }
+
+        for (Map.Entry<String,String> term : anchorTerms.entries()) {
+            if (!isTermPresent(row, term.getKey(), term.getValue(), source)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Pruning " + range + " as " + term.getKey() + " == '" + term.getValue() + "' is absent from shard " + row);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the shard of a range which does not extend beyond a single row. This includes shard and document specific ranges.
+     *
+     * @param range
+     *            the range
+     * @return the shard, or null if the range is not confined to a single shard
+     */
+    static Text getShard(Range range) {
+        if (range.isInfiniteStartKey() || range.isInfiniteStopKey()) {
+            return null;
+        }
+
+        Key start = range.getStartKey();
+        Key end = range.getEndKey();
+        Text row = start.getRow();
+        if (end.getRowData().equals(start.getRowData())) {
+            return row;
+        }
+
+        // a shard range ends exclusively at the key immediately following the row
+        Key followingRow = new Key(row).followingKey(PartialKey.ROW);
+        if (!range.isEndKeyInclusive() && end.equals(followingRow, PartialKey.ROW_COLFAM_COLQUAL_COLVIS)) {
+            return row;
+        }
+
+        return null;
+    }
+
+    private static boolean isTermPresent(Text row, String field, String value, SortedKeyValueIterator<Key,Value> source) throws IOException {
+        Text columnFamily = new Text(Constants.FIELD_INDEX_PREFIX + field);
+        Key start = new Key(row, columnFamily, new Text(value + Constants.NULL_BYTE_STRING));
+        Key end = new Key(row, columnFamily, new Text(value + Constants.NULL_BYTE_STRING + Constants.MAX_UNICODE_STRING));
+        Collection<ByteSequence> columnFamilies = Collections.singleton(new ArrayByteSequence(columnFamily.getBytes(), 0, columnFamily.getLength()));
+
+        source.seek(new Range(start, true, end, false), columnFamilies, true);
+        return source.hasTop();
+    }
+
+    private static void findAnchorTerms(JexlNode node, Set<String> indexedFields, Multimap<String,String> anchorTerms) {
+        if (node instanceof ASTJexlScript) {
+            for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+                findAnchorTerms(node.jjtGetChild(i), indexedFields, anchorTerms);
+            }
+            return;
+        }
+
+        node = JexlASTHelper.dereference(node);
+
+        // delayed, evaluation only and other marked terms are not guaranteed to be in the field index
+        if (QueryPropertyMarker.findInstance(node).isAnyType()) {
+            return;
+        }
+
+        if (node instanceof ASTAndNode) {
+            for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+                findAnchorTerms(node.jjtGetChild(i), indexedFields, anchorTerms);
+            }
+        } else if (node instanceof ASTEQNode) {
+            String field = JexlASTHelper.getIdentifier(node);
+            Object value = JexlASTHelper.getLiteralValueSafely(node);
+            if (field != null && value instanceof String && indexedFields.contains(field)) {
+                anchorTerms.put(field, (String) value);
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.lang.management.ManagementFactory;
 import java.lang.management.OperatingSystemMXBean;
 import java.util.Collection;
 import java.util.Map;
+import java.util.function.DoubleSupplier;
 
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.accumulo.core.data.ByteSequence;
@@ -29,6 +30,15 @@ public class LoadAverageWatchIterator extends WrappingIterator {
 
     protected static final OperatingSystemMXBean OS_BEAN = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
 
+    /**
+     * The load average is sampled at most this often, as it is checked on every next and seek
+     */
+    protected static final long LOAD_SAMPLE_INTERVAL_MS = 1000L;
+
+    private static volatile long loadSampleTimeMs = 0L;
+
+    private static volatile double loadPerProcessor = 0.0d;
+
     public LoadAverageWatchIterator(LoadAverageWatchIterator other, IteratorEnvironment env) {
         this.setSource(other.getSource().deepCopy(env));
         reportHighLoad = other.reportHighLoad;
@@ -64,12 +74,51 @@ public class LoadAverageWatchIterator extends WrappingIterator {
     }
 
     protected boolean loadExceedThreshold() {
+        return isLoadAboveThreshold(loadThresholdAboveProcs);
+    }
 
-        if (OS_BEAN.getSystemLoadAverage() / OS_BEAN.getAvailableProcessors() > loadThresholdAboveProcs) {
-            return true;
+    /**
+     * Get the system load average per available processor, as last sampled. This is shared by all scans within the tablet server.
+     *
+     * @return the load average per processor, or a negative value if the load average is not available
+     */
+    public static double getLoadPerProcessor() {
+        return getLoadPerProcessor(System.currentTimeMillis(), () -> OS_BEAN.getSystemLoadAverage() / OS_BEAN.getAvailableProcessors());
+    }
+
+    /**
+     * Get the load average per processor, taking a new sample if the last one is older than the sample interval
+     *
+     * @param now
+     *            the current time in ms
+     * @param sampler
+     *            supplies a new sample of the load average per processor
+     * @return the load average per processor
+     */
+    static double getLoadPerProcessor(long now, DoubleSupplier sampler) {
+        if (now - loadSampleTimeMs > LOAD_SAMPLE_INTERVAL_MS) {
+            loadPerProcessor = sampler.getAsDouble();
+            loadSampleTimeMs = now;
         }
-        return false;
+        return loadPerProcessor;
+    }
+
+    /**
+     * Discard the last sample, such that the next call samples the load average again
+     */
+    static void resetLoadSample() {
+        loadSampleTimeMs = 0L;
+    }
 
+    /**
+     * Determine whether the system load average per processor exceeds a threshold
+     *
+     * @param threshold
+     *            the load average per processor
+     * @return true if the load exceeds the threshold
+     */
+    public static boolean isLoadAboveThreshold(double threshold) {
+        return getLoadPerProcessor() > threshold;
     }
 
     @Override
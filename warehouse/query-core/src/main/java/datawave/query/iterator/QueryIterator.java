@@ -12,6 +12,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -183,6 +184,8 @@ public class QueryIterator extends QueryOptions implements YieldingKeyValueItera
 
     protected QuerySpan trackingSpan = null;
 
+    protected BloomFilterRangePruner rangePruner = null;
+
     protected QuerySpanCollector querySpanCollector = new QuerySpanCollector();
 
     protected UniqueTransform uniqueTransform = null;
@@ -412,6 +415,18 @@ public class QueryIterator extends QueryOptions implements YieldingKeyValueItera
                 }
             }
 
+            // if none of the field index iterators could find anything in this shard, then there is no need to build them
+            else if (isPrunable(range)) {
+                // always record the pruned range with the active query so it is visible without timing details
+                getActiveQueryLog().get(getQueryId()).prunedRange();
+                if (gatherTimingDetails()) {
+                    trackingSpan.prunedRange();
+                    this.seekKeySource = new EvaluationTrackingNestedIterator(QuerySpan.Stage.PrunedTree, trackingSpan, new EmptyTreeIterable(), myEnvironment);
+                } else {
+                    this.seekKeySource = new EmptyTreeIterable();
+                }
+            }
+
             // if the Range is for a single document and the query doesn't reference any index-only or tokenized fields
             else if (documentRange != null && (!this.isContainsIndexOnlyTerms() && this.getTermFrequencyFields().isEmpty() && !super.mustUseFieldIndex)) {
                 if (log.isTraceEnabled()) {
@@ -442,6 +457,7 @@ public class QueryIterator extends QueryOptions implements YieldingKeyValueItera
                             yield, yieldThresholdMs, columnFamilies, inclusive);
 
             pipelineIter.setCollectTimingDetails(collectTimingDetails);
+            pipelineIter.setLoadAwareYieldThreshold(getLoadAwareYieldThresholdMs(), getSystemLoadThreshold());
             // TODO pipelineIter.setStatsdHostAndPort(statsdHostAndPort);
 
             pipelineIter.startPipeline();
@@ -639,6 +655,30 @@ public class QueryIterator extends QueryOptions implements YieldingKeyValueItera
         return docIter;
     }
 
+    /**
+     * Determine whether a range can be skipped because an anchor term of the query is absent from its shard. This is only attempted when bloom filter pruning
+     * is enabled and the query is not a full table scan.
+     *
+     * @param range
+     *            the seek range
+     * @return true if the range cannot contain any results
+     * @throws IOException
+     *             for issues with read/write
+     */
+    protected boolean isPrunable(Range range) throws IOException {
+        if (!isBloomFilterPruningEnabled() || isFullTableScanOnly()) {
+            return false;
+        }
+
+        if (rangePruner == null) {
+            Set<String> indexedFields = new HashSet<>(this.getIndexedFields());
+            indexedFields.removeAll(this.getNonIndexedDataTypeMap().keySet());
+            rangePruner = new BloomFilterRangePruner(script, indexedFields);
+        }
+
+        return rangePruner.isPrunable(range, getSourceDeepCopy());
+    }
+
     /**
      * There was a request to create a serial pipeline. The factory may not choose to honor this.
      *
@@ -931,6 +971,7 @@ public class QueryIterator extends QueryOptions implements YieldingKeyValueItera
                 tfConfig.setEquality(getEquality());
                 tfConfig.setEvaluationFilter(getEvaluationFilter());
                 tfConfig.setTfAggregationThreshold(getTfAggregationThresholdMs());
+                tfConfig.setPrimitiveTermOffsets(isPrimitiveTermOffsetsEnabled());
 
                 Function<Tuple2<Key,Document>,Tuple3<Key,Document,Map<String,Object>>> tfFunction = buildTfFunction(tfConfig);
                 itrWithContext = TraceIterators.transform(tupleItr, tfFunction, "Term Frequency Lookup");
@@ -280,6 +280,16 @@ public class QueryOptions implements OptionDescriber {
     public static final String FIELD_COUNTS = "field.counts";
     public static final String TERM_COUNTS = "term.counts";
 
+    public static final String TERM_FREQUENCY_PRIMITIVE_OFFSETS = "tf.primitive.offsets";
+
+    public static final String BLOOM_FILTER_PRUNING = "bloom.filter.pruning";
+
+    public static final String LOAD_AWARE_YIELD_THRESHOLD_MS = "load.aware.yield.threshold.ms";
+
+    public static final String SYSTEM_LOAD_THRESHOLD = "system.load.threshold";
+
+    public static final String DELAYED_NON_EVENT_SWEEP_THRESHOLD = "delayed.non.event.sweep.threshold";
+
     protected Map<String,String> options;
 
     protected String scanId;
@@ -445,6 +455,11 @@ public class QueryOptions implements OptionDescriber {
     private CountMap fieldCounts;
     private CountMap termCounts;
     private CountMapSerDe mapSerDe;
+    private boolean primitiveTermOffsetsEnabled = false;
+    private boolean bloomFilterPruningEnabled = false;
+    private long loadAwareYieldThresholdMs = Long.MAX_VALUE;
+    private double systemLoadThreshold = 2.0d;
+    private int delayedNonEventSweepThreshold = -1;
 
     public void deepCopy(QueryOptions other) {
         this.options = other.options;
@@ -557,6 +572,11 @@ public class QueryOptions implements OptionDescriber {
 
         this.fieldCounts = other.fieldCounts;
         this.termCounts = other.termCounts;
+        this.primitiveTermOffsetsEnabled = other.primitiveTermOffsetsEnabled;
+        this.bloomFilterPruningEnabled = other.bloomFilterPruningEnabled;
+        this.loadAwareYieldThresholdMs = other.loadAwareYieldThresholdMs;
+        this.systemLoadThreshold = other.systemLoadThreshold;
+        this.delayedNonEventSweepThreshold = other.delayedNonEventSweepThreshold;
     }
 
     public String getQuery() {
@@ -1273,6 +1293,11 @@ public class QueryOptions implements OptionDescriber {
         options.put(TERM_FREQUENCY_AGGREGATION_THRESHOLD_MS, "TermFrequency aggregations that exceed this threshold are logged as a warning");
         options.put(FIELD_COUNTS, "Map of field counts from the global index");
         options.put(TERM_COUNTS, "Map of term counts from the global index");
+        options.put(TERM_FREQUENCY_PRIMITIVE_OFFSETS, "If true, term frequency offsets are lazily decoded into primitive arrays for content function evaluation");
+        options.put(BLOOM_FILTER_PRUNING, "If true, shard ranges whose anchor terms are absent from the field index are pruned before the field index iterators are built");
+        options.put(LOAD_AWARE_YIELD_THRESHOLD_MS, "The yield threshold in ms used while the system load average per processor exceeds the system.load.threshold");
+        options.put(SYSTEM_LOAD_THRESHOLD, "The system load average per processor above which the load.aware.yield.threshold.ms applies");
+        options.put(DELAYED_NON_EVENT_SWEEP_THRESHOLD, "The number of documents per shard for which delayed index-only fields are fetched individually before sweeping the field index, or -1 to never sweep");
         return new IteratorOptions(getClass().getSimpleName(), "Runs a query against the DATAWAVE tables", options, null);
     }
 
@@ -1476,6 +1501,26 @@ public class QueryOptions implements OptionDescriber {
             this.tfAggregationThresholdMs = Integer.parseInt(options.get(TERM_FREQUENCY_AGGREGATION_THRESHOLD_MS));
         }
 
+        if (options.containsKey(TERM_FREQUENCY_PRIMITIVE_OFFSETS)) {
+            this.primitiveTermOffsetsEnabled = Boolean.parseBoolean(options.get(TERM_FREQUENCY_PRIMITIVE_OFFSETS));
+        }
+
+        if (options.containsKey(BLOOM_FILTER_PRUNING)) {
+            this.bloomFilterPruningEnabled = Boolean.parseBoolean(options.get(BLOOM_FILTER_PRUNING));
+        }
+
+        if (options.containsKey(LOAD_AWARE_YIELD_THRESHOLD_MS)) {
+            this.loadAwareYieldThresholdMs = Long.parseLong(options.get(LOAD_AWARE_YIELD_THRESHOLD_MS));
+        }
+
+        if (options.containsKey(SYSTEM_LOAD_THRESHOLD)) {
+            this.systemLoadThreshold = Double.parseDouble(options.get(SYSTEM_LOAD_THRESHOLD));
+        }
+
+        if (options.containsKey(DELAYED_NON_EVENT_SWEEP_THRESHOLD)) {
+            this.delayedNonEventSweepThreshold = Integer.parseInt(options.get(DELAYED_NON_EVENT_SWEEP_THRESHOLD));
+        }
+
         if (options.containsKey(DATATYPE_FILTER)) {
             String filterCsv = options.get(DATATYPE_FILTER);
             if (filterCsv != null && !filterCsv.isEmpty()) {
@@ -2248,6 +2293,46 @@ public class QueryOptions implements OptionDescriber {
         this.tfAggregationThresholdMs = tfAggregationThresholdMs;
     }
 
+    public boolean isPrimitiveTermOffsetsEnabled() {
+        return primitiveTermOffsetsEnabled;
+    }
+
+    public void setPrimitiveTermOffsetsEnabled(boolean primitiveTermOffsetsEnabled) {
+        this.primitiveTermOffsetsEnabled = primitiveTermOffsetsEnabled;
+    }
+
+    public boolean isBloomFilterPruningEnabled() {
+        return bloomFilterPruningEnabled;
+    }
+
+    public void setBloomFilterPruningEnabled(boolean bloomFilterPruningEnabled) {
+        this.bloomFilterPruningEnabled = bloomFilterPruningEnabled;
+    }
+
+    public long getLoadAwareYieldThresholdMs() {
+        return loadAwareYieldThresholdMs;
+    }
+
+    public void setLoadAwareYieldThresholdMs(long loadAwareYieldThresholdMs) {
+        this.loadAwareYieldThresholdMs = loadAwareYieldThresholdMs;
+    }
+
+    public double getSystemLoadThreshold() {
+        return systemLoadThreshold;
+    }
+
+    public void setSystemLoadThreshold(double systemLoadThreshold) {
+        this.systemLoadThreshold = systemLoadThreshold;
+    }
+
+    public int getDelayedNonEventSweepThreshold() {
+        return delayedNonEventSweepThreshold;
+    }
+
+    public void setDelayedNonEventSweepThreshold(int delayedNonEventSweepThreshold) {
+        this.delayedNonEventSweepThreshold = delayedNonEventSweepThreshold;
+    }
+
     /**
      * Get an {@link Equality}
      *
@@ -10,6 +10,7 @@ import org.apache.accumulo.core.iterators.IteratorEnvironment;
 import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
 
 import datawave.edge.util.EdgeKey;
+import datawave.edge.util.EdgeKeyView;
 import datawave.query.config.EdgeQueryConfiguration;
 
 /**
@@ -20,6 +21,8 @@ public class DateTypeFilter extends Filter {
 
     protected boolean[] state;
 
+    private final EdgeKeyView view = new EdgeKeyView();
+
     @Override
     public SortedKeyValueIterator<Key,Value> deepCopy(IteratorEnvironment env) {
         DateTypeFilter result = (DateTypeFilter) super.deepCopy(env);
@@ -83,7 +86,7 @@ public class DateTypeFilter extends Filter {
     @Override
     public boolean accept(Key k, Value V) {
 
-        return (state[EdgeKey.getDateType(k).ordinal()]);
+        return (state[view.set(k).getDateType().ordinal()]);
     }
 
 }
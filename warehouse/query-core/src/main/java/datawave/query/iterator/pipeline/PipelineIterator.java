@@ -21,6 +21,7 @@ import org.apache.log4j.Logger;
 
 import datawave.core.iterators.IteratorThreadPoolManager;
 import datawave.query.attributes.Document;
+import datawave.query.iterator.LoadAverageWatchIterator;
 import datawave.query.iterator.NestedIterator;
 import datawave.query.iterator.NestedQuery;
 import datawave.query.iterator.NestedQueryIterator;
@@ -38,6 +39,8 @@ public class PipelineIterator implements Iterator<Entry<Key,Document>> {
     private static final Logger log = Logger.getLogger(PipelineIterator.class);
     protected final YieldCallback<Key> yield;
     protected final long yieldThresholdMs;
+    protected long loadAwareYieldThresholdMs = Long.MAX_VALUE;
+    protected double systemLoadThreshold = Double.MAX_VALUE;
     protected final NestedIterator<Key> docSource;
     protected final PipelinePool pipelines;
     protected final Queue<Tuple2<Future<?>,Pipeline>> evaluationQueue;
@@ -72,6 +75,59 @@ public class PipelineIterator implements Iterator<Entry<Key,Document>> {
         this.collectTimingDetails = collectTimingDetails;
     }
 
+    /**
+     * Time slice this scan while the system is under load. Once the load average per processor exceeds the system load threshold, the scan will yield after
+     * the load aware yield threshold instead of the yield threshold, releasing its scan thread to any queued scans.
+     *
+     * @param loadAwareYieldThresholdMs
+     *            the yield threshold while under load
+     * @param systemLoadThreshold
+     *            the load average per processor above which the system is under load
+     */
+    public void setLoadAwareYieldThreshold(long loadAwareYieldThresholdMs, double systemLoadThreshold) {
+        this.loadAwareYieldThresholdMs = loadAwareYieldThresholdMs;
+        this.systemLoadThreshold = systemLoadThreshold;
+    }
+
+    /**
+     * Get the time this scan may run before yielding, given the current system load
+     *
+     * @return the yield threshold in ms
+     */
+    protected long getYieldThresholdMs() {
+        if (loadAwareYieldThresholdMs < yieldThresholdMs && isUnderLoad()) {
+            return loadAwareYieldThresholdMs;
+        }
+        return yieldThresholdMs;
+    }
+
+    /**
+     * Determine whether the system is under load, i.e. the sampled load average per processor exceeds the system load threshold
+     *
+     * @return true if the system is under load
+     */
+    protected boolean isUnderLoad() {
+        return LoadAverageWatchIterator.isLoadAboveThreshold(systemLoadThreshold);
+    }
+
+    /**
+     * Yield the scan at a key, and record the yield in the query span
+     *
+     * @param key
+     *            the last key evaluated
+     * @param elapsedMs
+     *            the time spent since the scan was last resumed
+     */
+    protected void yieldAt(Key key, long elapsedMs) {
+        yield.yield(key);
+        if (querySpan != null) {
+            querySpan.yield();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Yielding at " + key + " after " + elapsedMs + "ms");
+        }
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -180,18 +236,15 @@ public class PipelineIterator implements Iterator<Entry<Key,Document>> {
             // we must have at least evaluated one thing in order to yield, otherwise we will have not progressed at all
             if (yield != null && lastKeyEvaluated != null) {
                 long delta = System.currentTimeMillis() - startMs;
-                if (delta > yieldThresholdMs) {
-                    yield.yield(lastKeyEvaluated);
-                    if (log.isDebugEnabled())
-                        log.debug("Yielding at " + lastKeyEvaluated);
+                long thresholdMs = getYieldThresholdMs();
+                if (delta > thresholdMs) {
+                    yieldAt(lastKeyEvaluated, delta);
                     throw new IterationInterruptedException("Yielding at " + lastKeyEvaluated);
                 }
                 try {
-                    result = poll(yieldThresholdMs - delta);
+                    result = poll(thresholdMs - delta);
                 } catch (TimeoutException e) {
-                    yield.yield(lastKeyEvaluated);
-                    if (log.isDebugEnabled())
-                        log.debug("Yielding at " + lastKeyEvaluated);
+                    yieldAt(lastKeyEvaluated, System.currentTimeMillis() - startMs);
                     throw new IterationInterruptedException("Yielding at " + lastKeyEvaluated);
                 }
             } else {
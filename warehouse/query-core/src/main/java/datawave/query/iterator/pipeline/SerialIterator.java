@@ -51,11 +51,9 @@ public class SerialIterator extends PipelineIterator {
                 result = currentPipeline.getResult();
                 if (null != result)
                     break;
-                if (yield != null && ((System.currentTimeMillis() - start) > yieldThresholdMs)) {
-                    yield.yield(docKey);
-                    if (log.isDebugEnabled()) {
-                        log.debug("Yielding at " + docKey);
-                    }
+                long elapsedMs = System.currentTimeMillis() - start;
+                if (yield != null && elapsedMs > getYieldThresholdMs()) {
+                    yieldAt(docKey, elapsedMs);
                     break;
                 }
             }
@@ -51,6 +51,11 @@ public class MultiThreadedQuerySpan extends QuerySpan {
         return getThreadSpecificQuerySpan().getYield();
     }
 
+    @Override
+    public long getPrunedRangeCount() {
+        return getThreadSpecificQuerySpan().getPrunedRangeCount();
+    }
+
     @Override
     public synchronized void next() {
         getThreadSpecificQuerySpan().next();
@@ -66,6 +71,11 @@ public class MultiThreadedQuerySpan extends QuerySpan {
         getThreadSpecificQuerySpan().yield();
     }
 
+    @Override
+    public synchronized void prunedRange() {
+        getThreadSpecificQuerySpan().prunedRange();
+    }
+
     @Override
     public void reset() {
         super.reset();
@@ -112,6 +122,11 @@ public class MultiThreadedQuerySpan extends QuerySpan {
         getThreadSpecificQuerySpan().setSourceCount(sourceCount);
     }
 
+    @Override
+    public void setPrunedRangeCount(long prunedRanges) {
+        getThreadSpecificQuerySpan().setPrunedRangeCount(prunedRanges);
+    }
+
     @Override
     public void setStageTimers(Map<String,Long> stageTimers) {
         getThreadSpecificQuerySpan().setStageTimers(stageTimers);
@@ -32,6 +32,8 @@ public class QuerySpan {
 
     protected boolean yield = false;
 
+    protected long prunedRanges = 0;
+
     private Map<String,Long> stageTimers = new LinkedHashMap<>();
 
     private long stageTimerTotal = 0;
@@ -52,7 +54,8 @@ public class QuerySpan {
         KeyAdjudicator,
         DocumentMetadata,
         LimitFields,
-        RemoveGroupingContext
+        RemoveGroupingContext,
+        PrunedTree
     };
 
     public QuerySpan(QueryStatsDClient client) {
@@ -110,10 +113,18 @@ public class QuerySpan {
         return false;
     }
 
+    public long getPrunedRangeCount() {
+        long prunedRangeCount = prunedRanges;
+        for (QuerySpan subSpan : sources) {
+            prunedRangeCount += subSpan.getPrunedRangeCount();
+        }
+        return prunedRangeCount;
+    }
+
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append(super.toString()).append(" sources:").append(getSourceCount()).append(" next:").append(getNextCount()).append(" seek:").append(getSeekCount())
-                        .append(" yield:").append(getYield());
+                        .append(" yield:").append(getYield()).append(" pruned:").append(getPrunedRangeCount());
         return sb.toString();
     }
 
@@ -158,6 +169,16 @@ public class QuerySpan {
         }
     }
 
+    public synchronized void prunedRange() {
+        prunedRanges++;
+        if (client != null) {
+            client.prunedRange();
+        }
+        if (log.isTraceEnabled()) {
+            logStack("prunedRange()");
+        }
+    }
+
     public void reset() {
         for (QuerySpan source : sources) {
             source.reset();
@@ -166,6 +187,7 @@ public class QuerySpan {
         next = 0;
         seek = 0;
         yield = false;
+        prunedRanges = 0;
         stageTimerTotal = 0;
         stageTimers.clear();
     }
@@ -179,7 +201,8 @@ public class QuerySpan {
     }
 
     public boolean hasEntries() {
-        if (this.getSeekCount() > 0 || this.getNextCount() > 0 || this.getYield() || this.getSourceCount() > 0 || !this.stageTimers.isEmpty()) {
+        if (this.getSeekCount() > 0 || this.getNextCount() > 0 || this.getYield() || this.getSourceCount() > 0 || this.getPrunedRangeCount() > 0
+                        || !this.stageTimers.isEmpty()) {
             return true;
         } else {
             return false;
@@ -214,6 +237,10 @@ public class QuerySpan {
         this.sourceCount = sourceCount;
     }
 
+    public void setPrunedRangeCount(long prunedRanges) {
+        this.prunedRanges = prunedRanges;
+    }
+
     public void setStageTimers(Map<String,Long> stageTimers) {
         this.stageTimers.clear();
         for (Map.Entry<String,Long> entry : stageTimers.entrySet()) {
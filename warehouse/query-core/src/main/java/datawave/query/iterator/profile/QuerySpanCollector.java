@@ -13,6 +13,7 @@ public class QuerySpanCollector {
     private AtomicLong nextCount = new AtomicLong();
     private AtomicBoolean yield = new AtomicBoolean();
     private AtomicLong sourceCount = new AtomicLong();
+    private AtomicLong prunedRangeCount = new AtomicLong();
     private Map<String,Long> stageTimers = new LinkedHashMap<>();
     private Logger log = Logger.getLogger(QuerySpan.class);
 
@@ -24,6 +25,7 @@ public class QuerySpanCollector {
                 nextCount.addAndGet(querySpan.getNextCount());
                 yield.set(querySpan.getYield());
                 sourceCount.addAndGet(querySpan.getSourceCount());
+                prunedRangeCount.addAndGet(querySpan.getPrunedRangeCount());
                 Map<String,Long> timers = querySpan.getStageTimers();
                 for (Map.Entry<String,Long> entry : timers.entrySet()) {
                     String k = entry.getKey();
@@ -52,6 +54,7 @@ public class QuerySpanCollector {
                 combinedQuerySpan.setSeek(this.seekCount.getAndSet(0));
                 combinedQuerySpan.setYield(this.yield.getAndSet(false));
                 combinedQuerySpan.setSourceCount(this.sourceCount.getAndSet(0));
+                combinedQuerySpan.setPrunedRangeCount(this.prunedRangeCount.getAndSet(0));
                 combinedQuerySpan.setStageTimers(this.stageTimers);
                 this.stageTimers.clear();
             }
@@ -61,7 +64,7 @@ public class QuerySpanCollector {
 
     public boolean hasEntries() {
         if (this.seekCount.intValue() > 0 || this.nextCount.intValue() > 0 || this.yield.get() || this.sourceCount.intValue() > 0
-                        || !this.stageTimers.isEmpty()) {
+                        || this.prunedRangeCount.intValue() > 0 || !this.stageTimers.isEmpty()) {
             return true;
         } else {
             return false;
@@ -86,7 +89,7 @@ public class QuerySpanCollector {
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append(super.toString()).append(" seek:").append(seekCount).append(" next:").append(nextCount).append(" yield:").append(yield).append(" sources:")
-                        .append(sourceCount);
+                        .append(sourceCount).append(" pruned:").append(prunedRangeCount);
         return sb.toString();
     }
 
@@ -119,6 +122,10 @@ public class QuerySpanCollector {
         return sourceCount.longValue();
     }
 
+    public long getPrunedRangeCount() {
+        return prunedRangeCount.longValue();
+    }
+
     public Map<String,Long> getStageTimers() {
         return Collections.unmodifiableMap(stageTimers);
     }
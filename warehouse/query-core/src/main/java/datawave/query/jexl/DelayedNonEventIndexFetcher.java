@@ -0,0 +1,270 @@
+package datawave.query.jexl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.PartialKey;
+import org.apache.accumulo.core.data.Range;
+import org.apache.commons.jexl3.parser.JexlNode;
+import org.apache.hadoop.io.Text;
+import org.apache.log4j.Logger;
+
+import com.google.common.collect.Multimap;
+
+import datawave.query.attributes.Document;
+import datawave.query.function.Equality;
+import datawave.query.iterator.NestedIterator;
+import datawave.query.iterator.SeekableIterator;
+import datawave.query.jexl.visitors.IteratorBuildingVisitor;
+
+/**
+ * Fetches the values of delayed non-event fields for a document, on behalf of a {@link DelayedNonEventIndexContext}. A single fetcher is shared by every
+ * document evaluated by a pipeline, and therefore lives as long as the scan session.
+ * <p>
+ * By default the delayed sub trees of a field are rebuilt and seeked for each document, limited to that document. Documents are evaluated in sorted order, so
+ * once more than {@code sweepThreshold} documents within a shard have required the same field, the delayed sub trees of that field are instead built once over
+ * the remainder of the shard. The resulting iterators are then advanced from one document to the next, resolving each subsequent document with a move along a
+ * single ordered sweep of the field index rather than a new set of iterators.
+ * <p>
+ * A document that precedes the position of a sweep, e.g. after a re-seek, simply starts a new sweep from that document.
+ */
+public class DelayedNonEventIndexFetcher {
+    private static final Logger log = Logger.getLogger(DelayedNonEventIndexFetcher.class);
+
+    private final IteratorBuildingVisitor iteratorBuildingVisitor;
+    private final Multimap<String,JexlNode> delayedNonEventFieldMap;
+    private final Collection<ByteSequence> columnFamilies;
+    private final boolean inclusive;
+    private final Equality equality;
+    private final int sweepThreshold;
+
+    /**
+     * the shard of the most recently fetched document, and the number of documents fetched individually per field within it
+     */
+    private Text row = null;
+    private final Map<String,Integer> fetchCounts = new HashMap<>();
+
+    /**
+     * the open sweeps, per field, for the current shard
+     */
+    private final Map<String,List<Sweep>> sweeps = new HashMap<>();
+
+    /**
+     * @param iteratorBuildingVisitor
+     *            the visitor used to build iterators for the delayed sub trees
+     * @param delayedNonEventFieldMap
+     *            the delayed sub trees, keyed by field
+     * @param columnFamilies
+     *            the column families to seek with
+     * @param inclusive
+     *            whether the column families are inclusive
+     * @param equality
+     *            determines whether a field index key belongs to a document
+     * @param sweepThreshold
+     *            the number of documents within a shard to fetch individually before sweeping, or a negative number to never sweep
+     */
+    public DelayedNonEventIndexFetcher(IteratorBuildingVisitor iteratorBuildingVisitor, Multimap<String,JexlNode> delayedNonEventFieldMap,
+                    Collection<ByteSequence> columnFamilies, boolean inclusive, Equality equality, int sweepThreshold) {
+        this.iteratorBuildingVisitor = iteratorBuildingVisitor;
+        this.delayedNonEventFieldMap = delayedNonEventFieldMap;
+        this.columnFamilies = columnFamilies;
+        this.inclusive = inclusive;
+        this.equality = equality;
+        this.sweepThreshold = sweepThreshold;
+    }
+
+    public Multimap<String,JexlNode> getDelayedNonEventFieldMap() {
+        return delayedNonEventFieldMap;
+    }
+
+    /**
+     * Fetch the document fragments of all delayed sub trees for a field within a document
+     *
+     * @param name
+     *            the name of the field to fetch
+     * @param docRange
+     *            the range of the document
+     * @return the list of Document fragments for the field
+     * @throws IOException
+     *             if there is an issue with read/write
+     */
+    public List<Document> fetch(String name, Range docRange) throws IOException {
+        Key docKey = docRange.getStartKey();
+        if (!docKey.getRow().equals(row)) {
+            row = docKey.getRow();
+            fetchCounts.clear();
+            sweeps.clear();
+        }
+
+        List<Sweep> fieldSweeps = sweeps.get(name);
+        if (fieldSweeps != null && !fieldSweeps.isEmpty() && fieldSweeps.get(0).isBeyond(docKey)) {
+            fieldSweeps = null;
+        }
+
+        if (fieldSweeps == null) {
+            int fetchCount = fetchCounts.merge(name, 1, Integer::sum);
+            if (sweepThreshold < 0 || fetchCount <= sweepThreshold) {
+                sweeps.remove(name);
+                return fetchDocument(name, docRange);
+            }
+
+            fieldSweeps = startSweeps(name, docKey);
+            sweeps.put(name, fieldSweeps);
+        }
+
+        List<Document> documentList = new ArrayList<>();
+        for (Sweep sweep : fieldSweeps) {
+            sweep.fetch(docKey, documentList);
+        }
+        return documentList;
+    }
+
+    /**
+     * Use the IteratorBuildingVisitor limited to the current docRange to parse all delayed sub trees of the query. From those delayed sub trees initialize all
+     * iterators matching the target field and aggregate all partial Documents into a list
+     *
+     * @param name
+     *            the name of the field to fetch on demand
+     * @param docRange
+     *            the range of the document
+     * @return the list of Document objects that were fetched from all delayed iterators associated with the on-demand field
+     * @throws IOException
+     *             if there is an issue with read/write
+     */
+    private List<Document> fetchDocument(String name, Range docRange) throws IOException {
+        List<Document> documentList = new ArrayList<>();
+
+        // limit the ranges to use to the current document
+        iteratorBuildingVisitor.limit(docRange);
+
+        // for each sub tree build the nested iterator
+        for (JexlNode delayedNonEventNode : delayedNonEventFieldMap.get(name)) {
+            // for each leaf, see if its a match for the target field
+            for (NestedIterator<Key> leaf : buildLeaves(delayedNonEventNode)) {
+                // init/seek the leaf
+                leaf.initialize();
+                if (leaf instanceof SeekableIterator) {
+                    ((SeekableIterator) leaf).seek(docRange, columnFamilies, inclusive);
+                }
+
+                // for each value off the leaf add it to the document list as long as equality accepts it
+                while (leaf.hasNext()) {
+                    Key nextKey = leaf.next();
+                    if (equality.partOf(docRange.getStartKey(), nextKey)) {
+                        documentList.add(leaf.document());
+                    }
+                }
+            }
+        }
+
+        return documentList;
+    }
+
+    /**
+     * Build iterators for all delayed sub trees of a field which cover the remainder of the shard, from the given document onwards
+     *
+     * @param name
+     *            the name of the field
+     * @param docKey
+     *            the first document to sweep
+     * @return the sweeps
+     * @throws IOException
+     *             if there is an issue with read/write
+     */
+    private List<Sweep> startSweeps(String name, Key docKey) throws IOException {
+        Range sweepRange = new Range(new Key(docKey.getRow(), docKey.getColumnFamily()), true, new Key(docKey.getRow()).followingKey(PartialKey.ROW), false);
+        if (log.isDebugEnabled()) {
+            log.debug("Sweeping delayed field " + name + " over " + sweepRange);
+        }
+
+        // build iterators over the field index rather than for a single document
+        iteratorBuildingVisitor.setLimitLookup(false).setRange(null);
+
+        List<Sweep> fieldSweeps = new ArrayList<>();
+        for (JexlNode delayedNonEventNode : delayedNonEventFieldMap.get(name)) {
+            for (NestedIterator<Key> leaf : buildLeaves(delayedNonEventNode)) {
+                leaf.initialize();
+                if (leaf instanceof SeekableIterator) {
+                    ((SeekableIterator) leaf).seek(sweepRange, columnFamilies, inclusive);
+                }
+                fieldSweeps.add(new Sweep(leaf));
+            }
+        }
+        return fieldSweeps;
+    }
+
+    private Collection<NestedIterator<Key>> buildLeaves(JexlNode delayedNonEventNode) {
+        // sanity check
+        if (delayedNonEventNode == null) {
+            throw new IllegalStateException("Delayed nonEventNode must not be null");
+        }
+
+        // reset the root
+        iteratorBuildingVisitor.resetRoot();
+
+        // construct the index iterator for this node
+        delayedNonEventNode.jjtAccept(iteratorBuildingVisitor, null);
+        NestedIterator<Key> delayedNodeIterator = iteratorBuildingVisitor.root();
+        if (delayedNodeIterator != null) {
+            // get all the leaf nodes, this is very likely (always?)
+            return delayedNodeIterator.leaves();
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * An iterator over the remainder of a shard, positioned at the first key which has not yet been matched to a document
+     */
+    private class Sweep {
+        private final NestedIterator<Key> leaf;
+        private Key top;
+        private Document topDocument;
+        private Key lastDocKey;
+
+        Sweep(NestedIterator<Key> leaf) {
+            this.leaf = leaf;
+            advance();
+        }
+
+        /**
+         * @param docKey
+         *            a document key
+         * @return true if this sweep has already reached the document, and can no longer fetch it
+         */
+        boolean isBeyond(Key docKey) {
+            return lastDocKey != null && lastDocKey.compareTo(docKey, PartialKey.ROW_COLFAM) >= 0;
+        }
+
+        void fetch(Key docKey, List<Document> documentList) {
+            lastDocKey = docKey;
+
+            // skip anything which precedes this document
+            if (top != null && top.compareTo(docKey, PartialKey.ROW_COLFAM) < 0 && !equality.partOf(docKey, top)) {
+                top = leaf.move(docKey);
+                topDocument = (top == null ? null : leaf.document());
+            }
+
+            while (top != null && equality.partOf(docKey, top)) {
+                documentList.add(topDocument);
+                advance();
+            }
+        }
+
+        private void advance() {
+            if (leaf.hasNext()) {
+                top = leaf.next();
+                topDocument = leaf.document();
+            } else {
+                top = null;
+                topDocument = null;
+            }
+        }
+    }
+}
@@ -89,7 +89,7 @@ public class ContentFunctions {
      * @return a collection of fields that satisfy the content function
      */
     public static Collection<String> within(int distance, TermOffsetMap termOffsetMap, String... terms) {
-        return new ContentUnorderedEvaluator(Collections.emptySet(), distance, Float.NEGATIVE_INFINITY, termOffsetMap, terms).evaluate();
+        return unordered(Collections.emptySet(), distance, Float.NEGATIVE_INFINITY, termOffsetMap, terms);
     }
 
     /**
@@ -107,7 +107,7 @@ public class ContentFunctions {
      * @see #within(int, TermOffsetMap, String...)
      */
     public static Collection<String> within(Object zone, int distance, TermOffsetMap termOffsetMap, String... terms) {
-        return new ContentUnorderedEvaluator(getFields(zone), distance, Float.NEGATIVE_INFINITY, termOffsetMap, terms).evaluate();
+        return unordered(getFields(zone), distance, Float.NEGATIVE_INFINITY, termOffsetMap, terms);
     }
 
     /**
@@ -125,7 +125,7 @@ public class ContentFunctions {
      * @see #within(int, TermOffsetMap, String...)
      */
     public static Collection<String> within(Iterable<?> zones, int distance, TermOffsetMap termOffsetMap, String... terms) {
-        return new ContentUnorderedEvaluator(getFields(zones), distance, Float.NEGATIVE_INFINITY, termOffsetMap, terms).evaluate();
+        return unordered(getFields(zones), distance, Float.NEGATIVE_INFINITY, termOffsetMap, terms);
     }
 
     /**
@@ -182,7 +182,7 @@ public class ContentFunctions {
      * @return a collection of fields that satisfy the content function
      */
     public static Collection<String> phrase(TermOffsetMap termOffsetMap, String... terms) {
-        return new ContentOrderedEvaluator(Collections.emptySet(), 1, Float.NEGATIVE_INFINITY, termOffsetMap, terms).evaluate();
+        return ordered(Collections.emptySet(), 1, Float.NEGATIVE_INFINITY, termOffsetMap, terms);
     }
 
     /**
@@ -197,7 +197,7 @@ public class ContentFunctions {
      * @return a collection of fields that satisfy the content function
      */
     public static Collection<String> phrase(Object zone, TermOffsetMap termOffsetMap, String... terms) {
-        return new ContentOrderedEvaluator(getFields(zone), 1, Float.NEGATIVE_INFINITY, termOffsetMap, terms).evaluate();
+        return ordered(getFields(zone), 1, Float.NEGATIVE_INFINITY, termOffsetMap, terms);
     }
 
     /**
@@ -212,7 +212,7 @@ public class ContentFunctions {
      * @return a collection of fields that satisfy the content function
      */
     public static Collection<String> scoredPhrase(Number minScore, TermOffsetMap termOffsetMap, String... terms) {
-        return new ContentOrderedEvaluator(Collections.emptySet(), 1, minScore.floatValue(), termOffsetMap, terms).evaluate();
+        return ordered(Collections.emptySet(), 1, minScore.floatValue(), termOffsetMap, terms);
     }
 
     /**
@@ -229,7 +229,7 @@ public class ContentFunctions {
      * @return a collection of fields that satisfy the content function
      */
     public static Collection<String> scoredPhrase(Object zone, Number minScore, TermOffsetMap termOffsetMap, String... terms) {
-        return new ContentOrderedEvaluator(getFields(zone), 1, minScore.floatValue(), termOffsetMap, terms).evaluate();
+        return ordered(getFields(zone), 1, minScore.floatValue(), termOffsetMap, terms);
     }
 
     /**
@@ -244,7 +244,27 @@ public class ContentFunctions {
      * @return a collection of fields that satisfy the content function
      */
     public static Collection<String> phrase(Iterable<?> zone, TermOffsetMap termOffsetMap, String... terms) {
-        return new ContentOrderedEvaluator(getFields(zone), 1, Float.NEGATIVE_INFINITY, termOffsetMap, terms).evaluate();
+        return ordered(getFields(zone), 1, Float.NEGATIVE_INFINITY, termOffsetMap, terms);
+    }
+
+    /**
+     * Evaluate an unordered content function, using the primitive evaluator if the term offset map was populated with lazily decoded term frequencies
+     */
+    private static Collection<String> unordered(Set<String> fields, int distance, float maxScore, TermOffsetMap termOffsetMap, String... terms) {
+        if (termOffsetMap != null && termOffsetMap.hasPrimitiveTermFrequencies()) {
+            return new PrimitiveContentUnorderedEvaluator(fields, distance, maxScore, termOffsetMap, terms).evaluate();
+        }
+        return new ContentUnorderedEvaluator(fields, distance, maxScore, termOffsetMap, terms).evaluate();
+    }
+
+    /**
+     * Evaluate an ordered content function, using the primitive evaluator if the term offset map was populated with lazily decoded term frequencies
+     */
+    private static Collection<String> ordered(Set<String> fields, int distance, float maxScore, TermOffsetMap termOffsetMap, String... terms) {
+        if (termOffsetMap != null && termOffsetMap.hasPrimitiveTermFrequencies()) {
+            return new PrimitiveContentOrderedEvaluator(fields, distance, maxScore, termOffsetMap, terms).evaluate();
+        }
+        return new ContentOrderedEvaluator(fields, distance, maxScore, termOffsetMap, terms).evaluate();
     }
 
     /**
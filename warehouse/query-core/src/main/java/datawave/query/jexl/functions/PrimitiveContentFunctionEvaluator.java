@@ -0,0 +1,187 @@
+package datawave.query.jexl.functions;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+import datawave.ingest.protobuf.TermWeightPosition;
+import datawave.query.postprocessing.tf.TermOffsetMap;
+
+/**
+ * An abstract class for the ordered and unordered content evaluators which operate over {@link PrimitiveTermFrequencyList}s. This mirrors
+ * {@link ContentFunctionEvaluator}, however the event id intersection is computed without decoding any offsets and only the zones that survive it are decoded
+ * into primitive arrays.
+ */
+public abstract class PrimitiveContentFunctionEvaluator {
+    private static final Logger log = Logger.getLogger(PrimitiveContentFunctionEvaluator.class);
+    protected static final int DEFAULT_MAX_SCORE = TermWeightPosition.positionScoreToTermWeightScore(Float.NEGATIVE_INFINITY);
+
+    protected final Set<String> fields;
+    protected final int distance;
+    protected final String[] terms;
+    protected final TermOffsetMap termOffsetMap;
+    protected final boolean canProcess;
+    protected final int maxScore;
+    protected PrimitiveTermFrequencyList[] termFrequencyLists;
+    protected Set<String> eventIds;
+
+    public PrimitiveContentFunctionEvaluator(Set<String> fields, int distance, float maxScore, TermOffsetMap termOffsetMap, String... terms) {
+        this.fields = fields;
+        this.distance = distance;
+        this.maxScore = TermWeightPosition.positionScoreToTermWeightScore(maxScore);
+        this.termOffsetMap = termOffsetMap;
+        this.terms = terms;
+
+        this.canProcess = initialize();
+    }
+
+    /**
+     * Evaluate the function based on the positions of each term within a single field of a single event. There is one set of positions per term, in term
+     * order.
+     *
+     * @param field
+     *            the field where the offsets were found
+     * @param eventId
+     *            the event id (see @TermFrequencyList.getEventId(Key))
+     * @param positions
+     *            the decoded positions for each term
+     * @return true if the positions satisfy the function
+     */
+    protected abstract boolean evaluate(String field, String eventId, PrimitiveTermFrequencyList.Positions[] positions);
+
+    /**
+     * Validate and initialize this class. This will validate the arguments and compute the intersection of event ids across the terms.
+     *
+     * @return true if valid, false if not valid.
+     */
+    protected boolean initialize() {
+        if (termOffsetMap == null || distance < 0 || terms.length < 2) {
+            if (log.isTraceEnabled()) {
+                log.trace("Failing because of bad arguments: " + distance + " " + Arrays.toString(terms));
+            }
+            return false;
+        }
+
+        termFrequencyLists = new PrimitiveTermFrequencyList[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            String term = terms[i];
+            if (term == null) {
+                if (log.isTraceEnabled()) {
+                    log.trace("Failing process() because of a null term");
+                }
+                return false;
+            }
+
+            PrimitiveTermFrequencyList tfList = termOffsetMap.getPrimitiveTermFrequencyList(term);
+            if (tfList == null || tfList.isEmpty()) {
+                if (log.isTraceEnabled()) {
+                    log.trace("Failing process() because of a null or empty offset list for " + term);
+                }
+                return false;
+            }
+            termFrequencyLists[i] = tfList;
+
+            if (eventIds == null) {
+                eventIds = new HashSet<>(tfList.eventIds());
+            } else {
+                eventIds.retainAll(tfList.eventIds());
+            }
+
+            // search space pruned to zero, no reason to continue iterating through terms
+            if (eventIds.isEmpty()) {
+                if (log.isTraceEnabled()) {
+                    log.trace("Failing process() because of an empty event id intersection across the terms");
+                }
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Evaluate the function against every event and field that all terms have in common.
+     *
+     * @return a collection of fields that satisfied the function, or en empty collection if no field hit
+     */
+    public Collection<String> evaluate() {
+        if (!canProcess) {
+            return Collections.emptySet();
+        }
+
+        Set<String> hitFields = new HashSet<>();
+
+        // only fields containing the first term are candidates, and the remaining terms are checked per field below
+        Set<String> candidateFields = termFrequencyLists[0].fields();
+        PrimitiveTermFrequencyList.Positions[] positions = new PrimitiveTermFrequencyList.Positions[terms.length];
+
+        for (String eventId : eventIds) {
+            for (String field : candidateFields) {
+                if (!fields.isEmpty() && !fields.contains(field)) {
+                    continue;
+                }
+
+                if (!gatherPositions(field, eventId, positions)) {
+                    continue;
+                }
+
+                if (evaluate(field, eventId, positions)) {
+                    if (log.isTraceEnabled()) {
+                        log.trace("Content evaluation in " + field + '(' + eventId + ") over terms " + Arrays.toString(terms) + " satisfied the content function");
+                    }
+                    hitFields.add(field);
+                } else if (log.isTraceEnabled()) {
+                    log.trace("Content evaluation in " + field + '(' + eventId + ") over terms " + Arrays.toString(terms)
+                                    + " did not satisfy the content function");
+                }
+            }
+            // returning on the first event that satisfies the function will potentially miss
+            // other valid hit fields
+        }
+
+        return hitFields.isEmpty() ? Collections.emptySet() : hitFields;
+    }
+
+    /**
+     * Look up the positions for every term in the given field and event, using the same zone resolution as {@link ContentFunctionEvaluator#evaluate()}
+     *
+     * @return true if every term has at least one position in the field
+     */
+    private boolean gatherPositions(String field, String eventId, PrimitiveTermFrequencyList.Positions[] positions) {
+        for (int i = 0; i < terms.length; i++) {
+            PrimitiveTermFrequencyList.Positions termPositions = termFrequencyLists[i].getPositions(new TermFrequencyList.Zone(field, true, eventId));
+            // if no offsets, but we are explicitly looking for this field (i.e. not unfielded), then check for a non-content expansion zone
+            if ((termPositions == null || termPositions.size() == 0) && fields.contains(field)) {
+                termPositions = termFrequencyLists[i].getPositions(new TermFrequencyList.Zone(field, false, eventId));
+            }
+            if (termPositions == null || termPositions.size() == 0) {
+                return false;
+            }
+            positions[i] = termPositions;
+        }
+        return true;
+    }
+
+    /**
+     * Determine if a position is eligible given the max score
+     *
+     * @param positions
+     *            the positions
+     * @param i
+     *            the position index
+     * @return true if the position should be considered
+     */
+    protected boolean isScoreAccepted(PrimitiveTermFrequencyList.Positions positions, int i) {
+        return maxScore == DEFAULT_MAX_SCORE || positions.score(i) <= maxScore;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{fields=" + fields + ", distance=" + distance + ", terms=" + Arrays.toString(terms) + ", termOffsetMap="
+                        + termOffsetMap + ", canProcess=" + canProcess + ", eventIds=" + eventIds + '}';
+    }
+}
@@ -0,0 +1,219 @@
+package datawave.query.jexl.functions;
+
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+import datawave.query.postprocessing.tf.TermOffsetMap;
+
+/**
+ * A {@link ContentOrderedEvaluator} equivalent for content:phrase() and content:scoredPhrase() that operates over the primitive position arrays of a
+ * {@link PrimitiveTermFrequencyList}.
+ * <p>
+ * This walks the positions exactly as {@link ContentOrderedEvaluator} walks its sorted sets: the positions of each term are trimmed so that they follow the
+ * first position of the previous term, alternatives are tried by moving at most one term one position at a time, and otherwise the first term is advanced.
+ * Each sorted set is represented by the index of its first position in an array of the eligible positions of the term, and the trimming gallops to the next
+ * candidate rather than polling one position at a time. Both evaluators therefore find the same phrases, and record the same phrase offsets.
+ */
+public class PrimitiveContentOrderedEvaluator extends PrimitiveContentFunctionEvaluator {
+    private static final Logger log = Logger.getLogger(PrimitiveContentOrderedEvaluator.class);
+
+    public PrimitiveContentOrderedEvaluator(Set<String> fields, int distance, float maxScore, TermOffsetMap termOffsetMap, String... terms) {
+        super(fields, distance, maxScore, termOffsetMap, terms);
+    }
+
+    @Override
+    protected boolean evaluate(String field, String eventId, PrimitiveTermFrequencyList.Positions[] positions) {
+        int[][] eligible = new int[positions.length][];
+        for (int i = 0; i < positions.length; i++) {
+            eligible[i] = getEligible(positions[i]);
+            // if any term has no eligible positions a match is not possible
+            if (eligible[i].length == 0) {
+                return false;
+            }
+        }
+
+        // the index of the first remaining position of each term
+        int[] firsts = new int[positions.length];
+
+        // apply a trim, which fails if it leaves no positions for a term
+        if (!trim(positions, eligible, firsts)) {
+            return false;
+        }
+
+        while (!isConverged(field, eventId, positions, eligible, firsts)) {
+            // look for alternatives that also satisfy convergence within each term before rolling forward. Move at most one term one position until there are
+            // no alternatives that satisfy the distance left
+            int[] alternatives = trimAlternatives(positions, eligible, firsts);
+            boolean alternativeConverged = false;
+            while (alternatives != null && !(alternativeConverged = isConverged(field, eventId, positions, eligible, alternatives))) {
+                alternatives = trimAlternatives(positions, eligible, alternatives);
+            }
+
+            // found a valid alternative
+            if (alternativeConverged) {
+                return true;
+            }
+
+            // if no alternatives, move to the next first term and start again, ensuring that wasn't the last one
+            if (++firsts[0] == eligible[0].length) {
+                return false;
+            }
+
+            // trim whatever is left
+            if (!trim(positions, eligible, firsts)) {
+                return false;
+            }
+        }
+
+        // converged on the phrase
+        return true;
+    }
+
+    /**
+     * @return the indexes of the positions within the max score, in position order
+     */
+    private int[] getEligible(PrimitiveTermFrequencyList.Positions termPositions) {
+        int[] eligible = new int[termPositions.size()];
+        int count = 0;
+        for (int i = 0; i < termPositions.size(); i++) {
+            if (isScoreAccepted(termPositions, i)) {
+                eligible[count++] = i;
+            }
+        }
+        if (count < eligible.length) {
+            int[] accepted = new int[count];
+            System.arraycopy(eligible, 0, accepted, 0, count);
+            return accepted;
+        }
+        return eligible;
+    }
+
+    /**
+     * Advance the first position of each term until it is at or after the first position of the previous term, and not the same position of the same term
+     *
+     * @return false if a term has no positions left
+     */
+    private boolean trim(PrimitiveTermFrequencyList.Positions[] positions, int[][] eligible, int[] firsts) {
+        for (int i = 0; i + 1 < positions.length; i++) {
+            int first = eligible[i][firsts[i]];
+            int low = positions[i].lowOffset(first);
+            int offset = positions[i].offset(first);
+
+            // advance second until it is not less than first
+            int second = gallop(positions[i + 1], eligible[i + 1], firsts[i + 1], low, offset);
+
+            // and past first if they are the same term at the same position
+            if (second < eligible[i + 1].length && terms[i].equals(terms[i + 1]) && positions[i + 1].compare(eligible[i + 1][second], low, offset) == 0) {
+                second++;
+            }
+
+            if (second == eligible[i + 1].length) {
+                return false;
+            }
+            firsts[i + 1] = second;
+        }
+        return true;
+    }
+
+    /**
+     * Find the first eligible position at or after the given low offset and offset, galloping forward from <code>from</code>
+     *
+     * @return the index in <code>eligible</code> of the position, or its length if there is none
+     */
+    private static int gallop(PrimitiveTermFrequencyList.Positions termPositions, int[] eligible, int from, int lowOffset, int offset) {
+        if (from >= eligible.length || termPositions.compare(eligible[from], lowOffset, offset) >= 0) {
+            return from;
+        }
+
+        // exponential probe for an upper bound, then binary search the last step
+        int low = from;
+        int step = 1;
+        int high = from + step;
+        while (high < eligible.length && termPositions.compare(eligible[high], lowOffset, offset) < 0) {
+            low = high;
+            step <<= 1;
+            high = from + step;
+        }
+        high = Math.min(high, eligible.length);
+
+        // invariant: position at low is less than the target, position at high (if any) is not
+        while (low + 1 < high) {
+            int mid = (low + high) >>> 1;
+            if (termPositions.compare(eligible[mid], lowOffset, offset) < 0) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Taking the first positions of each term, look for alternatives starting with the second term that also satisfy the distance requirement. Move at most
+     * one term one position. The given first positions are not modified.
+     *
+     * @return the first positions of the alternative, or null if no alternatives exist
+     */
+    private int[] trimAlternatives(PrimitiveTermFrequencyList.Positions[] positions, int[][] eligible, int[] firsts) {
+        int[] alternatives = firsts.clone();
+
+        for (int i = 1; i < positions.length; i++) {
+            int candidate = firsts[i] + 1;
+
+            // if there is a next position, and it is within the constraints of the distance, this is a valid alternative
+            if (candidate < eligible[i].length && !terms[i - 1].equals(terms[i])
+                            && isWithIn(positions[i - 1], eligible[i - 1][alternatives[i - 1]], positions[i], eligible[i][candidate])) {
+                // once there is a new alternative, leave all other terms alone to test it fully
+                alternatives[i] = candidate;
+                return alternatives;
+            }
+        }
+
+        // no good candidate exists, there are no alternatives
+        return null;
+    }
+
+    /**
+     * Test if the first positions of each term satisfy the distance requirement, recording the phrase if they do
+     *
+     * @return true if satisfied, false otherwise
+     */
+    private boolean isConverged(String field, String eventId, PrimitiveTermFrequencyList.Positions[] positions, int[][] eligible, int[] firsts) {
+        if (positions.length == 1) {
+            return true;
+        }
+
+        for (int i = 1; i < positions.length; i++) {
+            // test that these terms are within distance
+            if (!isWithIn(positions[i - 1], eligible[i - 1][firsts[i - 1]], positions[i], eligible[i][firsts[i]])) {
+                return false;
+            }
+        }
+
+        // Only record the phrase index if this is a targeted excerpt field.
+        if (termOffsetMap.shouldRecordPhraseIndex(field)) {
+            int last = positions.length - 1;
+            int startOffset = positions[0].offset(eligible[0][firsts[0]]);
+            int endOffset = positions[last].offset(eligible[last][firsts[last]]);
+            termOffsetMap.addPhraseIndexTriplet(field, eventId, startOffset, endOffset);
+            if (log.isTraceEnabled()) {
+                log.trace("Adding phrase indexes [" + startOffset + "," + endOffset + "] for field " + field + " for event " + eventId + " to jexl context");
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determine if a position may follow another, as with the forward <code>isWithIn</code> of {@link ContentOrderedEvaluator}
+     *
+     * @return true if the next position is within the distance of the previous position
+     */
+    private boolean isWithIn(PrimitiveTermFrequencyList.Positions previous, int p, PrimitiveTermFrequencyList.Positions next, int q) {
+        // instructed to not match at the same position
+        if ((!previous.zeroOffsetMatch(p) || !next.zeroOffsetMatch(q)) && previous.offset(p) == next.offset(q)) {
+            return false;
+        }
+        return previous.lowOffset(p) <= next.offset(q) && next.lowOffset(q) <= previous.offset(p) + distance;
+    }
+}
@@ -0,0 +1,149 @@
+package datawave.query.jexl.functions;
+
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+import datawave.query.postprocessing.tf.TermOffsetMap;
+
+/**
+ * A {@link ContentUnorderedEvaluator} equivalent for content:within() and content:adjacent() that operates over the primitive position arrays of a
+ * {@link PrimitiveTermFrequencyList}.
+ * <p>
+ * This follows the same minimum/maximum window walk as the MultiOffsetMatcher in {@link ContentUnorderedEvaluator}. Rather than advancing the minimum term one
+ * position at a time, a galloping search skips every position that would remain the minimum while being too far from the current maximum to ever satisfy the
+ * distance. As in the original, repeated terms share a single list of positions and each occurrence consumes a distinct position from it.
+ */
+public class PrimitiveContentUnorderedEvaluator extends PrimitiveContentFunctionEvaluator {
+    private static final Logger log = Logger.getLogger(PrimitiveContentUnorderedEvaluator.class);
+
+    public PrimitiveContentUnorderedEvaluator(Set<String> fields, int distance, float maxScore, TermOffsetMap termOffsetMap, String... terms) {
+        super(fields, distance, maxScore, termOffsetMap, terms);
+    }
+
+    @Override
+    protected boolean evaluate(String field, String eventId, PrimitiveTermFrequencyList.Positions[] positions) {
+        int numTerms = terms.length;
+
+        // repeated terms share the positions of their first occurrence, and therefore its cursor
+        int[] group = new int[numTerms];
+        for (int i = 0; i < numTerms; i++) {
+            group[i] = i;
+            for (int j = 0; j < i; j++) {
+                if (terms[j].equals(terms[i])) {
+                    group[i] = j;
+                    break;
+                }
+            }
+        }
+        int[] groupCursor = new int[numTerms];
+
+        // the current position of each term, and the largest offset remaining to that term when it was initialized
+        int[] current = new int[numTerms];
+        int[] remainingMaxOffset = new int[numTerms];
+
+        int maxLow = Integer.MIN_VALUE;
+        int maxOffset = Integer.MIN_VALUE;
+        for (int i = 0; i < numTerms; i++) {
+            PrimitiveTermFrequencyList.Positions termPositions = positions[group[i]];
+            int next = nextAccepted(termPositions, groupCursor[group[i]]);
+            if (next == termPositions.size()) {
+                if (log.isTraceEnabled()) {
+                    log.trace("The offset list for " + terms[i] + " has no remaining elements. Exiting");
+                }
+                return false;
+            }
+            remainingMaxOffset[i] = maxAcceptedOffset(termPositions, next);
+            current[i] = next;
+            groupCursor[group[i]] = next + 1;
+
+            if (i == 0 || termPositions.compare(next, maxLow, maxOffset) > 0) {
+                maxLow = termPositions.lowOffset(next);
+                maxOffset = termPositions.offset(next);
+            }
+        }
+
+        while (true) {
+            // find the term at the minimum position, and the next smallest position held by any other term
+            int min = 0;
+            for (int i = 1; i < numTerms; i++) {
+                if (positions[group[i]].compare(current[i], positions[group[min]].lowOffset(current[min]), positions[group[min]].offset(current[min])) < 0) {
+                    min = i;
+                }
+            }
+            int bound = -1;
+            for (int i = 0; i < numTerms; i++) {
+                if (i != min && (bound == -1 || positions[group[i]].compare(current[i], positions[group[bound]].lowOffset(current[bound]),
+                                positions[group[bound]].offset(current[bound])) < 0)) {
+                    bound = i;
+                }
+            }
+
+            PrimitiveTermFrequencyList.Positions minPositions = positions[group[min]];
+            if ((long) maxLow - minPositions.offset(current[min]) <= distance) {
+                recordPhrase(field, eventId, minPositions.offset(current[min]), maxLow);
+                return true;
+            }
+
+            // if the maximum is more than distance from the largest value in this list, there is no way to satisfy
+            if ((long) maxLow - remainingMaxOffset[min] > distance) {
+                return false;
+            }
+
+            // Every position before the bound would be the next minimum in turn. None of them can move the maximum, so the first one within the distance
+            // of the maximum is a match. Positions whose low offset plus the largest skip count is still short of the distance cannot be that match.
+            int cursor = groupCursor[group[min]];
+            int boundIndex = minPositions.gallop(cursor, positions[group[bound]].lowOffset(current[bound]), positions[group[bound]].offset(current[bound]));
+            long threshold = (long) maxLow - distance;
+            int candidate = minPositions.gallopLowOffset(cursor, (int) Math.max(Integer.MIN_VALUE, threshold - minPositions.maxSkips()));
+            for (; candidate < boundIndex; candidate++) {
+                if (minPositions.offset(candidate) >= threshold && isScoreAccepted(minPositions, candidate)) {
+                    recordPhrase(field, eventId, minPositions.offset(candidate), maxLow);
+                    return true;
+                }
+            }
+
+            // no match before the bound, so the term moves to its first position at or after the bound
+            int next = nextAccepted(minPositions, boundIndex);
+            if (next == minPositions.size()) {
+                // no more offsets from this list
+                return false;
+            }
+            current[min] = next;
+            groupCursor[group[min]] = next + 1;
+
+            if (minPositions.compare(next, maxLow, maxOffset) > 0) {
+                maxLow = minPositions.lowOffset(next);
+                maxOffset = minPositions.offset(next);
+            }
+        }
+    }
+
+    private int nextAccepted(PrimitiveTermFrequencyList.Positions positions, int from) {
+        int next = from;
+        while (next < positions.size() && !isScoreAccepted(positions, next)) {
+            next++;
+        }
+        return next;
+    }
+
+    private int maxAcceptedOffset(PrimitiveTermFrequencyList.Positions positions, int from) {
+        int max = Integer.MIN_VALUE;
+        for (int i = from; i < positions.size(); i++) {
+            if (isScoreAccepted(positions, i)) {
+                max = Math.max(max, positions.offset(i));
+            }
+        }
+        return max;
+    }
+
+    private void recordPhrase(String field, String eventId, int startOffset, int endOffset) {
+        // Only record the phrase index if this is a targeted excerpt field.
+        if (termOffsetMap.shouldRecordPhraseIndex(field)) {
+            termOffsetMap.addPhraseIndexTriplet(field, eventId, startOffset, endOffset);
+            if (log.isTraceEnabled()) {
+                log.trace("Adding phrase indexes [" + startOffset + "," + endOffset + "] for field " + field + " to jexl context");
+            }
+        }
+    }
+}
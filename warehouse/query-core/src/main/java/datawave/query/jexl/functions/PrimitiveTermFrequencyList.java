@@ -0,0 +1,559 @@
+package datawave.query.jexl.functions;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.collect.TreeMultimap;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+
+import datawave.ingest.protobuf.TermWeight;
+import datawave.ingest.protobuf.TermWeightPosition;
+
+/**
+ * A primitive, lazily decoded alternative to {@link TermFrequencyList}. The serialized {@link TermWeight.Info} for each {@link TermFrequencyList.Zone} is
+ * retained as-is and only decoded into primitive int arrays the first time the positions for that zone are requested. Content functions that fail on the
+ * event id or field intersection therefore never pay for decoding, and those that do evaluate never box an offset.
+ * <p>
+ * Decoded positions are sorted in the same order as {@link TermWeightPosition#compareTo(TermWeightPosition)}, i.e. by low offset and then offset, and positions
+ * that compare equal are collapsed in the same way a {@link TreeMultimap} would collapse them.
+ */
+public class PrimitiveTermFrequencyList {
+    private static final Logger log = Logger.getLogger(PrimitiveTermFrequencyList.class);
+
+    private static final int TERM_OFFSET_FIELD = 3;
+    private static final int PREV_SKIPS_FIELD = 4;
+    private static final int SCORE_FIELD = 5;
+    private static final int ZERO_OFFSET_MATCH_FIELD = 6;
+
+    private final Map<TermFrequencyList.Zone,Positions> positionsPerZone = new HashMap<>();
+
+    /**
+     * Add a serialized {@link TermWeight.Info} for the specified zone. The bytes are not decoded until the positions for the zone are requested.
+     *
+     * @param zone
+     *            the zone
+     * @param encoded
+     *            a serialized TermWeight.Info, which must not be modified after being added
+     */
+    public void addEncodedOffsets(TermFrequencyList.Zone zone, byte[] encoded) {
+        checkNotNull(zone);
+        checkNotNull(encoded);
+
+        Positions positions = positionsPerZone.get(zone);
+        if (positions == null) {
+            positionsPerZone.put(zone, new Positions(encoded));
+        } else {
+            positions.addEncoded(encoded);
+        }
+    }
+
+    /**
+     * Get the positions for a zone, decoding them if required
+     *
+     * @param zone
+     *            the zone
+     * @return the positions, or null if this term did not occur in the zone
+     */
+    public Positions getPositions(TermFrequencyList.Zone zone) {
+        Positions positions = positionsPerZone.get(zone);
+        if (positions != null) {
+            positions.decode();
+        }
+        return positions;
+    }
+
+    public boolean isEmpty() {
+        return positionsPerZone.isEmpty();
+    }
+
+    /**
+     * Let clients ask what fields we are currently tracking.
+     *
+     * @return a set of fields
+     */
+    public Set<String> fields() {
+        if (positionsPerZone.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> fields = new HashSet<>();
+        for (TermFrequencyList.Zone zone : positionsPerZone.keySet()) {
+            fields.add(zone.getZone());
+        }
+        return fields;
+    }
+
+    /**
+     * Let clients ask what event ids we are currently tracking.
+     *
+     * @return a set of ids
+     */
+    public Set<String> eventIds() {
+        if (positionsPerZone.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> eventIds = new HashSet<>();
+        for (TermFrequencyList.Zone zone : positionsPerZone.keySet()) {
+            eventIds.add(zone.getEventId());
+        }
+        return eventIds;
+    }
+
+    /**
+     * Let clients ask what zones we are currently tracking.
+     *
+     * @return a set of zones
+     */
+    public Set<TermFrequencyList.Zone> zones() {
+        return Collections.unmodifiableSet(positionsPerZone.keySet());
+    }
+
+    /**
+     * Decode every zone into a boxed {@link TermFrequencyList}, for consumers that still require one
+     *
+     * @return an equivalent TermFrequencyList
+     */
+    public TermFrequencyList toTermFrequencyList() {
+        TreeMultimap<TermFrequencyList.Zone,TermWeightPosition> offsets = TreeMultimap.create();
+        TermWeightPosition.Builder builder = new TermWeightPosition.Builder();
+        for (Map.Entry<TermFrequencyList.Zone,Positions> entry : positionsPerZone.entrySet()) {
+            Positions positions = entry.getValue();
+            positions.decode();
+            for (int i = 0; i < positions.size(); i++) {
+                builder.setOffset(positions.offsets[i]);
+                builder.setPrevSkips(positions.prevSkips[i]);
+                builder.setScore(positions.scores[i]);
+                builder.setZeroOffsetMatch(positions.zeroOffsetMatch[i]);
+                offsets.put(entry.getKey(), builder.build());
+                builder.reset();
+            }
+        }
+        return new TermFrequencyList(offsets);
+    }
+
+    @Override
+    public String toString() {
+        return positionsPerZone.toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return positionsPerZone.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof PrimitiveTermFrequencyList) {
+            return positionsPerZone.equals(((PrimitiveTermFrequencyList) o).positionsPerZone);
+        }
+        return false;
+    }
+
+    /**
+     * The positions of a term within a single zone, backed by parallel primitive arrays. Callers must only read the arrays after the positions have been
+     * decoded, which {@link PrimitiveTermFrequencyList#getPositions(TermFrequencyList.Zone)} guarantees.
+     */
+    public static class Positions {
+        private List<byte[]> encoded;
+
+        private int size;
+        private int[] offsets;
+        private int[] lowOffsets;
+        private int[] prevSkips;
+        private int[] scores;
+        private boolean[] zeroOffsetMatch;
+        private int maxSkips;
+
+        Positions(byte[] encoded) {
+            this.encoded = new ArrayList<>(1);
+            this.encoded.add(encoded);
+        }
+
+        void addEncoded(byte[] bytes) {
+            if (encoded == null) {
+                throw new IllegalStateException("Cannot add offsets to positions which have already been decoded");
+            }
+            encoded.add(bytes);
+        }
+
+        public boolean isDecoded() {
+            return encoded == null;
+        }
+
+        /**
+         * @return the number of positions
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param i
+         *            the position index
+         * @return the maximum possible offset of a position, see {@link TermWeightPosition#getOffset()}
+         */
+        public int offset(int i) {
+            return offsets[i];
+        }
+
+        /**
+         * @param i
+         *            the position index
+         * @return the lowest possible offset of a position with respect to skips, see {@link TermWeightPosition#getLowOffset()}
+         */
+        public int lowOffset(int i) {
+            return lowOffsets[i];
+        }
+
+        public int score(int i) {
+            return scores[i];
+        }
+
+        public boolean zeroOffsetMatch(int i) {
+            return zeroOffsetMatch[i];
+        }
+
+        /**
+         * @return the largest number of skips of any position, which bounds the difference between {@link #offset(int)} and {@link #lowOffset(int)}
+         */
+        public int maxSkips() {
+            return maxSkips;
+        }
+
+        /**
+         * @return the largest offset of any position
+         */
+        public int maxOffset() {
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                max = Math.max(max, offsets[i]);
+            }
+            return max;
+        }
+
+        /**
+         * Compare the position at index i to the given low offset and offset, consistent with {@link TermWeightPosition#compareTo(TermWeightPosition)}
+         *
+         * @param i
+         *            the position index
+         * @param lowOffset
+         *            the other low offset
+         * @param offset
+         *            the other offset
+         * @return the comparison
+         */
+        public int compare(int i, int lowOffset, int offset) {
+            int result = Integer.compare(lowOffsets[i], lowOffset);
+            if (result != 0) {
+                return result;
+            }
+            return Integer.compare(offsets[i], offset);
+        }
+
+        /**
+         * Gallop forward from <code>from</code> to find the first position that is greater than or equal to the given low offset and offset.
+         *
+         * @param from
+         *            the index to start searching from, all positions before it are assumed to be less than the target
+         * @param lowOffset
+         *            the target low offset
+         * @param offset
+         *            the target offset
+         * @return the index of the first position at or after the target, or {@link #size()} if there is none
+         */
+        public int gallop(int from, int lowOffset, int offset) {
+            if (from >= size || compare(from, lowOffset, offset) >= 0) {
+                return from;
+            }
+
+            // exponential probe for an upper bound, then binary search the last step
+            int low = from;
+            int step = 1;
+            int high = from + step;
+            while (high < size && compare(high, lowOffset, offset) < 0) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            high = Math.min(high, size);
+
+            // invariant: position at low is less than the target, position at high (if any) is not
+            while (low + 1 < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(mid, lowOffset, offset) < 0) {
+                    low = mid;
+                } else {
+                    high = mid;
+                }
+            }
+            return high;
+        }
+
+        /**
+         * Gallop forward from <code>from</code> to find the first position whose low offset is greater than or equal to the target.
+         *
+         * @param from
+         *            the index to start searching from
+         * @param lowOffset
+         *            the target low offset
+         * @return the index of the first position with a low offset at or after the target, or {@link #size()} if there is none
+         */
+        public int gallopLowOffset(int from, int lowOffset) {
+            return gallop(from, lowOffset, Integer.MIN_VALUE);
+        }
+
+        /**
+         * Decode the retained TermWeight.Info bytes into the primitive arrays, if not done already
+         */
+        void decode() {
+            if (encoded == null) {
+                return;
+            }
+
+            IntBuffer offsetBuffer = new IntBuffer();
+            IntBuffer skipsBuffer = new IntBuffer();
+            IntBuffer scoresBuffer = new IntBuffer();
+            List<Boolean> zeroMatches = encoded.size() == 1 ? null : new ArrayList<>(encoded.size());
+            boolean zeroMatch = TermWeightPosition.DEFAULT_ZERO_OFFSET_MATCH;
+            int[] counts = new int[encoded.size()];
+
+            for (int e = 0; e < encoded.size(); e++) {
+                int offsetStart = offsetBuffer.size;
+                int skipsStart = skipsBuffer.size;
+                int scoresStart = scoresBuffer.size;
+                try {
+                    zeroMatch = decode(encoded.get(e), offsetBuffer, skipsBuffer, scoresBuffer);
+                } catch (IOException ex) {
+                    log.error("Could not deserialize TermWeight protocol buffer", ex);
+                    offsetBuffer.size = offsetStart;
+                    skipsBuffer.size = skipsStart;
+                    scoresBuffer.size = scoresStart;
+                }
+                int count = offsetBuffer.size - offsetStart;
+                counts[e] = count;
+
+                // offsets, skips, and scores are linked by index so lengths must match, otherwise use the defaults
+                if (skipsBuffer.size - skipsStart != count) {
+                    skipsBuffer.size = skipsStart;
+                    skipsBuffer.fill(TermWeightPosition.DEFAULT_PREV_SKIPS, count);
+                }
+                if (scoresBuffer.size - scoresStart != count) {
+                    scoresBuffer.size = scoresStart;
+                    scoresBuffer.fill(TermWeightPosition.DEFAULT_SCORE, count);
+                }
+                if (zeroMatches != null) {
+                    zeroMatches.add(zeroMatch);
+                }
+            }
+
+            int total = offsetBuffer.size;
+            int[] rawOffsets = offsetBuffer.values;
+            int[] rawSkips = skipsBuffer.values;
+            int[] rawScores = scoresBuffer.values;
+            boolean[] rawZeroMatch = new boolean[total];
+            if (zeroMatches == null) {
+                Arrays.fill(rawZeroMatch, 0, total, zeroMatch);
+            } else {
+                int index = 0;
+                for (int e = 0; e < counts.length; e++) {
+                    Arrays.fill(rawZeroMatch, index, index + counts[e], zeroMatches.get(e));
+                    index += counts[e];
+                }
+            }
+
+            int[] rawLowOffsets = new int[total];
+            for (int i = 0; i < total; i++) {
+                rawLowOffsets[i] = rawSkips[i] >= 0 ? rawOffsets[i] - rawSkips[i] : rawOffsets[i];
+            }
+
+            int[] order = sortOrder(rawLowOffsets, rawOffsets, total);
+
+            offsets = new int[order.length];
+            lowOffsets = new int[order.length];
+            prevSkips = new int[order.length];
+            scores = new int[order.length];
+            zeroOffsetMatch = new boolean[order.length];
+            maxSkips = 0;
+            for (int i = 0; i < order.length; i++) {
+                int j = order[i];
+                offsets[i] = rawOffsets[j];
+                lowOffsets[i] = rawLowOffsets[j];
+                prevSkips[i] = rawSkips[j];
+                scores[i] = rawScores[j];
+                zeroOffsetMatch[i] = rawZeroMatch[j];
+                maxSkips = Math.max(maxSkips, offsets[i] - lowOffsets[i]);
+            }
+            size = order.length;
+
+            // release the serialized form
+            encoded = null;
+        }
+
+        /**
+         * Decode a single TermWeight.Info directly from its wire format, appending to the supplied buffers
+         *
+         * @return the zeroOffsetMatch flag
+         */
+        private static boolean decode(byte[] bytes, IntBuffer offsets, IntBuffer skips, IntBuffer scores) throws IOException {
+            boolean zeroOffsetMatch = TermWeightPosition.DEFAULT_ZERO_OFFSET_MATCH;
+            CodedInputStream input = CodedInputStream.newInstance(bytes);
+            while (true) {
+                int tag = input.readTag();
+                if (tag == 0) {
+                    break;
+                }
+
+                IntBuffer target;
+                switch (WireFormat.getTagFieldNumber(tag)) {
+                    case TERM_OFFSET_FIELD:
+                        target = offsets;
+                        break;
+                    case PREV_SKIPS_FIELD:
+                        target = skips;
+                        break;
+                    case SCORE_FIELD:
+                        target = scores;
+                        break;
+                    case ZERO_OFFSET_MATCH_FIELD:
+                        zeroOffsetMatch = input.readBool();
+                        continue;
+                    default:
+                        if (!input.skipField(tag)) {
+                            return zeroOffsetMatch;
+                        }
+                        continue;
+                }
+
+                int wireType = WireFormat.getTagWireType(tag);
+                if (wireType == WireFormat.WIRETYPE_VARINT) {
+                    target.add(input.readUInt32());
+                } else if (wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    while (input.getBytesUntilLimit() > 0) {
+                        target.add(input.readUInt32());
+                    }
+                    input.popLimit(limit);
+                } else {
+                    throw new InvalidProtocolBufferException("Unexpected wire type " + wireType + " for TermWeight.Info field");
+                }
+            }
+            return zeroOffsetMatch;
+        }
+
+        /**
+         * Determine the order of the positions sorted by low offset then offset, dropping any later duplicates. Offsets are written in order at ingest, so the
+         * common case is a single pass over already sorted arrays.
+         */
+        private static int[] sortOrder(int[] lowOffsets, int[] offsets, int size) {
+            boolean sorted = true;
+            for (int i = 1; i < size && sorted; i++) {
+                int result = Integer.compare(lowOffsets[i - 1], lowOffsets[i]);
+                sorted = result < 0 || (result == 0 && offsets[i - 1] < offsets[i]);
+            }
+
+            int[] order;
+            if (sorted) {
+                order = new int[size];
+                for (int i = 0; i < size; i++) {
+                    order[i] = i;
+                }
+                return order;
+            }
+
+            // a stable sort keeps the first of any equal positions
+            Integer[] boxed = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                boxed[i] = i;
+            }
+            Arrays.sort(boxed, (a, b) -> {
+                int result = Integer.compare(lowOffsets[a], lowOffsets[b]);
+                return result != 0 ? result : Integer.compare(offsets[a], offsets[b]);
+            });
+
+            order = new int[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                int j = boxed[i];
+                if (count > 0) {
+                    int previous = order[count - 1];
+                    if (lowOffsets[previous] == lowOffsets[j] && offsets[previous] == offsets[j]) {
+                        continue;
+                    }
+                }
+                order[count++] = j;
+            }
+            return Arrays.copyOf(order, count);
+        }
+
+        @Override
+        public int hashCode() {
+            decode();
+            int result = 1;
+            for (int i = 0; i < size; i++) {
+                result = 31 * result + offsets[i];
+                result = 31 * result + lowOffsets[i];
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Positions)) {
+                return false;
+            }
+            Positions other = (Positions) o;
+            decode();
+            other.decode();
+            return size == other.size && Arrays.equals(offsets, 0, size, other.offsets, 0, size)
+                            && Arrays.equals(lowOffsets, 0, size, other.lowOffsets, 0, size);
+        }
+
+        @Override
+        public String toString() {
+            if (encoded != null) {
+                return "{encoded=" + encoded.size() + "}";
+            }
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(lowOffsets[i]).append('-').append(offsets[i]);
+            }
+            return sb.append(']').toString();
+        }
+    }
+
+    /**
+     * A minimal growable int array
+     */
+    private static class IntBuffer {
+        private int[] values = new int[16];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        void fill(int value, int count) {
+            for (int i = 0; i < count; i++) {
+                add(value);
+            }
+        }
+    }
+}
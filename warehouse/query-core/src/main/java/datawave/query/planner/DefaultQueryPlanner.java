@@ -185,6 +185,11 @@ public class DefaultQueryPlanner extends QueryPlanner implements Cloneable {
 
     public static final String EXCEED_TERM_EXPANSION_ERROR = "Query failed because it exceeded the query term expansion threshold";
 
+    /**
+     * The execution hint used by the Accumulo scan dispatcher to select a scan executor
+     */
+    public static final String SCAN_TYPE_HINT = "scan_type";
+
     protected boolean limitScanners = false;
 
     /**
@@ -536,6 +541,9 @@ public class DefaultQueryPlanner extends QueryPlanner implements Cloneable {
         addOption(cfg, QueryOptions.HIT_LIST, Boolean.toString(config.isHitList()), false);
         addOption(cfg, QueryOptions.TERM_FREQUENCY_FIELDS, Joiner.on(',').join(config.getQueryTermFrequencyFields()), false);
         addOption(cfg, QueryOptions.TERM_FREQUENCIES_REQUIRED, Boolean.toString(config.isTermFrequenciesRequired()), false);
+        addOption(cfg, QueryOptions.TERM_FREQUENCY_PRIMITIVE_OFFSETS, Boolean.toString(config.isPrimitiveTermOffsetsEnabled()), false);
+        addOption(cfg, QueryOptions.BLOOM_FILTER_PRUNING, Boolean.toString(config.isBloomFilterPruningEnabled()), false);
+        addOption(cfg, QueryOptions.DELAYED_NON_EVENT_SWEEP_THRESHOLD, Integer.toString(config.getDelayedNonEventSweepThreshold()), false);
         addOption(cfg, QueryOptions.QUERY, newQueryString, false);
         addOption(cfg, QueryOptions.QUERY_ID, config.getQuery().getId().toString(), false);
         addOption(cfg, QueryOptions.FULL_TABLE_SCAN_ONLY, Boolean.toString(isFullTable), false);
@@ -2187,6 +2195,8 @@ public class DefaultQueryPlanner extends QueryPlanner implements Cloneable {
                 addOption(cfg, QueryOptions.YIELD_THRESHOLD_MS, Long.toString(config.getYieldThresholdMs()), false);
             }
 
+            configureLoadAwareYield(config, cfg);
+
             addOption(cfg, QueryOptions.SORTED_UIDS, Boolean.toString(config.isSortedUIDs()), false);
 
             configureTypeMappings(config, cfg, metadataHelper, getCompressOptionMappings(), isPreload);
@@ -2269,6 +2279,38 @@ public class DefaultQueryPlanner extends QueryPlanner implements Cloneable {
         }
     }
 
+    /**
+     * Configure the yield threshold used while the tablet server is under load, unless the shard table scans are interactive
+     *
+     * @param config
+     *            shard query config
+     * @param cfg
+     *            iterator settings
+     */
+    protected void configureLoadAwareYield(ShardQueryConfiguration config, IteratorSetting cfg) {
+        if (config.getLoadAwareYieldThresholdMs() != Long.MAX_VALUE && config.getLoadAwareYieldThresholdMs() > 0 && !isInteractiveScan(config)) {
+            addOption(cfg, QueryOptions.LOAD_AWARE_YIELD_THRESHOLD_MS, Long.toString(config.getLoadAwareYieldThresholdMs()), false);
+            addOption(cfg, QueryOptions.SYSTEM_LOAD_THRESHOLD, Double.toString(config.getSystemLoadThreshold()), false);
+        }
+    }
+
+    /**
+     * Determine whether the shard table scans are interactive, i.e. the scan_type execution hint of the shard table is one of the configured interactive scan
+     * types. Interactive scans are dispatched to their own scan executors and are never time sliced under load.
+     *
+     * @param config
+     *            shard query config
+     * @return true if the shard table scans are interactive
+     */
+    protected boolean isInteractiveScan(ShardQueryConfiguration config) {
+        Map<String,String> hints = config.getTableHints() == null ? null : config.getTableHints().get(config.getTableName());
+        if (hints == null || config.getInteractiveScanTypes() == null) {
+            return false;
+        }
+        String scanType = hints.get(SCAN_TYPE_HINT);
+        return scanType != null && config.getInteractiveScanTypes().contains(scanType);
+    }
+
     /**
      * Configure options related to seek thresholds
      *
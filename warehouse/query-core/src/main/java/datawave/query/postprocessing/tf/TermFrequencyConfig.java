@@ -28,6 +28,8 @@ public class TermFrequencyConfig {
 
     private int tfAggregationThreshold;
 
+    private boolean primitiveTermOffsets;
+
     public ASTJexlScript getScript() {
         return script;
     }
@@ -100,4 +102,12 @@ public class TermFrequencyConfig {
     public void setTfAggregationThreshold(int tfAggregationThreshold) {
         this.tfAggregationThreshold = tfAggregationThreshold;
     }
+
+    public boolean isPrimitiveTermOffsets() {
+        return primitiveTermOffsets;
+    }
+
+    public void setPrimitiveTermOffsets(boolean primitiveTermOffsets) {
+        this.primitiveTermOffsets = primitiveTermOffsets;
+    }
 }
@@ -9,6 +9,7 @@ import java.util.StringJoiner;
 
 import org.javatuples.Triplet;
 
+import datawave.query.jexl.functions.PrimitiveTermFrequencyList;
 import datawave.query.jexl.functions.TermFrequencyList;
 
 /**
@@ -27,6 +28,12 @@ public class TermOffsetMap {
      */
     private final Map<String,TermFrequencyList> termFrequencies = new HashMap<>();
 
+    /**
+     * The lazily decoded term frequencies, with their corresponding terms. Populated instead of {@link #termFrequencies} when primitive term offsets are
+     * enabled.
+     */
+    private final Map<String,PrimitiveTermFrequencyList> primitiveTermFrequencies = new HashMap<>();
+
     /**
      * The phrase indexes found for hits.
      */
@@ -60,7 +67,48 @@ public class TermOffsetMap {
      * @return the term frequency list
      */
     public TermFrequencyList getTermFrequencyList(String field) {
-        return termFrequencies.get(field);
+        TermFrequencyList termFrequencyList = termFrequencies.get(field);
+        if (termFrequencyList == null) {
+            // fall back to decoding the primitive form for consumers that require the boxed form
+            PrimitiveTermFrequencyList primitiveList = primitiveTermFrequencies.get(field);
+            if (primitiveList != null) {
+                termFrequencyList = primitiveList.toTermFrequencyList();
+                termFrequencies.put(field, termFrequencyList);
+            }
+        }
+        return termFrequencyList;
+    }
+
+    /**
+     * Put the {@link PrimitiveTermFrequencyList} for the specified term
+     *
+     * @param term
+     *            the term
+     * @param termFrequencyList
+     *            the lazily decoded term frequency list
+     */
+    public void putPrimitiveTermFrequencyList(String term, PrimitiveTermFrequencyList termFrequencyList) {
+        primitiveTermFrequencies.put(term, termFrequencyList);
+    }
+
+    /**
+     * Return the lazily decoded term frequency list for the specified term.
+     *
+     * @param term
+     *            the term
+     * @return the primitive term frequency list, or null if none was populated
+     */
+    public PrimitiveTermFrequencyList getPrimitiveTermFrequencyList(String term) {
+        return primitiveTermFrequencies.get(term);
+    }
+
+    /**
+     * Return whether this map was populated with lazily decoded term frequency lists, in which case the primitive content function evaluators can be used.
+     *
+     * @return true if primitive term frequency lists are present
+     */
+    public boolean hasPrimitiveTermFrequencies() {
+        return !primitiveTermFrequencies.isEmpty();
     }
 
     /**
@@ -162,17 +210,19 @@ public class TermOffsetMap {
         }
         TermOffsetMap that = (TermOffsetMap) o;
         return gatherPhraseOffsets == that.gatherPhraseOffsets && Objects.equals(excerptFields, that.excerptFields)
-                        && Objects.equals(termFrequencies, that.termFrequencies) && Objects.equals(phraseIndexes, that.phraseIndexes);
+                        && Objects.equals(termFrequencies, that.termFrequencies) && Objects.equals(primitiveTermFrequencies, that.primitiveTermFrequencies)
+                        && Objects.equals(phraseIndexes, that.phraseIndexes);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(gatherPhraseOffsets, excerptFields, termFrequencies, phraseIndexes);
+        return Objects.hash(gatherPhraseOffsets, excerptFields, termFrequencies, primitiveTermFrequencies, phraseIndexes);
     }
 
     @Override
     public String toString() {
         return new StringJoiner(", ", TermOffsetMap.class.getSimpleName() + "[", "]").add("gatherPhraseOffsets=" + gatherPhraseOffsets)
-                        .add("excerptFields=" + excerptFields).add("termFrequencies=" + termFrequencies).add("phraseIndexes=" + phraseIndexes).toString();
+                        .add("excerptFields=" + excerptFields).add("termFrequencies=" + termFrequencies).add("primitiveTermFrequencies=" + primitiveTermFrequencies)
+                        .add("phraseIndexes=" + phraseIndexes).toString();
     }
 }
@@ -9,6 +9,7 @@ import static datawave.query.jexl.functions.ContentFunctions.CONTENT_WITHIN_FUNC
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -44,6 +45,7 @@ import datawave.query.Constants;
 import datawave.query.attributes.Content;
 import datawave.query.attributes.Document;
 import datawave.query.data.parsers.TermFrequencyKey;
+import datawave.query.jexl.functions.PrimitiveTermFrequencyList;
 import datawave.query.jexl.functions.TermFrequencyList;
 import datawave.query.jexl.visitors.LiteralNodeSubsetVisitor;
 import datawave.query.predicate.EventDataQueryFilter;
@@ -66,6 +68,7 @@ public class TermOffsetPopulator {
     private final EventDataQueryFilter evaluationFilter;
     private final SortedKeyValueIterator<Key,Value> source;
     private final Set<String> contentExpansionFields;
+    private final boolean primitiveTermOffsets;
 
     private Document document;
 
@@ -74,6 +77,7 @@ public class TermOffsetPopulator {
         this.contentExpansionFields = config.getContentExpansionFields();
         this.source = config.getSource();
         this.evaluationFilter = config.getEvaluationFilter();
+        this.primitiveTermOffsets = config.isPrimitiveTermOffsets();
     }
 
     public Document document() {
@@ -157,6 +161,7 @@ public class TermOffsetPopulator {
         TermFrequencyKey parser = new TermFrequencyKey();
         TermWeightPosition.Builder position = new TermWeightPosition.Builder();
         Map<String,TermFrequencyList> termOffsetMap = Maps.newHashMap();
+        Map<String,PrimitiveTermFrequencyList> primitiveTermOffsetMap = Maps.newHashMap();
 
         while (tfSource.hasTop()) {
             Key key = tfSource.getTopKey();
@@ -167,34 +172,41 @@ public class TermOffsetPopulator {
 
             this.document.put(parser.getField(), attr);
 
-            TreeMultimap<TermFrequencyList.Zone,TermWeightPosition> offsets = TreeMultimap.create();
-            try {
-                TermWeight.Info twInfo = TermWeight.Info.parseFrom(tfSource.getTopValue().get());
-
-                // if no content expansion fields then assume every field is permitted for unfielded content functions
-                boolean isContentExpansionField = contentExpansionFields == null || contentExpansionFields.isEmpty()
-                                || contentExpansionFields.contains(parser.getField());
-                TermFrequencyList.Zone twZone = new TermFrequencyList.Zone(parser.getField(), isContentExpansionField, TermFrequencyList.getEventId(key));
+            // if no content expansion fields then assume every field is permitted for unfielded content functions
+            boolean isContentExpansionField = contentExpansionFields == null || contentExpansionFields.isEmpty()
+                            || contentExpansionFields.contains(parser.getField());
+            TermFrequencyList.Zone twZone = new TermFrequencyList.Zone(parser.getField(), isContentExpansionField, TermFrequencyList.getEventId(key));
 
-                for (int i = 0; i < twInfo.getTermOffsetCount(); i++) {
-                    position.setTermWeightOffsetInfo(twInfo, i);
-                    offsets.put(twZone, position.build());
-                    position.reset();
+            if (primitiveTermOffsets) {
+                // defer decoding until a content function actually needs the offsets for this zone
+                byte[] encoded = tfSource.getTopValue().get();
+                primitiveTermOffsetMap.computeIfAbsent(parser.getValue(), k -> new PrimitiveTermFrequencyList()).addEncodedOffsets(twZone,
+                                Arrays.copyOf(encoded, encoded.length));
+            } else {
+                TreeMultimap<TermFrequencyList.Zone,TermWeightPosition> offsets = TreeMultimap.create();
+                try {
+                    TermWeight.Info twInfo = TermWeight.Info.parseFrom(tfSource.getTopValue().get());
+
+                    for (int i = 0; i < twInfo.getTermOffsetCount(); i++) {
+                        position.setTermWeightOffsetInfo(twInfo, i);
+                        offsets.put(twZone, position.build());
+                        position.reset();
+                    }
+
+                } catch (InvalidProtocolBufferException e) {
+                    log.error("Could not deserialize TermWeight protocol buffer for: " + source.getTopKey());
+                    return Collections.emptyMap();
                 }
 
-            } catch (InvalidProtocolBufferException e) {
-                log.error("Could not deserialize TermWeight protocol buffer for: " + source.getTopKey());
-                return Collections.emptyMap();
-            }
-
-            // First time looking up this term in a field
-            TermFrequencyList tfl = termOffsetMap.get(parser.getValue());
-            if (null == tfl) {
-                termOffsetMap.put(parser.getValue(), new TermFrequencyList(offsets));
-            } else {
-                // Merge in the offsets for the current field+term with all previous
-                // offsets from other fields in the same term
-                tfl.addOffsets(offsets);
+                // First time looking up this term in a field
+                TermFrequencyList tfl = termOffsetMap.get(parser.getValue());
+                if (null == tfl) {
+                    termOffsetMap.put(parser.getValue(), new TermFrequencyList(offsets));
+                } else {
+                    // Merge in the offsets for the current field+term with all previous
+                    // offsets from other fields in the same term
+                    tfl.addOffsets(offsets);
+                }
             }
 
             try {
@@ -206,8 +218,11 @@ public class TermOffsetPopulator {
         }
 
         // Load the actual map into map that will be put into the JexlContext
+        TermOffsetMap offsetMap = new TermOffsetMap(termOffsetMap);
+        primitiveTermOffsetMap.forEach(offsetMap::putPrimitiveTermFrequencyList);
+
         Map<String,Object> map = new HashMap<>();
-        map.put(Constants.TERM_OFFSET_MAP_JEXL_VARIABLE_NAME, new TermOffsetMap(termOffsetMap));
+        map.put(Constants.TERM_OFFSET_MAP_JEXL_VARIABLE_NAME, offsetMap);
         return map;
     }
 
@@ -33,6 +33,7 @@ public class QueryStatsDClient extends ConvenienceMethodProvidingStatsDClient {
     private final AtomicInteger seekCalls = new AtomicInteger(0);
     private final AtomicInteger yieldCalls = new AtomicInteger(0);
     private final AtomicInteger sources = new AtomicInteger(0);
+    private final AtomicInteger prunedRanges = new AtomicInteger(0);
     private final Multimap<String,Long> timings;
     private final String prefix;
 
@@ -109,6 +110,11 @@ public class QueryStatsDClient extends ConvenienceMethodProvidingStatsDClient {
                 count("sources", value);
                 flushed = true;
             }
+            value = prunedRanges.getAndSet(0);
+            if (value > 0) {
+                count("pruned_ranges", value);
+                flushed = true;
+            }
             if (!timings.isEmpty()) {
                 synchronized (timings) {
                     if (!timings.isEmpty()) {
@@ -157,13 +163,18 @@ public class QueryStatsDClient extends ConvenienceMethodProvidingStatsDClient {
         flushAsNeeded();
     }
 
+    public void prunedRange() {
+        prunedRanges.incrementAndGet();
+        flushAsNeeded();
+    }
+
     public void timing(String call, long time) {
         timings.put(call, time);
         flushAsNeeded();
     }
 
     public int getSize() {
-        return nextCalls.get() + seekCalls.get() + yieldCalls.get() + sources.get() + timings.size();
+        return nextCalls.get() + seekCalls.get() + yieldCalls.get() + sources.get() + prunedRanges.get() + timings.size();
     }
 
     /**
@@ -2847,6 +2847,54 @@ public class ShardQueryLogic extends BaseQueryLogic<Entry<Key,Value>> implements
         getConfig().setTfAggregationThresholdMs(tfAggregationThresholdMs);
     }
 
+    public boolean isPrimitiveTermOffsetsEnabled() {
+        return getConfig().isPrimitiveTermOffsetsEnabled();
+    }
+
+    public void setPrimitiveTermOffsetsEnabled(boolean primitiveTermOffsetsEnabled) {
+        getConfig().setPrimitiveTermOffsetsEnabled(primitiveTermOffsetsEnabled);
+    }
+
+    public boolean isBloomFilterPruningEnabled() {
+        return getConfig().isBloomFilterPruningEnabled();
+    }
+
+    public void setBloomFilterPruningEnabled(boolean bloomFilterPruningEnabled) {
+        getConfig().setBloomFilterPruningEnabled(bloomFilterPruningEnabled);
+    }
+
+    public long getLoadAwareYieldThresholdMs() {
+        return getConfig().getLoadAwareYieldThresholdMs();
+    }
+
+    public void setLoadAwareYieldThresholdMs(long loadAwareYieldThresholdMs) {
+        getConfig().setLoadAwareYieldThresholdMs(loadAwareYieldThresholdMs);
+    }
+
+    public double getSystemLoadThreshold() {
+        return getConfig().getSystemLoadThreshold();
+    }
+
+    public void setSystemLoadThreshold(double systemLoadThreshold) {
+        getConfig().setSystemLoadThreshold(systemLoadThreshold);
+    }
+
+    public Set<String> getInteractiveScanTypes() {
+        return getConfig().getInteractiveScanTypes();
+    }
+
+    public void setInteractiveScanTypes(Set<String> interactiveScanTypes) {
+        getConfig().setInteractiveScanTypes(interactiveScanTypes);
+    }
+
+    public int getDelayedNonEventSweepThreshold() {
+        return getConfig().getDelayedNonEventSweepThreshold();
+    }
+
+    public void setDelayedNonEventSweepThreshold(int delayedNonEventSweepThreshold) {
+        getConfig().setDelayedNonEventSweepThreshold(delayedNonEventSweepThreshold);
+    }
+
     public boolean getPruneQueryOptions() {
         return getConfig().getPruneQueryOptions();
     }
@@ -27,6 +27,7 @@ public class ActiveQuery {
     private long lastNextCount = 0;
     private long lastSeekCount = 0;
     private long documentSizeBytes = 0;
+    private long prunedRangeCount = 0;
     private int windowSize = 0;
 
     public enum CallType {
@@ -48,8 +49,8 @@ public class ActiveQuery {
 
     synchronized public ActiveQuerySnapshot snapshot() {
         return new ActiveQuerySnapshot(this.activeQueryLogName, this.queryId, this.lastSourceCount, this.lastNextCount, this.lastSeekCount,
-                        this.documentSizeBytes, this.activeRanges.size(), this.totalElapsedTime(), this.isInCall(), this.currentCallTime(), this.numCallsMap,
-                        this.timerMap);
+                        this.documentSizeBytes, this.prunedRangeCount, this.activeRanges.size(), this.totalElapsedTime(), this.isInCall(),
+                        this.currentCallTime(), this.numCallsMap, this.timerMap);
     }
 
     synchronized public void beginCall(Range range, CallType type) {
@@ -89,6 +90,10 @@ public class ActiveQuery {
         }
     }
 
+    synchronized public void prunedRange() {
+        this.prunedRangeCount++;
+    }
+
     synchronized public int removeRange(Range range) {
         this.activeRanges.remove(range);
         return this.activeRanges.size();
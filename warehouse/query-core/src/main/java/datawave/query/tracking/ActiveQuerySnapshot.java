@@ -17,6 +17,7 @@ public class ActiveQuerySnapshot {
     private final long lastNextCount;
     private final long lastSeekCount;
     private final long documentSizeBytes;
+    private final long prunedRangeCount;
 
     private final long totalElapsedTime;
     private final long currentCallTime;
@@ -27,14 +28,15 @@ public class ActiveQuerySnapshot {
     private final Map<ActiveQuery.CallType,Snapshot> snapshotMap = new HashMap<>();
 
     public ActiveQuerySnapshot(String activeQueryLogName, String queryId, long lastSourceCount, long lastNextCount, long lastSeekCount, long documentSizeBytes,
-                    int numActiveRanges, long totalElapsedTime, boolean isInCall, long currentCallTime, Map<ActiveQuery.CallType,Long> numCallsMap,
-                    Map<ActiveQuery.CallType,Timer> timerMap) {
+                    long prunedRangeCount, int numActiveRanges, long totalElapsedTime, boolean isInCall, long currentCallTime,
+                    Map<ActiveQuery.CallType,Long> numCallsMap, Map<ActiveQuery.CallType,Timer> timerMap) {
         this.activeQueryLogName = activeQueryLogName;
         this.queryId = queryId;
         this.lastSourceCount = lastSourceCount;
         this.lastNextCount = lastNextCount;
         this.lastSeekCount = lastSeekCount;
         this.documentSizeBytes = documentSizeBytes;
+        this.prunedRangeCount = prunedRangeCount;
         this.numActiveRanges = numActiveRanges;
 
         this.totalElapsedTime = totalElapsedTime;
@@ -56,6 +58,10 @@ public class ActiveQuerySnapshot {
         }
     }
 
+    public long getPrunedRangeCount() {
+        return prunedRangeCount;
+    }
+
     public long totalElapsedTime() {
         return totalElapsedTime;
     }
@@ -82,6 +88,10 @@ public class ActiveQuerySnapshot {
             }
         }
 
+        if (this.prunedRangeCount > 0) {
+            sb.append("pruned=").append(this.prunedRangeCount).append(" ");
+        }
+
         if (this.documentSizeBytes > 0) {
             sb.append("(lastDoc bytes/sources/seek/next) ");
             sb.append(this.documentSizeBytes).append("/");
@@ -75,6 +75,7 @@ public abstract class DocumentTransformerSupport<I,O> extends EventQueryTransfor
     private long yieldCount = 0L;
     private long docRanges = 0;
     private long fiRanges = 0;
+    private long prunedRanges = 0;
     private boolean logTimingDetails = false;
     private CardinalityRecord resultCardinalityDocumentDate = null;
     private CardinalityRecord resultCardinalityQueryDate = null;
@@ -234,11 +235,13 @@ public abstract class DocumentTransformerSupport<I,O> extends EventQueryTransfor
             long currentNextCount = timingMetadata.getNextCount();
             long currentSeekCount = timingMetadata.getSeekCount();
             long currentYieldCount = timingMetadata.getYieldCount();
+            long currentPrunedRangeCount = timingMetadata.getPrunedRangeCount();
             String host = timingMetadata.getHost();
             sourceCount += currentSourceCount;
             nextCount += currentNextCount;
             seekCount += currentSeekCount;
             yieldCount += currentYieldCount;
+            prunedRanges += currentPrunedRangeCount;
             Map<String,Long> stageTimers = timingMetadata.getStageTimers();
             if (stageTimers.containsKey(QuerySpan.Stage.DocumentSpecificTree.toString())) {
                 docRanges++;
@@ -251,7 +254,8 @@ public abstract class DocumentTransformerSupport<I,O> extends EventQueryTransfor
                 sb.append("retrieved document from host:").append(host).append(" at key:").append(documentKey.toStringNoTime()).append(" stageTimers:")
                                 .append(stageTimers);
                 sb.append(" sourceCount:").append(currentSourceCount).append(" nextCount:").append(currentNextCount).append(" seekCount:")
-                                .append(currentSeekCount).append(" yieldCount:").append(currentYieldCount);
+                                .append(currentSeekCount).append(" yieldCount:").append(currentYieldCount).append(" prunedRangeCount:")
+                                .append(currentPrunedRangeCount);
                 if (log.isTraceEnabled()) {
                     log.trace(sb.toString());
                 } else {
@@ -267,7 +271,7 @@ public abstract class DocumentTransformerSupport<I,O> extends EventQueryTransfor
 
     @Override
     public boolean hasMetrics() {
-        return sourceCount + nextCount + seekCount + yieldCount + docRanges + fiRanges > 0;
+        return sourceCount + nextCount + seekCount + yieldCount + docRanges + fiRanges + prunedRanges > 0;
     }
 
     @Override
@@ -300,6 +304,13 @@ public abstract class DocumentTransformerSupport<I,O> extends EventQueryTransfor
         return fiRanges;
     }
 
+    /**
+     * @return the number of ranges that were pruned by the query iterators before any field index iterators were built
+     */
+    public long getPrunedRanges() {
+        return prunedRanges;
+    }
+
     @Override
     public void writeQueryMetrics(BaseQueryMetric metric) {
 
@@ -322,6 +333,7 @@ public abstract class DocumentTransformerSupport<I,O> extends EventQueryTransfor
         yieldCount = 0;
         docRanges = 0;
         fiRanges = 0;
+        prunedRanges = 0;
     }
 
     protected List<String> getFieldValues(Document document, String field, boolean shortCircuit) {
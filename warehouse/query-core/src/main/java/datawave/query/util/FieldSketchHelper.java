@@ -0,0 +1,171 @@
+package datawave.query.util;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.log4j.Logger;
+
+import datawave.ingest.metadata.FieldSketch;
+import datawave.security.util.ScannerHelper;
+import datawave.util.time.DateHelper;
+
+/**
+ * <p>
+ * Helper class to fetch the {@link FieldSketch}es written to the metadata table at ingest, which estimate the number of distinct values and the most frequent
+ * values of an indexed field without running the offline stats job. The sketches for each datatype and day in a date range are merged.
+ * </p>
+ * <table border="1">
+ * <caption>FieldSketch</caption>
+ * <tr>
+ * <th>Schema Type</th>
+ * <th>Use</th>
+ * <th>Row</th>
+ * <th>Column Family</th>
+ * <th>Column Qualifier</th>
+ * <th>Value</th>
+ * </tr>
+ * <tr>
+ * <td>MetaData</td>
+ * <td>Indexed Field Sketch</td>
+ * <td>Normalized Field Name</td>
+ * <td>'fs'</td>
+ * <td>DataType\0YYYYMMDD</td>
+ * <td>FieldSketch</td>
+ * </tr>
+ * </table>
+ */
+public class FieldSketchHelper {
+    private static final Logger log = Logger.getLogger(FieldSketchHelper.class);
+
+    public static final String NULL_BYTE = "\0";
+
+    protected final AccumuloClient client;
+    protected final String metadataTableName;
+    protected final Set<Authorizations> auths;
+
+    /**
+     * @param client
+     *            A client connection to Accumulo
+     * @param metadataTableName
+     *            The name of the metadata table
+     * @param auths
+     *            Any {@link Authorizations} to use
+     */
+    public FieldSketchHelper(AccumuloClient client, String metadataTableName, Set<Authorizations> auths) {
+        this.client = client;
+        this.metadataTableName = metadataTableName;
+        this.auths = auths;
+    }
+
+    /**
+     * Get the merged sketch of a field's values over a date range
+     *
+     * @param fieldName
+     *            the normalized field name
+     * @param datatypes
+     *            the datatypes to include, or empty for all
+     * @param begin
+     *            the begin date, inclusive
+     * @param end
+     *            the end date, inclusive
+     * @return the merged sketch, or null if no sketches were written for the field in the date range
+     * @throws TableNotFoundException
+     *             if the metadata table does not exist
+     */
+    public FieldSketch getFieldSketch(String fieldName, Set<String> datatypes, Date begin, Date end) throws TableNotFoundException {
+        String beginDay = DateHelper.format(begin);
+        String endDay = DateHelper.format(end);
+
+        FieldSketch merged = null;
+        try (Scanner scanner = ScannerHelper.createScanner(client, metadataTableName, auths)) {
+            scanner.setRange(Range.exact(fieldName));
+            scanner.fetchColumnFamily(FieldSketch.COLF_FS);
+            for (Map.Entry<Key,Value> entry : scanner) {
+                String colq = entry.getKey().getColumnQualifier().toString();
+                int idx = colq.indexOf(NULL_BYTE);
+                if (idx < 0) {
+                    log.warn("Ignoring malformed field sketch key " + entry.getKey());
+                    continue;
+                }
+                String datatype = colq.substring(0, idx);
+                String day = colq.substring(idx + 1);
+                if ((datatypes != null && !datatypes.isEmpty() && !datatypes.contains(datatype)) || day.compareTo(beginDay) < 0 || day.compareTo(endDay) > 0) {
+                    continue;
+                }
+                try {
+                    FieldSketch sketch = FieldSketch.fromValue(entry.getValue());
+                    if (merged == null) {
+                        merged = sketch;
+                    } else {
+                        merged.merge(sketch);
+                    }
+                } catch (IOException | IllegalArgumentException e) {
+                    log.warn("Unable to decode field sketch for " + entry.getKey(), e);
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Estimate the number of distinct values of each field over a date range
+     *
+     * @param fieldNames
+     *            the normalized field names
+     * @param datatypes
+     *            the datatypes to include, or empty for all
+     * @param begin
+     *            the begin date, inclusive
+     * @param end
+     *            the end date, inclusive
+     * @return the estimates by field name, omitting fields without sketches in the date range
+     * @throws TableNotFoundException
+     *             if the metadata table does not exist
+     */
+    public Map<String,Long> getCardinalitiesForFieldsInDateRange(Collection<String> fieldNames, Set<String> datatypes, Date begin, Date end)
+                    throws TableNotFoundException {
+        Map<String,Long> cardinalities = new HashMap<>();
+        for (String fieldName : fieldNames) {
+            FieldSketch sketch = getFieldSketch(fieldName, datatypes, begin, end);
+            if (sketch != null) {
+                cardinalities.put(fieldName, sketch.getCardinality());
+            }
+        }
+        return cardinalities;
+    }
+
+    /**
+     * Estimate the most frequent values of a field over a date range
+     *
+     * @param fieldName
+     *            the normalized field name
+     * @param datatypes
+     *            the datatypes to include, or empty for all
+     * @param begin
+     *            the begin date, inclusive
+     * @param end
+     *            the end date, inclusive
+     * @param k
+     *            the number of values
+     * @return up to k values with their estimated counts, most frequent first
+     * @throws TableNotFoundException
+     *             if the metadata table does not exist
+     */
+    public Map<String,Long> getTopValuesForFieldInDateRange(String fieldName, Set<String> datatypes, Date begin, Date end, int k)
+                    throws TableNotFoundException {
+        FieldSketch sketch = getFieldSketch(fieldName, datatypes, begin, end);
+        return sketch == null ? Collections.emptyMap() : sketch.getTopValues(k);
+    }
+}
@@ -579,6 +579,18 @@ public class ShardQueryConfigurationTest {
         updatedValues.put("sortQueryBeforeGlobalIndex", true);
         defaultValues.put("sortQueryByCounts", false);
         updatedValues.put("sortQueryByCounts", true);
+        defaultValues.put("primitiveTermOffsetsEnabled", false);
+        updatedValues.put("primitiveTermOffsetsEnabled", true);
+        defaultValues.put("bloomFilterPruningEnabled", false);
+        updatedValues.put("bloomFilterPruningEnabled", true);
+        defaultValues.put("loadAwareYieldThresholdMs", Long.MAX_VALUE);
+        updatedValues.put("loadAwareYieldThresholdMs", 500L);
+        defaultValues.put("systemLoadThreshold", 2.0d);
+        updatedValues.put("systemLoadThreshold", 1.5d);
+        defaultValues.put("interactiveScanTypes", Collections.emptySet());
+        updatedValues.put("interactiveScanTypes", Sets.newHashSet("interactive"));
+        defaultValues.put("delayedNonEventSweepThreshold", -1);
+        updatedValues.put("delayedNonEventSweepThreshold", 10);
         defaultValues.put("tableConsistencyLevels", Collections.emptyMap());
         updatedValues.put("tableConsistencyLevels", Collections.singletonMap(TableName.SHARD, ScannerBase.ConsistencyLevel.EVENTUAL));
         defaultValues.put("tableHints", Collections.emptyMap());
@@ -0,0 +1,92 @@
+package datawave.query.iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iteratorsImpl.system.SortedMapIterator;
+import org.apache.commons.jexl3.parser.ASTJexlScript;
+import org.apache.commons.jexl3.parser.ParseException;
+import org.apache.hadoop.io.Text;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+import datawave.query.jexl.JexlASTHelper;
+import datawave.query.ranges.RangeFactory;
+
+public class BloomFilterRangePrunerTest {
+
+    private static final TreeMap<Key,Value> data = new TreeMap<>();
+    private static final Value EMPTY_VALUE = new Value(new byte[0]);
+    private static final Set<String> indexedFields = Sets.newHashSet("FOO", "BAR");
+
+    @BeforeClass
+    public static void setup() {
+        data.put(new Key("20240101_0", "fi\0FOO", "abc\0datatype\0uid1"), EMPTY_VALUE);
+        data.put(new Key("20240101_0", "fi\0BAR", "xyz\0datatype\0uid1"), EMPTY_VALUE);
+        data.put(new Key("20240101_1", "fi\0FOO", "abcd\0datatype\0uid2"), EMPTY_VALUE);
+        data.put(new Key("20240101_1", "fi\0FOO", "abc\0datatype\0uid3"), EMPTY_VALUE);
+    }
+
+    @Test
+    public void testAnchorTerms() throws ParseException {
+        assertEquals(Sets.newHashSet("abc"), Sets.newHashSet(pruner("FOO == 'abc'").getAnchorTerms().get("FOO")));
+        assertEquals(2, pruner("FOO == 'abc' && (BAR == 'xyz' && BAZ == 'def')").getAnchorTerms().size());
+
+        // disjunctions, negations, unindexed fields and delayed terms are not required to be in the field index
+        assertTrue(pruner("FOO == 'abc' || BAR == 'xyz'").getAnchorTerms().isEmpty());
+        assertTrue(pruner("!(FOO == 'abc')").getAnchorTerms().isEmpty());
+        assertTrue(pruner("BAZ == 'abc'").getAnchorTerms().isEmpty());
+        assertTrue(pruner("((_Delayed_ = true) && (FOO == 'abc'))").getAnchorTerms().isEmpty());
+    }
+
+    @Test
+    public void testPruneShardRange() throws Exception {
+        BloomFilterRangePruner pruner = pruner("FOO == 'abc' && BAR == 'xyz'");
+        assertFalse(isPrunable(pruner, RangeFactory.createShardRange("20240101_0")));
+        // BAR == 'xyz' is absent from the second shard
+        assertTrue(isPrunable(pruner, RangeFactory.createShardRange("20240101_1")));
+        assertTrue(isPrunable(pruner, RangeFactory.createShardRange("20240101_2")));
+    }
+
+    @Test
+    public void testPruneDoesNotMatchValuePrefix() throws Exception {
+        BloomFilterRangePruner pruner = pruner("FOO == 'abcd'");
+        assertTrue(isPrunable(pruner, RangeFactory.createShardRange("20240101_0")));
+        assertFalse(isPrunable(pruner, RangeFactory.createShardRange("20240101_1")));
+    }
+
+    @Test
+    public void testPruneDocumentRange() throws Exception {
+        BloomFilterRangePruner pruner = pruner("BAR == 'xyz'");
+        assertFalse(isPrunable(pruner, RangeFactory.createDocumentSpecificRange("20240101_0", "datatype\0uid1")));
+        assertTrue(isPrunable(pruner, RangeFactory.createDocumentSpecificRange("20240101_1", "datatype\0uid3")));
+    }
+
+    @Test
+    public void testDayRangeIsNotPruned() throws Exception {
+        BloomFilterRangePruner pruner = pruner("FOO == 'missing'");
+        assertFalse(isPrunable(pruner, RangeFactory.createDayRange("20240101")));
+        assertNull(BloomFilterRangePruner.getShard(RangeFactory.createDayRange("20240101")));
+        assertEquals(new Text("20240101_1"), BloomFilterRangePruner.getShard(RangeFactory.createShardRange("20240101_1")));
+    }
+
+    private static BloomFilterRangePruner pruner(String query) throws ParseException {
+        ASTJexlScript script = JexlASTHelper.parseJexlQuery(query);
+        return new BloomFilterRangePruner(script, indexedFields);
+    }
+
+    private static boolean isPrunable(BloomFilterRangePruner pruner, Range range) throws IOException {
+        return pruner.isPrunable(range, new SortedMapIterator(data));
+    }
+}
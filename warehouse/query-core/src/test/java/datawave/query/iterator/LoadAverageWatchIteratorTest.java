@@ -0,0 +1,56 @@
+package datawave.query.iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class LoadAverageWatchIteratorTest {
+
+    @After
+    public void after() {
+        LoadAverageWatchIterator.resetLoadSample();
+    }
+
+    @Test
+    public void testLoadIsSampledOncePerInterval() {
+        AtomicInteger samples = new AtomicInteger();
+        long now = System.currentTimeMillis();
+
+        // a new sample is taken once the previous one is older than the interval
+        assertEquals(3.0d, LoadAverageWatchIterator.getLoadPerProcessor(now + LoadAverageWatchIterator.LOAD_SAMPLE_INTERVAL_MS * 10, () -> {
+            samples.incrementAndGet();
+            return 3.0d;
+        }), 0.0d);
+
+        // within the interval, the last sample is shared
+        assertEquals(3.0d, LoadAverageWatchIterator.getLoadPerProcessor(now + LoadAverageWatchIterator.LOAD_SAMPLE_INTERVAL_MS * 10 + 1, () -> {
+            samples.incrementAndGet();
+            return 0.5d;
+        }), 0.0d);
+        assertEquals(1, samples.get());
+
+        assertEquals(0.5d, LoadAverageWatchIterator.getLoadPerProcessor(now + LoadAverageWatchIterator.LOAD_SAMPLE_INTERVAL_MS * 12, () -> {
+            samples.incrementAndGet();
+            return 0.5d;
+        }), 0.0d);
+        assertEquals(2, samples.get());
+    }
+
+    @Test
+    public void testIsLoadAboveThreshold() {
+        // sample a fixed load which is then shared by the checks within the interval
+        long now = System.currentTimeMillis() + LoadAverageWatchIterator.LOAD_SAMPLE_INTERVAL_MS * 100;
+        LoadAverageWatchIterator.getLoadPerProcessor(now, () -> 3.0d);
+        assertTrue(LoadAverageWatchIterator.isLoadAboveThreshold(2.0d));
+        assertFalse(LoadAverageWatchIterator.isLoadAboveThreshold(3.0d));
+
+        // an unavailable load average is negative and never above a threshold
+        LoadAverageWatchIterator.getLoadPerProcessor(now + LoadAverageWatchIterator.LOAD_SAMPLE_INTERVAL_MS * 2, () -> -1.0d / 8);
+        assertFalse(LoadAverageWatchIterator.isLoadAboveThreshold(0.0d));
+    }
+}
@@ -0,0 +1,176 @@
+package datawave.query.iterator.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.YieldCallback;
+import org.apache.accumulo.core.iteratorsImpl.system.SortedMapIterator;
+import org.junit.Before;
+import org.junit.Test;
+
+import datawave.query.attributes.Document;
+import datawave.query.iterator.NestedIterator;
+import datawave.query.iterator.NestedQueryIterator;
+import datawave.query.iterator.QueryIterator;
+import datawave.query.iterator.profile.QuerySpan;
+import datawave.query.iterator.profile.QuerySpanCollector;
+
+public class SerialIteratorTest {
+
+    private static final int DOCUMENTS = 20;
+    private static final long EVALUATION_MS = 5;
+
+    private YieldCallback<Key> yield;
+    private QuerySpan querySpan;
+    private List<Key> evaluated;
+
+    @Before
+    public void setup() {
+        yield = new YieldCallback<>();
+        querySpan = new QuerySpan(null);
+        evaluated = new ArrayList<>();
+    }
+
+    /**
+     * A query iterator whose document pipeline takes a fixed time to evaluate each document and never returns a result
+     */
+    private class SlowQueryIterator extends QueryIterator {
+        @Override
+        public Iterator<Entry<Key,Document>> createDocumentPipeline(SortedKeyValueIterator<Key,Value> deepSourceCopy,
+                        NestedQueryIterator<Key> documentSpecificSource, Collection<ByteSequence> columnFamilies, boolean inclusive,
+                        QuerySpanCollector querySpanCollector) {
+            return new Iterator<Entry<Key,Document>>() {
+                @Override
+                public boolean hasNext() {
+                    evaluated.add(documentSpecificSource.next());
+                    try {
+                        Thread.sleep(EVALUATION_MS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return false;
+                }
+
+                @Override
+                public Entry<Key,Document> next() {
+                    return null;
+                }
+            };
+        }
+    }
+
+    /**
+     * The documents of a shard
+     */
+    private static class Documents implements NestedIterator<Key> {
+        private final Iterator<Key> keys;
+
+        Documents(int count) {
+            List<Key> list = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                list.add(new Key("20240101_0", "dt\0uid" + (char) ('a' + i)));
+            }
+            keys = list.iterator();
+        }
+
+        @Override
+        public void initialize() {}
+
+        @Override
+        public Key move(Key minimum) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Collection<NestedIterator<Key>> leaves() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Collection<NestedIterator<Key>> children() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Document document() {
+            return new Document();
+        }
+
+        @Override
+        public boolean isContextRequired() {
+            return false;
+        }
+
+        @Override
+        public void setContext(Key context) {}
+
+        @Override
+        public boolean hasNext() {
+            return keys.hasNext();
+        }
+
+        @Override
+        public Key next() {
+            return keys.next();
+        }
+    }
+
+    private SerialIterator createIterator(long yieldThresholdMs, boolean underLoad) {
+        SerialIterator iterator = new SerialIterator(new Documents(DOCUMENTS), 1, 1, new QuerySpanCollector(), querySpan, new SlowQueryIterator(),
+                        new SortedMapIterator(new TreeMap<>()), null, yield, yieldThresholdMs, Collections.emptySet(), true) {
+            @Override
+            protected boolean isUnderLoad() {
+                return underLoad;
+            }
+        };
+        iterator.setLoadAwareYieldThreshold(EVALUATION_MS * 4, 2.0d);
+        return iterator;
+    }
+
+    @Test
+    public void testYieldThreshold() {
+        assertEquals(EVALUATION_MS * 4, createIterator(10000L, true).getYieldThresholdMs());
+        assertEquals(10000L, createIterator(10000L, false).getYieldThresholdMs());
+
+        // the load aware threshold never extends the yield threshold
+        assertEquals(EVALUATION_MS, createIterator(EVALUATION_MS, true).getYieldThresholdMs());
+    }
+
+    @Test
+    public void testYieldsAtLoadAwareThresholdUnderLoad() {
+        SerialIterator iterator = createIterator(10000L, true);
+        iterator.startPipeline();
+        assertFalse(iterator.hasNext());
+
+        // the scan yielded well before evaluating every document
+        assertTrue(yield.hasYielded());
+        assertTrue("Evaluated " + evaluated.size() + " documents", evaluated.size() < DOCUMENTS);
+        assertEquals(evaluated.get(evaluated.size() - 1), yield.getPositionAndReset());
+        assertTrue(querySpan.getYield());
+    }
+
+    @Test
+    public void testYieldsAtYieldThresholdWithoutLoad() {
+        SerialIterator iterator = createIterator(10000L, false);
+        iterator.startPipeline();
+        assertFalse(iterator.hasNext());
+
+        // every document was evaluated without yielding
+        assertFalse(yield.hasYielded());
+        assertEquals(DOCUMENTS, evaluated.size());
+        assertFalse(querySpan.getYield());
+    }
+}
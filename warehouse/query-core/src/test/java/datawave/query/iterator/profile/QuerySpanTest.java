@@ -70,6 +70,28 @@ public class QuerySpanTest {
         Assert.assertEquals(12, qs4.getSourceCount());
     }
 
+    @Test
+    public void testPrunedRangeCollection() {
+
+        MultiThreadedQuerySpan qs1 = new MultiThreadedQuerySpan(null);
+        qs1.prunedRange();
+        QuerySpan source = qs1.createSource();
+        source.prunedRange();
+        Assert.assertEquals(2, qs1.getPrunedRangeCount());
+
+        MultiThreadedQuerySpan qs2 = new MultiThreadedQuerySpan(null);
+        qs2.prunedRange();
+
+        QuerySpanCollector qsc = new QuerySpanCollector();
+        qsc.addQuerySpan(qs1);
+        qsc.addQuerySpan(qs2);
+        Assert.assertEquals(0, qs1.getPrunedRangeCount());
+
+        QuerySpan qs3 = qsc.getCombinedQuerySpan(null);
+        Assert.assertEquals(3, qs3.getPrunedRangeCount());
+        Assert.assertEquals(0, qsc.getPrunedRangeCount());
+    }
+
     @Test
     public void testMultiThreadedQuerySpanAcrossThreads() {
 
@@ -0,0 +1,266 @@
+package datawave.query.jexl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.PartialKey;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.commons.jexl3.parser.ASTEQNode;
+import org.apache.commons.jexl3.parser.JexlNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+
+import datawave.query.attributes.Document;
+import datawave.query.function.PrefixEquality;
+import datawave.query.iterator.NestedIterator;
+import datawave.query.iterator.SeekableIterator;
+import datawave.query.iterator.SortedListKeyValueIterator;
+import datawave.query.jexl.visitors.IteratorBuildingVisitor;
+import datawave.query.predicate.TimeFilter;
+import datawave.query.util.TypeMetadata;
+
+public class DelayedNonEventIndexFetcherTest {
+
+    private static final List<Key> KEYS = new ArrayList<>();
+
+    static {
+        KEYS.add(new Key("20240101_0", "dt\0uid1"));
+        KEYS.add(new Key("20240101_0", "dt\0uid3"));
+        KEYS.add(new Key("20240101_0", "dt\0uid5"));
+        KEYS.add(new Key("20240101_1", "dt\0uid2"));
+    }
+
+    private StubVisitor visitor;
+    private Multimap<String,JexlNode> delayedNonEventFieldMap;
+
+    @Before
+    public void setup() throws Exception {
+        visitor = new StubVisitor();
+        delayedNonEventFieldMap = HashMultimap.create();
+        delayedNonEventFieldMap.put("FOO", JexlASTHelper.parseJexlQuery("FOO == 'bar'").jjtGetChild(0));
+    }
+
+    @Test
+    public void testFetchIndividually() throws IOException {
+        DelayedNonEventIndexFetcher fetcher = fetcher(-1);
+
+        assertFetched(fetcher, "dt\0uid1", "dt\0uid1");
+        assertFetched(fetcher, "dt\0uid3", "dt\0uid3");
+        assertFetched(fetcher, "dt\0uid4");
+        assertFetched(fetcher, "dt\0uid5", "dt\0uid5");
+
+        // every document was built and seeked individually
+        assertEquals(4, visitor.limitedBuilds);
+        assertEquals(0, visitor.sweepBuilds);
+    }
+
+    @Test
+    public void testSweepAfterThreshold() throws IOException {
+        DelayedNonEventIndexFetcher fetcher = fetcher(1);
+
+        assertFetched(fetcher, "dt\0uid1", "dt\0uid1");
+        assertFetched(fetcher, "dt\0uid3", "dt\0uid3");
+        assertFetched(fetcher, "dt\0uid4");
+        assertFetched(fetcher, "dt\0uid5", "dt\0uid5");
+        assertFetched(fetcher, "dt\0uid6");
+
+        // only the first document was fetched individually, and the remainder of the shard was swept once
+        assertEquals(1, visitor.limitedBuilds);
+        assertEquals(1, visitor.sweepBuilds);
+    }
+
+    @Test
+    public void testSweepRestartsForEarlierDocument() throws IOException {
+        DelayedNonEventIndexFetcher fetcher = fetcher(0);
+
+        assertFetched(fetcher, "dt\0uid3", "dt\0uid3");
+        assertFetched(fetcher, "dt\0uid3", "dt\0uid3");
+        assertFetched(fetcher, "dt\0uid1", "dt\0uid1");
+
+        assertEquals(0, visitor.limitedBuilds);
+        assertEquals(3, visitor.sweepBuilds);
+    }
+
+    @Test
+    public void testNewShardResetsThreshold() throws IOException {
+        DelayedNonEventIndexFetcher fetcher = fetcher(1);
+
+        assertFetched(fetcher, "dt\0uid1", "dt\0uid1");
+        assertFetched(fetcher, "dt\0uid3", "dt\0uid3");
+
+        List<Document> fragments = fetcher.fetch("FOO", docRange("20240101_1", "dt\0uid2"));
+        assertEquals(1, fragments.size());
+        assertEquals(new Key("20240101_1", "dt\0uid2"), fragments.get(0).getMetadata());
+
+        assertEquals(2, visitor.limitedBuilds);
+        assertEquals(1, visitor.sweepBuilds);
+    }
+
+    @Test
+    public void testUndelayedField() throws IOException {
+        assertTrue(fetcher(0).fetch("BAR", docRange("20240101_0", "dt\0uid1")).isEmpty());
+    }
+
+    @Test
+    public void testIteratorBuildingVisitor() throws IOException {
+        SortedMap<Key,Value> index = new TreeMap<>();
+        index.put(new Key("20240101_0", "fi\0FOO", "bar\0dt\0uid1"), new Value());
+        index.put(new Key("20240101_0", "fi\0FOO", "baz\0dt\0uid2"), new Value());
+        index.put(new Key("20240101_0", "fi\0FOO", "bar\0dt\0uid3"), new Value());
+        index.put(new Key("20240101_0", "fi\0FOO", "bar\0dt\0uid5"), new Value());
+        index.put(new Key("20240101_1", "fi\0FOO", "bar\0dt\0uid2"), new Value());
+
+        // never sweep, sweep from the first document, and sweep once the first document has been fetched on its own
+        for (int sweepThreshold : new int[] {-1, 0, 1}) {
+            IteratorBuildingVisitor iteratorBuildingVisitor = new IteratorBuildingVisitor();
+            iteratorBuildingVisitor.setSource(() -> new SortedListKeyValueIterator(index), new IteratorEnvironment() {
+                @Override
+                public boolean isSamplingEnabled() {
+                    return false;
+                }
+            });
+            iteratorBuildingVisitor.setTypeMetadata(new TypeMetadata());
+            iteratorBuildingVisitor.setTimeFilter(TimeFilter.alwaysTrue());
+            iteratorBuildingVisitor.setFieldsToAggregate(Collections.singleton("FOO"));
+            iteratorBuildingVisitor.setIndexOnlyFields(Collections.singleton("FOO"));
+
+            DelayedNonEventIndexFetcher fetcher = new DelayedNonEventIndexFetcher(iteratorBuildingVisitor, delayedNonEventFieldMap, Collections.emptySet(),
+                            false, new PrefixEquality(PartialKey.ROW_COLFAM), sweepThreshold);
+
+            String message = "sweep threshold " + sweepThreshold;
+            assertEquals(message, List.of("bar"), fetchValues(fetcher, "20240101_0", "dt\0uid1"));
+            assertEquals(message, List.of(), fetchValues(fetcher, "20240101_0", "dt\0uid2"));
+            assertEquals(message, List.of("bar"), fetchValues(fetcher, "20240101_0", "dt\0uid3"));
+            assertEquals(message, List.of(), fetchValues(fetcher, "20240101_0", "dt\0uid4"));
+            assertEquals(message, List.of("bar"), fetchValues(fetcher, "20240101_0", "dt\0uid5"));
+            assertEquals(message, List.of("bar"), fetchValues(fetcher, "20240101_1", "dt\0uid2"));
+        }
+    }
+
+    private static List<String> fetchValues(DelayedNonEventIndexFetcher fetcher, String row, String cf) throws IOException {
+        List<String> values = new ArrayList<>();
+        for (Document fragment : fetcher.fetch("FOO", docRange(row, cf))) {
+            values.add(String.valueOf(fragment.get("FOO").getData()));
+        }
+        return values;
+    }
+
+    private DelayedNonEventIndexFetcher fetcher(int sweepThreshold) {
+        return new DelayedNonEventIndexFetcher(visitor, delayedNonEventFieldMap, Collections.emptySet(), false, new PrefixEquality(PartialKey.ROW_COLFAM),
+                        sweepThreshold);
+    }
+
+    private static Range docRange(String row, String cf) {
+        Key start = new Key(row, cf);
+        return new Range(start, true, start.followingKey(PartialKey.ROW_COLFAM), false);
+    }
+
+    private static void assertFetched(DelayedNonEventIndexFetcher fetcher, String cf, String... expected) throws IOException {
+        List<Document> fragments = fetcher.fetch("FOO", docRange("20240101_0", cf));
+        List<Key> keys = fragments.stream().map(Document::getMetadata).collect(Collectors.toList());
+        List<Key> expectedKeys = new ArrayList<>();
+        for (String expectedCf : expected) {
+            expectedKeys.add(new Key("20240101_0", expectedCf));
+        }
+        assertEquals(expectedKeys, keys);
+    }
+
+    /**
+     * Builds an iterator over the shared set of keys for every EQ node, recording whether it was built for a single document or a sweep
+     */
+    private static class StubVisitor extends IteratorBuildingVisitor {
+        private int limitedBuilds = 0;
+        private int sweepBuilds = 0;
+
+        @Override
+        public Object visit(ASTEQNode node, Object data) {
+            if (limitLookup) {
+                limitedBuilds++;
+            } else {
+                sweepBuilds++;
+            }
+            root = new KeyListIterator();
+            return null;
+        }
+    }
+
+    private static class KeyListIterator implements NestedIterator<Key>, SeekableIterator {
+        private Range range = new Range();
+        private int position = 0;
+        private Document document;
+
+        @Override
+        public void seek(Range range, Collection<ByteSequence> columnFamilies, boolean inclusive) {
+            this.range = range;
+            this.position = 0;
+            while (position < KEYS.size() && range.beforeStartKey(KEYS.get(position))) {
+                position++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < KEYS.size() && !range.afterEndKey(KEYS.get(position));
+        }
+
+        @Override
+        public Key next() {
+            Key key = KEYS.get(position++);
+            document = new Document(key, true);
+            return key;
+        }
+
+        @Override
+        public Key move(Key minimum) {
+            while (hasNext()) {
+                Key key = next();
+                if (key.compareTo(minimum) >= 0) {
+                    return key;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void initialize() {}
+
+        @Override
+        public Collection<NestedIterator<Key>> leaves() {
+            return Collections.singleton(this);
+        }
+
+        @Override
+        public Collection<NestedIterator<Key>> children() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Document document() {
+            return document;
+        }
+
+        @Override
+        public boolean isContextRequired() {
+            return false;
+        }
+
+        @Override
+        public void setContext(Key context) {}
+    }
+}
@@ -0,0 +1,363 @@
+package datawave.query.jexl.functions;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.javatuples.Triplet;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+import com.google.common.collect.TreeMultimap;
+
+import datawave.ingest.protobuf.TermWeight;
+import datawave.ingest.protobuf.TermWeightPosition;
+import datawave.query.postprocessing.tf.TermOffsetMap;
+
+/**
+ * Exercises {@link PrimitiveContentOrderedEvaluator} and {@link PrimitiveContentUnorderedEvaluator} against the same offset scenarios used for the boxed
+ * evaluators. Every scenario is also evaluated by {@link ContentOrderedEvaluator} or {@link ContentUnorderedEvaluator} over the same offsets, and both must
+ * agree on the hits and the recorded phrase offsets.
+ */
+public class PrimitiveContentFunctionEvaluatorTest {
+
+    private static final String EVENT_ID = "shard\u0000dt\u0000uid";
+    private TermOffsetMap termOffsetMap;
+    private TermOffsetMap boxedTermOffsetMap;
+    private String field;
+    private int distance;
+    private float maxScore;
+    private int termIndex;
+    private String[] terms;
+
+    @Before
+    public void setup() {
+        termOffsetMap = new TermOffsetMap();
+        termOffsetMap.setGatherPhraseOffsets(true);
+        boxedTermOffsetMap = new TermOffsetMap();
+        boxedTermOffsetMap.setGatherPhraseOffsets(true);
+        maxScore = Float.NEGATIVE_INFINITY;
+        termIndex = 0;
+    }
+
+    @After
+    public void teardown() {
+        field = null;
+        terms = null;
+    }
+
+    @Test
+    public void testOrderedTraverseFailure() {
+        givenField("CONTENT");
+        givenDistance(1);
+        givenTerms("a", "b", "c");
+        givenOffsets(10, 19);
+        givenOffsets(11, 20);
+        givenOffsets(3, 21, 100);
+        givenExcerptFields("CONTENT");
+
+        assertOrdered(true);
+        assertPhraseOffsetsContain("CONTENT", 19, 21);
+    }
+
+    @Test
+    public void testOrderedAlternatingExtremes() {
+        givenField("CONTENT");
+        givenDistance(1);
+        givenTerms("a", "b", "c");
+        givenOffsets(1, 10, 20);
+        givenOffsets(21, 24, 30);
+        givenOffsets(3, 8, 12, 19, 22);
+        givenExcerptFields("CONTENT");
+
+        assertOrdered(true);
+        assertPhraseOffsetsContain("CONTENT", 20, 22);
+    }
+
+    @Test
+    public void testOrderedDistanceFail() {
+        givenField("CONTENT");
+        givenDistance(3);
+        givenTerms("a", "b", "c");
+        givenOffsets(1);
+        givenOffsets(5);
+        givenOffsets(7);
+
+        assertOrdered(false);
+        assertPhraseOffsetsEmpty();
+    }
+
+    @Test
+    public void testOrderedLivePrune() {
+        givenField("CONTENT");
+        givenDistance(2);
+        givenTerms("a", "b", "c");
+        givenOffsets(1, 3);
+        givenOffsets(2, 4);
+        givenOffsets(5, 6);
+        givenExcerptFields("CONTENT");
+
+        assertOrdered(true);
+        assertPhraseOffsetsContain("CONTENT", 3, 5);
+    }
+
+    @Test
+    public void testOrderedRepeatedTermDoesNotMatchItself() {
+        givenField("CONTENT");
+        givenDistance(1);
+        givenTerms("a", "a");
+        givenOffsets(4, 7);
+
+        assertOrdered(false);
+    }
+
+    @Test
+    public void testOrderedSkips() {
+        givenField("CONTENT");
+        givenDistance(1);
+        givenTerms("a", "b");
+        givenOffsets(1);
+        // offset 5 with 3 skips may immediately follow offset 1
+        givenOffsetsWithSkips(new int[] {5}, new int[] {3});
+
+        assertOrdered(true);
+    }
+
+    @Test
+    public void testOrderedWrongField() {
+        givenField("CONTENT");
+        givenDistance(1);
+        givenTerms("a", "b");
+        givenOffsets(1);
+        givenOffsets(2);
+
+        Assert.assertTrue(new PrimitiveContentOrderedEvaluator(Collections.singleton("BODY"), distance, Float.NEGATIVE_INFINITY, termOffsetMap, terms)
+                        .evaluate().isEmpty());
+    }
+
+    @Test
+    public void testUnorderedWithin() {
+        givenField("CONTENT");
+        givenDistance(3);
+        givenTerms("a", "b", "c");
+        givenOffsets(1, 20);
+        givenOffsets(8, 23);
+        givenOffsets(4, 21);
+        givenExcerptFields("CONTENT");
+
+        assertUnordered(true);
+        assertPhraseOffsetsContain("CONTENT", 20, 23);
+    }
+
+    @Test
+    public void testUnorderedWithinFail() {
+        givenField("CONTENT");
+        givenDistance(2);
+        givenTerms("a", "b", "c");
+        givenOffsets(1, 20);
+        givenOffsets(8, 23);
+        givenOffsets(4, 26);
+
+        assertUnordered(false);
+    }
+
+    @Test
+    public void testUnorderedRepeatedTerms() {
+        givenField("CONTENT");
+        givenDistance(1);
+        givenTerms("a", "b", "a");
+        givenOffsets(3, 9);
+        givenOffsets(4, 10);
+
+        // a single position of a repeated term may not satisfy both occurrences
+        assertUnordered(false);
+    }
+
+    @Test
+    public void testUnorderedGallopsLongLists() {
+        givenField("CONTENT");
+        givenDistance(1);
+        givenTerms("a", "b");
+        int[] a = new int[1000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i * 10;
+        }
+        givenOffsets(a);
+        givenOffsets(5, 55, 9991);
+        givenExcerptFields("CONTENT");
+
+        assertUnordered(true);
+        assertPhraseOffsetsContain("CONTENT", 9990, 9991);
+    }
+
+    @Test
+    public void testOrderedAgreesWithBoxedEvaluator() {
+        Random random = new Random(1029384756L);
+        for (int i = 0; i < 5000; i++) {
+            String scenario = givenRandomScenario(random);
+            assertAgreement(scenario, new PrimitiveContentOrderedEvaluator(Collections.emptySet(), distance, maxScore, termOffsetMap, terms),
+                            new ContentOrderedEvaluator(Collections.emptySet(), distance, maxScore, boxedTermOffsetMap, terms));
+        }
+    }
+
+    @Test
+    public void testUnorderedAgreesWithBoxedEvaluator() {
+        Random random = new Random(5647382910L);
+        for (int i = 0; i < 5000; i++) {
+            String scenario = givenRandomScenario(random);
+            assertAgreement(scenario, new PrimitiveContentUnorderedEvaluator(Collections.emptySet(), distance, maxScore, termOffsetMap, terms),
+                            new ContentUnorderedEvaluator(Collections.emptySet(), distance, maxScore, boxedTermOffsetMap, terms));
+        }
+    }
+
+    /**
+     * Populate both term offset maps with random offsets for up to four terms drawn from three values, so that repeated terms, skips, scores, and zero offset
+     * matching are all exercised
+     *
+     * @return a description of the scenario for assertion messages
+     */
+    private String givenRandomScenario(Random random) {
+        setup();
+        givenField("CONTENT");
+        givenDistance(random.nextInt(4));
+        givenExcerptFields("CONTENT");
+        if (random.nextBoolean()) {
+            // accepts scores up to 50
+            maxScore = -0.000005f;
+        }
+
+        String[] phrase = new String[2 + random.nextInt(3)];
+        for (int i = 0; i < phrase.length; i++) {
+            phrase[i] = String.valueOf((char) ('a' + random.nextInt(3)));
+        }
+        givenTerms(phrase);
+
+        StringBuilder scenario = new StringBuilder("terms=").append(Arrays.toString(phrase)).append(", distance=").append(distance).append(", maxScore=")
+                        .append(maxScore);
+        for (String term : new HashSet<>(Arrays.asList(phrase))) {
+            TermWeight.Info.Builder builder = TermWeight.Info.newBuilder();
+            boolean skips = random.nextBoolean();
+            boolean scores = random.nextBoolean();
+            int count = 1 + random.nextInt(6);
+            for (int i = 0; i < count; i++) {
+                builder.addTermOffset(random.nextInt(25));
+                if (skips) {
+                    builder.addPrevSkips(random.nextInt(3));
+                }
+                if (scores) {
+                    builder.addScore(random.nextInt(100));
+                }
+            }
+            builder.setZeroOffsetMatch(random.nextBoolean());
+            TermWeight.Info info = builder.build();
+            givenTermInfo(term, info);
+            scenario.append(", ").append(term).append("={offsets=").append(info.getTermOffsetList()).append(", skips=").append(info.getPrevSkipsList())
+                            .append(", scores=").append(info.getScoreList()).append(", zeroOffsetMatch=").append(info.getZeroOffsetMatch()).append('}');
+        }
+        return scenario.toString();
+    }
+
+    private void givenField(String field) {
+        this.field = field;
+    }
+
+    private void givenDistance(int distance) {
+        this.distance = distance;
+    }
+
+    private void givenTerms(String... terms) {
+        this.terms = terms;
+    }
+
+    private void givenOffsets(int... offsets) {
+        givenOffsetsWithSkips(offsets, null);
+    }
+
+    private void givenOffsetsWithSkips(int[] offsets, int[] skips) {
+        TermWeight.Info.Builder builder = TermWeight.Info.newBuilder();
+        for (int i = 0; i < offsets.length; i++) {
+            builder.addTermOffset(offsets[i]);
+            if (skips != null) {
+                builder.addPrevSkips(skips[i]);
+            }
+        }
+
+        givenTermInfo(terms[termIndex++], builder.build());
+    }
+
+    /**
+     * Add the offsets for a term to the primitive term offset map as encoded bytes, and to the boxed term offset map as they are parsed by the
+     * TermOffsetPopulator
+     */
+    private void givenTermInfo(String term, TermWeight.Info info) {
+        TermFrequencyList.Zone zone = new TermFrequencyList.Zone(field, true, EVENT_ID);
+
+        PrimitiveTermFrequencyList list = new PrimitiveTermFrequencyList();
+        list.addEncodedOffsets(zone, info.toByteArray());
+        termOffsetMap.putPrimitiveTermFrequencyList(term, list);
+
+        TreeMultimap<TermFrequencyList.Zone,TermWeightPosition> offsets = TreeMultimap.create();
+        TermWeightPosition.Builder position = new TermWeightPosition.Builder();
+        for (int i = 0; i < info.getTermOffsetCount(); i++) {
+            position.setTermWeightOffsetInfo(info, i);
+            offsets.put(zone, position.build());
+            position.reset();
+        }
+        boxedTermOffsetMap.putTermFrequencyList(term, new TermFrequencyList(offsets));
+    }
+
+    private void givenExcerptFields(String... fields) {
+        termOffsetMap.setExcerptFields(Sets.newHashSet(fields));
+        boxedTermOffsetMap.setExcerptFields(Sets.newHashSet(fields));
+    }
+
+    private void assertOrdered(boolean expected) {
+        String scenario = "terms=" + Arrays.toString(terms) + ", distance=" + distance;
+        Collection<String> hits = assertAgreement(scenario,
+                        new PrimitiveContentOrderedEvaluator(Collections.emptySet(), distance, maxScore, termOffsetMap, terms),
+                        new ContentOrderedEvaluator(Collections.emptySet(), distance, maxScore, boxedTermOffsetMap, terms));
+        Assert.assertEquals("Expected evaluate() to return " + expected, expected, hits.contains(field));
+    }
+
+    private void assertUnordered(boolean expected) {
+        String scenario = "terms=" + Arrays.toString(terms) + ", distance=" + distance;
+        Collection<String> hits = assertAgreement(scenario,
+                        new PrimitiveContentUnorderedEvaluator(Collections.emptySet(), distance, maxScore, termOffsetMap, terms),
+                        new ContentUnorderedEvaluator(Collections.emptySet(), distance, maxScore, boxedTermOffsetMap, terms));
+        Assert.assertEquals("Expected evaluate() to return " + expected, expected, hits.contains(field));
+    }
+
+    /**
+     * Evaluate the same scenario with the primitive and the boxed evaluator, asserting that they return the same hits and record the same phrase offsets
+     *
+     * @return the hits of the primitive evaluator
+     */
+    private Collection<String> assertAgreement(String scenario, PrimitiveContentFunctionEvaluator primitive, ContentFunctionEvaluator boxed) {
+        Collection<String> hits = primitive.evaluate();
+        Assert.assertEquals("Primitive and boxed hits differ for " + scenario, new HashSet<>(boxed.evaluate()), new HashSet<>(hits));
+        Assert.assertEquals("Primitive and boxed phrase offsets differ for " + scenario, getPhraseOffsets(boxedTermOffsetMap), getPhraseOffsets(termOffsetMap));
+        return hits;
+    }
+
+    private Set<Triplet<String,Integer,Integer>> getPhraseOffsets(TermOffsetMap map) {
+        Collection<Triplet<String,Integer,Integer>> phraseOffsets = map.getPhraseIndexes(field);
+        return phraseOffsets == null ? Collections.emptySet() : new HashSet<>(phraseOffsets);
+    }
+
+    private void assertPhraseOffsetsContain(String field, int startOffset, int endOffset) {
+        Collection<Triplet<String,Integer,Integer>> phraseOffsets = termOffsetMap.getPhraseIndexes(field);
+        boolean found = phraseOffsets.stream().anyMatch(
+                        (triplet) -> triplet.getValue0().equals(EVENT_ID) && triplet.getValue1().equals(startOffset) && triplet.getValue2().equals(endOffset));
+        Assert.assertTrue("Expected phrase offset [" + startOffset + ", " + endOffset + "] for field " + field, found);
+    }
+
+    private void assertPhraseOffsetsEmpty() {
+        Assert.assertTrue("Expected empty phrase offset map", termOffsetMap.getPhraseIndexes() == null || termOffsetMap.getPhraseIndexes().isEmpty());
+    }
+}
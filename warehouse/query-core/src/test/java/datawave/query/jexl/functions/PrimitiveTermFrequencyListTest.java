@@ -0,0 +1,140 @@
+package datawave.query.jexl.functions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+import datawave.ingest.protobuf.TermWeight;
+import datawave.ingest.protobuf.TermWeightPosition;
+
+public class PrimitiveTermFrequencyListTest {
+
+    private static final String EVENT_ID = "shard\u0000dt\u0000uid";
+    private static final TermFrequencyList.Zone ZONE = new TermFrequencyList.Zone("CONTENT", true, EVENT_ID);
+
+    @Test
+    public void testDecodeOnLookup() {
+        PrimitiveTermFrequencyList list = new PrimitiveTermFrequencyList();
+        list.addEncodedOffsets(ZONE, encode(new int[] {1, 5, 9}, null, null));
+
+        assertFalse(list.isEmpty());
+        assertEquals(Collections.singleton("CONTENT"), list.fields());
+        assertEquals(Collections.singleton(EVENT_ID), list.eventIds());
+
+        // zones are only decoded once their positions are requested
+        PrimitiveTermFrequencyList.Positions positions = list.getPositions(ZONE);
+        assertTrue(positions.isDecoded());
+        assertEquals(3, positions.size());
+
+        assertEquals(1, positions.offset(0));
+        assertEquals(5, positions.offset(1));
+        assertEquals(9, positions.offset(2));
+        assertEquals(9, positions.maxOffset());
+        assertEquals(0, positions.maxSkips());
+    }
+
+    @Test
+    public void testUnknownZone() {
+        PrimitiveTermFrequencyList list = new PrimitiveTermFrequencyList();
+        list.addEncodedOffsets(ZONE, encode(new int[] {1}, null, null));
+
+        assertNull(list.getPositions(new TermFrequencyList.Zone("BODY", true, EVENT_ID)));
+    }
+
+    @Test
+    public void testMultipleValuesAreMergedAndSorted() {
+        PrimitiveTermFrequencyList list = new PrimitiveTermFrequencyList();
+        list.addEncodedOffsets(ZONE, encode(new int[] {10, 20}, null, null));
+        list.addEncodedOffsets(ZONE, encode(new int[] {3, 10, 15}, null, null));
+
+        PrimitiveTermFrequencyList.Positions positions = list.getPositions(ZONE);
+        // the duplicate position is dropped, as it would be by the TreeMultimap of a TermFrequencyList
+        assertEquals(4, positions.size());
+        assertEquals(3, positions.offset(0));
+        assertEquals(10, positions.offset(1));
+        assertEquals(15, positions.offset(2));
+        assertEquals(20, positions.offset(3));
+    }
+
+    @Test
+    public void testSkipsOrderByLowOffset() {
+        PrimitiveTermFrequencyList list = new PrimitiveTermFrequencyList();
+        list.addEncodedOffsets(ZONE, encode(new int[] {4, 5, 9}, new int[] {0, 3, 0}, new int[] {7, 8, 9}));
+
+        PrimitiveTermFrequencyList.Positions positions = list.getPositions(ZONE);
+        assertEquals(3, positions.size());
+
+        // offset 5 with 3 skips has a low offset of 2 and sorts first
+        assertEquals(5, positions.offset(0));
+        assertEquals(2, positions.lowOffset(0));
+        assertEquals(8, positions.score(0));
+        assertEquals(4, positions.offset(1));
+        assertEquals(7, positions.score(1));
+        assertEquals(3, positions.maxSkips());
+    }
+
+    @Test
+    public void testGallop() {
+        PrimitiveTermFrequencyList list = new PrimitiveTermFrequencyList();
+        int[] offsets = new int[100];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = i * 2;
+        }
+        list.addEncodedOffsets(ZONE, encode(offsets, null, null));
+
+        PrimitiveTermFrequencyList.Positions positions = list.getPositions(ZONE);
+        assertEquals(0, positions.gallop(0, 0, 0));
+        assertEquals(21, positions.gallop(0, 41, 41));
+        assertEquals(21, positions.gallop(21, 42, 42));
+        assertEquals(100, positions.gallop(0, 199, 199));
+        assertEquals(50, positions.gallopLowOffset(10, 99));
+    }
+
+    @Test
+    public void testAddAfterDecode() {
+        PrimitiveTermFrequencyList list = new PrimitiveTermFrequencyList();
+        list.addEncodedOffsets(ZONE, encode(new int[] {1}, null, null));
+        list.getPositions(ZONE).size();
+
+        assertThrows(IllegalStateException.class, () -> list.addEncodedOffsets(ZONE, encode(new int[] {2}, null, null)));
+    }
+
+    @Test
+    public void testToTermFrequencyList() {
+        PrimitiveTermFrequencyList list = new PrimitiveTermFrequencyList();
+        list.addEncodedOffsets(ZONE, encode(new int[] {2, 6}, new int[] {1, 0}, null));
+
+        TermFrequencyList tfList = list.toTermFrequencyList();
+        assertEquals(Sets.newHashSet("CONTENT"), tfList.fields());
+        List<TermWeightPosition> offsets = new ArrayList<>(tfList.fetchOffsets().get(ZONE));
+        assertEquals(2, offsets.size());
+        assertEquals(2, offsets.get(0).getOffset());
+        assertEquals(1, offsets.get(0).getPrevSkips());
+        assertEquals(6, offsets.get(1).getOffset());
+        assertEquals(0, offsets.get(1).getPrevSkips());
+    }
+
+    private static byte[] encode(int[] offsets, int[] skips, int[] scores) {
+        TermWeight.Info.Builder builder = TermWeight.Info.newBuilder();
+        for (int i = 0; i < offsets.length; i++) {
+            builder.addTermOffset(offsets[i]);
+            if (skips != null) {
+                builder.addPrevSkips(skips[i]);
+            }
+            if (scores != null) {
+                builder.addScore(scores[i]);
+            }
+        }
+        return builder.build().toByteArray();
+    }
+}
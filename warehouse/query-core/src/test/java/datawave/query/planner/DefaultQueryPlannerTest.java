@@ -0,0 +1,67 @@
+package datawave.query.planner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.junit.Before;
+import org.junit.Test;
+
+import datawave.query.config.ShardQueryConfiguration;
+import datawave.query.iterator.QueryIterator;
+import datawave.query.iterator.QueryOptions;
+
+public class DefaultQueryPlannerTest {
+
+    private DefaultQueryPlanner planner;
+    private ShardQueryConfiguration config;
+    private IteratorSetting cfg;
+
+    @Before
+    public void setup() {
+        planner = new DefaultQueryPlanner();
+        config = ShardQueryConfiguration.create();
+        config.setTableName("shard");
+        config.setLoadAwareYieldThresholdMs(500L);
+        config.setSystemLoadThreshold(1.5d);
+        config.setInteractiveScanTypes(Set.of("interactive"));
+        cfg = new IteratorSetting(100, QueryIterator.class);
+    }
+
+    @Test
+    public void testLoadAwareYieldIsConfigured() {
+        planner.configureLoadAwareYield(config, cfg);
+        assertFalse(planner.isInteractiveScan(config));
+        assertEquals("500", cfg.getOptions().get(QueryOptions.LOAD_AWARE_YIELD_THRESHOLD_MS));
+        assertEquals("1.5", cfg.getOptions().get(QueryOptions.SYSTEM_LOAD_THRESHOLD));
+    }
+
+    @Test
+    public void testLoadAwareYieldIsConfiguredForOtherScanTypes() {
+        config.setTableHints(Collections.singletonMap("shard", Collections.singletonMap(DefaultQueryPlanner.SCAN_TYPE_HINT, "batch")));
+        planner.configureLoadAwareYield(config, cfg);
+        assertFalse(planner.isInteractiveScan(config));
+        assertEquals("500", cfg.getOptions().get(QueryOptions.LOAD_AWARE_YIELD_THRESHOLD_MS));
+    }
+
+    @Test
+    public void testInteractiveScansAreNeverSliced() {
+        config.setTableHints(Collections.singletonMap("shard", Collections.singletonMap(DefaultQueryPlanner.SCAN_TYPE_HINT, "interactive")));
+        planner.configureLoadAwareYield(config, cfg);
+        assertTrue(planner.isInteractiveScan(config));
+        assertNull(cfg.getOptions().get(QueryOptions.LOAD_AWARE_YIELD_THRESHOLD_MS));
+        assertNull(cfg.getOptions().get(QueryOptions.SYSTEM_LOAD_THRESHOLD));
+    }
+
+    @Test
+    public void testLoadAwareYieldIsNotConfiguredByDefault() {
+        config.setLoadAwareYieldThresholdMs(Long.MAX_VALUE);
+        planner.configureLoadAwareYield(config, cfg);
+        assertNull(cfg.getOptions().get(QueryOptions.LOAD_AWARE_YIELD_THRESHOLD_MS));
+    }
+}
@@ -126,6 +126,17 @@ public class ActiveQueryLogTest {
         assertNotSame(secondInstance, ActiveQueryLog.getInstance());
     }
 
+    // Verify pruned ranges are recorded with the active query.
+    @Test
+    public void testPrunedRangeCount() {
+        ActiveQuery activeQuery = ActiveQueryLog.getInstance("pruned").get(createQueryId());
+        Assert.assertEquals(0, activeQuery.snapshot().getPrunedRangeCount());
+        activeQuery.prunedRange();
+        activeQuery.prunedRange();
+        Assert.assertEquals(2, activeQuery.snapshot().getPrunedRangeCount());
+        Assert.assertTrue(activeQuery.toString().contains("pruned=2 "));
+    }
+
     @Test
     public void testThreadSafety() {
 
@@ -0,0 +1,113 @@
+package datawave.query.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.iterators.Combiner;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.hadoop.io.Text;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+
+import datawave.accumulo.inmemory.InMemoryAccumuloClient;
+import datawave.accumulo.inmemory.InMemoryInstance;
+import datawave.ingest.metadata.FieldSketch;
+import datawave.ingest.metadata.MetadataSketchGroup;
+import datawave.iterators.FieldSketchCombiner;
+import datawave.util.TableName;
+import datawave.util.time.DateHelper;
+
+public class FieldSketchHelperTest {
+
+    private static final Set<Authorizations> AUTHS = Collections.singleton(new Authorizations());
+
+    private static AccumuloClient client;
+    private static FieldSketchHelper helper;
+
+    @BeforeClass
+    public static void setup() throws Exception {
+        client = new InMemoryAccumuloClient("root", new InMemoryInstance(FieldSketchHelperTest.class.getName()));
+        client.tableOperations().create(TableName.METADATA);
+
+        // combine the sketches of each field, datatype and day as the metadata table config helper does
+        IteratorSetting setting = new IteratorSetting(16, "FieldSketchCombiner", FieldSketchCombiner.class);
+        Combiner.setColumns(setting, Collections.singletonList(new IteratorSetting.Column(FieldSketch.COLF_FS)));
+        client.tableOperations().attachIterator(TableName.METADATA, setting);
+
+        // two ingest jobs write sketches for the same datatype and day, and a third for another datatype and day
+        write(sketches("dt1", "20240101", "a", "b", "c", "a"));
+        write(sketches("dt1", "20240101", "a", "d"));
+        write(sketches("dt2", "20240105", "e", "a"));
+
+        helper = new FieldSketchHelper(client, TableName.METADATA, AUTHS);
+    }
+
+    private static MetadataSketchGroup sketches(String dataType, String date, String... values) {
+        MetadataSketchGroup group = new MetadataSketchGroup(FieldSketch.COLF_FS);
+        for (String value : values) {
+            group.offer(value, dataType, "NAME", date);
+        }
+        return group;
+    }
+
+    private static void write(MetadataSketchGroup group) throws Exception {
+        try (BatchWriter writer = client.createBatchWriter(TableName.METADATA, new BatchWriterConfig())) {
+            for (MetadataSketchGroup.Components entry : group.getEntries()) {
+                Mutation m = new Mutation(entry.getRowId());
+                m.put(group.getColumnFamily(), new Text(entry.getDataType() + "\0" + entry.getDate()), new ColumnVisibility(),
+                                DateHelper.parse(entry.getDate()).getTime(), entry.getSketch().toValue());
+                writer.addMutation(m);
+            }
+        }
+    }
+
+    @Test
+    public void testSketchesAreCombined() throws Exception {
+        try (Scanner scanner = client.createScanner(TableName.METADATA, new Authorizations())) {
+            scanner.fetchColumnFamily(FieldSketch.COLF_FS);
+            assertEquals(2, Iterables.size(scanner));
+        }
+    }
+
+    @Test
+    public void testAllDates() throws Exception {
+        FieldSketch sketch = helper.getFieldSketch("NAME", Collections.emptySet(), DateHelper.parse("20240101"), DateHelper.parse("20240131"));
+        assertEquals(5, sketch.getCardinality());
+        assertEquals(List.of("a"), List.copyOf(sketch.getTopValues(1).keySet()));
+        assertEquals(4L, sketch.getTopValues(1).get("a").longValue());
+    }
+
+    @Test
+    public void testDateRange() throws Exception {
+        assertEquals(Map.of("NAME", 4L),
+                        helper.getCardinalitiesForFieldsInDateRange(List.of("NAME"), null, DateHelper.parse("20240101"), DateHelper.parse("20240102")));
+        assertEquals(Map.of("a", 3L), helper.getTopValuesForFieldInDateRange("NAME", null, DateHelper.parse("20240101"), DateHelper.parse("20240102"), 1));
+
+        // no sketches were written in the range
+        assertNull(helper.getFieldSketch("NAME", null, DateHelper.parse("20240102"), DateHelper.parse("20240104")));
+        assertTrue(helper.getCardinalitiesForFieldsInDateRange(List.of("NAME"), null, DateHelper.parse("20240102"), DateHelper.parse("20240104")).isEmpty());
+    }
+
+    @Test
+    public void testDatatypes() throws Exception {
+        Map<String,Long> cardinalities = helper.getCardinalitiesForFieldsInDateRange(List.of("NAME"), Set.of("dt2"), DateHelper.parse("20240101"),
+                        DateHelper.parse("20240131"));
+        assertEquals(Map.of("NAME", 2L), cardinalities);
+        assertTrue(helper.getTopValuesForFieldInDateRange("OTHER", null, DateHelper.parse("20240101"), DateHelper.parse("20240131"), 1).isEmpty());
+    }
+}